@@ -0,0 +1,118 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+package org.elasticsearch.benchmark.blobstore;
+
+import org.elasticsearch.common.blobstore.BlobPath;
+import org.elasticsearch.common.blobstore.MultipartUpload;
+import org.elasticsearch.common.blobstore.fs.FsBlobContainer;
+import org.elasticsearch.common.blobstore.fs.FsBlobStore;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.internal.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing a blob to a shared file system repository in a single stream with writing it as a multipart upload whose parts are
+ * written concurrently, as done when snapshotting files that are larger than the multipart upload part size.
+ */
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class FsBlobContainerUploadBenchmark {
+
+    @Param({ "64mb", "512mb" })
+    public String blobSize;
+
+    @Param({ "8mb", "64mb" })
+    public String partSize;
+
+    @Param({ "4" })
+    public int threads;
+
+    private Path path;
+    private FsBlobContainer container;
+    private ExecutorService executor;
+    private byte[] data;
+    private int partBytes;
+    private int blobCount;
+
+    @Setup
+    public void setup() throws IOException {
+        path = Files.createTempDirectory("blobstore");
+        container = new FsBlobContainer(new FsBlobStore(128 * 1024, path, false), BlobPath.cleanPath(), path);
+        executor = Executors.newFixedThreadPool(threads);
+        data = new byte[Math.toIntExact(ByteSizeValue.parseBytesSizeValue(blobSize, "blob_size").getBytes())];
+        new Random(42).nextBytes(data);
+        partBytes = Math.toIntExact(ByteSizeValue.parseBytesSizeValue(partSize, "part_size").getBytes());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        IOUtils.rm(path);
+    }
+
+    @Benchmark
+    public void writeBlob() throws IOException {
+        final String blobName = nextBlobName();
+        container.writeBlob(blobName, new ByteArrayInputStream(data), data.length, false);
+        container.deleteBlobsIgnoringIfNotExists(Collections.singletonList(blobName));
+    }
+
+    @Benchmark
+    public void writeBlobInParts() throws Exception {
+        final String blobName = nextBlobName();
+        final MultipartUpload upload = container.startMultipartUpload(blobName, data.length, false);
+        final List<Future<?>> parts = new ArrayList<>();
+        int partNumber = 0;
+        for (int position = 0; position < data.length; position += partBytes) {
+            final int part = partNumber++;
+            final int offset = position;
+            final int length = Math.min(partBytes, data.length - position);
+            parts.add(executor.submit(() -> {
+                upload.writePart(part, offset, new ByteArrayInputStream(data, offset, length), length);
+                return null;
+            }));
+        }
+        for (Future<?> part : parts) {
+            part.get();
+        }
+        upload.complete();
+        container.deleteBlobsIgnoringIfNotExists(Collections.singletonList(blobName));
+    }
+
+    private String nextBlobName() {
+        return "blob-" + blobCount++;
+    }
+}
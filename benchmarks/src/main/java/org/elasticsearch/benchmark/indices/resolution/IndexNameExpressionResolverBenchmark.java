@@ -0,0 +1,77 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+package org.elasticsearch.benchmark.indices.resolution;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves wildcard expressions against a cluster with many daily indices for a number of applications, such as
+ * {@code logs-app-7-2021.01.01}. The expressions either start with a literal prefix, end with a literal suffix, or have neither.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class IndexNameExpressionResolverBenchmark {
+
+    @Param({ "1000", "20000" })
+    public int indexCount;
+
+    @Param({ "logs-app-7-*", "logs-*-2021.01.01", "*-2021.01.01", "*app-7*" })
+    public String expression;
+
+    private final IndexNameExpressionResolver resolver = new IndexNameExpressionResolver(new ThreadContext(Settings.EMPTY));
+    private ClusterState clusterState;
+
+    @Setup
+    public void setup() {
+        final Metadata.Builder metadata = Metadata.builder();
+        final int apps = 100;
+        for (int i = 0; i < indexCount; i++) {
+            final int day = i / apps;
+            final String name = String.format(Locale.ROOT, "logs-app-%d-2021.%02d.%02d", i % apps, 1 + day / 28 % 12, 1 + day % 28);
+            metadata.put(IndexMetadata.builder(name)
+                .settings(Settings.builder()
+                    .put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT)
+                    .put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1)
+                    .put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, 0)), false);
+        }
+        clusterState = ClusterState.builder(ClusterName.DEFAULT).metadata(metadata).build();
+        // the lookups that are built lazily are built once per cluster state, not for every search
+        resolver.concreteIndexNames(clusterState, IndicesOptions.lenientExpandOpen(), expression);
+    }
+
+    @Benchmark
+    public String[] resolve() {
+        return resolver.concreteIndexNames(clusterState, IndicesOptions.lenientExpandOpen(), expression);
+    }
+}
@@ -16,6 +16,7 @@ import org.elasticsearch.cluster.node.DiscoveryNodes;
 import org.elasticsearch.cluster.routing.RoutingTable;
 import org.elasticsearch.cluster.routing.ShardRoutingState;
 import org.elasticsearch.cluster.routing.allocation.AllocationService;
+import org.elasticsearch.cluster.routing.allocation.allocator.BalancedShardsAllocator;
 import org.elasticsearch.common.settings.Settings;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -95,9 +96,18 @@ public class AllocationBenchmark {
         "       10|     10|        2|    50",
         "      100|      1|        2|    50",
         "      100|      3|        2|    50",
-        "      100|     10|        2|    50" })
+        "      100|     10|        2|    50",
+
+        // large clusters with 20k, 40k and 100k shards in total
+        "     1000|     10|        1|   100",
+        "     2000|     10|        1|   100",
+        "     5000|     10|        1|   100",
+        "     5000|     10|        1|   200" })
     public String indicesShardsReplicasNodes = "10|1|0|1";
 
+    @Param({ "false", "true" })
+    public boolean incremental = false;
+
     public int numTags = 2;
 
     private AllocationService strategy;
@@ -113,7 +123,10 @@ public class AllocationBenchmark {
         int numNodes = toInt(params[3]);
 
         strategy = Allocators.createAllocationService(
-            Settings.builder().put("cluster.routing.allocation.awareness.attributes", "tag").build()
+            Settings.builder()
+                .put("cluster.routing.allocation.awareness.attributes", "tag")
+                .put(BalancedShardsAllocator.INCREMENTAL_SETTING.getKey(), incremental)
+                .build()
         );
 
         Metadata.Builder mb = Metadata.builder();
@@ -0,0 +1,124 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+package org.elasticsearch.benchmark.xcontent;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses the values of synthetic metrics documents, which have the same fields in every document, the way document parsing reads them.
+ * With {@code numbersAsStrings} the metrics are sent as strings, as many shippers do, and {@code parseValuesFromStrings} is the baseline
+ * for {@code parseValues} that parses them from a {@link String} of their text. With metrics sent as numbers both parse them the same.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class BulkSourceParsingBenchmark {
+
+    @Param({ "1000" })
+    public int docCount;
+
+    @Param({ "60" })
+    public int fieldCount;
+
+    @Param({ "false", "true" })
+    public boolean numbersAsStrings;
+
+    private final List<byte[]> sources = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException {
+        final Random random = new Random(42);
+        for (int i = 0; i < docCount; i++) {
+            try (XContentBuilder builder = JsonXContent.contentBuilder()) {
+                builder.startObject();
+                builder.field("@timestamp", 1_600_000_000_000L + i * 1000L);
+                builder.startObject("host").field("name", "host-" + random.nextInt(100)).endObject();
+                builder.startObject("metrics");
+                for (int f = 0; f < fieldCount; f++) {
+                    final long value = random.nextInt(1_000_000);
+                    if (numbersAsStrings) {
+                        builder.field("metric_" + f, Long.toString(value));
+                    } else {
+                        builder.field("metric_" + f, value);
+                    }
+                }
+                builder.endObject();
+                builder.endObject();
+                sources.add(BytesReference.toBytes(BytesReference.bytes(builder)));
+            }
+        }
+    }
+
+    @Benchmark
+    public void parseValues(Blackhole bh) throws IOException {
+        parseValues(bh, true);
+    }
+
+    /**
+     * The baseline, which parses metrics sent as strings from a {@link String} of their text as {@link XContentParser#longValue()} did
+     * before it parsed plain integers from the text characters.
+     */
+    @Benchmark
+    public void parseValuesFromStrings(Blackhole bh) throws IOException {
+        parseValues(bh, false);
+    }
+
+    private void parseValues(Blackhole bh, boolean fromTextCharacters) throws IOException {
+        for (byte[] source : sources) {
+            try (XContentParser parser = createParser(source)) {
+                XContentParser.Token token;
+                while ((token = parser.nextToken()) != null) {
+                    if (token == XContentParser.Token.FIELD_NAME) {
+                        bh.consume(parser.currentName());
+                    } else if (token == XContentParser.Token.VALUE_NUMBER) {
+                        bh.consume(parser.longValue());
+                    } else if (token == XContentParser.Token.VALUE_STRING) {
+                        if (parser.currentName().startsWith("metric_") == false) {
+                            bh.consume(parser.text());
+                        } else if (fromTextCharacters) {
+                            bh.consume(parser.longValue());
+                        } else {
+                            bh.consume(Long.parseLong(parser.text()));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static XContentParser createParser(byte[] source) throws IOException {
+        return JsonXContent.jsonXContent.createParser(NamedXContentRegistry.EMPTY, DeprecationHandler.THROW_UNSUPPORTED_OPERATION,
+            source, 0, source.length);
+    }
+}
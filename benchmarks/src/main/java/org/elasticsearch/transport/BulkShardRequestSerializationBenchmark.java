@@ -0,0 +1,250 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+package org.elasticsearch.transport;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.action.bulk.BulkItemRequest;
+import org.elasticsearch.action.bulk.BulkShardRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.support.WriteRequest;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.FilterStreamInput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.shard.ShardId;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures sending a shard level bulk request over the transport layer, from serializing it into an {@link OutboundMessage} to reading
+ * it back from the {@link InboundMessage} that holds the serialized bytes. Both variants take the same path through the transport
+ * messages. With {@code shared} the document sources go through {@link StreamOutput#writeSharedBytesReference} and
+ * {@link StreamInput#readSharedBytesReference} as in production, otherwise they go through their copying counterparts
+ * {@link StreamOutput#writeBytesReference} and {@link StreamInput#readBytesReference}.
+ *
+ * Besides the time per request, the {@code copiesPerSourceByte} counter reports the number of bytes that were copied into the outbound
+ * message and out of the inbound message per byte of document source. This includes the headers of the message and of every item.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class BulkShardRequestSerializationBenchmark {
+
+    @Param({ "256", "4096", "65536" })
+    public int docSize;
+
+    @Param({ "100" })
+    public int docCount;
+
+    @Param({ "true", "false" })
+    public boolean shared;
+
+    private final ThreadContext threadContext = new ThreadContext(Settings.EMPTY);
+    private BulkShardRequest request;
+    private long sourceBytes;
+
+    @Setup
+    public void setup() {
+        final ShardId shardId = new ShardId("index", "_na_", 0);
+        final char[] value = new char[docSize];
+        Arrays.fill(value, 'a');
+        final BytesReference source = new BytesArray("{\"field\":\"" + new String(value) + "\"}");
+        final BulkItemRequest[] items = new BulkItemRequest[docCount];
+        for (int i = 0; i < docCount; i++) {
+            items[i] = new BulkItemRequest(i, new IndexRequest("index").id(Integer.toString(i)).source(source, XContentType.JSON));
+        }
+        request = new BulkShardRequest(shardId, WriteRequest.RefreshPolicy.NONE, items);
+        sourceBytes = (long) source.length() * docCount;
+    }
+
+    /**
+     * Counts the bytes that are copied into and out of the transport messages, reset for every iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CopiedBytes {
+
+        private long copiedBytes;
+        private long sourceBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            copiedBytes = 0L;
+            sourceBytes = 0L;
+        }
+
+        public double copiesPerSourceByte() {
+            return sourceBytes == 0L ? 0.0 : (double) copiedBytes / sourceBytes;
+        }
+    }
+
+    @Benchmark
+    public BulkShardRequest sendRequest(CopiedBytes copiedBytes) throws IOException {
+        final Version version = Version.CURRENT;
+        final Writeable message = shared ? request : out -> request.writeTo(new CopyingStreamOutput(out));
+        final OutboundMessage.Request outboundMessage =
+            new OutboundMessage.Request(threadContext, new String[0], message, version, "action", 1L, false, false);
+        final CountingBytesStreamOutput bytesStream = new CountingBytesStreamOutput();
+        final BytesReference bytes = outboundMessage.serialize(bytesStream);
+        final int headerSize = TcpHeader.headerSize(version);
+        final Header header = new Header(bytes.length() - 6, 1L, TransportStatus.setRequest((byte) 0), version);
+        try (InboundMessage inboundMessage = new InboundMessage(header,
+            ReleasableBytesReference.wrap(bytes.slice(headerSize, bytes.length() - headerSize)), () -> {})) {
+            final CountingStreamInput in = new CountingStreamInput(inboundMessage.openOrGetStreamInput(), shared);
+            header.finishParsingHeader(in);
+            final BulkShardRequest received = new BulkShardRequest(in);
+            copiedBytes.copiedBytes += bytesStream.copiedBytes + in.copiedBytes;
+            copiedBytes.sourceBytes += sourceBytes;
+            return received;
+        }
+    }
+
+    /**
+     * Counts the bytes that are copied into the pages of the outbound message.
+     */
+    private static class CountingBytesStreamOutput extends BytesStreamOutput {
+
+        private long copiedBytes;
+
+        @Override
+        public void writeByte(byte b) {
+            copiedBytes++;
+            super.writeByte(b);
+        }
+
+        @Override
+        public void writeBytes(byte[] b, int offset, int length) {
+            copiedBytes += length;
+            super.writeBytes(b, offset, length);
+        }
+    }
+
+    /**
+     * Writes shared bytes references like any other bytes reference, i.e. copies them into the stream it delegates to.
+     */
+    private static class CopyingStreamOutput extends StreamOutput {
+
+        private final StreamOutput delegate;
+
+        CopyingStreamOutput(StreamOutput delegate) {
+            this.delegate = delegate;
+            setVersion(delegate.getVersion());
+        }
+
+        @Override
+        public void writeSharedBytesReference(BytesReference bytes) throws IOException {
+            writeBytesReference(bytes);
+        }
+
+        @Override
+        public void writeByte(byte b) throws IOException {
+            delegate.writeByte(b);
+        }
+
+        @Override
+        public void writeBytes(byte[] b, int offset, int length) throws IOException {
+            delegate.writeBytes(b, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() {
+            // the outbound message closes the stream it delegates to
+        }
+
+        @Override
+        public void reset() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Counts the bytes that are copied out of the inbound message, and reads shared bytes references like any other bytes reference,
+     * i.e. copies them, unless {@code shared} is set.
+     */
+    private static class CountingStreamInput extends FilterStreamInput {
+
+        private final boolean shared;
+        private long copiedBytes;
+
+        CountingStreamInput(StreamInput delegate, boolean shared) {
+            super(delegate);
+            this.shared = shared;
+        }
+
+        @Override
+        public BytesReference readSharedBytesReference() throws IOException {
+            return shared ? super.readSharedBytesReference() : readBytesReference();
+        }
+
+        @Override
+        public byte readByte() throws IOException {
+            copiedBytes++;
+            return super.readByte();
+        }
+
+        @Override
+        public void readBytes(byte[] b, int offset, int len) throws IOException {
+            copiedBytes += len;
+            super.readBytes(b, offset, len);
+        }
+
+        @Override
+        public short readShort() throws IOException {
+            copiedBytes += Short.BYTES;
+            return super.readShort();
+        }
+
+        @Override
+        public int readInt() throws IOException {
+            copiedBytes += Integer.BYTES;
+            return super.readInt();
+        }
+
+        @Override
+        public long readLong() throws IOException {
+            copiedBytes += Long.BYTES;
+            return super.readLong();
+        }
+
+        @Override
+        public int read() throws IOException {
+            copiedBytes++;
+            return super.read();
+        }
+    }
+}
@@ -73,4 +73,22 @@ public interface XContent {
      */
     XContentParser createParser(NamedXContentRegistry xContentRegistry,
             DeprecationHandler deprecationHandler, Reader reader) throws IOException;
+
+    /**
+     * Creates a parser over the provided input stream that only returns the fields matching some inclusive and/or exclusive filters,
+     * skipping over the rest of the content without materializing it. Field names that contain dots are matched against the filters as
+     * if they were expanded into objects. If nothing matches the filters, the parser returns no token at all.
+     *
+     * @param includes the inclusive filters, or an empty set to include everything
+     * @param excludes the exclusive filters, or an empty set to exclude nothing
+     */
+    XContentParser createParser(NamedXContentRegistry xContentRegistry, DeprecationHandler deprecationHandler, InputStream is,
+                                Set<String> includes, Set<String> excludes) throws IOException;
+
+    /**
+     * Creates a parser over the provided bytes that only returns the fields matching some inclusive and/or exclusive filters, see
+     * {@link #createParser(NamedXContentRegistry, DeprecationHandler, InputStream, Set, Set)}.
+     */
+    XContentParser createParser(NamedXContentRegistry xContentRegistry, DeprecationHandler deprecationHandler, byte[] data, int offset,
+                                int length, Set<String> includes, Set<String> excludes) throws IOException;
 }
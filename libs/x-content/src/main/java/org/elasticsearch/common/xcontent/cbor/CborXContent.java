@@ -20,6 +20,7 @@ import org.elasticsearch.common.xcontent.XContentGenerator;
 import org.elasticsearch.common.xcontent.XContentParseException;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.json.JsonXContentParser;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -96,4 +97,17 @@ public class CborXContent implements XContent {
         return new CborXContentParser(xContentRegistry, deprecationHandler, cborFactory.createParser(reader));
     }
 
+    @Override
+    public XContentParser createParser(NamedXContentRegistry xContentRegistry, DeprecationHandler deprecationHandler, InputStream is,
+                                       Set<String> includes, Set<String> excludes) throws IOException {
+        return new CborXContentParser(xContentRegistry, deprecationHandler,
+            JsonXContentParser.filter(cborFactory.createParser(is), includes, excludes));
+    }
+
+    @Override
+    public XContentParser createParser(NamedXContentRegistry xContentRegistry, DeprecationHandler deprecationHandler, byte[] data,
+                                       int offset, int length, Set<String> includes, Set<String> excludes) throws IOException {
+        return new CborXContentParser(xContentRegistry, deprecationHandler,
+            JsonXContentParser.filter(cborFactory.createParser(data, offset, length), includes, excludes));
+    }
 }
@@ -96,4 +96,18 @@ public class JsonXContent implements XContent {
             DeprecationHandler deprecationHandler, Reader reader) throws IOException {
         return new JsonXContentParser(xContentRegistry, deprecationHandler, jsonFactory.createParser(reader));
     }
+
+    @Override
+    public XContentParser createParser(NamedXContentRegistry xContentRegistry, DeprecationHandler deprecationHandler, InputStream is,
+                                       Set<String> includes, Set<String> excludes) throws IOException {
+        return new JsonXContentParser(xContentRegistry, deprecationHandler,
+            JsonXContentParser.filter(jsonFactory.createParser(is), includes, excludes));
+    }
+
+    @Override
+    public XContentParser createParser(NamedXContentRegistry xContentRegistry, DeprecationHandler deprecationHandler, byte[] data,
+                                       int offset, int length, Set<String> includes, Set<String> excludes) throws IOException {
+        return new JsonXContentParser(xContentRegistry, deprecationHandler,
+            JsonXContentParser.filter(jsonFactory.createParser(data, offset, length), includes, excludes));
+    }
 }
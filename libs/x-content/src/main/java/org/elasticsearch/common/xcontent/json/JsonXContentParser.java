@@ -11,15 +11,19 @@ package org.elasticsearch.common.xcontent.json;
 import com.fasterxml.jackson.core.JsonLocation;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
 import org.elasticsearch.common.xcontent.DeprecationHandler;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
 import org.elasticsearch.common.xcontent.XContentLocation;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.common.xcontent.support.AbstractXContentParser;
+import org.elasticsearch.common.xcontent.support.filtering.FilterPathBasedFilter;
 import org.elasticsearch.core.internal.io.IOUtils;
 
 import java.io.IOException;
 import java.nio.CharBuffer;
+import java.util.Objects;
+import java.util.Set;
 
 public class JsonXContentParser extends AbstractXContentParser {
 
@@ -31,6 +35,23 @@ public class JsonXContentParser extends AbstractXContentParser {
         this.parser = parser;
     }
 
+    /**
+     * Wraps a parser so that it only returns the fields that match the given filters. Like for generators, the exclusive filters are
+     * applied first and the remaining fields are then checked against the inclusive filters.
+     */
+    public static JsonParser filter(JsonParser parser, Set<String> includes, Set<String> excludes) {
+        Objects.requireNonNull(includes, "Including filters must not be null");
+        Objects.requireNonNull(excludes, "Excluding filters must not be null");
+        JsonParser filtered = parser;
+        if (excludes.isEmpty() == false) {
+            filtered = new FilteringParserDelegate(filtered, new FilterPathBasedFilter(excludes, false, true), true, true);
+        }
+        if (includes.isEmpty() == false) {
+            filtered = new FilteringParserDelegate(filtered, new FilterPathBasedFilter(includes, true, true), true, true);
+        }
+        return filtered;
+    }
+
     @Override
     public XContentType contentType() {
         return XContentType.JSON;
@@ -120,6 +141,11 @@ public class JsonXContentParser extends AbstractXContentParser {
         return parser.hasTextCharacters();
     }
 
+    @Override
+    protected boolean canParseNumbersFromTextCharacters() {
+        return parser.hasTextCharacters();
+    }
+
     @Override
     public char[] textCharacters() throws IOException {
         return parser.getTextCharacters();
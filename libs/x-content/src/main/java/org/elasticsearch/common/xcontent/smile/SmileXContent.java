@@ -20,6 +20,7 @@ import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentGenerator;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.json.JsonXContentParser;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -97,4 +98,18 @@ public class SmileXContent implements XContent {
             DeprecationHandler deprecationHandler, Reader reader) throws IOException {
         return new SmileXContentParser(xContentRegistry, deprecationHandler, smileFactory.createParser(reader));
     }
+
+    @Override
+    public XContentParser createParser(NamedXContentRegistry xContentRegistry, DeprecationHandler deprecationHandler, InputStream is,
+                                       Set<String> includes, Set<String> excludes) throws IOException {
+        return new SmileXContentParser(xContentRegistry, deprecationHandler,
+            JsonXContentParser.filter(smileFactory.createParser(is), includes, excludes));
+    }
+
+    @Override
+    public XContentParser createParser(NamedXContentRegistry xContentRegistry, DeprecationHandler deprecationHandler, byte[] data,
+                                       int offset, int length, Set<String> includes, Set<String> excludes) throws IOException {
+        return new SmileXContentParser(xContentRegistry, deprecationHandler,
+            JsonXContentParser.filter(smileFactory.createParser(data, offset, length), includes, excludes));
+    }
 }
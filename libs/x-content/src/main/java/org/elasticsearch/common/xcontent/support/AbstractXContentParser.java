@@ -44,6 +44,9 @@ public abstract class AbstractXContentParser implements XContentParser {
         }
     }
 
+    // the maximum number of digits of integers that are parsed from the text characters of a string, any such integer fits into a long
+    private static final int MAX_INTEGER_TEXT_DIGITS = 18;
+
     private final NamedXContentRegistry xContentRegistry;
     private final DeprecationHandler deprecationHandler;
 
@@ -68,6 +71,50 @@ public abstract class AbstractXContentParser implements XContentParser {
         }
     }
 
+    /**
+     * Whether the text of the current string value can be read through {@link #textCharacters()} without creating a {@link String},
+     * which allows numbers that are sent as strings to be parsed from the characters directly.
+     */
+    protected boolean canParseNumbersFromTextCharacters() {
+        return false;
+    }
+
+    /**
+     * Whether the current string value is a plain integer, an optional minus sign followed by up to 18 digits, that
+     * {@link #integerText()} can parse without creating a {@link String}.
+     */
+    private boolean isIntegerText() throws IOException {
+        if (canParseNumbersFromTextCharacters() == false) {
+            return false;
+        }
+        final char[] chars = textCharacters();
+        final int end = textOffset() + textLength();
+        int i = textOffset();
+        if (i < end && chars[i] == '-') {
+            i++;
+        }
+        if (end - i < 1 || end - i > MAX_INTEGER_TEXT_DIGITS) {
+            return false;
+        }
+        for (; i < end; i++) {
+            if (chars[i] < '0' || chars[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long integerText() throws IOException {
+        final char[] chars = textCharacters();
+        final int end = textOffset() + textLength();
+        final boolean negative = chars[textOffset()] == '-';
+        long value = 0;
+        for (int i = negative ? textOffset() + 1 : textOffset(); i < end; i++) {
+            value = value * 10 + (chars[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
     @Override
     public boolean isBooleanValue() throws IOException {
         switch (currentToken()) {
@@ -102,7 +149,7 @@ public abstract class AbstractXContentParser implements XContentParser {
         if (token == Token.VALUE_STRING) {
             checkCoerceString(coerce, Short.class);
 
-            double doubleValue = Double.parseDouble(text());
+            double doubleValue = isIntegerText() ? integerText() : Double.parseDouble(text());
 
             if (doubleValue < Short.MIN_VALUE || doubleValue > Short.MAX_VALUE) {
                 throw new IllegalArgumentException("Value [" + text() + "] is out of range for a short");
@@ -127,7 +174,7 @@ public abstract class AbstractXContentParser implements XContentParser {
         Token token = currentToken();
         if (token == Token.VALUE_STRING) {
             checkCoerceString(coerce, Integer.class);
-            double doubleValue = Double.parseDouble(text());
+            double doubleValue = isIntegerText() ? integerText() : Double.parseDouble(text());
 
             if (doubleValue < Integer.MIN_VALUE || doubleValue > Integer.MAX_VALUE) {
                 throw new IllegalArgumentException("Value [" + text() + "] is out of range for an integer");
@@ -190,6 +237,9 @@ public abstract class AbstractXContentParser implements XContentParser {
         Token token = currentToken();
         if (token == Token.VALUE_STRING) {
             checkCoerceString(coerce, Long.class);
+            if (isIntegerText()) {
+                return integerText();
+            }
             return toLong(text(), coerce);
         }
         long result = doLongValue();
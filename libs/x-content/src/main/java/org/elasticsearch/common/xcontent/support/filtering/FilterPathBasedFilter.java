@@ -34,18 +34,33 @@ public class FilterPathBasedFilter extends TokenFilter {
 
     private final boolean inclusive;
 
+    private final boolean matchFieldNamesWithDots;
+
     public FilterPathBasedFilter(FilterPath[] filters, boolean inclusive) {
+        this(filters, inclusive, false);
+    }
+
+    /**
+     * @param matchFieldNamesWithDots whether a property name that contains dots, like {@code "a.b"}, should also match the filters as if
+     *                                it was an object {@code "a"} holding a property {@code "b"}, which is how mappings treat such names
+     */
+    public FilterPathBasedFilter(FilterPath[] filters, boolean inclusive, boolean matchFieldNamesWithDots) {
         if (filters == null || filters.length == 0) {
             throw new IllegalArgumentException("filters cannot be null or empty");
         }
         this.inclusive = inclusive;
         this.filters = filters;
+        this.matchFieldNamesWithDots = matchFieldNamesWithDots;
     }
 
     public FilterPathBasedFilter(Set<String> filters, boolean inclusive) {
         this(FilterPath.compile(filters), inclusive);
     }
 
+    public FilterPathBasedFilter(Set<String> filters, boolean inclusive, boolean matchFieldNamesWithDots) {
+        this(FilterPath.compile(filters), inclusive, matchFieldNamesWithDots);
+    }
+
     /**
      * Evaluates if a property name matches one of the given filter paths.
      */
@@ -71,16 +86,40 @@ public class FilterPathBasedFilter extends TokenFilter {
             }
 
             if ((nextFilters != null) && (nextFilters.isEmpty() == false)) {
-                return new FilterPathBasedFilter(nextFilters.toArray(new FilterPath[nextFilters.size()]), inclusive);
+                return new FilterPathBasedFilter(nextFilters.toArray(new FilterPath[nextFilters.size()]), inclusive,
+                    matchFieldNamesWithDots);
             }
         }
         return NO_MATCHING;
     }
 
+    /**
+     * Evaluates a property name that contains dots one segment at a time, as if each segment was a nested object.
+     */
+    private TokenFilter evaluateSegments(String name) {
+        TokenFilter filter = this;
+        int start = 0;
+        while (start <= name.length()) {
+            int end = name.indexOf('.', start);
+            if (end < 0) {
+                end = name.length();
+            }
+            filter = evaluate(name.substring(start, end), ((FilterPathBasedFilter) filter).filters);
+            if (filter == MATCHING || filter == NO_MATCHING) {
+                return filter;
+            }
+            start = end + 1;
+        }
+        return filter;
+    }
+
 
     @Override
     public TokenFilter includeProperty(String name) {
         TokenFilter filter = evaluate(name, filters);
+        if (filter == NO_MATCHING && matchFieldNamesWithDots && name.indexOf('.') >= 0) {
+            filter = evaluateSegments(name);
+        }
         if (filter == MATCHING) {
             return inclusive ? TokenFilter.INCLUDE_ALL : null;
         }
@@ -18,6 +18,7 @@ import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentGenerator;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.json.JsonXContentParser;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -90,4 +91,18 @@ public class YamlXContent implements XContent {
             DeprecationHandler deprecationHandler, Reader reader) throws IOException {
         return new YamlXContentParser(xContentRegistry, deprecationHandler, yamlFactory.createParser(reader));
     }
+
+    @Override
+    public XContentParser createParser(NamedXContentRegistry xContentRegistry, DeprecationHandler deprecationHandler, InputStream is,
+                                       Set<String> includes, Set<String> excludes) throws IOException {
+        return new YamlXContentParser(xContentRegistry, deprecationHandler,
+            JsonXContentParser.filter(yamlFactory.createParser(is), includes, excludes));
+    }
+
+    @Override
+    public XContentParser createParser(NamedXContentRegistry xContentRegistry, DeprecationHandler deprecationHandler, byte[] data,
+                                       int offset, int length, Set<String> includes, Set<String> excludes) throws IOException {
+        return new YamlXContentParser(xContentRegistry, deprecationHandler,
+            JsonXContentParser.filter(yamlFactory.createParser(data, offset, length), includes, excludes));
+    }
 }
@@ -9,6 +9,7 @@
 package org.elasticsearch.common.xcontent;
 
 import com.fasterxml.jackson.core.JsonParseException;
+import org.elasticsearch.common.CheckedFunction;
 import org.elasticsearch.common.CheckedSupplier;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.bytes.BytesReference;
@@ -16,6 +17,7 @@ import org.elasticsearch.common.xcontent.json.JsonXContent;
 import org.elasticsearch.test.ESTestCase;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -82,6 +84,51 @@ public class XContentParserTests extends ESTestCase {
         }
     }
 
+    public void testNumbersFromStrings() throws IOException {
+        final XContentType xContentType = randomFrom(XContentType.values());
+        final long value = randomFrom(0L, -1L, (long) randomInt(), randomLong(), Long.MAX_VALUE, Long.MIN_VALUE, 999_999_999_999_999_999L);
+        final String[] texts = new String[] {
+            Long.toString(value), "-0", "007", "+12", "12.7", "-12.7", "1e3", " 42 ", "1000000000000000000000", "-", "12a" };
+        for (String text : texts) {
+            final BytesReference bytes;
+            try (XContentBuilder builder = XContentBuilder.builder(xContentType.xContent())) {
+                bytes = BytesReference.bytes(builder.startObject().field("field", text).endObject());
+            }
+            assertNumbersFromString(xContentType, bytes, text, XContentParser::longValue,
+                t -> new BigDecimal(t).toBigInteger().longValueExact());
+            assertNumbersFromString(xContentType, bytes, text, XContentParser::intValue,
+                t -> Math.toIntExact((long) Double.parseDouble(t)));
+            assertNumbersFromString(xContentType, bytes, text, XContentParser::shortValue, t -> {
+                final double d = Double.parseDouble(t);
+                if (d < Short.MIN_VALUE || d > Short.MAX_VALUE) {
+                    throw new IllegalArgumentException("out of range");
+                }
+                return (short) d;
+            });
+        }
+    }
+
+    private <T> void assertNumbersFromString(XContentType xContentType, BytesReference bytes, String text,
+                                             CheckedFunction<XContentParser, T, IOException> parse,
+                                             CheckedFunction<String, T, RuntimeException> expected) throws IOException {
+        T expectedValue;
+        try {
+            expectedValue = expected.apply(text);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            expectedValue = null;
+        }
+        try (XContentParser parser = createParser(xContentType.xContent(), bytes)) {
+            assertEquals(XContentParser.Token.START_OBJECT, parser.nextToken());
+            assertEquals(XContentParser.Token.FIELD_NAME, parser.nextToken());
+            assertEquals(XContentParser.Token.VALUE_STRING, parser.nextToken());
+            if (expectedValue == null) {
+                expectThrows(IllegalArgumentException.class, () -> parse.apply(parser));
+            } else {
+                assertEquals(text, expectedValue, parse.apply(parser));
+            }
+        }
+    }
+
     public void testReadList() throws IOException {
         assertThat(readList("{\"foo\": [\"bar\"]}"), contains("bar"));
         assertThat(readList("{\"foo\": [\"bar\",\"baz\"]}"), contains("bar", "baz"));
@@ -115,6 +115,11 @@ public class URLBlobContainer extends AbstractBlobContainer {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public boolean supportsRangedReads() {
+        return false;
+    }
+
     @Override
     public void writeBlob(String blobName, InputStream inputStream, long blobSize, boolean failIfAlreadyExists) throws IOException {
         throw new UnsupportedOperationException("URL repository doesn't support this operation");
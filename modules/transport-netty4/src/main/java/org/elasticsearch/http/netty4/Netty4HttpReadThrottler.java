@@ -0,0 +1,81 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.http.netty4;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.http.HttpServerTransport;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Stops reading from the network while the content of a request arrives whose {@link HttpServerTransport.Dispatcher#readPauseCondition}
+ * holds. The rest of the content then waits in the buffers of the operating system and eventually those of the client, which slows the
+ * client down through TCP flow control rather than having the content buffered in memory. Reading resumes once the condition clears,
+ * which is checked periodically while reading is paused.
+ */
+class Netty4HttpReadThrottler extends ChannelInboundHandlerAdapter {
+
+    static final TimeValue RESUME_CHECK_INTERVAL = TimeValue.timeValueMillis(10);
+
+    private static final BooleanSupplier NEVER = () -> false;
+
+    private final HttpServerTransport.Dispatcher dispatcher;
+
+    // the condition of the request whose content is currently arriving, only accessed on the event loop of the channel
+    private BooleanSupplier pauseCondition = NEVER;
+    private boolean paused;
+
+    Netty4HttpReadThrottler(HttpServerTransport.Dispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof HttpRequest) {
+            final HttpRequest request = (HttpRequest) msg;
+            try {
+                pauseCondition = dispatcher.readPauseCondition(Netty4HttpRequest.translateRequestMethod(request.method()), request.uri());
+            } catch (IllegalArgumentException e) {
+                // unsupported method, the request is rejected once it has arrived
+                pauseCondition = NEVER;
+            }
+        }
+        if (msg instanceof LastHttpContent) {
+            pauseCondition = NEVER;
+        } else if (paused == false && pauseCondition.getAsBoolean()) {
+            paused = true;
+            ctx.channel().config().setAutoRead(false);
+            scheduleResumeCheck(ctx);
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    private void scheduleResumeCheck(ChannelHandlerContext ctx) {
+        ctx.executor().schedule(() -> {
+            if (ctx.channel().isActive() == false) {
+                return;
+            }
+            if (pauseCondition.getAsBoolean()) {
+                scheduleResumeCheck(ctx);
+            } else {
+                paused = false;
+                ctx.channel().config().setAutoRead(true);
+            }
+        }, RESUME_CHECK_INTERVAL.millis(), TimeUnit.MILLISECONDS);
+    }
+
+    boolean isPaused() {
+        return paused;
+    }
+}
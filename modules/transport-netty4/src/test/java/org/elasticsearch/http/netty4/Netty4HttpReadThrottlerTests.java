@@ -0,0 +1,101 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.http.netty4;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObject;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.http.HttpServerTransport;
+import org.elasticsearch.rest.RestChannel;
+import org.elasticsearch.rest.RestRequest;
+import org.elasticsearch.test.ESTestCase;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+
+public class Netty4HttpReadThrottlerTests extends ESTestCase {
+
+    private final AtomicBoolean underPressure = new AtomicBoolean();
+
+    private final HttpServerTransport.Dispatcher dispatcher = new HttpServerTransport.Dispatcher() {
+        @Override
+        public void dispatchRequest(RestRequest request, RestChannel channel, ThreadContext threadContext) {
+            throw new AssertionError("should not be called");
+        }
+
+        @Override
+        public void dispatchBadRequest(RestChannel channel, ThreadContext threadContext, Throwable cause) {
+            throw new AssertionError("should not be called");
+        }
+
+        @Override
+        public BooleanSupplier readPauseCondition(RestRequest.Method method, String uri) {
+            if (method == RestRequest.Method.POST && uri.startsWith("/_bulk")) {
+                return underPressure::get;
+            }
+            return () -> false;
+        }
+    };
+
+    public void testPausesReadingWhileConditionHolds() throws Exception {
+        final Netty4HttpReadThrottler throttler = new Netty4HttpReadThrottler(dispatcher);
+        final EmbeddedChannel channel = new EmbeddedChannel(throttler);
+
+        underPressure.set(true);
+        writeInbound(channel, new DefaultHttpRequest(HTTP_1_1, HttpMethod.POST, "/_search"));
+        writeInbound(channel, content());
+        assertTrue(channel.config().isAutoRead());
+        writeInbound(channel, new DefaultLastHttpContent());
+
+        writeInbound(channel, new DefaultHttpRequest(HTTP_1_1, HttpMethod.POST, "/_bulk?refresh=true"));
+        assertFalse(channel.config().isAutoRead());
+        assertTrue(throttler.isPaused());
+        // content that has been read already is still passed on
+        writeInbound(channel, content());
+
+        channel.runScheduledPendingTasks();
+        assertFalse(channel.config().isAutoRead());
+
+        underPressure.set(false);
+        assertBusy(() -> {
+            channel.runScheduledPendingTasks();
+            assertTrue(channel.config().isAutoRead());
+        });
+        assertFalse(throttler.isPaused());
+
+        writeInbound(channel, new DefaultLastHttpContent());
+        underPressure.set(true);
+        // bulk requests that have fully arrived do not pause reading
+        writeInbound(channel, new DefaultFullHttpRequest(HTTP_1_1, HttpMethod.POST, "/_bulk"));
+        assertTrue(channel.config().isAutoRead());
+        channel.finishAndReleaseAll();
+    }
+
+    private static HttpContent content() {
+        return new DefaultHttpContent(Unpooled.copiedBuffer("{ \"index\" : { } }\n", StandardCharsets.UTF_8));
+    }
+
+    private static void writeInbound(EmbeddedChannel channel, HttpObject msg) {
+        channel.writeInbound(msg);
+        assertSame(msg, channel.readInbound());
+        if (msg instanceof HttpContent) {
+            ((HttpContent) msg).release();
+        }
+    }
+}
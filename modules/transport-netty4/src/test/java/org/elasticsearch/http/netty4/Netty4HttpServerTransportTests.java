@@ -19,6 +19,7 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
@@ -51,6 +52,7 @@ import org.elasticsearch.http.CorsHandler;
 import org.elasticsearch.http.HttpServerTransport;
 import org.elasticsearch.http.HttpTransportSettings;
 import org.elasticsearch.http.NullDispatcher;
+import org.elasticsearch.index.IndexingPressure;
 import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
 import org.elasticsearch.rest.BytesRestResponse;
 import org.elasticsearch.rest.RestChannel;
@@ -451,6 +453,21 @@ public class Netty4HttpServerTransportTests extends ESTestCase {
         }
     }
 
+    public void testInstallsReadThrottlerOnlyIfHttpReadsMayPause() {
+        final boolean pauseHttpReads = randomBoolean();
+        final Settings settings = createBuilderWithPort().put(IndexingPressure.PAUSE_HTTP_READS.getKey(), pauseHttpReads).build();
+        try (Netty4HttpServerTransport transport = new Netty4HttpServerTransport(settings, networkService, bigArrays, threadPool,
+            xContentRegistry(), new NullDispatcher(), clusterSettings, new SharedGroupFactory(settings))) {
+            final EmbeddedChannel channel = new EmbeddedChannel(transport.configureServerChannelHandler());
+            try {
+                assertNotNull(channel.pipeline().get("aggregator"));
+                assertEquals(pauseHttpReads, channel.pipeline().get("read_throttler") != null);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
     private Settings createSettings() {
         return createBuilderWithPort().build();
     }
@@ -93,7 +93,9 @@ public class BlobStoreRepositoryCleanupIT extends AbstractSnapshotIntegTestCase
         internalCluster().startNodes(Settings.EMPTY);
 
         final String repoName = "test-repo";
-        createRepository(repoName, "fs");
+        // always write the full repository data so that the index-N blobs of earlier generations are outdated
+        createRepository(repoName, "fs",
+            randomRepositorySettings().put(BlobStoreRepository.MAX_REPOSITORY_DATA_DELTAS_SETTING.getKey(), 0));
 
         logger.info("--> create three snapshots");
         for (int i = 0; i < 3; ++i) {
@@ -28,6 +28,7 @@ import org.elasticsearch.repositories.fs.FsRepository;
 import org.elasticsearch.rest.RestStatus;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -43,6 +44,7 @@ import static org.elasticsearch.index.IndexSettings.INDEX_REFRESH_INTERVAL_SETTI
 import static org.elasticsearch.index.IndexSettings.INDEX_SOFT_DELETES_SETTING;
 import static org.elasticsearch.index.query.QueryBuilders.matchQuery;
 import static org.elasticsearch.indices.recovery.RecoverySettings.INDICES_RECOVERY_MAX_BYTES_PER_SEC_SETTING;
+import static org.elasticsearch.indices.recovery.RecoverySettings.INDICES_RECOVERY_SNAPSHOT_FILE_DOWNLOAD_RANGE_SIZE_SETTING;
 import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertAcked;
 import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertHitCount;
 import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertIndexTemplateExists;
@@ -474,6 +476,37 @@ public class RestoreSnapshotIT extends AbstractSnapshotIntegTestCase {
         assertDocCount("test-idx", 100L);
     }
 
+    public void testRestoreLargeFilesInRanges() throws Exception {
+        createRepository("test-repo", "fs");
+
+        logger.info("--> create an index with stored fields files of several ranges");
+        createIndex("test-idx", Settings.builder().put(SETTING_NUMBER_OF_SHARDS, 1).put(SETTING_NUMBER_OF_REPLICAS, 0).build());
+        final int numDocs = randomIntBetween(20, 40);
+        final List<IndexRequestBuilder> docs = new ArrayList<>(numDocs);
+        for (int i = 0; i < numDocs; i++) {
+            // random values hardly compress, so these documents make for a stored fields file of a few ranges
+            docs.add(client().prepareIndex("test-idx", "_doc").setSource("field", randomAlphaOfLength(100_000)));
+        }
+        indexRandom(true, false, false, docs);
+        flushAndRefresh("test-idx");
+        createSnapshot("test-repo", "test-snap", Collections.singletonList("test-idx"));
+        cluster().wipeIndices("test-idx");
+
+        logger.info("--> restore index in ranges of the minimum size");
+        client().admin().cluster().prepareUpdateSettings().setTransientSettings(Settings.builder()
+                .put(INDICES_RECOVERY_SNAPSHOT_FILE_DOWNLOAD_RANGE_SIZE_SETTING.getKey(), "1mb").build()).get();
+        try {
+            final RestoreSnapshotResponse restoreSnapshotResponse = client().admin().cluster()
+                    .prepareRestoreSnapshot("test-repo", "test-snap").setWaitForCompletion(true).get();
+            assertThat(restoreSnapshotResponse.getRestoreInfo().failedShards(), equalTo(0));
+            ensureGreen("test-idx");
+            assertDocCount("test-idx", numDocs);
+        } finally {
+            client().admin().cluster().prepareUpdateSettings().setTransientSettings(Settings.builder()
+                    .putNull(INDICES_RECOVERY_SNAPSHOT_FILE_DOWNLOAD_RANGE_SIZE_SETTING.getKey()).build()).get();
+        }
+    }
+
     public void testChangeSettingsOnRestore() throws Exception {
         Client client = client();
 
@@ -0,0 +1,78 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.action.bulk;
+
+import org.elasticsearch.rest.RestStatus;
+
+/**
+ * The number of actions and the size at which {@link BulkProcessor} flushes bulk requests when it adapts them to the load of the
+ * cluster. Whenever the cluster rejects a bulk request, or items of it, because it is overloaded, the limits are halved, down to a
+ * sixteenth of the configured limits. Every bulk request that goes through without rejected items grows them again by an eighth of the
+ * configured limits, until they are back at the configured limits. Smaller bulk requests need less indexing memory on the nodes that
+ * coordinate them, so they fit more easily into the indexing pressure limit of busy nodes.
+ *
+ * A limit of {@code -1} disables flushing on that limit, and is left as is.
+ */
+final class AdaptiveBulkLimits {
+
+    static final int MIN_SHARE = 16;
+    static final int GROWTH_SHARE = 8;
+
+    private final int maxBulkActions;
+    private final long maxBulkSize;
+    private volatile int bulkActions;
+    private volatile long bulkSize;
+
+    AdaptiveBulkLimits(int maxBulkActions, long maxBulkSize) {
+        this.maxBulkActions = maxBulkActions;
+        this.maxBulkSize = maxBulkSize;
+        this.bulkActions = maxBulkActions;
+        this.bulkSize = maxBulkSize;
+    }
+
+    int bulkActions() {
+        return bulkActions;
+    }
+
+    long bulkSize() {
+        return bulkSize;
+    }
+
+    /**
+     * Called whenever a bulk request is backed off from because of rejections.
+     */
+    synchronized void onRejection() {
+        if (maxBulkActions != -1) {
+            bulkActions = Math.max(Math.max(1, maxBulkActions / MIN_SHARE), bulkActions / 2);
+        }
+        if (maxBulkSize != -1) {
+            bulkSize = Math.max(Math.max(1, maxBulkSize / MIN_SHARE), bulkSize / 2);
+        }
+    }
+
+    /**
+     * Called with the final response of every bulk request.
+     */
+    synchronized void onResponse(BulkResponse response) {
+        if (response.hasFailures()) {
+            for (BulkItemResponse item : response.getItems()) {
+                if (item.isFailed() && item.status() == RestStatus.TOO_MANY_REQUESTS) {
+                    onRejection();
+                    return;
+                }
+            }
+        }
+        if (maxBulkActions != -1) {
+            bulkActions = Math.min(maxBulkActions, bulkActions + Math.max(1, maxBulkActions / GROWTH_SHARE));
+        }
+        if (maxBulkSize != -1) {
+            bulkSize = Math.min(maxBulkSize, bulkSize + Math.max(1, maxBulkSize / GROWTH_SHARE));
+        }
+    }
+}
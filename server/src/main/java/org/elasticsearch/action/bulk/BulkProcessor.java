@@ -81,6 +81,7 @@ public class BulkProcessor implements Closeable {
         private ByteSizeValue bulkSize = new ByteSizeValue(5, ByteSizeUnit.MB);
         private TimeValue flushInterval = null;
         private BackoffPolicy backoffPolicy = BackoffPolicy.exponentialBackoff();
+        private boolean adaptiveBulkLimits = false;
         private String globalIndex;
         private String globalType;
         private String globalRouting;
@@ -170,12 +171,24 @@ public class BulkProcessor implements Closeable {
             return this;
         }
 
+        /**
+         * Sets whether the bulk processor adapts the number of actions and the size at which it flushes bulk requests to the load of the
+         * cluster. If enabled, the limits set through {@link #setBulkActions(int)} and {@link #setBulkSize(ByteSizeValue)} become upper
+         * bounds: they are halved whenever bulk requests or their items are rejected because the cluster is overloaded, and grow back
+         * gradually as bulk requests go through again. Defaults to {@code false}.
+         */
+        public Builder setAdaptiveBulkLimits(boolean adaptiveBulkLimits) {
+            this.adaptiveBulkLimits = adaptiveBulkLimits;
+            return this;
+        }
+
         /**
          * Builds a new bulk processor.
          */
         public BulkProcessor build() {
             return new BulkProcessor(consumer, backoffPolicy, listener, concurrentRequests, bulkActions,
-                bulkSize, flushInterval, flushScheduler, retryScheduler, onClose, createBulkRequestWithGlobalDefaults());
+                bulkSize, flushInterval, flushScheduler, retryScheduler, onClose, createBulkRequestWithGlobalDefaults(),
+                adaptiveBulkLimits);
         }
 
         private Supplier<BulkRequest> createBulkRequestWithGlobalDefaults() {
@@ -241,8 +254,7 @@ public class BulkProcessor implements Closeable {
             Scheduler.wrapAsScheduledCancellable(scheduledThreadPoolExecutor.schedule(command, delay.millis(), TimeUnit.MILLISECONDS));
     }
 
-    private final int bulkActions;
-    private final long bulkSize;
+    private final AdaptiveBulkLimits bulkLimits;
 
     private final Scheduler.Cancellable cancellableFlushTask;
 
@@ -259,10 +271,21 @@ public class BulkProcessor implements Closeable {
     BulkProcessor(BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer, BackoffPolicy backoffPolicy, Listener listener,
                   int concurrentRequests, int bulkActions, ByteSizeValue bulkSize, @Nullable TimeValue flushInterval,
                   Scheduler flushScheduler, Scheduler retryScheduler, Runnable onClose, Supplier<BulkRequest> bulkRequestSupplier) {
-        this.bulkActions = bulkActions;
-        this.bulkSize = bulkSize.getBytes();
+        this(consumer, backoffPolicy, listener, concurrentRequests, bulkActions, bulkSize, flushInterval, flushScheduler, retryScheduler,
+            onClose, bulkRequestSupplier, false);
+    }
+
+    BulkProcessor(BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer, BackoffPolicy backoffPolicy, Listener listener,
+                  int concurrentRequests, int bulkActions, ByteSizeValue bulkSize, @Nullable TimeValue flushInterval,
+                  Scheduler flushScheduler, Scheduler retryScheduler, Runnable onClose, Supplier<BulkRequest> bulkRequestSupplier,
+                  boolean adaptiveBulkLimits) {
+        this.bulkLimits = new AdaptiveBulkLimits(bulkActions, bulkSize.getBytes());
         this.bulkRequest = bulkRequestSupplier.get();
         this.bulkRequestSupplier = bulkRequestSupplier;
+        if (adaptiveBulkLimits) {
+            backoffPolicy = BackoffPolicy.wrap(backoffPolicy, bulkLimits::onRejection);
+            listener = new AdaptingListener(listener, bulkLimits);
+        }
         this.bulkRequestHandler = new BulkRequestHandler(consumer, backoffPolicy, listener, retryScheduler, concurrentRequests);
         // Start period flushing task after everything is setup
         this.cancellableFlushTask = startFlushTask(flushInterval, flushScheduler);
@@ -454,15 +477,31 @@ public class BulkProcessor implements Closeable {
 
     // needs to be executed under a lock
     private boolean isOverTheLimit() {
+        final int bulkActions = bulkLimits.bulkActions();
         if (bulkActions != -1 && bulkRequest.numberOfActions() >= bulkActions) {
             return true;
         }
+        final long bulkSize = bulkLimits.bulkSize();
         if (bulkSize != -1 && bulkRequest.estimatedSizeInBytes() >= bulkSize) {
             return true;
         }
         return false;
     }
 
+    /**
+     * The number of actions at which the next bulk request is flushed, which changes over time if the limits are adaptive.
+     */
+    int getBulkActions() {
+        return bulkLimits.bulkActions();
+    }
+
+    /**
+     * The size in bytes at which the next bulk request is flushed, which changes over time if the limits are adaptive.
+     */
+    long getBulkSize() {
+        return bulkLimits.bulkSize();
+    }
+
     /**
      * Flush pending delete or index requests.
      */
@@ -478,6 +517,32 @@ public class BulkProcessor implements Closeable {
         }
     }
 
+    private static final class AdaptingListener implements Listener {
+        private final Listener delegate;
+        private final AdaptiveBulkLimits bulkLimits;
+
+        AdaptingListener(Listener delegate, AdaptiveBulkLimits bulkLimits) {
+            this.delegate = delegate;
+            this.bulkLimits = bulkLimits;
+        }
+
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request) {
+            delegate.beforeBulk(executionId, request);
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+            bulkLimits.onResponse(response);
+            delegate.afterBulk(executionId, request, response);
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
+            delegate.afterBulk(executionId, request, failure);
+        }
+    }
+
     class Flush implements Runnable {
         @Override
         public void run() {
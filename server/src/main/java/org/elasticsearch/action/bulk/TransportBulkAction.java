@@ -43,10 +43,13 @@ import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.metadata.MappingMetadata;
 import org.elasticsearch.cluster.metadata.Metadata;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.AtomicArray;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.IndexNotFoundException;
 import org.elasticsearch.index.IndexingPressure;
@@ -99,6 +102,8 @@ public class TransportBulkAction extends HandledTransportAction<BulkRequest, Bul
     private final NodeClient client;
     private final IndexNameExpressionResolver indexNameExpressionResolver;
     private static final String DROPPED_ITEM_WITH_AUTO_GENERATED_ID = "auto-generated";
+    private static final TimeValue MIN_PRESSURE_RETRY_DELAY = TimeValue.timeValueMillis(10);
+    private static final TimeValue MAX_PRESSURE_RETRY_DELAY = TimeValue.timeValueMillis(500);
     private final IndexingPressure indexingPressure;
     private final SystemIndices systemIndices;
 
@@ -155,7 +160,65 @@ public class TransportBulkAction extends HandledTransportAction<BulkRequest, Bul
     protected void doExecute(Task task, BulkRequest bulkRequest, ActionListener<BulkResponse> listener) {
         final long indexingBytes = bulkRequest.ramBytesUsed();
         final boolean isOnlySystem = isOnlySystem(bulkRequest, clusterService.state().metadata().getIndicesLookup(), systemIndices);
-        final Releasable releasable = indexingPressure.markCoordinatingOperationStarted(indexingBytes, isOnlySystem);
+        final long waitDeadlineNanos = relativeTime() + indexingPressure.getCoordinatingWaitTimeout().nanos();
+        startCoordinatingOperation(task, bulkRequest, indexingBytes, isOnlySystem, waitDeadlineNanos, MIN_PRESSURE_RETRY_DELAY, null,
+            listener);
+    }
+
+    @Nullable
+    private Releasable waitingRelease(long indexingBytes) {
+        final Releasable releasable = indexingPressure.tryMarkCoordinatingOperationWaiting(indexingBytes);
+        // closed both once the request stops waiting and when it fails while waiting, whichever happens first
+        return releasable == null ? null : Releasables.releaseOnce(releasable);
+    }
+
+    /**
+     * Accounts for the bytes of the bulk request before executing it. If they do not fit within the indexing pressure limit, retries
+     * with growing delays until the bytes fit or the wait deadline passes, and then rejects the request. Requests are rejected right
+     * away if the budget for the bytes of waiting requests is used up.
+     */
+    private void startCoordinatingOperation(Task task, BulkRequest bulkRequest, long indexingBytes, boolean isOnlySystem,
+                                            long waitDeadlineNanos, TimeValue retryDelay, @Nullable Releasable waiting,
+                                            ActionListener<BulkResponse> listener) {
+        final long remainingNanos = waitDeadlineNanos - relativeTime();
+        Releasable releasable = null;
+        if (remainingNanos > 0) {
+            releasable = indexingPressure.tryMarkCoordinatingOperationStarted(indexingBytes, isOnlySystem);
+            if (releasable == null) {
+                final Releasable waitingRelease = waiting != null ? waiting : waitingRelease(indexingBytes);
+                if (waitingRelease != null) {
+                    final TimeValue delay = TimeValue.timeValueNanos(Math.min(retryDelay.nanos(), remainingNanos));
+                    final TimeValue nextDelay =
+                        TimeValue.timeValueNanos(Math.min(retryDelay.nanos() * 2, MAX_PRESSURE_RETRY_DELAY.nanos()));
+                    logger.trace("waiting [{}] for indexing pressure to drop before retrying bulk request", delay);
+                    threadPool.schedule(new ActionRunnable<BulkResponse>(listener) {
+                        @Override
+                        protected void doRun() {
+                            startCoordinatingOperation(task, bulkRequest, indexingBytes, isOnlySystem, waitDeadlineNanos, nextDelay,
+                                waitingRelease, listener);
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            waitingRelease.close();
+                            super.onFailure(e);
+                        }
+                    }, delay, Names.GENERIC);
+                    return;
+                }
+                logger.trace("too many bytes of bulk requests are waiting for indexing pressure to drop, not waiting");
+            }
+        }
+        Releasables.close(waiting);
+        if (releasable == null) {
+            try {
+                releasable = indexingPressure.markCoordinatingOperationStarted(indexingBytes, isOnlySystem);
+            } catch (EsRejectedExecutionException e) {
+                indexingPressure.addPressureResponseHeader(threadPool.getThreadContext(), true);
+                throw e;
+            }
+        }
+        indexingPressure.addPressureResponseHeader(threadPool.getThreadContext(), false);
         final ActionListener<BulkResponse> releasingListener = ActionListener.runBefore(listener, releasable::close);
         final String executorName = isOnlySystem ? Names.SYSTEM_WRITE : Names.WRITE;
         try {
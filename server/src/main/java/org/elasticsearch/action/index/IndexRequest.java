@@ -128,7 +128,9 @@ public class IndexRequest extends ReplicatedWriteRequest<IndexRequest> implement
             in.readOptionalString(); // timestamp
             in.readOptionalTimeValue(); // ttl
         }
-        source = in.readBytesReference();
+        // items of a shard level bulk request are only used until the response to that request was sent, so their source may share
+        // the bytes of the transport message rather than being copied
+        source = shardId == null ? in.readBytesReference() : in.readSharedBytesReference();
         opType = OpType.fromId(in.readByte());
         version = in.readLong();
         versionType = VersionType.fromValue(in.readByte());
@@ -728,7 +730,7 @@ public class IndexRequest extends ReplicatedWriteRequest<IndexRequest> implement
             out.writeOptionalString("0");
             out.writeOptionalWriteable(null);
         }
-        out.writeBytesReference(source);
+        out.writeSharedBytesReference(source);
         out.writeByte(opType.getId());
         out.writeLong(version);
         out.writeByte(versionType.getValue());
@@ -22,8 +22,10 @@ import org.elasticsearch.action.search.TransportSearchAction.SearchTimeProvider;
 import org.elasticsearch.action.support.TransportActions;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.routing.GroupShardsIterator;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.lease.Releasables;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.common.util.concurrent.AtomicArray;
 import org.elasticsearch.index.shard.ShardId;
@@ -34,6 +36,8 @@ import org.elasticsearch.search.internal.InternalSearchResponse;
 import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.search.internal.ShardSearchRequest;
 import org.elasticsearch.tasks.TaskCancelledException;
+import org.elasticsearch.threadpool.Scheduler;
+import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.Transport;
 
 import java.util.ArrayDeque;
@@ -46,6 +50,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -92,6 +97,11 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
 
     private final List<Releasable> releasables = new ArrayList<>();
 
+    @Nullable
+    private ThreadPool hedgingThreadPool;
+    @Nullable
+    private Function<String, TimeValue> hedgeDelays;
+
     AbstractSearchAsyncAction(String name, Logger logger, SearchTransportService searchTransportService,
                               BiFunction<String, String, Transport.Connection> nodeIdToConnection,
                               Map<String, AliasFilter> aliasFilter, Map<String, Float> concreteIndexBoosts,
@@ -155,6 +165,16 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
         Releasables.close(releasables);
     }
 
+    /**
+     * Enables hedged requests for the initial phase: if a shard copy did not respond within the delay returned for its node, the
+     * request is sent to the next copy of the shard as well. The first response wins, the search context of the other copy is released
+     * when it responds. A {@code null} delay disables hedging for the node. Must be called before {@link #start()}.
+     */
+    void enableHedging(ThreadPool threadPool, Function<String, TimeValue> hedgeDelays) {
+        this.hedgingThreadPool = threadPool;
+        this.hedgeDelays = hedgeDelays;
+    }
+
     /**
      * Builds how long it took to execute the search.
      */
@@ -244,13 +264,17 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
                 : null;
             Runnable r = () -> {
                 final Thread thread = Thread.currentThread();
+                final TimeValue hedgeDelay = getHedgeDelay(shardIt, shard);
+                final HedgedShardRequest hedge = hedgeDelay == null ? null : new HedgedShardRequest(shardIndex, shardIt);
                 try {
                     executePhaseOnShard(shardIt, shard,
                         new SearchActionListener<Result>(shard, shardIndex) {
                             @Override
                             public void innerOnResponse(Result result) {
                                 try {
-                                    onShardResult(result, shardIt);
+                                    if (hedge == null || hedge.onCopyResponse(result)) {
+                                        onShardResult(result, shardIt);
+                                    }
                                 } catch (Exception exc) {
                                     onShardFailure(shardIndex, shard, shardIt, exc);
                                 } finally {
@@ -261,12 +285,17 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
                             @Override
                             public void onFailure(Exception t) {
                                 try {
-                                    onShardFailure(shardIndex, shard, shardIt, t);
+                                    if (hedge == null || hedge.onCopyFailure(shard, t)) {
+                                        onShardFailure(shardIndex, shard, shardIt, t);
+                                    }
                                 } finally {
                                     executeNext(pendingExecutions, thread);
                                 }
                             }
                         });
+                    if (hedge != null) {
+                        hedge.schedule(hedgeDelay);
+                    }
                 } catch (final Exception e) {
                     try {
                         /*
@@ -287,6 +316,163 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
         }
     }
 
+    @Nullable
+    private TimeValue getHedgeDelay(SearchShardIterator shardIt, SearchShardTarget shard) {
+        // requests against a point in time must go to the copy that holds its reader
+        if (hedgeDelays == null || shardIt.remaining() == 0 || shardIt.getSearchContextId() != null) {
+            return null;
+        }
+        return hedgeDelays.apply(shard.getNodeId());
+    }
+
+    /**
+     * Tracks the requests for a single shard once a hedged request may be sent to another copy of the shard. Only the first response
+     * is consumed, and the shard only fails over to further copies once all outstanding requests for it failed.
+     */
+    private final class HedgedShardRequest {
+        private final int shardIndex;
+        private final SearchShardIterator shardIt;
+        private int outstandingRequests = 1;
+        private boolean responded = false;
+        private Scheduler.ScheduledCancellable scheduledHedge;
+
+        HedgedShardRequest(int shardIndex, SearchShardIterator shardIt) {
+            this.shardIndex = shardIndex;
+            this.shardIt = shardIt;
+        }
+
+        synchronized void schedule(TimeValue delay) {
+            if (responded == false && outstandingRequests == 1) {
+                scheduledHedge = hedgingThreadPool.schedule(this::sendHedgedRequest, delay, ThreadPool.Names.SAME);
+            }
+        }
+
+        private void sendHedgedRequest() {
+            final SearchShardTarget target;
+            synchronized (this) {
+                if (responded || outstandingRequests != 1 || task.isCancelled()) {
+                    return;
+                }
+                target = shardIt.nextOrNull();
+                if (target == null) {
+                    return;
+                }
+                outstandingRequests++;
+                // one of the two copies is not going to be accounted for by the usual success or failure handling, so account for it
+                // now and under the same lock, so that a response for the shard cannot complete the phase before it is accounted for
+                final int totalOps = AbstractSearchAsyncAction.this.totalOps.incrementAndGet();
+                assert totalOps < expectedTotalOps
+                    : "hedged request must not complete the phase [" + totalOps + "/" + expectedTotalOps + "]";
+            }
+            logger.trace("{}: sending hedged request for [{}]", target, request);
+            // hedged requests count against the maximum number of concurrent shard requests per node like any other shard request
+            final PendingExecutions pendingExecutions = throttleConcurrentRequests ?
+                pendingExecutionsPerNode.computeIfAbsent(target.getNodeId(), n -> new PendingExecutions(maxConcurrentRequestsPerNode))
+                : null;
+            final Runnable r = () -> {
+                final Thread thread = Thread.currentThread();
+                if (isResponded()) {
+                    // the shard responded while the hedged request was waiting for a free slot, there is no need to send it anymore
+                    executeNext(pendingExecutions, thread);
+                    return;
+                }
+                try {
+                    executePhaseOnShard(shardIt, target, new SearchActionListener<Result>(target, shardIndex) {
+                        @Override
+                        public void innerOnResponse(Result result) {
+                            try {
+                                if (onCopyResponse(result)) {
+                                    onShardResult(result, shardIt);
+                                }
+                            } catch (Exception exc) {
+                                AbstractSearchAsyncAction.this.onShardFailure(shardIndex, target, shardIt, exc);
+                            } finally {
+                                executeNext(pendingExecutions, thread);
+                            }
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            try {
+                                if (onCopyFailure(target, e)) {
+                                    AbstractSearchAsyncAction.this.onShardFailure(shardIndex, target, shardIt, e);
+                                }
+                            } finally {
+                                executeNext(pendingExecutions, thread);
+                            }
+                        }
+                    });
+                } catch (Exception e) {
+                    try {
+                        if (onCopyFailure(target, e)) {
+                            fork(() -> AbstractSearchAsyncAction.this.onShardFailure(shardIndex, target, shardIt, e));
+                        }
+                    } finally {
+                        executeNext(pendingExecutions, thread);
+                    }
+                }
+            };
+            if (throttleConcurrentRequests) {
+                fork(() -> pendingExecutions.tryRun(r));
+            } else {
+                fork(r);
+            }
+        }
+
+        private synchronized boolean isResponded() {
+            return responded;
+        }
+
+        /**
+         * Returns whether the given response is the first one for the shard and must be consumed. The search context of any later
+         * response is released right away.
+         */
+        boolean onCopyResponse(Result result) {
+            synchronized (this) {
+                outstandingRequests--;
+                if (responded == false) {
+                    responded = true;
+                    if (scheduledHedge != null) {
+                        scheduledHedge.cancel();
+                    }
+                    return true;
+                }
+            }
+            if (result.getContextId() != null) {
+                final SearchShardTarget target = result.getSearchShardTarget();
+                try {
+                    Transport.Connection connection = getConnection(target.getClusterAlias(), target.getNodeId());
+                    sendReleaseSearchContext(result.getContextId(), connection, target.getOriginalIndices());
+                } catch (Exception e) {
+                    logger.trace("failed to release context of hedged request", e);
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns whether the failure must be handled as usual, i.e. moving on to the next copy of the shard, because no other request
+         * for the shard is outstanding anymore.
+         */
+        boolean onCopyFailure(SearchShardTarget target, Exception e) {
+            synchronized (this) {
+                outstandingRequests--;
+                if (responded) {
+                    return false;
+                }
+                if (outstandingRequests == 0) {
+                    if (scheduledHedge != null) {
+                        scheduledHedge.cancel();
+                    }
+                    return true;
+                }
+            }
+            // the other copy may still respond, record the failure in case it does not
+            onShardFailure(shardIndex, target, e);
+            return false;
+        }
+    }
+
     /**
      * Sends the request to the actual shard.
      * @param shardIt the shards iterator
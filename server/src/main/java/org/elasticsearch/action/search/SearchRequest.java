@@ -85,6 +85,8 @@ public class SearchRequest extends ActionRequest implements IndicesRequest.Repla
 
     private boolean ccsMinimizeRoundtrips = true;
 
+    private TimeValue deadline;
+
     public static final IndicesOptions DEFAULT_INDICES_OPTIONS =
         IndicesOptions.strictExpandOpenAndForbidClosedIgnoreThrottled();
 
@@ -168,6 +170,7 @@ public class SearchRequest extends ActionRequest implements IndicesRequest.Repla
         this.searchType = searchRequest.searchType;
         this.source = searchRequest.source;
         this.types = searchRequest.types;
+        this.deadline = searchRequest.deadline;
         this.localClusterAlias = localClusterAlias;
         this.absoluteStartMillis = absoluteStartMillis;
         this.finalReduce = finalReduce;
@@ -217,6 +220,9 @@ public class SearchRequest extends ActionRequest implements IndicesRequest.Repla
         if (in.getVersion().onOrAfter(Version.V_7_0_0)) {
             ccsMinimizeRoundtrips = in.readBoolean();
         }
+        if (in.getVersion().onOrAfter(Version.V_7_11_3)) {
+            deadline = in.readOptionalTimeValue();
+        }
     }
 
     @Override
@@ -251,6 +257,9 @@ public class SearchRequest extends ActionRequest implements IndicesRequest.Repla
         if (out.getVersion().onOrAfter(Version.V_7_0_0)) {
             out.writeBoolean(ccsMinimizeRoundtrips);
         }
+        if (out.getVersion().onOrAfter(Version.V_7_11_3)) {
+            out.writeOptionalTimeValue(deadline);
+        }
     }
 
     @Override
@@ -551,6 +560,25 @@ public class SearchRequest extends ActionRequest implements IndicesRequest.Repla
         return this.allowPartialSearchResults;
     }
 
+    /**
+     * Sets the maximum time that the shard requests of this search may wait in the queue of a search thread pool. A shard request whose
+     * estimated wait exceeds this deadline is rejected as soon as it is received rather than left to wait for a result that would come
+     * too late. The default is {@code null}, which means that shard requests are never rejected based on their expected wait.
+     */
+    public SearchRequest deadline(@Nullable TimeValue deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+
+    /**
+     * Returns the maximum time that the shard requests of this search may wait in the queue of a search thread pool, or {@code null}
+     * if unspecified.
+     */
+    @Nullable
+    public TimeValue deadline() {
+        return deadline;
+    }
+
     /**
      * Sets the number of shard results that should be reduced at once on the coordinating node. This value should be used as a protection
      * mechanism to reduce the memory overhead per search request if the potential number of shards in the request can be large.
@@ -698,14 +726,15 @@ public class SearchRequest extends ActionRequest implements IndicesRequest.Repla
                 Objects.equals(allowPartialSearchResults, that.allowPartialSearchResults) &&
                 Objects.equals(localClusterAlias, that.localClusterAlias) &&
                 absoluteStartMillis == that.absoluteStartMillis &&
-                ccsMinimizeRoundtrips == that.ccsMinimizeRoundtrips;
+                ccsMinimizeRoundtrips == that.ccsMinimizeRoundtrips &&
+                Objects.equals(deadline, that.deadline);
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(searchType, Arrays.hashCode(indices), routing, preference, source, requestCache,
                 scroll, Arrays.hashCode(types), indicesOptions, batchedReduceSize, maxConcurrentShardRequests, preFilterShardSize,
-                allowPartialSearchResults, localClusterAlias, absoluteStartMillis, ccsMinimizeRoundtrips);
+                allowPartialSearchResults, localClusterAlias, absoluteStartMillis, ccsMinimizeRoundtrips, deadline);
     }
 
     @Override
@@ -726,6 +755,7 @@ public class SearchRequest extends ActionRequest implements IndicesRequest.Repla
                 ", localClusterAlias=" + localClusterAlias +
                 ", getOrCreateAbsoluteStartMillis=" + absoluteStartMillis +
                 ", ccsMinimizeRoundtrips=" + ccsMinimizeRoundtrips +
+                ", deadline=" + deadline +
                 ", source=" + source + '}';
     }
 }
@@ -43,6 +43,7 @@ import org.elasticsearch.index.Index;
 import org.elasticsearch.index.query.Rewriteable;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.node.ResponseCollectorService;
 import org.elasticsearch.search.SearchPhaseResult;
 import org.elasticsearch.search.SearchService;
 import org.elasticsearch.search.SearchShardTarget;
@@ -93,6 +94,18 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
     public static final Setting<Long> SHARD_COUNT_LIMIT_SETTING = Setting.longSetting(
             "action.search.shard_count.limit", Long.MAX_VALUE, 1L, Property.Dynamic, Property.NodeScope);
 
+    /** Whether to also send a shard request to another copy of the shard if the first copy is slow to respond. */
+    public static final Setting<Boolean> HEDGED_REQUESTS_ENABLED_SETTING = Setting.boolSetting(
+            "action.search.hedged_requests.enabled", false, Property.Dynamic, Property.NodeScope);
+
+    /**
+     * The minimum time to wait for a shard copy to respond before sending a hedged request. The actual delay is the 95th percentile
+     * of the recent response times of the node holding the copy, if that is longer.
+     */
+    public static final Setting<TimeValue> HEDGED_REQUESTS_MIN_DELAY_SETTING = Setting.timeSetting(
+            "action.search.hedged_requests.min_delay", TimeValue.timeValueMillis(50), TimeValue.ZERO,
+            Property.Dynamic, Property.NodeScope);
+
     private final ThreadPool threadPool;
     private final ClusterService clusterService;
     private final SearchTransportService searchTransportService;
@@ -797,10 +810,30 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
                 default:
                     throw new IllegalStateException("Unknown search type: [" + searchRequest.searchType() + "]");
             }
+            if (clusterService.getClusterSettings().get(HEDGED_REQUESTS_ENABLED_SETTING)) {
+                final TimeValue minDelay = clusterService.getClusterSettings().get(HEDGED_REQUESTS_MIN_DELAY_SETTING);
+                final ResponseCollectorService collector = searchService.getResponseCollectorService();
+                searchAsyncAction.enableHedging(threadPool, nodeId -> hedgeDelay(collector, nodeId, minDelay));
+            }
             return searchAsyncAction;
         }
     }
 
+    /**
+     * Returns how long to wait for the given node to respond before sending a hedged request to another shard copy, or {@code null}
+     * if too little is known about the response times of the node.
+     */
+    @Nullable
+    static TimeValue hedgeDelay(@Nullable ResponseCollectorService collector, String nodeId, TimeValue minDelay) {
+        if (collector == null) {
+            return null;
+        }
+        return collector.getNodeStatistics(nodeId)
+            .filter(stats -> stats.responseTimeP95 > 0)
+            .map(stats -> TimeValue.timeValueNanos(Math.max(minDelay.nanos(), (long) stats.responseTimeP95)))
+            .orElse(null);
+    }
+
     private static void failIfOverShardCountLimit(ClusterService clusterService, int shardCount) {
         final long shardCountLimit = clusterService.getClusterSettings().get(SHARD_COUNT_LIMIT_SETTING);
         if (shardCount > shardCountLimit) {
@@ -15,6 +15,7 @@ import org.elasticsearch.cluster.metadata.IndexGraveyard.IndexGraveyardDiff;
 import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.cluster.metadata.Metadata;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
+import org.elasticsearch.cluster.routing.IndexRoutingTable;
 import org.elasticsearch.common.collect.ImmutableOpenMap;
 import org.elasticsearch.gateway.GatewayService;
 import org.elasticsearch.index.Index;
@@ -40,6 +41,11 @@ public class ClusterChangedEvent {
 
     private final DiscoveryNodes.Delta nodesDelta;
 
+    // computed lazily, racing threads compute the same immutable set
+    private Set<String> indicesWithChangedMetadata;
+
+    private Set<String> indicesWithChangedRouting;
+
     public ClusterChangedEvent(String source, ClusterState state, ClusterState previousState) {
         Objects.requireNonNull(source, "source must not be null");
         Objects.requireNonNull(state, "state must not be null");
@@ -95,6 +101,60 @@ public class ClusterChangedEvent {
         return true;
     }
 
+    /**
+     * Returns the names of the indices whose routing table was added, removed or changed between the previous
+     * cluster state and the current cluster state. Since unchanged routing tables are carried over as the same
+     * instance, both when building a new state and when applying a diff, every index not in this set can be
+     * skipped by consumers that only react to routing changes.
+     * Note that this is an object reference equality test, not an equals test.
+     */
+    public Set<String> indicesWithChangedRouting() {
+        if (indicesWithChangedRouting == null) {
+            if (routingTableChanged() == false) {
+                indicesWithChangedRouting = Collections.emptySet();
+            } else {
+                final ImmutableOpenMap<String, IndexRoutingTable> current = state.routingTable().indicesRouting();
+                final ImmutableOpenMap<String, IndexRoutingTable> previous = previousState.routingTable().indicesRouting();
+                final Set<String> changed = new HashSet<>();
+                for (ObjectObjectCursor<String, IndexRoutingTable> cursor : current) {
+                    if (previous.get(cursor.key) != cursor.value) {
+                        changed.add(cursor.key);
+                    }
+                }
+                for (ObjectCursor<String> cursor : previous.keys()) {
+                    if (current.containsKey(cursor.value) == false) {
+                        changed.add(cursor.value);
+                    }
+                }
+                indicesWithChangedRouting = Collections.unmodifiableSet(changed);
+            }
+        }
+        return indicesWithChangedRouting;
+    }
+
+    /**
+     * Returns the names of the indices in the current cluster state whose {@link IndexMetadata} was added or
+     * changed compared to the previous cluster state. Deleted indices are reported by {@link #indicesDeleted()}.
+     * Note that this is an object reference equality test, not an equals test.
+     */
+    public Set<String> indicesWithChangedMetadata() {
+        if (indicesWithChangedMetadata == null) {
+            if (metadataChanged() == false) {
+                indicesWithChangedMetadata = Collections.emptySet();
+            } else {
+                final Metadata previousMetadata = previousState.metadata();
+                final Set<String> changed = new HashSet<>();
+                for (ObjectObjectCursor<String, IndexMetadata> cursor : state.metadata().indices()) {
+                    if (previousMetadata.index(cursor.key) != cursor.value) {
+                        changed.add(cursor.key);
+                    }
+                }
+                indicesWithChangedMetadata = Collections.unmodifiableSet(changed);
+            }
+        }
+        return indicesWithChangedMetadata;
+    }
+
     /**
      * Returns the indices created in this event
      */
@@ -47,6 +47,7 @@ import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.TransportAddress;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.common.util.concurrent.ListenableFuture;
 import org.elasticsearch.common.xcontent.XContentHelper;
@@ -152,9 +153,10 @@ public class Coordinator extends AbstractLifecycleComponent implements Discovery
      * @param onJoinValidators A collection of join validators to restrict which nodes may join the cluster.
      */
     public Coordinator(String nodeName, Settings settings, ClusterSettings clusterSettings, TransportService transportService,
-                       NamedWriteableRegistry namedWriteableRegistry, AllocationService allocationService, MasterService masterService,
-                       Supplier<CoordinationState.PersistedState> persistedStateSupplier, SeedHostsProvider seedHostsProvider,
-                       ClusterApplier clusterApplier, Collection<BiConsumer<DiscoveryNode, ClusterState>> onJoinValidators, Random random,
+                       NamedWriteableRegistry namedWriteableRegistry, BigArrays bigArrays, AllocationService allocationService,
+                       MasterService masterService, Supplier<CoordinationState.PersistedState> persistedStateSupplier,
+                       SeedHostsProvider seedHostsProvider, ClusterApplier clusterApplier,
+                       Collection<BiConsumer<DiscoveryNode, ClusterState>> onJoinValidators, Random random,
                        RerouteService rerouteService, ElectionStrategy electionStrategy, NodeHealthService nodeHealthService) {
         this.settings = settings;
         this.transportService = transportService;
@@ -180,7 +182,7 @@ public class Coordinator extends AbstractLifecycleComponent implements Discovery
         configuredHostsResolver = new SeedHostsResolver(nodeName, settings, transportService, seedHostsProvider);
         this.peerFinder = new CoordinatorPeerFinder(settings, transportService,
             new HandshakingTransportAddressConnector(settings, transportService), configuredHostsResolver);
-        this.publicationHandler = new PublicationTransportHandler(transportService, namedWriteableRegistry,
+        this.publicationHandler = new PublicationTransportHandler(transportService, namedWriteableRegistry, bigArrays,
             this::handlePublishRequest, this::handleApplyCommit);
         this.leaderChecker = new LeaderChecker(settings, transportService, this::onLeaderFailure, nodeHealthService);
         this.followersChecker = new FollowersChecker(settings, transportService, this::onFollowerCheckRequest, this::removeNode,
@@ -712,7 +714,7 @@ public class Coordinator extends AbstractLifecycleComponent implements Discovery
 
     @Override
     public DiscoveryStats stats() {
-        return new DiscoveryStats(new PendingClusterStateStats(0, 0, 0), publicationHandler.stats());
+        return new DiscoveryStats(new PendingClusterStateStats(0, 0, 0), publicationHandler.stats(), clusterApplier.getStats());
     }
 
     @Override
@@ -1091,17 +1093,21 @@ public class Coordinator extends AbstractLifecycleComponent implements Discovery
 
                 final PublicationTransportHandler.PublicationContext publicationContext =
                     publicationHandler.newPublicationContext(clusterChangedEvent);
-
-                final PublishRequest publishRequest = coordinationState.get().handleClientValue(clusterState);
-                final CoordinatorPublication publication = new CoordinatorPublication(publishRequest, publicationContext,
-                    new ListenableFuture<>(), ackListener, publishListener);
-                currentPublication = Optional.of(publication);
-
-                final DiscoveryNodes publishNodes = publishRequest.getAcceptedState().nodes();
-                leaderChecker.setCurrentNodes(publishNodes);
-                followersChecker.setCurrentNodes(publishNodes);
-                lagDetector.setTrackedNodes(publishNodes);
-                publication.start(followersChecker.getFaultyNodes());
+                try {
+                    final PublishRequest publishRequest = coordinationState.get().handleClientValue(clusterState);
+                    final CoordinatorPublication publication = new CoordinatorPublication(publishRequest, publicationContext,
+                        new ListenableFuture<>(), ackListener, publishListener);
+                    currentPublication = Optional.of(publication);
+
+                    final DiscoveryNodes publishNodes = publishRequest.getAcceptedState().nodes();
+                    leaderChecker.setCurrentNodes(publishNodes);
+                    followersChecker.setCurrentNodes(publishNodes);
+                    lagDetector.setTrackedNodes(publishNodes);
+                    publication.start(followersChecker.getFaultyNodes());
+                } finally {
+                    // the publish requests that are still in flight hold their own references to the serialized states
+                    publicationContext.decRef();
+                }
             }
         } catch (Exception e) {
             logger.debug(() -> new ParameterizedMessage("[{}] publishing failed", clusterChangedEvent.source()), e);
@@ -1290,6 +1296,10 @@ public class Coordinator extends AbstractLifecycleComponent implements Discovery
         private final List<Join> receivedJoins = new ArrayList<>();
         private boolean receivedJoinsProcessed;
 
+        // relative times in millis at which the publication started and at which all publish and commit requests were completed
+        private final long startTimeMillis;
+        private long completionTimeMillis;
+
         CoordinatorPublication(PublishRequest publishRequest, PublicationTransportHandler.PublicationContext publicationContext,
                                ListenableFuture<Void> localNodeAckEvent, AckListener ackListener, ActionListener<Void> publishListener) {
             super(publishRequest,
@@ -1324,6 +1334,7 @@ public class Coordinator extends AbstractLifecycleComponent implements Discovery
             this.localNodeAckEvent = localNodeAckEvent;
             this.ackListener = ackListener;
             this.publishListener = publishListener;
+            this.startTimeMillis = transportService.getThreadPool().relativeTimeInMillis();
 
             this.timeoutHandler = singleNodeDiscovery ? null : transportService.getThreadPool().schedule(new Runnable() {
                 @Override
@@ -1375,6 +1386,7 @@ public class Coordinator extends AbstractLifecycleComponent implements Discovery
         @Override
         protected void onCompletion(boolean committed) {
             assert Thread.holdsLock(mutex) : "Coordinator mutex not held";
+            completionTimeMillis = transportService.getThreadPool().relativeTimeInMillis();
 
             localNodeAckEvent.addListener(new ActionListener<Void>() {
                 @Override
@@ -1404,6 +1416,7 @@ public class Coordinator extends AbstractLifecycleComponent implements Discovery
                                     assert currentPublication.get() == CoordinatorPublication.this;
                                     currentPublication = Optional.empty();
                                     logger.debug("publication ended successfully: {}", CoordinatorPublication.this);
+                                    logPublicationTimes();
                                     // trigger term bump if new term was found during publication
                                     updateMaxTermSeen(getCurrentTerm());
 
@@ -1460,6 +1473,19 @@ public class Coordinator extends AbstractLifecycleComponent implements Discovery
             }, EsExecutors.newDirectExecutorService(), transportService.getThreadPool().getThreadContext());
         }
 
+        private void logPublicationTimes() {
+            if (logger.isDebugEnabled()) {
+                final long endTimeMillis = transportService.getThreadPool().relativeTimeInMillis();
+                logger.debug("publication of cluster state version [{}] took [{}]: serialization took [{}], " +
+                        "publishing and committing took [{}], applying the state on the master took [{}]",
+                    publishRequest.getAcceptedState().version(),
+                    TimeValue.timeValueMillis(endTimeMillis - startTimeMillis),
+                    publicationContext.getSerializationTime(),
+                    TimeValue.timeValueMillis(completionTimeMillis - startTimeMillis),
+                    TimeValue.timeValueMillis(endTimeMillis - completionTimeMillis));
+            }
+        }
+
         private void cancelTimeoutHandlers() {
             if (timeoutHandler != null) {
                 timeoutHandler.cancel();
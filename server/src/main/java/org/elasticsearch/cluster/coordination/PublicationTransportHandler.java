@@ -19,16 +19,23 @@ import org.elasticsearch.cluster.Diff;
 import org.elasticsearch.cluster.IncompatibleClusterStateVersionException;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
-import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.CheckedConsumer;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.compress.Compressor;
 import org.elasticsearch.common.compress.CompressorFactory;
-import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.compress.DeflateCompressor;
+import org.elasticsearch.common.io.Streams;
 import org.elasticsearch.common.io.stream.InputStreamStreamInput;
 import org.elasticsearch.common.io.stream.NamedWriteableAwareStreamInput;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.ReleasableBytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.lease.Releasables;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.concurrent.AbstractRefCounted;
 import org.elasticsearch.core.internal.io.IOUtils;
 import org.elasticsearch.discovery.zen.PublishClusterStateAction;
 import org.elasticsearch.discovery.zen.PublishClusterStateStats;
@@ -51,6 +58,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.zip.Deflater;
 
 public class PublicationTransportHandler {
 
@@ -61,6 +69,7 @@ public class PublicationTransportHandler {
 
     private final TransportService transportService;
     private final NamedWriteableRegistry namedWriteableRegistry;
+    private final BigArrays bigArrays;
     private final Function<PublishRequest, PublishWithJoinResponse> handlePublishRequest;
 
     private final AtomicReference<ClusterState> lastSeenClusterState = new AtomicReference<>();
@@ -80,11 +89,16 @@ public class PublicationTransportHandler {
     private static final TransportRequestOptions STATE_REQUEST_OPTIONS =
             TransportRequestOptions.of(null, TransportRequestOptions.Type.STATE);
 
+    // the serialized states are compressed on the master's cluster state update thread and sent to every node, so we favour compression
+    // speed over ratio; the receiving nodes decompress them just like any other DEFLATE-compressed bytes
+    private static final int COMPRESSION_LEVEL = Deflater.BEST_SPEED;
+
     public PublicationTransportHandler(TransportService transportService, NamedWriteableRegistry namedWriteableRegistry,
-                                       Function<PublishRequest, PublishWithJoinResponse> handlePublishRequest,
+                                       BigArrays bigArrays, Function<PublishRequest, PublishWithJoinResponse> handlePublishRequest,
                                        BiConsumer<ApplyCommitRequest, ActionListener<Void>> handleApplyCommit) {
         this.transportService = transportService;
         this.namedWriteableRegistry = namedWriteableRegistry;
+        this.bigArrays = bigArrays;
         this.handlePublishRequest = handlePublishRequest;
 
         transportService.registerRequestHandler(PUBLISH_STATE_ACTION_NAME, ThreadPool.Names.GENERIC, false, false,
@@ -219,54 +233,86 @@ public class PublicationTransportHandler {
         return handlePublishRequest.apply(new PublishRequest(incomingState));
     }
 
+    /**
+     * Creates the context for publishing the given cluster state, which serializes the states or diffs that the nodes are expected to
+     * need. The returned context holds a reference that the caller must release with {@link PublicationContext#decRef()} once it has
+     * sent all its publish requests; each publish request holds its own reference until its response is received.
+     */
     public PublicationContext newPublicationContext(ClusterChangedEvent clusterChangedEvent) {
         final PublicationContext publicationContext = new PublicationContext(clusterChangedEvent);
-
-        // Build the serializations we expect to need now, early in the process, so that an error during serialization fails the publication
-        // straight away. This isn't watertight since we send diffs on a best-effort basis and may fall back to sending a full state (and
-        // therefore serializing it) if the diff-based publication fails.
-        publicationContext.buildDiffAndSerializeStates();
-        return publicationContext;
+        boolean success = false;
+        try {
+            // Build the serializations we expect to need now, early in the process, so that an error during serialization fails the
+            // publication straight away. This isn't watertight since we send diffs on a best-effort basis and may fall back to sending a
+            // full state (and therefore serializing it) if the diff-based publication fails.
+            publicationContext.buildDiffAndSerializeStates();
+            success = true;
+            return publicationContext;
+        } finally {
+            if (success == false) {
+                publicationContext.decRef();
+            }
+        }
     }
 
-    private static BytesReference serializeFullClusterState(ClusterState clusterState, Version nodeVersion) throws IOException {
-        final BytesStreamOutput bStream = new BytesStreamOutput();
-        try (StreamOutput stream = new OutputStreamStreamOutput(CompressorFactory.COMPRESSOR.threadLocalOutputStream(bStream))) {
-            stream.setVersion(nodeVersion);
+    private ReleasableBytesReference serializeFullClusterState(ClusterState clusterState, Version nodeVersion) throws IOException {
+        final ReleasableBytesReference serializedState = serialize(nodeVersion, stream -> {
             stream.writeBoolean(true);
             clusterState.writeTo(stream);
-        }
-        final BytesReference serializedState = bStream.bytes();
+        });
         logger.trace("serialized full cluster state version [{}] for node version [{}] with size [{}]",
             clusterState.version(), nodeVersion, serializedState.length());
         return serializedState;
     }
 
-    private static BytesReference serializeDiffClusterState(Diff<ClusterState> diff, Version nodeVersion) throws IOException {
-        final BytesStreamOutput bStream = new BytesStreamOutput();
-        try (StreamOutput stream = new OutputStreamStreamOutput(CompressorFactory.COMPRESSOR.threadLocalOutputStream(bStream))) {
-            stream.setVersion(nodeVersion);
+    private ReleasableBytesReference serializeDiffClusterState(Diff<ClusterState> diff, Version nodeVersion) throws IOException {
+        return serialize(nodeVersion, stream -> {
             stream.writeBoolean(false);
             diff.writeTo(stream);
+        });
+    }
+
+    /**
+     * Serializes and compresses a publication into recycled pages, which are released when the returned reference is closed.
+     */
+    private ReleasableBytesReference serialize(Version nodeVersion, CheckedConsumer<StreamOutput, IOException> writer) throws IOException {
+        final ReleasableBytesStreamOutput bStream = new ReleasableBytesStreamOutput(bigArrays);
+        boolean success = false;
+        try {
+            // closing the compressing stream closes the stream it writes to, which would release the pages we have yet to send
+            try (StreamOutput stream = new OutputStreamStreamOutput(
+                DeflateCompressor.outputStream(Streams.noCloseStream(bStream), COMPRESSION_LEVEL))) {
+                stream.setVersion(nodeVersion);
+                writer.accept(stream);
+            }
+            final ReleasableBytesReference serialized = new ReleasableBytesReference(bStream.bytes(), bStream);
+            success = true;
+            return serialized;
+        } finally {
+            if (success == false) {
+                bStream.close();
+            }
         }
-        return bStream.bytes();
     }
 
     /**
      * Publishing a cluster state typically involves sending the same cluster state (or diff) to every node, so the work of diffing,
      * serializing, and compressing the state can be done once and the results shared across publish requests. The
-     * {@code PublicationContext} implements this sharing.
+     * {@code PublicationContext} implements this sharing. The serialized states and diffs are held in recycled pages which are released
+     * once the context's last reference is released.
      */
-    public class PublicationContext {
+    public class PublicationContext extends AbstractRefCounted {
 
         private final DiscoveryNodes discoveryNodes;
         private final ClusterState newState;
         private final ClusterState previousState;
         private final boolean sendFullVersion;
-        private final Map<Version, BytesReference> serializedStates = new HashMap<>();
-        private final Map<Version, BytesReference> serializedDiffs = new HashMap<>();
+        private final Map<Version, ReleasableBytesReference> serializedStates = new HashMap<>();
+        private final Map<Version, ReleasableBytesReference> serializedDiffs = new HashMap<>();
+        private final AtomicLong serializationTimeNanos = new AtomicLong();
 
         PublicationContext(ClusterChangedEvent clusterChangedEvent) {
+            super("publication context for version [" + clusterChangedEvent.state().version() + "]");
             discoveryNodes = clusterChangedEvent.state().nodes();
             newState = clusterChangedEvent.state();
             previousState = clusterChangedEvent.previousState();
@@ -274,6 +320,7 @@ public class PublicationTransportHandler {
         }
 
         void buildDiffAndSerializeStates() {
+            final long startTimeNanos = System.nanoTime();
             Diff<ClusterState> diff = null;
             for (DiscoveryNode node : discoveryNodes) {
                 try {
@@ -287,7 +334,7 @@ public class PublicationTransportHandler {
                             diff = newState.diff(previousState);
                         }
                         if (serializedDiffs.containsKey(node.getVersion()) == false) {
-                            final BytesReference serializedDiff = serializeDiffClusterState(diff, node.getVersion());
+                            final ReleasableBytesReference serializedDiff = serializeDiffClusterState(diff, node.getVersion());
                             serializedDiffs.put(node.getVersion(), serializedDiff);
                             logger.trace("serialized cluster state diff for version [{}] in for node version [{}] with size [{}]",
                                 newState.version(), node.getVersion(), serializedDiff.length());
@@ -297,12 +344,31 @@ public class PublicationTransportHandler {
                     throw new ElasticsearchException("failed to serialize cluster state for publishing to node {}", e, node);
                 }
             }
+            serializationTimeNanos.addAndGet(System.nanoTime() - startTimeNanos);
+        }
+
+        /**
+         * @return the time spent diffing, serializing and compressing the published state so far
+         */
+        public TimeValue getSerializationTime() {
+            return TimeValue.timeValueNanos(serializationTimeNanos.get());
+        }
+
+        @Override
+        protected void closeInternal() {
+            synchronized (serializedStates) {
+                Releasables.close(serializedStates.values());
+            }
+            Releasables.close(serializedDiffs.values());
         }
 
         public void sendPublishRequest(DiscoveryNode destination, PublishRequest publishRequest,
-                                       ActionListener<PublishWithJoinResponse> listener) {
+                                       ActionListener<PublishWithJoinResponse> originalListener) {
             assert publishRequest.getAcceptedState() == newState : "state got switched on us";
             assert transportService.getThreadPool().getThreadContext().isSystemContext();
+            // the serialized state must not be released before the destination has received it, including any retry with the full state
+            incRef();
+            final ActionListener<PublishWithJoinResponse> listener = ActionListener.runAfter(originalListener, this::decRef);
             final ActionListener<PublishWithJoinResponse> responseActionListener;
             if (destination.equals(discoveryNodes.getLocalNode())) {
                 // if publishing to self, use original request instead (see currentPublishRequestToSelf for explanation)
@@ -373,29 +439,40 @@ public class PublicationTransportHandler {
         }
 
         private void sendFullClusterState(DiscoveryNode destination, ActionListener<PublishWithJoinResponse> listener) {
-            BytesReference bytes = serializedStates.get(destination.getVersion());
-            if (bytes == null) {
-                try {
-                    bytes = serializeFullClusterState(newState, destination.getVersion());
-                    serializedStates.put(destination.getVersion(), bytes);
-                } catch (Exception e) {
-                    logger.warn(() -> new ParameterizedMessage(
-                        "failed to serialize cluster state before publishing it to node {}", destination), e);
-                    listener.onFailure(e);
-                    return;
-                }
+            final ReleasableBytesReference bytes;
+            try {
+                bytes = getOrSerializeFullClusterState(destination.getVersion());
+            } catch (Exception e) {
+                logger.warn(() -> new ParameterizedMessage(
+                    "failed to serialize cluster state before publishing it to node {}", destination), e);
+                listener.onFailure(e);
+                return;
             }
             sendClusterState(destination, bytes, false, listener);
         }
 
+        private ReleasableBytesReference getOrSerializeFullClusterState(Version nodeVersion) throws IOException {
+            // full states may be serialized lazily when retrying a failed diff, which happens concurrently for several nodes
+            synchronized (serializedStates) {
+                ReleasableBytesReference bytes = serializedStates.get(nodeVersion);
+                if (bytes == null) {
+                    final long startTimeNanos = System.nanoTime();
+                    bytes = serializeFullClusterState(newState, nodeVersion);
+                    serializationTimeNanos.addAndGet(System.nanoTime() - startTimeNanos);
+                    serializedStates.put(nodeVersion, bytes);
+                }
+                return bytes;
+            }
+        }
+
         private void sendClusterStateDiff(DiscoveryNode destination, ActionListener<PublishWithJoinResponse> listener) {
-            final BytesReference bytes = serializedDiffs.get(destination.getVersion());
+            final ReleasableBytesReference bytes = serializedDiffs.get(destination.getVersion());
             assert bytes != null
                 : "failed to find serialized diff for node " + destination + " of version [" + destination.getVersion() + "]";
             sendClusterState(destination, bytes, true, listener);
         }
 
-        private void sendClusterState(DiscoveryNode destination, BytesReference bytes, boolean retryWithFullClusterStateOnFailure,
+        private void sendClusterState(DiscoveryNode destination, ReleasableBytesReference bytes, boolean retryWithFullClusterStateOnFailure,
                                       ActionListener<PublishWithJoinResponse> listener) {
             try {
                 final BytesTransportRequest request = new BytesTransportRequest(bytes, destination.getVersion());
@@ -327,6 +327,7 @@ public class IndexMetadata implements Diffable<IndexMetadata>, ToXContentFragmen
     static final String KEY_SETTINGS = "settings";
     static final String KEY_STATE = "state";
     static final String KEY_MAPPINGS = "mappings";
+    static final String KEY_MAPPINGS_HASH = "mappings_hash";
     static final String KEY_ALIASES = "aliases";
     static final String KEY_ROLLOVER_INFOS = "rollover_info";
     static final String KEY_SYSTEM = "system";
@@ -336,6 +337,14 @@ public class IndexMetadata implements Diffable<IndexMetadata>, ToXContentFragmen
     public static final String INDEX_STATE_FILE_PREFIX = "state-";
 
     static final Version SYSTEM_INDEX_FLAG_ADDED = Version.V_7_10_0;
+    static final Version SETTINGS_DIFF_VERSION = Version.V_7_11_3;
+
+    /**
+     * If set to {@code true} in the gateway context, the mappings are written as the SHA-256 hashes of their content rather than their
+     * content, for callers that store each distinct mapping once. Parsing them back requires these mappings by their hashes, see
+     * {@link #fromXContent(XContentParser, Map)}.
+     */
+    public static final String DEDUPLICATED_MAPPINGS_PARAM = "deduplicated_mappings";
 
     private final int routingNumShards;
     private final int routingFactor;
@@ -446,6 +455,18 @@ public class IndexMetadata implements Diffable<IndexMetadata>, ToXContentFragmen
         assert numberOfShards * routingFactor == routingNumShards :  routingNumShards + " must be a multiple of " + numberOfShards;
     }
 
+    /**
+     * Returns a copy of this index metadata with the given mappings, which must be equal to this index's mappings. Used to share a
+     * single instance of each distinct mapping between indices.
+     */
+    IndexMetadata withMappings(ImmutableOpenMap<String, MappingMetadata> sharedMappings) {
+        assert sharedMappings.equals(mappings) : "mappings " + sharedMappings + " differ from " + mappings;
+        return new IndexMetadata(index, version, mappingVersion, settingsVersion, aliasesVersion, primaryTerms, state, numberOfShards,
+            numberOfReplicas, settings, sharedMappings, aliases, customData, inSyncAllocationIds, requireFilters, initialRecoveryFilters,
+            includeFilters, excludeFilters, indexCreatedVersion, indexUpgradedVersion, routingNumShards, routingPartitionSize,
+            waitForActiveShards, rolloverInfos, isSystem, timestampMillisRange);
+    }
+
     public Index getIndex() {
         return index;
     }
@@ -746,6 +767,15 @@ public class IndexMetadata implements Diffable<IndexMetadata>, ToXContentFragmen
         return Builder.fromXContent(parser);
     }
 
+    /**
+     * Parses index metadata whose mappings may have been written as hashes, see {@link #DEDUPLICATED_MAPPINGS_PARAM}.
+     *
+     * @param mappingsByHash the mappings that may be referred to, by the SHA-256 hash of their content
+     */
+    public static IndexMetadata fromXContent(XContentParser parser, Map<String, MappingMetadata> mappingsByHash) throws IOException {
+        return Builder.fromXContent(parser, mappingsByHash);
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         Builder.toXContent(this, builder, params);
@@ -763,6 +793,8 @@ public class IndexMetadata implements Diffable<IndexMetadata>, ToXContentFragmen
         private final long[] primaryTerms;
         private final State state;
         private final Settings settings;
+        // whether the settings are identical to the ones the receiving node already has, in which case they need not be sent again
+        private final boolean settingsUnchanged;
         private final Diff<ImmutableOpenMap<String, MappingMetadata>> mappings;
         private final Diff<ImmutableOpenMap<String, AliasMetadata>> aliases;
         private final Diff<ImmutableOpenMap<String, DiffableStringMap>> customData;
@@ -780,6 +812,7 @@ public class IndexMetadata implements Diffable<IndexMetadata>, ToXContentFragmen
             routingNumShards = after.routingNumShards;
             state = after.state;
             settings = after.settings;
+            settingsUnchanged = before.settings.equals(after.settings);
             primaryTerms = after.primaryTerms;
             mappings = DiffableUtils.diff(before.mappings, after.mappings, DiffableUtils.getStringKeySerializer());
             aliases = DiffableUtils.diff(before.aliases, after.aliases, DiffableUtils.getStringKeySerializer());
@@ -820,7 +853,12 @@ public class IndexMetadata implements Diffable<IndexMetadata>, ToXContentFragmen
                 aliasesVersion = 1;
             }
             state = State.fromId(in.readByte());
-            settings = Settings.readSettingsFromStream(in);
+            if (in.getVersion().onOrAfter(SETTINGS_DIFF_VERSION)) {
+                settingsUnchanged = in.readBoolean();
+            } else {
+                settingsUnchanged = false;
+            }
+            settings = settingsUnchanged ? null : Settings.readSettingsFromStream(in);
             primaryTerms = in.readVLongArray();
             mappings = DiffableUtils.readImmutableOpenMapDiff(in, DiffableUtils.getStringKeySerializer(), MAPPING_DIFF_VALUE_READER);
             aliases = DiffableUtils.readImmutableOpenMapDiff(in, DiffableUtils.getStringKeySerializer(), ALIAS_METADATA_DIFF_VALUE_READER);
@@ -852,7 +890,14 @@ public class IndexMetadata implements Diffable<IndexMetadata>, ToXContentFragmen
                 out.writeVLong(aliasesVersion);
             }
             out.writeByte(state.id);
-            Settings.writeSettingsToStream(settings, out);
+            if (out.getVersion().onOrAfter(SETTINGS_DIFF_VERSION)) {
+                out.writeBoolean(settingsUnchanged);
+                if (settingsUnchanged == false) {
+                    Settings.writeSettingsToStream(settings, out);
+                }
+            } else {
+                Settings.writeSettingsToStream(settings, out);
+            }
             out.writeVLongArray(primaryTerms);
             mappings.writeTo(out);
             aliases.writeTo(out);
@@ -876,7 +921,7 @@ public class IndexMetadata implements Diffable<IndexMetadata>, ToXContentFragmen
             builder.aliasesVersion(aliasesVersion);
             builder.setRoutingNumShards(routingNumShards);
             builder.state(state);
-            builder.settings(settings);
+            builder.settings(settingsUnchanged ? part.settings : settings);
             builder.primaryTerms(primaryTerms);
             builder.mappings.putAll(mappings.apply(part.mappings));
             builder.aliases.putAll(aliases.apply(part.aliases));
@@ -890,6 +935,16 @@ public class IndexMetadata implements Diffable<IndexMetadata>, ToXContentFragmen
     }
 
     public static IndexMetadata readFrom(StreamInput in) throws IOException {
+        return readFrom(in, null);
+    }
+
+    /**
+     * Reads index metadata that was written with {@link #writeTo(StreamOutput, boolean)}.
+     *
+     * @param mappingLookup resolves the hashes of the mappings if they were written as hashes, or {@code null} if the mappings were
+     *                      written in full
+     */
+    static IndexMetadata readFrom(StreamInput in, @Nullable Function<String, MappingMetadata> mappingLookup) throws IOException {
         Builder builder = new Builder(in.readString());
         builder.version(in.readLong());
         if (in.getVersion().onOrAfter(Version.V_6_5_0)) {
@@ -913,7 +968,7 @@ public class IndexMetadata implements Diffable<IndexMetadata>, ToXContentFragmen
         builder.primaryTerms(in.readVLongArray());
         int mappingsSize = in.readVInt();
         for (int i = 0; i < mappingsSize; i++) {
-            MappingMetadata mappingMd = new MappingMetadata(in);
+            MappingMetadata mappingMd = mappingLookup == null ? new MappingMetadata(in) : mappingLookup.apply(in.readString());
             builder.putMapping(mappingMd);
         }
         int aliasesSize = in.readVInt();
@@ -948,6 +1003,14 @@ public class IndexMetadata implements Diffable<IndexMetadata>, ToXContentFragmen
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
+        writeTo(out, false);
+    }
+
+    /**
+     * Writes this index metadata, optionally only writing the hashes of its mappings (see {@link MappingMetadata#getSha256()}) if the
+     * mappings themselves are written separately, see {@link Metadata#writeTo(StreamOutput)}.
+     */
+    void writeTo(StreamOutput out, boolean mappingsAsHash) throws IOException {
         out.writeString(index.getName()); // uuid will come as part of settings
         out.writeLong(version);
         if (out.getVersion().onOrAfter(Version.V_6_5_0)) {
@@ -965,7 +1028,11 @@ public class IndexMetadata implements Diffable<IndexMetadata>, ToXContentFragmen
         out.writeVLongArray(primaryTerms);
         out.writeVInt(mappings.size());
         for (ObjectCursor<MappingMetadata> cursor : mappings.values()) {
-            cursor.value.writeTo(out);
+            if (mappingsAsHash) {
+                out.writeString(cursor.value.getSha256());
+            } else {
+                cursor.value.writeTo(out);
+            }
         }
         out.writeVInt(aliases.size());
         for (ObjectCursor<AliasMetadata> cursor : aliases.values()) {
@@ -1413,7 +1480,13 @@ public class IndexMetadata implements Diffable<IndexMetadata>, ToXContentFragmen
             }
             builder.endObject();
 
-            if (context != Metadata.XContentContext.API) {
+            if (context == Metadata.XContentContext.GATEWAY && params.paramAsBoolean(DEDUPLICATED_MAPPINGS_PARAM, false)) {
+                builder.startArray(KEY_MAPPINGS_HASH);
+                for (ObjectCursor<MappingMetadata> cursor : indexMetadata.getMappings().values()) {
+                    builder.value(cursor.value.getSha256());
+                }
+                builder.endArray();
+            } else if (context != Metadata.XContentContext.API) {
                 builder.startArray(KEY_MAPPINGS);
                 for (ObjectObjectCursor<String, MappingMetadata> cursor : indexMetadata.getMappings()) {
                     if (binary) {
@@ -1495,6 +1568,10 @@ public class IndexMetadata implements Diffable<IndexMetadata>, ToXContentFragmen
         }
 
         public static IndexMetadata fromXContent(XContentParser parser) throws IOException {
+            return fromXContent(parser, null);
+        }
+
+        static IndexMetadata fromXContent(XContentParser parser, @Nullable Map<String, MappingMetadata> mappingsByHash) throws IOException {
             if (parser.currentToken() == null) { // fresh parser? move to the first token
                 parser.nextToken();
             }
@@ -1590,6 +1667,15 @@ public class IndexMetadata implements Diffable<IndexMetadata>, ToXContentFragmen
                                 }
                             }
                         }
+                    } else if (KEY_MAPPINGS_HASH.equals(currentFieldName) && mappingsByHash != null) {
+                        while ((token = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
+                            final String hash = parser.text();
+                            final MappingMetadata mappingMetadata = mappingsByHash.get(hash);
+                            if (mappingMetadata == null) {
+                                throw new IllegalArgumentException("no mapping found for hash [" + hash + "]");
+                            }
+                            builder.putMapping(mappingMetadata);
+                        }
                     } else if (KEY_PRIMARY_TERMS.equals(currentFieldName)) {
                         LongArrayList list = new LongArrayList();
                         while ((token = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
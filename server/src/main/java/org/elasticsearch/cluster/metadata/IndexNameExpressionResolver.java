@@ -47,6 +47,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.Spliterators;
+import java.util.TreeMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -965,17 +966,38 @@ public class IndexNameExpressionResolver {
         private static Map<String, IndexAbstraction> suffixWildcard(Context context, Metadata metadata, String expression) {
             assert expression.length() >= 2 : "expression [" + expression + "] should have at least a length of 2";
             String fromPrefix = expression.substring(0, expression.length() - 1);
-            char[] toPrefixCharArr = fromPrefix.toCharArray();
-            toPrefixCharArr[toPrefixCharArr.length - 1]++;
-            String toPrefix = new String(toPrefixCharArr);
-            SortedMap<String, IndexAbstraction> subMap = metadata.getIndicesLookup().subMap(fromPrefix, toPrefix);
+            SortedMap<String, IndexAbstraction> subMap = startingWith(metadata.getIndicesLookup(), fromPrefix);
             return filterIndicesLookup(context, subMap, null, context.getOptions());
         }
 
         private static Map<String, IndexAbstraction> otherWildcard(Context context, Metadata metadata, String expression) {
             final String pattern = expression;
-            return filterIndicesLookup(context, metadata.getIndicesLookup(), e -> Regex.simpleMatch(pattern, e.getKey()),
-                context.getOptions());
+            // Only names that start with the literal prefix of the pattern and end with its literal suffix can match, so we only match
+            // the pattern against the names that start with the prefix or end with the suffix, whichever is longer. Names ending with
+            // the suffix are the names starting with the reversed suffix in the reversed lookup.
+            final String prefix = expression.substring(0, expression.indexOf('*'));
+            final String suffix = expression.substring(expression.lastIndexOf('*') + 1);
+            final SortedMap<String, IndexAbstraction> candidates;
+            if (prefix.isEmpty() == false && prefix.length() >= suffix.length()) {
+                candidates = startingWith(metadata.getIndicesLookup(), prefix);
+            } else if (suffix.isEmpty() == false) {
+                final String reversedSuffix = new StringBuilder(suffix).reverse().toString();
+                candidates = new TreeMap<>();
+                for (IndexAbstraction indexAbstraction : startingWith(metadata.getReversedIndicesLookup(), reversedSuffix).values()) {
+                    candidates.put(indexAbstraction.getName(), indexAbstraction);
+                }
+            } else {
+                // infix patterns like *logs* have neither a literal prefix nor a literal suffix and still match against every name
+                candidates = metadata.getIndicesLookup();
+            }
+            return filterIndicesLookup(context, candidates, e -> Regex.simpleMatch(pattern, e.getKey()), context.getOptions());
+        }
+
+        private static SortedMap<String, IndexAbstraction> startingWith(SortedMap<String, IndexAbstraction> lookup, String prefix) {
+            char[] toPrefixCharArr = prefix.toCharArray();
+            toPrefixCharArr[toPrefixCharArr.length - 1]++;
+            String toPrefix = new String(toPrefixCharArr);
+            return lookup.subMap(prefix, toPrefix);
         }
 
         private static Map<String, IndexAbstraction> filterIndicesLookup(Context context, SortedMap<String, IndexAbstraction> indicesLookup,
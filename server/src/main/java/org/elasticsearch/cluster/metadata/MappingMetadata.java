@@ -12,7 +12,9 @@ import org.elasticsearch.ElasticsearchParseException;
 import org.elasticsearch.Version;
 import org.elasticsearch.cluster.AbstractDiffable;
 import org.elasticsearch.cluster.Diff;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.compress.CompressedXContent;
+import org.elasticsearch.common.hash.MessageDigests;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.xcontent.ToXContent;
@@ -67,6 +69,9 @@ public class MappingMetadata extends AbstractDiffable<MappingMetadata> {
 
     private Routing routing;
 
+    // lazily computed, see #getSha256()
+    private volatile String sha256;
+
     public MappingMetadata(DocumentMapper docMapper) {
         this.type = docMapper.type();
         this.source = docMapper.mappingSource();
@@ -153,6 +158,18 @@ public class MappingMetadata extends AbstractDiffable<MappingMetadata> {
         return this.routing;
     }
 
+    /**
+     * @return the hex-encoded SHA-256 hash of the uncompressed mapping source, which identifies the mappings that indices can share
+     */
+    public String getSha256() {
+        String sha256 = this.sha256;
+        if (sha256 == null) {
+            sha256 = MessageDigests.toHexString(MessageDigests.sha256().digest(BytesReference.toBytes(source.uncompressed())));
+            this.sha256 = sha256;
+        }
+        return sha256;
+    }
+
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         out.writeString(type());
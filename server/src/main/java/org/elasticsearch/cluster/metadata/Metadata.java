@@ -48,6 +48,7 @@ import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.gateway.MetadataStateFormat;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.IndexNotFoundException;
+import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.plugins.MapperPlugin;
 import org.elasticsearch.rest.RestStatus;
 
@@ -59,6 +60,7 @@ import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -155,6 +157,8 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, To
 
     private static final NamedDiffableValueSerializer<Custom> CUSTOM_VALUE_SERIALIZER = new NamedDiffableValueSerializer<>(Custom.class);
 
+    static final Version MAPPINGS_AS_HASH_VERSION = Version.V_7_11_3;
+
     private final String clusterUUID;
     private final boolean clusterUUIDCommitted;
     private final long version;
@@ -168,6 +172,8 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, To
     private final ImmutableOpenMap<String, IndexMetadata> indices;
     private final ImmutableOpenMap<String, IndexTemplateMetadata> templates;
     private final ImmutableOpenMap<String, Custom> customs;
+    // the mapping instances that are shared by the indices, by the hash of their content
+    private final Map<String, MappingMetadata> mappingsByHash;
 
     private final transient int totalNumberOfShards; // Transient ? not serializable anyway?
     private final int totalOpenIndexShards;
@@ -180,13 +186,15 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, To
     private final String[] visibleClosedIndices;
 
     private final SortedMap<String, IndexAbstraction> indicesLookup;
+    private final SortedMap<String, IndexAbstraction> reversedIndicesLookup;
 
     Metadata(String clusterUUID, boolean clusterUUIDCommitted, long version, CoordinationMetadata coordinationMetadata,
              Settings transientSettings, Settings persistentSettings, DiffableStringMap hashesOfConsistentSettings,
              ImmutableOpenMap<String, IndexMetadata> indices, ImmutableOpenMap<String, IndexTemplateMetadata> templates,
-             ImmutableOpenMap<String, Custom> customs, String[] allIndices, String[] visibleIndices, String[] allOpenIndices,
-             String[] visibleOpenIndices, String[] allClosedIndices, String[] visibleClosedIndices,
-             SortedMap<String, IndexAbstraction> indicesLookup) {
+             ImmutableOpenMap<String, Custom> customs, Map<String, MappingMetadata> mappingsByHash, String[] allIndices,
+             String[] visibleIndices, String[] allOpenIndices, String[] visibleOpenIndices, String[] allClosedIndices,
+             String[] visibleClosedIndices, SortedMap<String, IndexAbstraction> indicesLookup,
+             SortedMap<String, IndexAbstraction> reversedIndicesLookup) {
         this.clusterUUID = clusterUUID;
         this.clusterUUIDCommitted = clusterUUIDCommitted;
         this.version = version;
@@ -198,6 +206,7 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, To
         this.indices = indices;
         this.customs = customs;
         this.templates = templates;
+        this.mappingsByHash = mappingsByHash;
         int totalNumberOfShards = 0;
         int totalOpenIndexShards = 0;
         for (ObjectCursor<IndexMetadata> cursor : indices.values()) {
@@ -216,6 +225,7 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, To
         this.allClosedIndices = allClosedIndices;
         this.visibleClosedIndices = visibleClosedIndices;
         this.indicesLookup = indicesLookup;
+        this.reversedIndicesLookup = reversedIndicesLookup;
     }
 
     public long version() {
@@ -285,6 +295,14 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, To
         return indicesLookup;
     }
 
+    /**
+     * The same indices, aliases and data streams as {@link #getIndicesLookup()}, but keyed by their names reversed, so that the names
+     * ending in a given suffix can be looked up as a range of this map.
+     */
+    SortedMap<String, IndexAbstraction> getReversedIndicesLookup() {
+        return reversedIndicesLookup;
+    }
+
     /**
      * Finds the specific index aliases that point to the requested concrete indices directly
      * or that match with the indices via wildcards.
@@ -981,6 +999,7 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, To
             builder.indices(indices.apply(part.indices));
             builder.templates(templates.apply(part.templates));
             builder.customs(customs.apply(part.customs));
+            builder.mappingsByHash.putAll(part.mappingsByHash);
             return builder.build();
         }
     }
@@ -1000,9 +1019,25 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, To
         if (in.getVersion().onOrAfter(Version.V_7_3_0)) {
             builder.hashesOfConsistentSettings(DiffableStringMap.readFrom(in));
         }
-        int size = in.readVInt();
-        for (int i = 0; i < size; i++) {
-            builder.put(IndexMetadata.readFrom(in), false);
+        int size;
+        if (in.getVersion().onOrAfter(MAPPINGS_AS_HASH_VERSION)) {
+            final Map<String, MappingMetadata> mappingsByHash = in.readMap(StreamInput::readString, MappingMetadata::new);
+            final Function<String, MappingMetadata> mappingLookup = hash -> {
+                final MappingMetadata mappingMetadata = mappingsByHash.get(hash);
+                if (mappingMetadata == null) {
+                    throw new IllegalStateException("no mapping found for hash [" + hash + "]");
+                }
+                return mappingMetadata;
+            };
+            size = in.readVInt();
+            for (int i = 0; i < size; i++) {
+                builder.put(IndexMetadata.readFrom(in, in.readBoolean() ? mappingLookup : null), false);
+            }
+        } else {
+            size = in.readVInt();
+            for (int i = 0; i < size; i++) {
+                builder.put(IndexMetadata.readFrom(in), false);
+            }
         }
         size = in.readVInt();
         for (int i = 0; i < size; i++) {
@@ -1031,9 +1066,20 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, To
         if (out.getVersion().onOrAfter(Version.V_7_3_0)) {
             hashesOfConsistentSettings.writeTo(out);
         }
-        out.writeVInt(indices.size());
-        for (IndexMetadata indexMetadata : this) {
-            indexMetadata.writeTo(out);
+        if (out.getVersion().onOrAfter(MAPPINGS_AS_HASH_VERSION)) {
+            // write each shared mapping only once, and let the indices refer to them by hash
+            out.writeMap(mappingsByHash, StreamOutput::writeString, (o, mappingMetadata) -> mappingMetadata.writeTo(o));
+            out.writeVInt(indices.size());
+            for (IndexMetadata indexMetadata : this) {
+                final boolean mappingsAsHash = usesSharedMappings(indexMetadata);
+                out.writeBoolean(mappingsAsHash);
+                indexMetadata.writeTo(out, mappingsAsHash);
+            }
+        } else {
+            out.writeVInt(indices.size());
+            for (IndexMetadata indexMetadata : this) {
+                indexMetadata.writeTo(out);
+            }
         }
         out.writeVInt(templates.size());
         for (ObjectCursor<IndexTemplateMetadata> cursor : templates.values()) {
@@ -1054,6 +1100,22 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, To
         }
     }
 
+    private boolean usesSharedMappings(IndexMetadata indexMetadata) {
+        for (ObjectCursor<MappingMetadata> cursor : indexMetadata.getMappings().values()) {
+            if (mappingsByHash.get(cursor.value.getSha256()) != cursor.value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the mappings that are shared by the indices in this metadata, by the hash of their content
+     */
+    public Map<String, MappingMetadata> getMappingsByHash() {
+        return mappingsByHash;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -1076,12 +1138,14 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, To
         private final ImmutableOpenMap.Builder<String, IndexMetadata> indices;
         private final ImmutableOpenMap.Builder<String, IndexTemplateMetadata> templates;
         private final ImmutableOpenMap.Builder<String, Custom> customs;
+        private final Map<String, MappingMetadata> mappingsByHash;
 
         public Builder() {
             clusterUUID = UNKNOWN_CLUSTER_UUID;
             indices = ImmutableOpenMap.builder();
             templates = ImmutableOpenMap.builder();
             customs = ImmutableOpenMap.builder();
+            mappingsByHash = new HashMap<>();
             indexGraveyard(IndexGraveyard.builder().build()); // create new empty index graveyard to initialize
         }
 
@@ -1096,6 +1160,7 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, To
             this.indices = ImmutableOpenMap.builder(metadata.indices);
             this.templates = ImmutableOpenMap.builder(metadata.templates);
             this.customs = ImmutableOpenMap.builder(metadata.customs);
+            this.mappingsByHash = new HashMap<>(metadata.mappingsByHash);
         }
 
         public Builder put(IndexMetadata.Builder indexMetadataBuilder) {
@@ -1378,6 +1443,8 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, To
         }
 
         public Metadata build() {
+            dedupeMappings();
+
             // TODO: We should move these datastructures to IndexNameExpressionResolver, this will give the following benefits:
             // 1) The datastructures will be rebuilt only when needed. Now during serializing we rebuild these datastructures
             //    while these datastructures aren't even used.
@@ -1462,6 +1529,8 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, To
             }
 
             SortedMap<String, IndexAbstraction> indicesLookup = Collections.unmodifiableSortedMap(buildIndicesLookup());
+            SortedMap<String, IndexAbstraction> reversedIndicesLookup =
+                Collections.unmodifiableSortedMap(buildReversedIndicesLookup(indicesLookup));
 
             validateDataStreams(indicesLookup, (DataStreamMetadata) customs.get(DataStreamMetadata.TYPE));
 
@@ -1477,8 +1546,66 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, To
             String[] visibleClosedIndicesArray = visibleClosedIndices.toArray(Strings.EMPTY_ARRAY);
 
             return new Metadata(clusterUUID, clusterUUIDCommitted, version, coordinationMetadata, transientSettings, persistentSettings,
-                hashesOfConsistentSettings, indices.build(), templates.build(), customs.build(), allIndicesArray, visibleIndicesArray,
-                allOpenIndicesArray, visibleOpenIndicesArray, allClosedIndicesArray, visibleClosedIndicesArray, indicesLookup);
+                hashesOfConsistentSettings, indices.build(), templates.build(), customs.build(),
+                Collections.unmodifiableMap(new HashMap<>(mappingsByHash)), allIndicesArray, visibleIndicesArray, allOpenIndicesArray,
+                visibleOpenIndicesArray, allClosedIndicesArray, visibleClosedIndicesArray, indicesLookup, reversedIndicesLookup);
+        }
+
+        /**
+         * Replaces the mappings of the indices with equal mapping instances that are shared by all indices with the same mappings, so that
+         * the heap used by the mappings grows with the number of distinct mappings rather than with the number of indices. For each
+         * distinct mapping the instance that is already shared in the metadata this builder was created from is kept, or else the instance
+         * that most indices hold, so that indices whose mappings are already shared are never replaced by a copy.
+         */
+        private void dedupeMappings() {
+            final Map<String, Map<MappingMetadata, Integer>> instancesByHash = new HashMap<>();
+            for (ObjectCursor<IndexMetadata> cursor : indices.values()) {
+                final ImmutableOpenMap<String, MappingMetadata> mappings = cursor.value.getMappings();
+                if (mappings.containsKey(MapperService.DEFAULT_MAPPING)) {
+                    // the mappings of an index with a _default_ mapping are updated in place with its routing, so we must not share them
+                    continue;
+                }
+                for (ObjectCursor<MappingMetadata> mapping : mappings.values()) {
+                    instancesByHash.computeIfAbsent(mapping.value.getSha256(), hash -> new IdentityHashMap<>())
+                        .merge(mapping.value, 1, Integer::sum);
+                }
+            }
+            final Map<String, MappingMetadata> sharedMappings = new HashMap<>(instancesByHash.size());
+            for (Map.Entry<String, Map<MappingMetadata, Integer>> instances : instancesByHash.entrySet()) {
+                final MappingMetadata interned = mappingsByHash.get(instances.getKey());
+                if (interned != null && instances.getValue().containsKey(interned)) {
+                    sharedMappings.put(instances.getKey(), interned);
+                } else {
+                    sharedMappings.put(instances.getKey(),
+                        Collections.max(instances.getValue().entrySet(), Map.Entry.comparingByValue()).getKey());
+                }
+            }
+            final List<IndexMetadata> dedupedIndices = new ArrayList<>();
+            for (ObjectCursor<IndexMetadata> cursor : indices.values()) {
+                final ImmutableOpenMap<String, MappingMetadata> mappings = cursor.value.getMappings();
+                if (mappings.containsKey(MapperService.DEFAULT_MAPPING)) {
+                    continue;
+                }
+                ImmutableOpenMap.Builder<String, MappingMetadata> dedupedMappings = null;
+                for (ObjectObjectCursor<String, MappingMetadata> mapping : mappings) {
+                    final MappingMetadata shared = sharedMappings.get(mapping.value.getSha256());
+                    // mappings with colliding hashes but different content keep their own instance
+                    if (shared != mapping.value && shared.equals(mapping.value)) {
+                        if (dedupedMappings == null) {
+                            dedupedMappings = ImmutableOpenMap.builder(mappings);
+                        }
+                        dedupedMappings.put(mapping.key, shared);
+                    }
+                }
+                if (dedupedMappings != null) {
+                    dedupedIndices.add(cursor.value.withMappings(dedupedMappings.build()));
+                }
+            }
+            for (IndexMetadata indexMetadata : dedupedIndices) {
+                indices.put(indexMetadata.getIndex().getName(), indexMetadata);
+            }
+            mappingsByHash.clear();
+            mappingsByHash.putAll(sharedMappings);
         }
 
         private SortedMap<String, IndexAbstraction> buildIndicesLookup() {
@@ -1539,6 +1666,14 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, To
             return indicesLookup;
         }
 
+        private static SortedMap<String, IndexAbstraction> buildReversedIndicesLookup(SortedMap<String, IndexAbstraction> indicesLookup) {
+            SortedMap<String, IndexAbstraction> reversedIndicesLookup = new TreeMap<>();
+            for (IndexAbstraction indexAbstraction : indicesLookup.values()) {
+                reversedIndicesLookup.put(new StringBuilder(indexAbstraction.getName()).reverse().toString(), indexAbstraction);
+            }
+            return reversedIndicesLookup;
+        }
+
         /**
          * Validates there isn't any index with a name that could clash with the future backing indices of the existing data streams.
          *
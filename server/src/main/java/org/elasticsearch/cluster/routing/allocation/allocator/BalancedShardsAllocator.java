@@ -39,6 +39,7 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.gateway.PriorityComparator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -61,6 +62,8 @@ import static org.elasticsearch.cluster.routing.ShardRoutingState.RELOCATING;
  * of {@link org.elasticsearch.cluster.routing.ShardRouting}s per index allocated on a specific node</li>
  * <li><code>cluster.routing.allocation.balance.threshold</code> - A <b>threshold</b> to set the minimal optimization
  * value of operations that should be performed</li>
+ * <li><code>cluster.routing.allocation.balance.incremental</code> - Whether to keep the nodes ordered by weight
+ * <b>incrementally</b> while shards are assigned and relocated on the model, rather than sorting them again after every change</li>
  * </ul>
  * <p>
  * These parameters are combined in a {@link WeightFunction} that allows calculation of node weights which
@@ -77,9 +80,12 @@ public class BalancedShardsAllocator implements ShardsAllocator {
     public static final Setting<Float> THRESHOLD_SETTING =
         Setting.floatSetting("cluster.routing.allocation.balance.threshold", 1.0f, 0.0f,
             Property.Dynamic, Property.NodeScope);
+    public static final Setting<Boolean> INCREMENTAL_SETTING =
+        Setting.boolSetting("cluster.routing.allocation.balance.incremental", false, Property.Dynamic, Property.NodeScope);
 
     private volatile WeightFunction weightFunction;
     private volatile float threshold;
+    private volatile boolean incremental;
 
     public BalancedShardsAllocator(Settings settings) {
         this(settings, new ClusterSettings(settings, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS));
@@ -89,8 +95,10 @@ public class BalancedShardsAllocator implements ShardsAllocator {
     public BalancedShardsAllocator(Settings settings, ClusterSettings clusterSettings) {
         setWeightFunction(INDEX_BALANCE_FACTOR_SETTING.get(settings), SHARD_BALANCE_FACTOR_SETTING.get(settings));
         setThreshold(THRESHOLD_SETTING.get(settings));
+        setIncremental(INCREMENTAL_SETTING.get(settings));
         clusterSettings.addSettingsUpdateConsumer(INDEX_BALANCE_FACTOR_SETTING, SHARD_BALANCE_FACTOR_SETTING, this::setWeightFunction);
         clusterSettings.addSettingsUpdateConsumer(THRESHOLD_SETTING, this::setThreshold);
+        clusterSettings.addSettingsUpdateConsumer(INCREMENTAL_SETTING, this::setIncremental);
     }
 
     private void setWeightFunction(float indexBalance, float shardBalanceFactor) {
@@ -101,13 +109,17 @@ public class BalancedShardsAllocator implements ShardsAllocator {
         this.threshold = threshold;
     }
 
+    private void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
     @Override
     public void allocate(RoutingAllocation allocation) {
         if (allocation.routingNodes().size() == 0) {
             failAllocationOfNewPrimaries(allocation);
             return;
         }
-        final Balancer balancer = new Balancer(logger, allocation, weightFunction, threshold);
+        final Balancer balancer = new Balancer(logger, allocation, weightFunction, threshold, incremental);
         balancer.allocateUnassigned();
         balancer.moveShards();
         balancer.balance();
@@ -115,7 +127,7 @@ public class BalancedShardsAllocator implements ShardsAllocator {
 
     @Override
     public ShardAllocationDecision decideShardAllocation(final ShardRouting shard, final RoutingAllocation allocation) {
-        Balancer balancer = new Balancer(logger, allocation, weightFunction, threshold);
+        Balancer balancer = new Balancer(logger, allocation, weightFunction, threshold, incremental);
         AllocateUnassignedDecision allocateUnassignedDecision = AllocateUnassignedDecision.NOT_TAKEN;
         MoveDecision moveDecision = MoveDecision.NOT_TAKEN;
         if (shard.unassigned()) {
@@ -168,6 +180,13 @@ public class BalancedShardsAllocator implements ShardsAllocator {
         return weightFunction.shardBalance;
     }
 
+    /**
+     * Returns whether the nodes are kept ordered by weight incrementally.
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
 
     /**
      * This class is the primary weight function used to create balanced over nodes and shards in the cluster.
@@ -229,15 +248,21 @@ public class BalancedShardsAllocator implements ShardsAllocator {
         private final WeightFunction weight;
 
         private final float threshold;
+        private final boolean incremental;
         private final Metadata metadata;
         private final float avgShardsPerNode;
         private final NodeSorter sorter;
 
         public Balancer(Logger logger, RoutingAllocation allocation, WeightFunction weight, float threshold) {
+            this(logger, allocation, weight, threshold, false);
+        }
+
+        public Balancer(Logger logger, RoutingAllocation allocation, WeightFunction weight, float threshold, boolean incremental) {
             this.logger = logger;
             this.allocation = allocation;
             this.weight = weight;
             this.threshold = threshold;
+            this.incremental = incremental;
             this.routingNodes = allocation.routingNodes();
             this.metadata = allocation.metadata();
             avgShardsPerNode = ((float) metadata.getTotalNumberOfShards()) / routingNodes.size();
@@ -522,14 +547,20 @@ public class BalancedShardsAllocator implements ShardsAllocator {
                             logger.trace("Couldn't find shard to relocate from node [{}] to node [{}]",
                                 maxNode.getNodeId(), minNode.getNodeId());
                         } else if (tryRelocateShard(minNode, maxNode, index)) {
-                            /*
-                             * TODO we could be a bit smarter here, we don't need to fully sort necessarily
-                             * we could just find the place to insert linearly but the win might be minor
-                             * compared to the added complexity
-                             */
                             weights[lowIdx] = sorter.weight(modelNodes[lowIdx]);
                             weights[highIdx] = sorter.weight(modelNodes[highIdx]);
-                            sorter.sort(0, relevantNodes);
+                            if (incremental) {
+                                if (deciders.canRebalance(allocation).type() != Type.YES) {
+                                    /* no further relocation can start in this round, so balancing any further would only be
+                                     * simulated on the model which is thrown away at the end of the round anyway */
+                                    logger.trace("Stop balancing as no further shards can be rebalanced in this round");
+                                    return;
+                                }
+                                // only the weights of the two nodes changed, so move them to their place instead of sorting again
+                                sorter.resort(0, relevantNodes);
+                            } else {
+                                sorter.sort(0, relevantNodes);
+                            }
                             lowIdx = 0;
                             highIdx = relevantNodes - 1;
                             continue;
@@ -572,8 +603,13 @@ public class BalancedShardsAllocator implements ShardsAllocator {
             final String[] indices = allocation.routingTable().indicesRouting().keys().toArray(String.class);
             final float[] deltas = new float[indices.length];
             for (int i = 0; i < deltas.length; i++) {
-                sorter.reset(indices[i]);
-                deltas[i] = sorter.delta();
+                if (incremental) {
+                    // the delta only depends on the minimal and the maximal weight, which doesn't require sorting the nodes
+                    deltas[i] = weightDelta(indices[i]);
+                } else {
+                    sorter.reset(indices[i]);
+                    deltas[i] = sorter.delta();
+                }
             }
             new IntroSorter() {
 
@@ -608,6 +644,20 @@ public class BalancedShardsAllocator implements ShardsAllocator {
             return indices;
         }
 
+        /**
+         * Returns the difference between the maximal and the minimal weight of the nodes with respect to the given index.
+         */
+        private float weightDelta(String index) {
+            float minWeight = Float.POSITIVE_INFINITY;
+            float maxWeight = Float.NEGATIVE_INFINITY;
+            for (ModelNode node : sorter.modelNodes) {
+                final float nodeWeight = weight.weight(this, node, index);
+                minWeight = Math.min(minWeight, nodeWeight);
+                maxWeight = Math.max(maxWeight, nodeWeight);
+            }
+            return maxWeight - minWeight;
+        }
+
         /**
          * Move started shards that can not be allocated to a node anymore
          *
@@ -784,10 +834,14 @@ public class BalancedShardsAllocator implements ShardsAllocator {
             int secondaryLength = 0;
             int primaryLength = primary.length;
             ArrayUtil.timSort(primary, comparator);
+            // the shards are mostly grouped by index, so keep the nodes ordered by weight for the index at hand
+            final WeightOrderedNodes weightOrderedNodes = incremental ? new WeightOrderedNodes(nodesArray(), weight, this) : null;
             do {
                 for (int i = 0; i < primaryLength; i++) {
                     ShardRouting shard = primary[i];
-                    final AllocateUnassignedDecision allocationDecision = decideAllocateUnassigned(shard);
+                    final AllocateUnassignedDecision allocationDecision = weightOrderedNodes == null
+                        ? decideAllocateUnassigned(shard)
+                        : decideAllocateUnassigned(shard, weightOrderedNodes.orderFor(shard.getIndexName()), true);
                     final String assignedNodeId = allocationDecision.getTargetNode() != null ?
                                                       allocationDecision.getTargetNode().getId() : null;
                     final ModelNode minNode = assignedNodeId != null ? nodes.get(assignedNodeId) : null;
@@ -802,6 +856,9 @@ public class BalancedShardsAllocator implements ShardsAllocator {
                             allocation.clusterInfo(), allocation.snapshotShardSizeInfo(), allocation.metadata(), allocation.routingTable());
                         shard = routingNodes.initializeShard(shard, minNode.getNodeId(), null, shardSize, allocation.changes());
                         minNode.addShard(shard);
+                        if (weightOrderedNodes != null) {
+                            weightOrderedNodes.weightChanged(minNode);
+                        }
                         if (!shard.primary()) {
                             // copy over the same replica shards to the secondary array so they will get allocated
                             // in a subsequent iteration, allowing replicas of other shards to be allocated first
@@ -824,6 +881,9 @@ public class BalancedShardsAllocator implements ShardsAllocator {
                                 allocation.clusterInfo(), allocation.snapshotShardSizeInfo(), allocation.metadata(),
                                 allocation.routingTable());
                             minNode.addShard(shard.initialize(minNode.getNodeId(), null, shardSize));
+                            if (weightOrderedNodes != null) {
+                                weightOrderedNodes.weightChanged(minNode);
+                            }
                         } else {
                             if (logger.isTraceEnabled()) {
                                 logger.trace("No Node found to assign shard [{}]", shard);
@@ -854,6 +914,16 @@ public class BalancedShardsAllocator implements ShardsAllocator {
          * is of type {@link Type#NO}, then the assigned node will be null.
          */
         private AllocateUnassignedDecision decideAllocateUnassigned(final ShardRouting shard) {
+            return decideAllocateUnassigned(shard, nodes.values(), false);
+        }
+
+        /**
+         * Makes a decision for allocating an unassigned shard to one of the given candidate nodes. If the candidates are ordered by
+         * ascending weight with respect to the shard's index then the remaining candidates are skipped as soon as one of them is
+         * heavier than the best node found so far, unless in explain mode.
+         */
+        private AllocateUnassignedDecision decideAllocateUnassigned(final ShardRouting shard, Iterable<ModelNode> candidates,
+                                                                    boolean weightOrdered) {
             if (shard.assignedToNode()) {
                 // we only make decisions for unassigned shards here
                 return AllocateUnassignedDecision.NOT_TAKEN;
@@ -874,7 +944,7 @@ public class BalancedShardsAllocator implements ShardsAllocator {
              * iteration order is different for each run and makes testing hard */
             Map<String, NodeAllocationResult> nodeExplanationMap = explain ? new HashMap<>() : null;
             List<Tuple<String, Float>> nodeWeights = explain ? new ArrayList<>() : null;
-            for (ModelNode node : nodes.values()) {
+            for (ModelNode node : candidates) {
                 if (node.containsShard(shard) && explain == false) {
                     // decision is NO without needing to check anything further, so short circuit
                     continue;
@@ -884,6 +954,10 @@ public class BalancedShardsAllocator implements ShardsAllocator {
                 float currentWeight = weight.weight(this, node, shard.getIndexName());
                 // moving the shard would not improve the balance, and we are not in explain mode, so short circuit
                 if (currentWeight > minWeight && explain == false) {
+                    if (weightOrdered) {
+                        // all remaining candidates are at least as heavy as this one
+                        break;
+                    }
                     continue;
                 }
 
@@ -1198,5 +1272,113 @@ public class BalancedShardsAllocator implements ShardsAllocator {
         public float delta() {
             return weights[weights.length - 1] - weights[0];
         }
+
+        /**
+         * Sorts the nodes in the given range again after the weights of a few of them changed. This is an insertion sort, which
+         * takes time linear in the number of nodes if only a bounded number of them is out of place.
+         */
+        public void resort(int from, int to) {
+            for (int i = from + 1; i < to; i++) {
+                for (int j = i; j > from && compare(j - 1, j) > 0; j--) {
+                    swap(j - 1, j);
+                }
+            }
+        }
+    }
+
+    /**
+     * Orders the nodes by their weight with respect to a single index, minimal weight first, while unassigned shards of this index are
+     * allocated one after the other. Adding a shard of the index to a node only changes the weight of this node, so the node is moved
+     * to its new place rather than sorting all nodes again. Nodes of equal weight keep the order in which they were given, so that ties
+     * are broken in the same way as when looking at the nodes in this order.
+     */
+    static final class WeightOrderedNodes extends IntroSorter implements Iterable<ModelNode> {
+
+        private final ModelNode[] modelNodes;
+        private final int[] ordinals;
+        private final float[] weights;
+        private final WeightFunction function;
+        private final Balancer balancer;
+        private String index;
+        private float pivotWeight;
+        private int pivotOrdinal;
+
+        WeightOrderedNodes(ModelNode[] modelNodes, WeightFunction function, Balancer balancer) {
+            this.modelNodes = modelNodes;
+            this.function = function;
+            this.balancer = balancer;
+            this.ordinals = new int[modelNodes.length];
+            this.weights = new float[modelNodes.length];
+            for (int i = 0; i < ordinals.length; i++) {
+                ordinals[i] = i;
+            }
+        }
+
+        /**
+         * Returns the nodes ordered by their weight with respect to the given index, sorting them only if the index changed.
+         */
+        WeightOrderedNodes orderFor(String index) {
+            if (index.equals(this.index) == false) {
+                this.index = index;
+                for (int i = 0; i < modelNodes.length; i++) {
+                    weights[i] = function.weight(balancer, modelNodes[i], index);
+                }
+                sort(0, modelNodes.length);
+            }
+            return this;
+        }
+
+        /**
+         * Moves the given node to its place after the shards allocated to it changed.
+         */
+        void weightChanged(ModelNode node) {
+            int i = 0;
+            while (modelNodes[i] != node) {
+                i++;
+            }
+            weights[i] = function.weight(balancer, node, index);
+            for (; i > 0 && compare(i - 1, i) > 0; i--) {
+                swap(i - 1, i);
+            }
+            for (; i < modelNodes.length - 1 && compare(i, i + 1) > 0; i++) {
+                swap(i, i + 1);
+            }
+        }
+
+        @Override
+        public Iterator<ModelNode> iterator() {
+            return Arrays.asList(modelNodes).iterator();
+        }
+
+        @Override
+        protected void swap(int i, int j) {
+            final ModelNode tmpNode = modelNodes[i];
+            modelNodes[i] = modelNodes[j];
+            modelNodes[j] = tmpNode;
+            final int tmpOrdinal = ordinals[i];
+            ordinals[i] = ordinals[j];
+            ordinals[j] = tmpOrdinal;
+            final float tmpWeight = weights[i];
+            weights[i] = weights[j];
+            weights[j] = tmpWeight;
+        }
+
+        @Override
+        protected int compare(int i, int j) {
+            final int cmp = Float.compare(weights[i], weights[j]);
+            return cmp != 0 ? cmp : Integer.compare(ordinals[i], ordinals[j]);
+        }
+
+        @Override
+        protected void setPivot(int i) {
+            pivotWeight = weights[i];
+            pivotOrdinal = ordinals[i];
+        }
+
+        @Override
+        protected int comparePivot(int j) {
+            final int cmp = Float.compare(pivotWeight, weights[j]);
+            return cmp != 0 ? cmp : Integer.compare(pivotOrdinal, ordinals[j]);
+        }
     }
 }
@@ -28,6 +28,11 @@ public interface ClusterApplier {
      */
     void onNewClusterState(String source, Supplier<ClusterState> clusterStateSupplier, ClusterApplyListener listener);
 
+    /**
+     * Returns how often and for how long the individual steps of applying cluster states ran on this node
+     */
+    ClusterApplierRecordingService.Stats getStats();
+
     /**
      * Listener for results of cluster state application
      */
@@ -0,0 +1,179 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.cluster.service;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.common.xcontent.ToXContentFragment;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how often and for how long each step of applying a cluster state ran, e.g. the individual
+ * {@link org.elasticsearch.cluster.ClusterStateApplier}s and {@link org.elasticsearch.cluster.ClusterStateListener}s.
+ */
+public final class ClusterApplierRecordingService {
+
+    private static final String LAMBDA_MARKER = "$$Lambda";
+
+    private final ConcurrentMap<String, Recorder> recorders = ConcurrentCollections.newConcurrentMap();
+
+    /**
+     * Starts timing a step, which is recorded once the returned {@link Releasable} is closed.
+     */
+    Releasable record(String name) {
+        final Recorder recorder = recorders.computeIfAbsent(name, k -> new Recorder());
+        final long startTimeNanos = System.nanoTime();
+        return () -> recorder.add(System.nanoTime() - startTimeNanos);
+    }
+
+    /**
+     * Returns the name to record the time spent in the given applier or listener under. Instances of the same class are recorded together,
+     * which keeps the number of recordings bounded even for short-lived listeners.
+     */
+    static String recordingName(Object applierOrListener) {
+        final String className = applierOrListener.getClass().getName();
+        final int lambdaIndex = className.indexOf(LAMBDA_MARKER);
+        return lambdaIndex == -1 ? className : className.substring(0, lambdaIndex + LAMBDA_MARKER.length());
+    }
+
+    public Stats getStats() {
+        final Map<String, Recording> recordings = new HashMap<>(recorders.size());
+        recorders.forEach((name, recorder) -> recordings.put(name, recorder.toRecording()));
+        return new Stats(recordings);
+    }
+
+    private static final class Recorder {
+        private final CounterMetric count = new CounterMetric();
+        private final CounterMetric timeInNanos = new CounterMetric();
+
+        void add(long nanos) {
+            count.inc();
+            timeInNanos.inc(nanos);
+        }
+
+        Recording toRecording() {
+            return new Recording(count.count(), TimeUnit.NANOSECONDS.toMillis(timeInNanos.count()));
+        }
+    }
+
+    public static class Stats implements Writeable, ToXContentFragment {
+
+        private final Map<String, Recording> recordings;
+
+        public Stats(Map<String, Recording> recordings) {
+            this.recordings = Collections.unmodifiableMap(recordings);
+        }
+
+        public Stats(StreamInput in) throws IOException {
+            this(in.readMap(StreamInput::readString, Recording::new));
+        }
+
+        public Map<String, Recording> getRecordings() {
+            return recordings;
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeMap(recordings, StreamOutput::writeString, (o, recording) -> recording.writeTo(o));
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject("cluster_applier_stats");
+            builder.startArray("recordings");
+            final List<Map.Entry<String, Recording>> entries = new ArrayList<>(recordings.entrySet());
+            // the most expensive steps first
+            entries.sort((a, b) -> {
+                final int cmp = Long.compare(b.getValue().getCumulativeTimeMillis(), a.getValue().getCumulativeTimeMillis());
+                return cmp != 0 ? cmp : a.getKey().compareTo(b.getKey());
+            });
+            for (Map.Entry<String, Recording> entry : entries) {
+                builder.startObject();
+                builder.field("name", entry.getKey());
+                builder.field("cumulative_execution_count", entry.getValue().getCount());
+                builder.humanReadableField("cumulative_execution_time_millis", "cumulative_execution_time",
+                    TimeValue.timeValueMillis(entry.getValue().getCumulativeTimeMillis()));
+                builder.endObject();
+            }
+            builder.endArray();
+            builder.endObject();
+            return builder;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Stats stats = (Stats) o;
+            return recordings.equals(stats.recordings);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(recordings);
+        }
+    }
+
+    public static class Recording implements Writeable {
+
+        private final long count;
+        private final long cumulativeTimeMillis;
+
+        public Recording(long count, long cumulativeTimeMillis) {
+            this.count = count;
+            this.cumulativeTimeMillis = cumulativeTimeMillis;
+        }
+
+        public Recording(StreamInput in) throws IOException {
+            this(in.readVLong(), in.readVLong());
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getCumulativeTimeMillis() {
+            return cumulativeTimeMillis;
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVLong(count);
+            out.writeVLong(cumulativeTimeMillis);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Recording recording = (Recording) o;
+            return count == recording.count && cumulativeTimeMillis == recording.cumulativeTimeMillis;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(count, cumulativeTimeMillis);
+        }
+    }
+}
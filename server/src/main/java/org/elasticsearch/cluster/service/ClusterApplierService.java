@@ -84,6 +84,8 @@ public class ClusterApplierService extends AbstractLifecycleComponent implements
 
     private final String nodeName;
 
+    private final ClusterApplierRecordingService recordingService = new ClusterApplierRecordingService();
+
     private NodeConnectionsService nodeConnectionsService;
 
     public ClusterApplierService(String nodeName, Settings settings, ClusterSettings clusterSettings, ThreadPool threadPool) {
@@ -294,6 +296,11 @@ public class ClusterApplierService extends AbstractLifecycleComponent implements
         runOnApplierThread(source, clusterStateConsumer, listener, Priority.HIGH);
     }
 
+    @Override
+    public ClusterApplierRecordingService.Stats getStats() {
+        return recordingService.getStats();
+    }
+
     public ThreadPool threadPool() {
         return threadPool;
     }
@@ -443,7 +450,8 @@ public class ClusterApplierService extends AbstractLifecycleComponent implements
         }
 
         logger.trace("connecting to nodes of cluster state with version {}", newClusterState.version());
-        try (Releasable ignored = stopWatch.timing("connecting to new nodes")) {
+        try (Releasable ignored = stopWatch.timing("connecting to new nodes");
+             Releasable ignored2 = recordingService.record("connecting to new nodes")) {
             connectToNodesAndWait(newClusterState);
         }
 
@@ -451,7 +459,8 @@ public class ClusterApplierService extends AbstractLifecycleComponent implements
         if (clusterChangedEvent.state().blocks().disableStatePersistence() == false && clusterChangedEvent.metadataChanged()) {
             logger.debug("applying settings from cluster state with version {}", newClusterState.version());
             final Settings incomingSettings = clusterChangedEvent.state().metadata().settings();
-            try (Releasable ignored = stopWatch.timing("applying settings")) {
+            try (Releasable ignored = stopWatch.timing("applying settings");
+                 Releasable ignored2 = recordingService.record("applying settings")) {
                 clusterSettings.applySettings(incomingSettings);
             }
         }
@@ -491,11 +500,12 @@ public class ClusterApplierService extends AbstractLifecycleComponent implements
         callClusterStateAppliers(clusterChangedEvent, stopWatch, lowPriorityStateAppliers);
     }
 
-    private static void callClusterStateAppliers(ClusterChangedEvent clusterChangedEvent, StopWatch stopWatch,
-                                                 Collection<ClusterStateApplier> clusterStateAppliers) {
+    private void callClusterStateAppliers(ClusterChangedEvent clusterChangedEvent, StopWatch stopWatch,
+                                          Collection<ClusterStateApplier> clusterStateAppliers) {
         for (ClusterStateApplier applier : clusterStateAppliers) {
             logger.trace("calling [{}] with change to version [{}]", applier, clusterChangedEvent.state().version());
-            try (Releasable ignored = stopWatch.timing("running applier [" + applier + "]")) {
+            try (Releasable ignored = stopWatch.timing("running applier [" + applier + "]");
+                 Releasable ignored2 = recordingService.record(ClusterApplierRecordingService.recordingName(applier))) {
                 applier.applyClusterState(clusterChangedEvent);
             }
         }
@@ -511,7 +521,8 @@ public class ClusterApplierService extends AbstractLifecycleComponent implements
         for (ClusterStateListener listener : listeners) {
             try {
                 logger.trace("calling [{}] with change to version [{}]", listener, clusterChangedEvent.state().version());
-                try (Releasable ignored = stopWatch.timing("notifying listener [" + listener + "]")) {
+                try (Releasable ignored = stopWatch.timing("notifying listener [" + listener + "]");
+                     Releasable ignored2 = recordingService.record(ClusterApplierRecordingService.recordingName(listener))) {
                     listener.clusterChanged(clusterChangedEvent);
                 }
             } catch (Exception ex) {
@@ -0,0 +1,106 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.common;
+
+/**
+ * A histogram of non-negative values where every new value weighs {@code 1 / (1 - alpha)} times as much as the one
+ * recorded before it, so that its percentiles follow recent values in the same way an
+ * {@link ExponentiallyWeightedMovingAverage} follows the mean. Values are recorded in log-linear buckets with four
+ * buckets per power of two above {@code unit}, which bounds the relative error of the reported percentiles to ~19%.
+ * This class is safe to share between threads.
+ */
+public class ExponentiallyDecayingHistogram {
+
+    private static final int BUCKETS_PER_POWER_OF_TWO = 4;
+    private static final int NUM_BUCKETS = 32 * BUCKETS_PER_POWER_OF_TWO;
+    // weights grow with every recorded value, rescale them before they overflow
+    private static final double RESCALE_THRESHOLD = 1e100;
+
+    private final double decay;
+    private final long unit;
+    private final double[] weights = new double[NUM_BUCKETS];
+    private double nextWeight = 1.0;
+    private double totalWeight = 0.0;
+    private long count = 0;
+
+    /**
+     * Create a new histogram with a given {@code alpha} and {@code unit}. A smaller alpha means that older values keep
+     * their weight for longer. Values smaller than {@code unit} are all recorded in the first bucket.
+     */
+    public ExponentiallyDecayingHistogram(double alpha, long unit) {
+        if (alpha <= 0 || alpha >= 1) {
+            throw new IllegalArgumentException("alpha must be greater than 0 and less than 1");
+        }
+        if (unit <= 0) {
+            throw new IllegalArgumentException("unit must be greater than 0");
+        }
+        this.decay = 1 - alpha;
+        this.unit = unit;
+    }
+
+    public synchronized void addValue(long value) {
+        weights[bucket(value)] += nextWeight;
+        totalWeight += nextWeight;
+        count++;
+        nextWeight /= decay;
+        if (nextWeight > RESCALE_THRESHOLD) {
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] /= nextWeight;
+            }
+            totalWeight /= nextWeight;
+            nextWeight = 1.0;
+        }
+    }
+
+    /**
+     * Returns the number of values that were recorded in this histogram.
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding the given percentile of the decayed values, or {@code 0} if no
+     * value was recorded yet.
+     */
+    public synchronized double getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100 but was [" + percentile + "]");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        final double threshold = totalWeight * percentile / 100;
+        double cumulativeWeight = 0;
+        int lastNonEmptyBucket = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] > 0) {
+                cumulativeWeight += weights[i];
+                lastNonEmptyBucket = i;
+                if (cumulativeWeight >= threshold) {
+                    return upperBound(i);
+                }
+            }
+        }
+        // rounding may leave the cumulative weight marginally below the total
+        return upperBound(lastNonEmptyBucket);
+    }
+
+    private int bucket(long value) {
+        if (value <= unit) {
+            return 0;
+        }
+        final int bucket = (int) (BUCKETS_PER_POWER_OF_TWO * Math.log((double) value / unit) / Math.log(2));
+        return Math.min(bucket, NUM_BUCKETS - 1);
+    }
+
+    private double upperBound(int bucket) {
+        return unit * Math.pow(2, (double) (bucket + 1) / BUCKETS_PER_POWER_OF_TWO);
+    }
+}
@@ -61,6 +61,15 @@ public interface BlobContainer {
      */
     InputStream readBlob(String blobName, long position, long length) throws IOException;
 
+    /**
+     * Whether this container is able to read a range of a blob with {@link #readBlob(String, long, long)}.
+     *
+     * @return {@code true} if {@link #readBlob(String, long, long)} is supported
+     */
+    default boolean supportsRangedReads() {
+        return true;
+    }
+
     /**
      * Provides a hint to clients for a suitable length to use with {@link BlobContainer#readBlob(String, long, long)}.
      *
@@ -119,6 +128,34 @@ public interface BlobContainer {
      */
     void writeBlobAtomic(String blobName, InputStream inputStream, long blobSize, boolean failIfAlreadyExists) throws IOException;
 
+    /**
+     * Whether this container is able to write a blob as several parts that are uploaded concurrently, see
+     * {@link #startMultipartUpload(String, long, boolean)}.
+     *
+     * @return {@code true} if {@link #startMultipartUpload(String, long, boolean)} is supported
+     */
+    default boolean supportsMultipartUpload() {
+        return false;
+    }
+
+    /**
+     * Starts writing a new blob with the given name as several parts. The parts of the blob may be written concurrently, and the blob
+     * only becomes visible in the container once the upload is completed.
+     *
+     * @param   blobName
+     *          The name of the blob to write.
+     * @param   blobSize
+     *          The size of the blob to be written, in bytes.
+     * @param   failIfAlreadyExists
+     *          whether completing the upload should throw a FileAlreadyExistsException if the given blob already exists
+     * @return  the upload, which the caller must either complete or abort
+     * @throws  UnsupportedOperationException if {@link #supportsMultipartUpload()} is {@code false}
+     * @throws  IOException if the upload could not be started
+     */
+    default MultipartUpload startMultipartUpload(String blobName, long blobSize, boolean failIfAlreadyExists) throws IOException {
+        throw new UnsupportedOperationException("multipart uploads are not supported by [" + getClass().getName() + "]");
+    }
+
     /**
      * Deletes this container and all its contents from the repository.
      *
@@ -0,0 +1,51 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.common.blobstore;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A blob that is being written as several parts, see {@link BlobContainer#startMultipartUpload}. Parts may be written concurrently and in
+ * any order. The blob only becomes visible in its container once {@link #complete()} returns, and nothing is left behind if the upload is
+ * aborted instead.
+ */
+public interface MultipartUpload {
+
+    /**
+     * Writes a part of the blob.
+     *
+     * @param   partNumber
+     *          The number of the part, starting at {@code 0}. Each part must be written exactly once.
+     * @param   position
+     *          The position of the first byte of the part in the blob.
+     * @param   inputStream
+     *          The input stream from which to retrieve the bytes of the part.
+     * @param   length
+     *          The length of the part, in bytes.
+     * @throws  IOException if the input stream could not be read, or the part could not be written.
+     */
+    void writePart(int partNumber, long position, InputStream inputStream, long length) throws IOException;
+
+    /**
+     * Makes the blob visible in its container. Must only be called once all parts have been successfully written.
+     *
+     * @throws  java.nio.file.FileAlreadyExistsException if the upload was started with {@code failIfAlreadyExists} and a blob by the
+     *          same name already exists
+     * @throws  IOException if the blob could not be completed
+     */
+    void complete() throws IOException;
+
+    /**
+     * Discards the parts that were written so far. Has no effect if the upload was already completed or aborted.
+     *
+     * @throws  IOException if the parts could not be discarded
+     */
+    void abort() throws IOException;
+}
@@ -13,16 +13,20 @@ import org.elasticsearch.common.blobstore.BlobContainer;
 import org.elasticsearch.common.blobstore.BlobMetadata;
 import org.elasticsearch.common.blobstore.BlobPath;
 import org.elasticsearch.common.blobstore.DeleteResult;
+import org.elasticsearch.common.blobstore.MultipartUpload;
 import org.elasticsearch.common.blobstore.support.AbstractBlobContainer;
 import org.elasticsearch.common.blobstore.support.PlainBlobMetadata;
 import org.elasticsearch.common.io.Streams;
 import org.elasticsearch.core.internal.io.IOUtils;
 
+import java.io.EOFException;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.DirectoryStream;
 import java.nio.file.FileAlreadyExistsException;
@@ -38,6 +42,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static java.util.Collections.unmodifiableMap;
@@ -198,6 +203,81 @@ public class FsBlobContainer extends AbstractBlobContainer {
         }
     }
 
+    @Override
+    public boolean supportsMultipartUpload() {
+        return true;
+    }
+
+    /**
+     * Writes the parts of the blob concurrently to a temporary file, using positional writes, and atomically moves it to its final name
+     * once all parts have been written.
+     */
+    @Override
+    public MultipartUpload startMultipartUpload(String blobName, long blobSize, boolean failIfAlreadyExists) throws IOException {
+        final String tempBlob = tempBlobName(blobName);
+        final Path tempBlobPath = path.resolve(tempBlob);
+        final FileChannel channel = FileChannel.open(tempBlobPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        return new MultipartUpload() {
+
+            private final AtomicBoolean closed = new AtomicBoolean();
+
+            @Override
+            public void writePart(int partNumber, long position, InputStream inputStream, long length) throws IOException {
+                if (position < 0L || length < 0L || position + length > blobSize) {
+                    throw new IllegalArgumentException("part [" + partNumber + "] at position [" + position + "] with length [" + length
+                        + "] does not fit in blob [" + blobName + "] of size [" + blobSize + "]");
+                }
+                final int bufferSize = blobStore.bufferSizeInBytes();
+                final byte[] buffer = new byte[length < bufferSize ? Math.toIntExact(length) : bufferSize];
+                long remaining = length;
+                long filePosition = position;
+                while (remaining > 0L) {
+                    final int read = inputStream.read(buffer, 0, Math.toIntExact(Math.min(buffer.length, remaining)));
+                    if (read < 0) {
+                        throw new EOFException("part [" + partNumber + "] of blob [" + blobName + "] ended [" + remaining
+                            + "] bytes before its expected length [" + length + "]");
+                    }
+                    final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                    while (byteBuffer.hasRemaining()) {
+                        filePosition += channel.write(byteBuffer, filePosition);
+                    }
+                    remaining -= read;
+                }
+            }
+
+            @Override
+            public void complete() throws IOException {
+                if (closed.compareAndSet(false, true) == false) {
+                    throw new IllegalStateException("upload of blob [" + blobName + "] is already closed");
+                }
+                boolean success = false;
+                try {
+                    try (FileChannel c = channel) {
+                        c.force(true);
+                    }
+                    moveBlobAtomic(tempBlob, blobName, failIfAlreadyExists);
+                    success = true;
+                } finally {
+                    if (success == false) {
+                        IOUtils.deleteFilesIgnoringExceptions(tempBlobPath);
+                    }
+                    IOUtils.fsync(path, true);
+                }
+            }
+
+            @Override
+            public void abort() throws IOException {
+                if (closed.compareAndSet(false, true)) {
+                    try {
+                        channel.close();
+                    } finally {
+                        Files.deleteIfExists(tempBlobPath);
+                    }
+                }
+            }
+        };
+    }
+
     private void writeToPath(InputStream inputStream, Path tempBlobPath, long blobSize) throws IOException {
         try (OutputStream outputStream = Files.newOutputStream(tempBlobPath, StandardOpenOption.CREATE_NEW)) {
             final int bufferSize = blobStore.bufferSizeInBytes();
@@ -50,6 +50,11 @@ public abstract class FilterBlobContainer implements BlobContainer {
         return delegate.readBlob(blobName, position, length);
     }
 
+    @Override
+    public boolean supportsRangedReads() {
+        return delegate.supportsRangedReads();
+    }
+
     @Override
     public long readBlobPreferredLength() {
         return delegate.readBlobPreferredLength();
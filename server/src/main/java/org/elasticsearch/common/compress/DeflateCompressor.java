@@ -185,6 +185,24 @@ public class DeflateCompressor implements Compressor {
             deflater = current.get();
             releasable = current;
         }
+        return compressingStream(out, deflater, releasable);
+    }
+
+    /**
+     * Creates a new compressing output stream that uses its own {@link Deflater} with the given compression level instead of the thread
+     * local one, e.g. to favour speed over compression ratio. The compressed bytes can be read by any {@link DeflateCompressor} since
+     * inflating does not depend on the level that was used for compression.
+     *
+     * @param out   the stream to write the compressed bytes to
+     * @param level the compression level, see {@link Deflater#setLevel(int)}
+     */
+    public static OutputStream outputStream(OutputStream out, int level) throws IOException {
+        out.write(HEADER);
+        final Deflater deflater = new Deflater(level, true);
+        return compressingStream(out, deflater, deflater::end);
+    }
+
+    private static OutputStream compressingStream(OutputStream out, Deflater deflater, Releasable releasable) {
         final boolean syncFlush = true;
         DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(out, deflater, BUFFER_SIZE, syncFlush);
         return new BufferedOutputStream(deflaterOutputStream, BUFFER_SIZE) {
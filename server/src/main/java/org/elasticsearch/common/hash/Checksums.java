@@ -0,0 +1,90 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.common.hash;
+
+/**
+ * Utilities for checksums.
+ */
+public final class Checksums {
+
+    private static final int GF2_DIM = 32;
+
+    /**
+     * The reversed CRC-32 polynomial, as used by {@link java.util.zip.CRC32}.
+     */
+    private static final long CRC32_POLYNOMIAL = 0xedb88320L;
+
+    private Checksums() {
+    }
+
+    /**
+     * Combines the {@link java.util.zip.CRC32} checksums of two consecutive byte sequences into the checksum of their concatenation,
+     * without having to read the bytes again. This is the {@code crc32_combine} function of zlib, which runs in time logarithmic in the
+     * length of the second sequence.
+     *
+     * @param crc1  the checksum of the first sequence
+     * @param crc2  the checksum of the second sequence
+     * @param len2  the length of the second sequence, in bytes
+     * @return the checksum of the first sequence followed by the second sequence
+     */
+    public static long combineCrc32(long crc1, long crc2, long len2) {
+        if (len2 < 0) {
+            throw new IllegalArgumentException("length must be >= 0 but was [" + len2 + "]");
+        }
+        if (len2 == 0) {
+            return crc1;
+        }
+        final long[] even = new long[GF2_DIM]; // operator for an even power of two zero bits
+        final long[] odd = new long[GF2_DIM];  // operator for an odd power of two zero bits
+
+        // the operator for a single zero bit
+        odd[0] = CRC32_POLYNOMIAL;
+        long row = 1;
+        for (int n = 1; n < GF2_DIM; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        gf2MatrixSquare(even, odd); // two zero bits
+        gf2MatrixSquare(odd, even); // four zero bits
+
+        // apply len2 zero bytes to crc1, the first square puts the operator for one zero byte (eight zero bits) in even
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((len2 & 1) != 0) {
+                crc1 = gf2MatrixTimes(even, crc1);
+            }
+            len2 >>>= 1;
+            if (len2 == 0) {
+                break;
+            }
+            gf2MatrixSquare(odd, even);
+            if ((len2 & 1) != 0) {
+                crc1 = gf2MatrixTimes(odd, crc1);
+            }
+            len2 >>>= 1;
+        } while (len2 != 0);
+        return crc1 ^ crc2;
+    }
+
+    private static long gf2MatrixTimes(long[] matrix, long vector) {
+        long sum = 0;
+        for (int i = 0; vector != 0; i++, vector >>>= 1) {
+            if ((vector & 1) != 0) {
+                sum ^= matrix[i];
+            }
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(long[] square, long[] matrix) {
+        for (int n = 0; n < GF2_DIM; n++) {
+            square[n] = gf2MatrixTimes(matrix, matrix[n]);
+        }
+    }
+}
@@ -9,6 +9,7 @@
 package org.elasticsearch.common.io.stream;
 
 import org.elasticsearch.Version;
+import org.elasticsearch.common.bytes.BytesReference;
 
 import java.io.EOFException;
 import java.io.IOException;
@@ -49,6 +50,11 @@ public abstract class FilterStreamInput extends StreamInput {
         return delegate.readLong();
     }
 
+    @Override
+    public BytesReference readSharedBytesReference() throws IOException {
+        return delegate.readSharedBytesReference();
+    }
+
     @Override
     public void reset() throws IOException {
         delegate.reset();
@@ -126,6 +126,15 @@ public abstract class StreamInput extends InputStream {
         return readBytesReference(length);
     }
 
+    /**
+     * Reads a bytes reference that was written with {@link StreamOutput#writeSharedBytesReference(BytesReference)}. Streams over the
+     * content of a transport request may return a slice of that content instead of a copy, which is only retained until the response to
+     * the request was sent, so the returned bytes must not be used once the request completed.
+     */
+    public BytesReference readSharedBytesReference() throws IOException {
+        return readBytesReference();
+    }
+
     /**
      * Reads an optional bytes reference from this stream. It might hold an actual reference to the underlying bytes of the stream. Use this
      * only if you must differentiate null from empty. Use {@link StreamInput#readBytesReference()} and
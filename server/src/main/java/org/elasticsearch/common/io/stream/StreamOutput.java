@@ -189,6 +189,15 @@ public abstract class StreamOutput extends OutputStream {
         bytes.writeTo(this);
     }
 
+    /**
+     * Writes a bytes reference like {@link #writeBytesReference(BytesReference)}, but allows streams that build transport messages to
+     * send the bytes as they are rather than copying them into the message, so the bytes must not be modified or released until the
+     * message was sent.
+     */
+    public void writeSharedBytesReference(@Nullable BytesReference bytes) throws IOException {
+        writeBytesReference(bytes);
+    }
+
     /**
      * Writes an optional bytes reference including a length header. Use this if you need to differentiate between null and empty bytes
      * references. Use {@link #writeBytesReference(BytesReference)} and {@link StreamInput#readBytesReference()} if you do not.
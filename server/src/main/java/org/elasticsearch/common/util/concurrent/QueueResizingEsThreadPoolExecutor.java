@@ -127,6 +127,53 @@ public final class QueueResizingEsThreadPoolExecutor extends EsThreadPoolExecuto
         return workQueue.size();
     }
 
+    /**
+     * Returns an estimate of the time, in nanoseconds, that a task submitted now would wait in the queue before it starts executing.
+     * This assumes that the queued tasks are spread evenly over the threads of the pool and that each of them takes the
+     * exponentially weighted moving average of the task execution time.
+     */
+    public long estimateQueueWaitNanos() {
+        final int queued = workQueue.size();
+        if (queued == 0) {
+            return 0L;
+        }
+        final long rounds = (queued + getMaximumPoolSize() - 1) / getMaximumPoolSize();
+        return rounds * (long) executionEWMA.getAverage();
+    }
+
+    /**
+     * Executes the given command, unless the estimated time it would wait in the queue exceeds the given timeout. Such a command
+     * could not complete in time anyway, so it is rejected right away as if the queue were full instead of taking a spot in the
+     * queue and delaying the commands behind it. A negative timeout means that the command has no deadline.
+     */
+    public void execute(Runnable command, TimeValue timeout) {
+        final long timeoutNanos = timeout.nanos();
+        final boolean forceExecution = command instanceof AbstractRunnable && ((AbstractRunnable) command).isForceExecution();
+        if (timeoutNanos >= 0 && forceExecution == false) {
+            final long estimatedWaitNanos = estimateQueueWaitNanos();
+            if (estimatedWaitNanos > timeoutNanos) {
+                logger.debug("[{}]: rejecting task as its estimated queue wait [{}] exceeds its timeout [{}]",
+                    getName(), TimeValue.timeValueNanos(estimatedWaitNanos), timeout);
+                try {
+                    // goes through the rejection handler so that the rejection is accounted for in the thread pool stats
+                    getRejectedExecutionHandler().rejectedExecution(command, this);
+                } catch (EsRejectedExecutionException ex) {
+                    if (command instanceof AbstractRunnable) {
+                        try {
+                            ((AbstractRunnable) command).onRejection(ex);
+                        } finally {
+                            ((AbstractRunnable) command).onAfter();
+                        }
+                    } else {
+                        throw ex;
+                    }
+                }
+                return;
+            }
+        }
+        execute(command);
+    }
+
     @Override
     protected void afterExecute(Runnable r, Throwable t) {
         super.afterExecute(r, t);
@@ -26,6 +26,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 @SuppressWarnings("unchecked")
 public class XContentHelper {
@@ -74,6 +75,33 @@ public class XContentHelper {
         }
     }
 
+    /**
+     * Creates a parser over the bytes that only returns the fields matching the given inclusive and/or exclusive filters, skipping over
+     * the rest of the content without materializing it. The content type is auto-detected, see
+     * {@link XContent#createParser(NamedXContentRegistry, DeprecationHandler, InputStream, Set, Set)}.
+     */
+    public static XContentParser createParser(NamedXContentRegistry xContentRegistry, DeprecationHandler deprecationHandler,
+                                              BytesReference bytes, Set<String> includes, Set<String> excludes) throws IOException {
+        Compressor compressor = CompressorFactory.compressor(bytes);
+        if (compressor != null) {
+            InputStream compressedInput = compressor.threadLocalInputStream(bytes.streamInput());
+            if (compressedInput.markSupported() == false) {
+                compressedInput = new BufferedInputStream(compressedInput);
+            }
+            final XContentType contentType = XContentFactory.xContentType(compressedInput);
+            return XContentFactory.xContent(contentType).createParser(xContentRegistry, deprecationHandler, compressedInput,
+                includes, excludes);
+        } else {
+            final XContentType contentType = xContentType(bytes);
+            if (bytes instanceof BytesArray) {
+                final BytesArray array = (BytesArray) bytes;
+                return contentType.xContent().createParser(xContentRegistry, deprecationHandler, array.array(), array.offset(),
+                    array.length(), includes, excludes);
+            }
+            return contentType.xContent().createParser(xContentRegistry, deprecationHandler, bytes.streamInput(), includes, excludes);
+        }
+    }
+
     /**
      * Converts the given bytes into a map that is optionally ordered.
      * <p>
@@ -9,6 +9,7 @@
 package org.elasticsearch.discovery;
 
 import org.elasticsearch.Version;
+import org.elasticsearch.cluster.service.ClusterApplierRecordingService;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
@@ -23,10 +24,17 @@ public class DiscoveryStats implements Writeable, ToXContentFragment {
 
     private final PendingClusterStateStats queueStats;
     private final PublishClusterStateStats publishStats;
+    private final ClusterApplierRecordingService.Stats applierRecordingStats;
 
     public DiscoveryStats(PendingClusterStateStats queueStats, PublishClusterStateStats publishStats) {
+        this(queueStats, publishStats, null);
+    }
+
+    public DiscoveryStats(PendingClusterStateStats queueStats, PublishClusterStateStats publishStats,
+                          ClusterApplierRecordingService.Stats applierRecordingStats) {
         this.queueStats = queueStats;
         this.publishStats = publishStats;
+        this.applierRecordingStats = applierRecordingStats;
     }
 
     public DiscoveryStats(StreamInput in) throws IOException {
@@ -37,6 +45,12 @@ public class DiscoveryStats implements Writeable, ToXContentFragment {
         } else {
             publishStats = null;
         }
+
+        if (in.getVersion().onOrAfter(Version.V_7_11_3)) {
+            applierRecordingStats = in.readOptionalWriteable(ClusterApplierRecordingService.Stats::new);
+        } else {
+            applierRecordingStats = null;
+        }
     }
 
     @Override
@@ -46,6 +60,10 @@ public class DiscoveryStats implements Writeable, ToXContentFragment {
         if (out.getVersion().onOrAfter(Version.V_6_1_0)) {
             out.writeOptionalWriteable(publishStats);
         }
+
+        if (out.getVersion().onOrAfter(Version.V_7_11_3)) {
+            out.writeOptionalWriteable(applierRecordingStats);
+        }
     }
 
     @Override
@@ -57,6 +75,9 @@ public class DiscoveryStats implements Writeable, ToXContentFragment {
         if (publishStats != null) {
             publishStats.toXContent(builder, params);
         }
+        if (applierRecordingStats != null) {
+            applierRecordingStats.toXContent(builder, params);
+        }
         builder.endObject();
         return builder;
     }
@@ -72,4 +93,8 @@ public class DiscoveryStats implements Writeable, ToXContentFragment {
     public PublishClusterStateStats getPublishStats() {
         return publishStats;
     }
+
+    public ClusterApplierRecordingService.Stats getApplierRecordingStats() {
+        return applierRecordingStats;
+    }
 }
@@ -40,11 +40,14 @@ import org.apache.lucene.util.SetOnce;
 import org.elasticsearch.Version;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.MappingMetadata;
 import org.elasticsearch.cluster.metadata.Metadata;
 import org.elasticsearch.common.CheckedConsumer;
 import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.bytes.RecyclingBytesStreamOutput;
+import org.elasticsearch.common.compress.CompressedXContent;
 import org.elasticsearch.common.io.Streams;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.lease.Releasables;
@@ -95,6 +98,15 @@ import java.util.function.Supplier;
  * | INDEX_TYPE_NAME  == "index"  | Index UUID                  | Index metadata                               |
  * +------------------------------+-----------------------------+----------------------------------------------+
  *
+ * Index metadata refers to its mappings by the SHA-256 hashes of their content. Each distinct mapping is stored once, since many indices
+ * usually share the same mapping, in a document with the following fields:
+ *
+ * +--------------------------------+-------------------------------+------------------------------+
+ * | "type" (string field)          | "mapping_hash" (string field) | "data" (stored binary field) |
+ * +--------------------------------+-------------------------------+------------------------------+
+ * | MAPPING_TYPE_NAME == "mapping" | SHA-256 hash of the mapping   | Compressed mapping source    |
+ * +--------------------------------+-------------------------------+------------------------------+
+ *
  * Additionally each commit has the following user data:
  *
  * +---------------------------+-------------------------+-------------------------------------------------------------------------------+
@@ -104,8 +116,12 @@ import java.util.function.Supplier;
  * | LAST_ACCEPTED_VERSION_KEY | "last_accepted_version" | The cluster state version corresponding with the persisted metadata           |
  * | NODE_ID_KEY               | "node_id"               | The (persistent) ID of the node that wrote this metadata                      |
  * | NODE_VERSION_KEY          | "node_version"          | The (ID of the) version of the node that wrote this metadata                  |
+ * | FORMAT_VERSION_KEY        | "format_version"        | The version of the format of the documents, see CURRENT_FORMAT_VERSION        |
  * +---------------------------+-------------------------+-------------------------------------------------------------------------------+
  *
+ * Commits written before the format version was recorded have no FORMAT_VERSION_KEY. Their index metadata documents hold their mappings
+ * inline and there are no mapping documents.
+ *
  * (the last-accepted term is recorded in Metadata → CoordinationMetadata so does not need repeating here)
  */
 public class PersistedClusterStateService {
@@ -114,12 +130,21 @@ public class PersistedClusterStateService {
     private static final String LAST_ACCEPTED_VERSION_KEY = "last_accepted_version";
     private static final String NODE_ID_KEY = "node_id";
     private static final String NODE_VERSION_KEY = "node_version";
+    private static final String FORMAT_VERSION_KEY = "format_version";
     private static final String TYPE_FIELD_NAME = "type";
     private static final String DATA_FIELD_NAME = "data";
     private static final String GLOBAL_TYPE_NAME = "global";
     private static final String INDEX_TYPE_NAME = "index";
+    private static final String MAPPING_TYPE_NAME = "mapping";
     private static final String INDEX_UUID_FIELD_NAME = "index_uuid";
-    private static final int COMMIT_DATA_SIZE = 4;
+    private static final String MAPPING_HASH_FIELD_NAME = "mapping_hash";
+    private static final int COMMIT_DATA_SIZE = 5;
+
+    // index metadata documents hold their mappings inline
+    static final int INLINE_MAPPINGS_FORMAT_VERSION = 0;
+    // index metadata documents refer to their mappings by hash, and each distinct mapping is stored in a mapping document
+    static final int MAPPINGS_AS_HASH_FORMAT_VERSION = 1;
+    static final int CURRENT_FORMAT_VERSION = MAPPINGS_AS_HASH_FORMAT_VERSION;
 
     public static final String METADATA_DIRECTORY_NAME = MetadataStateFormat.STATE_DIR_NAME;
 
@@ -370,6 +395,19 @@ public class PersistedClusterStateService {
         final IndexSearcher searcher = new IndexSearcher(reader);
         searcher.setQueryCache(null);
 
+        final Map<String, String> userData = reader.getIndexCommit().getUserData();
+        logger.trace("loading metadata [{}] from [{}]", userData, reader.directory());
+        final int formatVersion = formatVersion(userData);
+        if (formatVersion > CURRENT_FORMAT_VERSION) {
+            throw new IllegalStateException("metadata in [" + dataPath + "] has format version [" + formatVersion
+                + "] but this node only supports format versions up to [" + CURRENT_FORMAT_VERSION + "]");
+        }
+        assert userData.size() == (formatVersion == INLINE_MAPPINGS_FORMAT_VERSION ? COMMIT_DATA_SIZE - 1 : COMMIT_DATA_SIZE) : userData;
+        assert userData.get(CURRENT_TERM_KEY) != null;
+        assert userData.get(LAST_ACCEPTED_VERSION_KEY) != null;
+        assert userData.get(NODE_ID_KEY) != null;
+        assert userData.get(NODE_VERSION_KEY) != null;
+
         final SetOnce<Metadata.Builder> builderReference = new SetOnce<>();
         consumeFromType(searcher, GLOBAL_TYPE_NAME, bytes ->
         {
@@ -387,13 +425,30 @@ public class PersistedClusterStateService {
             throw new IllegalStateException("no global metadata found in [" + dataPath + "]");
         }
 
-        logger.trace("got global metadata, now reading index metadata");
+        final Map<String, MappingMetadata> mappingsByHash;
+        if (formatVersion >= MAPPINGS_AS_HASH_FORMAT_VERSION) {
+            logger.trace("got global metadata, now reading mappings");
+            mappingsByHash = new HashMap<>();
+            consumeFromType(searcher, MAPPING_TYPE_NAME, bytes ->
+            {
+                final MappingMetadata mappingMetadata
+                    = new MappingMetadata(new CompressedXContent(new BytesArray(bytes.bytes, bytes.offset, bytes.length)));
+                logger.trace("found mapping with hash [{}]", mappingMetadata.getSha256());
+                mappingsByHash.putIfAbsent(mappingMetadata.getSha256(), mappingMetadata);
+            });
+            logger.trace("got [{}] mappings, now reading index metadata", mappingsByHash.size());
+        } else {
+            // index metadata documents of this format hold their mappings inline
+            logger.trace("got global metadata, now reading index metadata");
+            mappingsByHash = null;
+        }
 
         final Set<String> indexUUIDs = new HashSet<>();
         consumeFromType(searcher, INDEX_TYPE_NAME, bytes ->
         {
             final IndexMetadata indexMetadata = IndexMetadata.fromXContent(XContentFactory.xContent(XContentType.SMILE)
-                .createParser(namedXContentRegistry, LoggingDeprecationHandler.INSTANCE, bytes.bytes, bytes.offset, bytes.length));
+                .createParser(namedXContentRegistry, LoggingDeprecationHandler.INSTANCE, bytes.bytes, bytes.offset, bytes.length),
+                mappingsByHash);
             logger.trace("found index metadata for {}", indexMetadata.getIndex());
             if (indexUUIDs.add(indexMetadata.getIndexUUID()) == false) {
                 throw new IllegalStateException("duplicate metadata found for " + indexMetadata.getIndex() + " in [" + dataPath + "]");
@@ -401,17 +456,15 @@ public class PersistedClusterStateService {
             builder.put(indexMetadata, false);
         });
 
-        final Map<String, String> userData = reader.getIndexCommit().getUserData();
-        logger.trace("loaded metadata [{}] from [{}]", userData, reader.directory());
-        assert userData.size() == COMMIT_DATA_SIZE : userData;
-        assert userData.get(CURRENT_TERM_KEY) != null;
-        assert userData.get(LAST_ACCEPTED_VERSION_KEY) != null;
-        assert userData.get(NODE_ID_KEY) != null;
-        assert userData.get(NODE_VERSION_KEY) != null;
         return new OnDiskState(userData.get(NODE_ID_KEY), dataPath, Long.parseLong(userData.get(CURRENT_TERM_KEY)),
             Long.parseLong(userData.get(LAST_ACCEPTED_VERSION_KEY)), builder.build());
     }
 
+    private static int formatVersion(Map<String, String> userData) {
+        final String formatVersion = userData.get(FORMAT_VERSION_KEY);
+        return formatVersion == null ? INLINE_MAPPINGS_FORMAT_VERSION : Integer.parseInt(formatVersion);
+    }
+
     private static void consumeFromType(IndexSearcher indexSearcher, String type,
                                         CheckedConsumer<BytesRef, IOException> bytesRefConsumer) throws IOException {
 
@@ -440,9 +493,10 @@ public class PersistedClusterStateService {
     private static final ToXContent.Params FORMAT_PARAMS;
 
     static {
-        Map<String, String> params = new HashMap<>(2);
+        Map<String, String> params = new HashMap<>(3);
         params.put("binary", "true");
         params.put(Metadata.CONTEXT_MODE_PARAM, Metadata.CONTEXT_MODE_GATEWAY);
+        params.put(IndexMetadata.DEDUPLICATED_MAPPINGS_PARAM, "true");
         FORMAT_PARAMS = new ToXContent.MapParams(params);
     }
 
@@ -482,6 +536,16 @@ public class PersistedClusterStateService {
             indexWriter.deleteDocuments(new Term(INDEX_UUID_FIELD_NAME, indexUUID));
         }
 
+        void updateMappingDocument(Document mappingDocument, String hash) throws IOException {
+            this.logger.trace("updating mapping with hash [{}]", hash);
+            indexWriter.updateDocument(new Term(MAPPING_HASH_FIELD_NAME, hash), mappingDocument);
+        }
+
+        void deleteMapping(String hash) throws IOException {
+            this.logger.trace("removing mapping with hash [{}]", hash);
+            indexWriter.deleteDocuments(new Term(MAPPING_HASH_FIELD_NAME, hash));
+        }
+
         void flush() throws IOException {
             this.logger.trace("flushing");
             this.indexWriter.flush();
@@ -493,6 +557,7 @@ public class PersistedClusterStateService {
             commitData.put(LAST_ACCEPTED_VERSION_KEY, Long.toString(lastAcceptedVersion));
             commitData.put(NODE_VERSION_KEY, Integer.toString(Version.CURRENT.id));
             commitData.put(NODE_ID_KEY, nodeId);
+            commitData.put(FORMAT_VERSION_KEY, Integer.toString(CURRENT_FORMAT_VERSION));
             indexWriter.setLiveCommitData(commitData.entrySet());
             indexWriter.prepareCommit();
         }
@@ -560,18 +625,24 @@ public class PersistedClusterStateService {
             try {
                 final long startTimeMillis = relativeTimeMillisSupplier.getAsLong();
                 final WriterStats stats = overwriteMetadata(clusterState.metadata());
+                final long commitStartNanos = System.nanoTime();
                 commit(currentTerm, clusterState.version());
+                final long commitMillis = TimeValue.nsecToMSec(System.nanoTime() - commitStartNanos);
                 fullStateWritten = true;
                 final long durationMillis = relativeTimeMillisSupplier.getAsLong() - startTimeMillis;
                 final TimeValue finalSlowWriteLoggingThreshold = slowWriteLoggingThresholdSupplier.get();
                 if (durationMillis >= finalSlowWriteLoggingThreshold.getMillis()) {
                     logger.warn("writing cluster state took [{}ms] which is above the warn threshold of [{}]; " +
-                            "wrote full state with [{}] indices",
-                        durationMillis, finalSlowWriteLoggingThreshold, stats.numIndicesUpdated);
+                            "wrote full state with [{}] indices and [{}] mappings; " +
+                            "spent [{}ms] writing documents, [{}ms] flushing and [{}ms] committing",
+                        durationMillis, finalSlowWriteLoggingThreshold, stats.numIndicesUpdated, stats.numMappingsUpdated,
+                        stats.writeMillis, stats.flushMillis, commitMillis);
                 } else {
                     logger.debug("writing cluster state took [{}ms]; " +
-                            "wrote full state with [{}] indices",
-                        durationMillis, stats.numIndicesUpdated);
+                            "wrote full state with [{}] indices and [{}] mappings; " +
+                            "spent [{}ms] writing documents, [{}ms] flushing and [{}ms] committing",
+                        durationMillis, stats.numIndicesUpdated, stats.numMappingsUpdated,
+                        stats.writeMillis, stats.flushMillis, commitMillis);
                 }
             } finally {
                 closeIfAnyIndexWriterHasTragedyOrIsClosed();
@@ -589,18 +660,26 @@ public class PersistedClusterStateService {
             try {
                 final long startTimeMillis = relativeTimeMillisSupplier.getAsLong();
                 final WriterStats stats = updateMetadata(previousClusterState.metadata(), clusterState.metadata());
+                final long commitStartNanos = System.nanoTime();
                 commit(currentTerm, clusterState.version());
+                final long commitMillis = TimeValue.nsecToMSec(System.nanoTime() - commitStartNanos);
                 final long durationMillis = relativeTimeMillisSupplier.getAsLong() - startTimeMillis;
                 final TimeValue finalSlowWriteLoggingThreshold = slowWriteLoggingThresholdSupplier.get();
                 if (durationMillis >= finalSlowWriteLoggingThreshold.getMillis()) {
                     logger.warn("writing cluster state took [{}ms] which is above the warn threshold of [{}]; " +
-                            "wrote global metadata [{}] and metadata for [{}] indices and skipped [{}] unchanged indices",
+                            "wrote global metadata [{}] and metadata for [{}] indices and skipped [{}] unchanged indices, " +
+                            "wrote [{}] and removed [{}] mappings; " +
+                            "spent [{}ms] writing documents, [{}ms] flushing and [{}ms] committing",
                         durationMillis, finalSlowWriteLoggingThreshold, stats.globalMetaUpdated, stats.numIndicesUpdated,
-                        stats.numIndicesUnchanged);
+                        stats.numIndicesUnchanged, stats.numMappingsUpdated, stats.numMappingsRemoved,
+                        stats.writeMillis, stats.flushMillis, commitMillis);
                 } else {
                     logger.debug("writing cluster state took [{}ms]; " +
-                            "wrote global metadata [{}] and metadata for [{}] indices and skipped [{}] unchanged indices",
-                        durationMillis, stats.globalMetaUpdated, stats.numIndicesUpdated, stats.numIndicesUnchanged);
+                            "wrote global metadata [{}] and metadata for [{}] indices and skipped [{}] unchanged indices, " +
+                            "wrote [{}] and removed [{}] mappings; " +
+                            "spent [{}ms] writing documents, [{}ms] flushing and [{}ms] committing",
+                        durationMillis, stats.globalMetaUpdated, stats.numIndicesUpdated, stats.numIndicesUnchanged,
+                        stats.numMappingsUpdated, stats.numMappingsRemoved, stats.writeMillis, stats.flushMillis, commitMillis);
                 }
             } finally {
                 closeIfAnyIndexWriterHasTragedyOrIsClosed();
@@ -626,6 +705,7 @@ public class PersistedClusterStateService {
                 metadata.coordinationMetadata().term());
 
             try (DocumentBuffer documentBuffer = allocateBuffer()) {
+                final long writeStartNanos = System.nanoTime();
 
                 final boolean updateGlobalMeta = Metadata.isGlobalStateEquals(previouslyWrittenMetadata, metadata) == false;
                 if (updateGlobalMeta) {
@@ -663,21 +743,46 @@ public class PersistedClusterStateService {
                     indexMetadataVersionByUUID.remove(indexMetadata.getIndexUUID());
                 }
 
-                documentBufferUsed = documentBuffer.getMaxUsed();
-
                 for (String removedIndexUUID : indexMetadataVersionByUUID.keySet()) {
                     for (MetadataIndexWriter metadataIndexWriter : metadataIndexWriters) {
                         metadataIndexWriter.deleteIndexMetadata(removedIndexUUID);
                     }
                 }
 
+                // Mappings are only written when no index referred to them before, and removed once no index refers to them any more
+                final Set<String> previousMappingHashes = mappingsByHash(previouslyWrittenMetadata).keySet();
+                final Map<String, MappingMetadata> mappingsByHash = mappingsByHash(metadata);
+                int numMappingsUpdated = 0;
+                for (Map.Entry<String, MappingMetadata> entry : mappingsByHash.entrySet()) {
+                    if (previousMappingHashes.contains(entry.getKey()) == false) {
+                        numMappingsUpdated++;
+                        final Document mappingDocument = makeMappingDocument(entry.getKey(), entry.getValue());
+                        for (MetadataIndexWriter metadataIndexWriter : metadataIndexWriters) {
+                            metadataIndexWriter.updateMappingDocument(mappingDocument, entry.getKey());
+                        }
+                    }
+                }
+                int numMappingsRemoved = 0;
+                for (String previousMappingHash : previousMappingHashes) {
+                    if (mappingsByHash.containsKey(previousMappingHash) == false) {
+                        numMappingsRemoved++;
+                        for (MetadataIndexWriter metadataIndexWriter : metadataIndexWriters) {
+                            metadataIndexWriter.deleteMapping(previousMappingHash);
+                        }
+                    }
+                }
+
+                documentBufferUsed = documentBuffer.getMaxUsed();
+                final long flushStartNanos = System.nanoTime();
+
                 // Flush, to try and expose a failure (e.g. out of disk space) before committing, because we can handle a failure here more
                 // gracefully than one that occurs during the commit process.
                 for (MetadataIndexWriter metadataIndexWriter : metadataIndexWriters) {
                     metadataIndexWriter.flush();
                 }
 
-                return new WriterStats(updateGlobalMeta, numIndicesUpdated, numIndicesUnchanged);
+                return new WriterStats(updateGlobalMeta, numIndicesUpdated, numIndicesUnchanged, numMappingsUpdated, numMappingsRemoved,
+                    TimeValue.nsecToMSec(flushStartNanos - writeStartNanos), TimeValue.nsecToMSec(System.nanoTime() - flushStartNanos));
             }
         }
 
@@ -696,12 +801,21 @@ public class PersistedClusterStateService {
          */
         private WriterStats addMetadata(Metadata metadata) throws IOException {
             try (DocumentBuffer documentBuffer = allocateBuffer()) {
+                final long writeStartNanos = System.nanoTime();
 
                 final Document globalMetadataDocument = makeGlobalMetadataDocument(metadata, documentBuffer);
                 for (MetadataIndexWriter metadataIndexWriter : metadataIndexWriters) {
                     metadataIndexWriter.updateGlobalMetadata(globalMetadataDocument);
                 }
 
+                final Map<String, MappingMetadata> mappingsByHash = mappingsByHash(metadata);
+                for (Map.Entry<String, MappingMetadata> entry : mappingsByHash.entrySet()) {
+                    final Document mappingDocument = makeMappingDocument(entry.getKey(), entry.getValue());
+                    for (MetadataIndexWriter metadataIndexWriter : metadataIndexWriters) {
+                        metadataIndexWriter.updateMappingDocument(mappingDocument, entry.getKey());
+                    }
+                }
+
                 for (ObjectCursor<IndexMetadata> cursor : metadata.indices().values()) {
                     final IndexMetadata indexMetadata = cursor.value;
                     final Document indexMetadataDocument = makeIndexMetadataDocument(indexMetadata, documentBuffer);
@@ -711,6 +825,7 @@ public class PersistedClusterStateService {
                 }
 
                 documentBufferUsed = documentBuffer.getMaxUsed();
+                final long flushStartNanos = System.nanoTime();
 
                 // Flush, to try and expose a failure (e.g. out of disk space) before committing, because we can handle a failure here more
                 // gracefully than one that occurs during the commit process.
@@ -718,7 +833,8 @@ public class PersistedClusterStateService {
                     metadataIndexWriter.flush();
                 }
 
-                return new WriterStats(true, metadata.indices().size(), 0);
+                return new WriterStats(true, metadata.indices().size(), 0, mappingsByHash.size(), 0,
+                    TimeValue.nsecToMSec(flushStartNanos - writeStartNanos), TimeValue.nsecToMSec(System.nanoTime() - flushStartNanos));
             }
         }
 
@@ -784,12 +900,42 @@ public class PersistedClusterStateService {
             final boolean globalMetaUpdated;
             final long numIndicesUpdated;
             final long numIndicesUnchanged;
+            final long numMappingsUpdated;
+            final long numMappingsRemoved;
+            final long writeMillis;
+            final long flushMillis;
 
-            WriterStats(boolean globalMetaUpdated, long numIndicesUpdated, long numIndicesUnchanged) {
+            WriterStats(boolean globalMetaUpdated, long numIndicesUpdated, long numIndicesUnchanged, long numMappingsUpdated,
+                        long numMappingsRemoved, long writeMillis, long flushMillis) {
                 this.globalMetaUpdated = globalMetaUpdated;
                 this.numIndicesUpdated = numIndicesUpdated;
                 this.numIndicesUnchanged = numIndicesUnchanged;
+                this.numMappingsUpdated = numMappingsUpdated;
+                this.numMappingsRemoved = numMappingsRemoved;
+                this.writeMillis = writeMillis;
+                this.flushMillis = flushMillis;
+            }
+        }
+
+        /**
+         * The distinct mappings of all indices in the given metadata, by the SHA-256 hashes of their content.
+         */
+        private static Map<String, MappingMetadata> mappingsByHash(Metadata metadata) {
+            final Map<String, MappingMetadata> mappingsByHash = new HashMap<>();
+            for (ObjectCursor<IndexMetadata> cursor : metadata.indices().values()) {
+                for (ObjectCursor<MappingMetadata> mappingCursor : cursor.value.getMappings().values()) {
+                    mappingsByHash.putIfAbsent(mappingCursor.value.getSha256(), mappingCursor.value);
+                }
             }
+            return mappingsByHash;
+        }
+
+        private static Document makeMappingDocument(String hash, MappingMetadata mappingMetadata) {
+            final Document document = new Document();
+            document.add(new StringField(TYPE_FIELD_NAME, MAPPING_TYPE_NAME, Field.Store.NO));
+            document.add(new StringField(MAPPING_HASH_FIELD_NAME, hash, Field.Store.NO));
+            document.add(new StoredField(DATA_FIELD_NAME, mappingMetadata.source().compressed()));
+            return document;
         }
 
         private Document makeIndexMetadataDocument(IndexMetadata indexMetadata, DocumentBuffer documentBuffer) throws IOException {
@@ -15,6 +15,8 @@ import org.elasticsearch.node.ReportingService;
 import org.elasticsearch.rest.RestChannel;
 import org.elasticsearch.rest.RestRequest;
 
+import java.util.function.BooleanSupplier;
+
 public interface HttpServerTransport extends LifecycleComponent, ReportingService<HttpInfo> {
 
     String HTTP_SERVER_WORKER_THREAD_NAME_PREFIX = "http_server_worker";
@@ -51,5 +53,17 @@ public interface HttpServerTransport extends LifecycleComponent, ReportingServic
          */
         void dispatchBadRequest(RestChannel channel, ThreadContext threadContext, Throwable cause);
 
+        /**
+         * Returns the condition under which the transport should stop reading the content of a request from the network, which it
+         * checks when the request starts to arrive and while it reads its content. Reading resumes once the condition clears. Transports
+         * that do not support this read requests in full regardless.
+         *
+         * @param method the method of the request
+         * @param uri    the uri of the request
+         */
+        default BooleanSupplier readPauseCondition(RestRequest.Method method, String uri) {
+            return () -> false;
+        }
+
     }
 }
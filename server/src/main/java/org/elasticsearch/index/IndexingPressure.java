@@ -10,11 +10,14 @@ package org.elasticsearch.index;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.index.stats.IndexingPressureStats;
 
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -25,12 +28,41 @@ public class IndexingPressure {
     public static final Setting<ByteSizeValue> MAX_INDEXING_BYTES =
         Setting.memorySizeSetting("indexing_pressure.memory.limit", "10%", Setting.Property.NodeScope);
 
+    /**
+     * How long a bulk request waits for outstanding indexing bytes to be released when its coordinating operation does not fit within
+     * the limit, before it is rejected. Defaults to rejecting right away.
+     */
+    public static final Setting<TimeValue> COORDINATING_WAIT_TIMEOUT =
+        Setting.timeSetting("indexing_pressure.memory.coordinating_wait_timeout", TimeValue.ZERO, TimeValue.ZERO,
+            TimeValue.timeValueSeconds(30), Setting.Property.NodeScope);
+
+    /**
+     * Whether nodes stop reading the content of bulk requests from the network while the coordinating and primary limit is nearly used
+     * up, until enough outstanding indexing work completes. Clients are then slowed down by TCP flow control, rather than having their
+     * requests buffered in memory only to be rejected. Disabled by default.
+     */
+    public static final Setting<Boolean> PAUSE_HTTP_READS =
+        Setting.boolSetting("indexing_pressure.memory.pause_http_reads", false, Setting.Property.NodeScope);
+
+    /**
+     * The response header through which bulk requests report the indexing pressure of the coordinating node to clients, along with a
+     * suggested delay before sending more indexing work to the node, e.g. {@code utilization=85%;delay=350ms}.
+     */
+    public static final String PRESSURE_RESPONSE_HEADER = "Elastic-Indexing-Pressure";
+
+    // the utilization from which on the response header is added, the suggested delay grows linearly from there to the limit
+    static final double PRESSURE_HEADER_THRESHOLD = 0.5;
+    static final TimeValue MAX_SUGGESTED_DELAY = TimeValue.timeValueSeconds(1);
+    // the utilization from which on reading the content of bulk requests pauses, if enabled
+    static final double PAUSE_HTTP_READS_THRESHOLD = 0.9;
+
     private static final Logger logger = LogManager.getLogger(IndexingPressure.class);
 
     private final AtomicLong currentCombinedCoordinatingAndPrimaryBytes = new AtomicLong(0);
     private final AtomicLong currentCoordinatingBytes = new AtomicLong(0);
     private final AtomicLong currentPrimaryBytes = new AtomicLong(0);
     private final AtomicLong currentReplicaBytes = new AtomicLong(0);
+    private final AtomicLong currentWaitingCoordinatingBytes = new AtomicLong(0);
 
     private final AtomicLong totalCombinedCoordinatingAndPrimaryBytes = new AtomicLong(0);
     private final AtomicLong totalCoordinatingBytes = new AtomicLong(0);
@@ -43,10 +75,16 @@ public class IndexingPressure {
 
     private final long primaryAndCoordinatingLimits;
     private final long replicaLimits;
+    private final long waitingCoordinatingLimits;
+    private final TimeValue coordinatingWaitTimeout;
+    private final boolean pauseHttpReads;
 
     public IndexingPressure(Settings settings) {
         this.primaryAndCoordinatingLimits = MAX_INDEXING_BYTES.get(settings).getBytes();
         this.replicaLimits = (long) (this.primaryAndCoordinatingLimits * 1.5);
+        this.waitingCoordinatingLimits = (long) (this.primaryAndCoordinatingLimits * 0.5);
+        this.coordinatingWaitTimeout = COORDINATING_WAIT_TIMEOUT.get(settings);
+        this.pauseHttpReads = PAUSE_HTTP_READS.get(settings);
     }
 
 
@@ -62,6 +100,37 @@ public class IndexingPressure {
         };
     }
 
+    /**
+     * Like {@link #markCoordinatingOperationStarted(long, boolean)}, but returns {@code null} rather than rejecting the operation if it
+     * does not fit within the limit. Such an attempt does not count as a rejection.
+     */
+    @Nullable
+    public Releasable tryMarkCoordinatingOperationStarted(long bytes, boolean forceExecution) {
+        long combinedBytes = this.currentCombinedCoordinatingAndPrimaryBytes.addAndGet(bytes);
+        long totalBytes = combinedBytes + this.currentReplicaBytes.get();
+        if (forceExecution == false && totalBytes > primaryAndCoordinatingLimits) {
+            this.currentCombinedCoordinatingAndPrimaryBytes.getAndAdd(-bytes);
+            return null;
+        }
+        return coordinatingOperationStarted(bytes);
+    }
+
+    /**
+     * Accounts for the bytes of a bulk request that waits for its coordinating operation to fit within the limit, see
+     * {@link #COORDINATING_WAIT_TIMEOUT}. Waiting requests are held in memory too, so their bytes are bounded by a separate budget of
+     * half the coordinating and primary limit.
+     *
+     * @return a releasable to close once the request stops waiting, or {@code null} if the budget is used up and the request must not wait
+     */
+    @Nullable
+    public Releasable tryMarkCoordinatingOperationWaiting(long bytes) {
+        if (this.currentWaitingCoordinatingBytes.addAndGet(bytes) > waitingCoordinatingLimits) {
+            this.currentWaitingCoordinatingBytes.getAndAdd(-bytes);
+            return null;
+        }
+        return wrapReleasable(() -> this.currentWaitingCoordinatingBytes.getAndAdd(-bytes));
+    }
+
     public Releasable markCoordinatingOperationStarted(long bytes, boolean forceExecution) {
         long combinedBytes = this.currentCombinedCoordinatingAndPrimaryBytes.addAndGet(bytes);
         long replicaWriteBytes = this.currentReplicaBytes.get();
@@ -78,6 +147,10 @@ public class IndexingPressure {
                 "coordinating_operation_bytes=" + bytes + ", " +
                 "max_coordinating_and_primary_bytes=" + primaryAndCoordinatingLimits + "]", false);
         }
+        return coordinatingOperationStarted(bytes);
+    }
+
+    private Releasable coordinatingOperationStarted(long bytes) {
         currentCoordinatingBytes.getAndAdd(bytes);
         totalCombinedCoordinatingAndPrimaryBytes.getAndAdd(bytes);
         totalCoordinatingBytes.getAndAdd(bytes);
@@ -133,6 +206,52 @@ public class IndexingPressure {
         return wrapReleasable(() -> this.currentReplicaBytes.getAndAdd(-bytes));
     }
 
+    /**
+     * The share of the coordinating and primary limit that is in use, counting outstanding replica bytes the same way new coordinating
+     * and primary operations are checked against the limit.
+     */
+    public double getCoordinatingAndPrimaryUtilization() {
+        final long totalBytes = currentCombinedCoordinatingAndPrimaryBytes.get() + currentReplicaBytes.get();
+        if (primaryAndCoordinatingLimits == 0) {
+            return totalBytes == 0 ? 0.0 : 1.0;
+        }
+        return (double) totalBytes / primaryAndCoordinatingLimits;
+    }
+
+    public TimeValue getCoordinatingWaitTimeout() {
+        return coordinatingWaitTimeout;
+    }
+
+    /**
+     * Whether the HTTP layer should stop reading the content of bulk requests from the network for now, see {@link #PAUSE_HTTP_READS}.
+     */
+    public boolean shouldPauseHttpReads() {
+        return pauseHttpReads && getCoordinatingAndPrimaryUtilization() >= PAUSE_HTTP_READS_THRESHOLD;
+    }
+
+    /**
+     * Adds the {@link #PRESSURE_RESPONSE_HEADER} to the response of the current request if the node is under pressure, or if the
+     * operation of the request was rejected.
+     */
+    public void addPressureResponseHeader(ThreadContext threadContext, boolean rejected) {
+        final double utilization = getCoordinatingAndPrimaryUtilization();
+        if (rejected) {
+            threadContext.addResponseHeader(PRESSURE_RESPONSE_HEADER, pressureHeaderValue(Math.max(1.0, utilization)));
+        } else if (utilization >= PRESSURE_HEADER_THRESHOLD) {
+            threadContext.addResponseHeader(PRESSURE_RESPONSE_HEADER, pressureHeaderValue(utilization));
+        }
+    }
+
+    static String pressureHeaderValue(double utilization) {
+        final double pressure = (utilization - PRESSURE_HEADER_THRESHOLD) / (1.0 - PRESSURE_HEADER_THRESHOLD);
+        final long delayMillis = Math.round(MAX_SUGGESTED_DELAY.millis() * Math.max(0.0, Math.min(1.0, pressure)));
+        return "utilization=" + Math.round(utilization * 100) + "%;delay=" + delayMillis + "ms";
+    }
+
+    public long getCurrentWaitingCoordinatingBytes() {
+        return currentWaitingCoordinatingBytes.get();
+    }
+
     public long getCurrentCombinedCoordinatingAndPrimaryBytes() {
         return currentCombinedCoordinatingAndPrimaryBytes.get();
     }
@@ -11,6 +11,7 @@ package org.elasticsearch.index.fielddata;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.util.Accountable;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.index.shard.ShardId;
 
 /**
@@ -23,6 +24,16 @@ public interface IndexFieldDataCache {
     <FD extends LeafFieldData, IFD extends IndexFieldData.Global<FD>> IFD load(DirectoryReader indexReader, IFD indexFieldData)
         throws Exception;
 
+    /**
+     * Returns the global field data that was last loaded through this cache for the provided shard, or {@code null}
+     * if there is none or if it has been evicted since. Implementations of global field data may use it to reuse the
+     * parts of a previous build that are still valid for a new reader of the same shard.
+     */
+    @Nullable
+    default IndexFieldData.Global<?> getLastLoadedGlobal(ShardId shardId) {
+        return null;
+    }
+
     /**
      * Clears all the field data stored cached in on this index.
      */
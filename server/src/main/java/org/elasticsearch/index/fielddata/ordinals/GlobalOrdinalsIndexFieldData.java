@@ -8,6 +8,7 @@
 package org.elasticsearch.index.fielddata.ordinals;
 
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.OrdinalMap;
 import org.apache.lucene.index.SortedSetDocValues;
@@ -29,6 +30,7 @@ import org.elasticsearch.search.sort.SortOrder;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.function.Function;
@@ -51,25 +53,58 @@ public final class GlobalOrdinalsIndexFieldData implements IndexOrdinalsFieldDat
     private final OrdinalMap ordinalMap;
     private final LeafOrdinalsFieldData[] segmentAfd;
     private final Function<SortedSetDocValues, ScriptDocValues<?>> scriptFunction;
+    @Nullable
+    private final IndexReader.CacheKey[] segmentKeys;
+    private final long buildTimeInNanos;
+    private final boolean reused;
 
     protected GlobalOrdinalsIndexFieldData(String fieldName,
                                            ValuesSourceType valuesSourceType,
                                            LeafOrdinalsFieldData[] segmentAfd,
                                            OrdinalMap ordinalMap,
                                            long memorySizeInBytes,
-                                           Function<SortedSetDocValues, ScriptDocValues<?>> scriptFunction) {
+                                           Function<SortedSetDocValues, ScriptDocValues<?>> scriptFunction,
+                                           @Nullable IndexReader.CacheKey[] segmentKeys,
+                                           long buildTimeInNanos,
+                                           boolean reused) {
         this.fieldName = fieldName;
         this.valuesSourceType = valuesSourceType;
         this.memorySizeInBytes = memorySizeInBytes;
         this.ordinalMap = ordinalMap;
         this.segmentAfd = segmentAfd;
         this.scriptFunction = scriptFunction;
+        this.segmentKeys = segmentKeys;
+        this.buildTimeInNanos = buildTimeInNanos;
+        this.reused = reused;
     }
 
     public IndexOrdinalsFieldData newConsumer(DirectoryReader source) {
         return new Consumer(source);
     }
 
+    /**
+     * Returns the time it took to build these global ordinals, in nanoseconds.
+     */
+    public long getBuildTimeInNanos() {
+        return buildTimeInNanos;
+    }
+
+    /**
+     * Returns whether the {@link OrdinalMap} of these global ordinals was reused from a previous reader
+     * instead of being rebuilt.
+     */
+    public boolean isReused() {
+        return reused;
+    }
+
+    /**
+     * Returns whether these global ordinals were built on exactly the provided segments, in the same order,
+     * in which case their {@link OrdinalMap} is still valid for a reader over these segments.
+     */
+    boolean hasSameSegments(@Nullable IndexReader.CacheKey[] otherSegmentKeys) {
+        return segmentKeys != null && otherSegmentKeys != null && Arrays.equals(segmentKeys, otherSegmentKeys);
+    }
+
     @Override
     public LeafOrdinalsFieldData loadDirect(LeafReaderContext context) throws Exception {
         throw new IllegalStateException("loadDirect(LeafReaderContext) should not be called in this context");
@@ -14,6 +14,7 @@ import org.elasticsearch.ElasticsearchGenerationException;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.compress.CompressedXContent;
 import org.elasticsearch.common.text.Text;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.common.xcontent.ToXContent;
 import org.elasticsearch.common.xcontent.ToXContentFragment;
 import org.elasticsearch.common.xcontent.XContentBuilder;
@@ -94,6 +95,7 @@ public class DocumentMapper implements ToXContentFragment {
     private final IndexAnalyzers indexAnalyzers;
     private final MetadataFieldMapper[] deleteTombstoneMetadataFieldMappers;
     private final MetadataFieldMapper[] noopTombstoneMetadataFieldMappers;
+    private final Map<String, ObjectParsePlan> parsePlans = ConcurrentCollections.newConcurrentMap();
 
     private DocumentMapper(IndexSettings indexSettings,
                            IndexAnalyzers indexAnalyzers,
@@ -210,6 +212,25 @@ public class DocumentMapper implements ToXContentFragment {
         return parsedDoc;
     }
 
+    /**
+     * Returns the plan that the fields of the last parsed object of the given mapper followed, or {@code null} if there is none.
+     */
+    ObjectParsePlan parsePlan(ObjectMapper objectMapper) {
+        final ObjectParsePlan plan = parsePlans.get(objectMapper.fullPath());
+        return plan != null && plan.objectMapper() == objectMapper ? plan : null;
+    }
+
+    /**
+     * Records the plan that the fields of an object followed, so that the next object of the same mapper can reuse it. Plans are only
+     * kept for object mappers that are part of this mapping, as the mappers they hold are only valid as long as the mapping is.
+     */
+    void updateParsePlan(ObjectParsePlan plan) {
+        final ObjectMapper objectMapper = plan.objectMapper();
+        if (objectMapper == mapping.root || fieldMappers.objectMappers().get(objectMapper.fullPath()) == objectMapper) {
+            parsePlans.put(objectMapper.fullPath(), plan);
+        }
+    }
+
     /**
      * Given an object path, checks to see if any of its parents are non-nested objects
      */
@@ -412,28 +412,86 @@ final class DocumentParser {
                                          String currentFieldName, XContentParser.Token token) throws IOException {
         assert token == XContentParser.Token.FIELD_NAME || token == XContentParser.Token.END_OBJECT;
         String[] paths = null;
+        // the mapper of the current field, if it is already mapped
+        Mapper fieldMapper = null;
+        // follow the fields of the previous object of this mapper, and record a new plan as soon as the fields deviate from it
+        final boolean usePlan = context.isWithinCopyTo() == false;
+        final ObjectParsePlan plan = usePlan ? context.docMapper().parsePlan(mapper) : null;
+        ObjectParsePlan.Builder observedPlan = usePlan && plan == null ? new ObjectParsePlan.Builder(mapper) : null;
+        int fieldIndex = 0;
         while (token != XContentParser.Token.END_OBJECT) {
             if (token == XContentParser.Token.FIELD_NAME) {
                 currentFieldName = parser.currentName();
-                paths = splitAndValidatePath(currentFieldName);
-                if (containsDisabledObjectMapper(mapper, paths)) {
+                if (plan != null && observedPlan == null && plan.matches(fieldIndex, currentFieldName)) {
+                    fieldMapper = plan.mapper(fieldIndex);
+                    paths = fieldMapper == null ? splitAndValidatePath(currentFieldName) : null;
+                } else {
+                    paths = splitAndValidatePath(currentFieldName);
+                    fieldMapper = usePlan ? getPlannedMapper(context, mapper, currentFieldName, paths) : null;
+                    if (usePlan) {
+                        if (observedPlan == null) {
+                            observedPlan = plan.prefix(fieldIndex);
+                        }
+                        observedPlan.add(currentFieldName, fieldMapper);
+                    }
+                }
+                fieldIndex++;
+                if (fieldMapper == null && containsDisabledObjectMapper(mapper, paths)) {
                     parser.nextToken();
                     parser.skipChildren();
                 }
+            } else if (token == null) {
+                throw new MapperParsingException("object mapping for [" + mapper.name() + "] tried to parse field [" + currentFieldName
+                    + "] as object, but got EOF, has a concrete value been provided to it?");
+            } else if (fieldMapper != null) {
+                parseWithMapper(context, mapper, fieldMapper, currentFieldName, token);
             } else if (token == XContentParser.Token.START_OBJECT) {
                 parseObject(context, mapper, currentFieldName, paths);
             } else if (token == XContentParser.Token.START_ARRAY) {
                 parseArray(context, mapper, currentFieldName, paths);
             } else if (token == XContentParser.Token.VALUE_NULL) {
                 parseNullValue(context, mapper, currentFieldName, paths);
-            } else if (token == null) {
-                throw new MapperParsingException("object mapping for [" + mapper.name() + "] tried to parse field [" + currentFieldName
-                    + "] as object, but got EOF, has a concrete value been provided to it?");
             } else if (token.isValue()) {
                 parseValue(context, mapper, currentFieldName, token, paths);
             }
             token = parser.nextToken();
         }
+        if (observedPlan != null) {
+            context.docMapper().updateParsePlan(observedPlan.build());
+        }
+    }
+
+    /**
+     * Looks up the existing mapper of a field of an object like {@link #getMapper} does, but only returns mappers that any object of
+     * the same mapper can reuse for a field of the same name. Fields that are not mapped yet, or below a disabled object, return
+     * {@code null} and are looked up again whenever they are parsed.
+     */
+    private static Mapper getPlannedMapper(ParseContext context, ObjectMapper objectMapper, String fieldName, String[] subfields) {
+        if (containsDisabledObjectMapper(objectMapper, subfields)) {
+            return null;
+        }
+        return getMapper(context, objectMapper, fieldName, subfields);
+    }
+
+    /**
+     * Parses the value of a field whose mapper is already known, in the same way that {@link #parseObject}, {@link #parseArray},
+     * {@link #parseNullValue} and {@link #parseValue} do for fields that resolve to an existing mapper.
+     */
+    private static void parseWithMapper(ParseContext context, ObjectMapper parentMapper, Mapper mapper,
+                                        String currentFieldName, XContentParser.Token token) throws IOException {
+        if (token == XContentParser.Token.START_OBJECT) {
+            context.path().add(currentFieldName);
+            parseObjectOrField(context, mapper);
+            context.path().remove();
+        } else if (token == XContentParser.Token.START_ARRAY) {
+            if (parsesArrayValue(mapper)) {
+                parseObjectOrField(context, mapper);
+            } else {
+                parseNonDynamicArray(context, parentMapper, currentFieldName, currentFieldName);
+            }
+        } else if (token == XContentParser.Token.VALUE_NULL || token.isValue()) {
+            parseObjectOrField(context, mapper);
+        }
     }
 
     private static void nested(ParseContext context, ObjectMapper.Nested nested) {
@@ -0,0 +1,82 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.index.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The sequence of field names that was last seen in an object of a document, along with the mappers these fields resolved to. Documents
+ * that follow a fixed schema repeat the same sequence, which allows {@link DocumentParser} to reuse the mappers of the previous document
+ * instead of looking them up field by field. A {@code null} mapper means that the field did not resolve to an existing mapper, and needs
+ * to be looked up again as it may be mapped dynamically.
+ *
+ * Plans are immutable and only valid for the {@link ObjectMapper} they were built for, see {@link DocumentMapper#parsePlan(ObjectMapper)}.
+ */
+final class ObjectParsePlan {
+
+    private final ObjectMapper objectMapper;
+    private final String[] fieldNames;
+    private final Mapper[] mappers;
+
+    private ObjectParsePlan(ObjectMapper objectMapper, String[] fieldNames, Mapper[] mappers) {
+        this.objectMapper = objectMapper;
+        this.fieldNames = fieldNames;
+        this.mappers = mappers;
+    }
+
+    ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Whether the field at the given position of the object has the same name as in the plan.
+     */
+    boolean matches(int index, String fieldName) {
+        return index < fieldNames.length && fieldNames[index].equals(fieldName);
+    }
+
+    /**
+     * The mapper of the field at the given position, or {@code null} if it has to be looked up.
+     */
+    Mapper mapper(int index) {
+        return mappers[index];
+    }
+
+    /**
+     * Starts recording a new plan that shares the first {@code length} fields with this one.
+     */
+    Builder prefix(int length) {
+        final Builder builder = new Builder(objectMapper);
+        for (int i = 0; i < length; i++) {
+            builder.add(fieldNames[i], mappers[i]);
+        }
+        return builder;
+    }
+
+    static final class Builder {
+
+        private final ObjectMapper objectMapper;
+        private final List<String> fieldNames = new ArrayList<>();
+        private final List<Mapper> mappers = new ArrayList<>();
+
+        Builder(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+        }
+
+        void add(String fieldName, Mapper mapper) {
+            fieldNames.add(fieldName);
+            mappers.add(mapper);
+        }
+
+        ObjectParsePlan build() {
+            return new ObjectParsePlan(objectMapper, fieldNames.toArray(new String[0]), mappers.toArray(new Mapper[0]));
+        }
+    }
+}
@@ -1419,6 +1419,18 @@ public class ReplicationTracker extends AbstractIndexShardComponent implements L
         }
     }
 
+    /**
+     * Notifies the tracker that the cluster state with the given version did not change the allocation IDs or the routing table of the
+     * shard, so that it is considered as applied like with {@link #updateFromMaster(long, Set, IndexShardRoutingTable)}.
+     * @param applyingClusterStateVersion the cluster state version being applied
+     */
+    public synchronized void updateAppliedClusterStateVersion(final long applyingClusterStateVersion) {
+        assert invariant();
+        if (applyingClusterStateVersion > appliedClusterStateVersion) {
+            appliedClusterStateVersion = applyingClusterStateVersion;
+        }
+    }
+
     private Runnable getMasterUpdateOperationFromCurrentState() {
         assert primaryMode == false;
         final long lastAppliedClusterStateVersion = appliedClusterStateVersion;
@@ -630,6 +630,15 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
         }
     }
 
+    @Override
+    public void updateAppliedClusterStateVersion(final long applyingClusterStateVersion) {
+        synchronized (mutex) {
+            if (shardRouting.primary()) {
+                replicationTracker.updateAppliedClusterStateVersion(applyingClusterStateVersion);
+            }
+        }
+    }
+
     /**
      * Marks the shard as recovering based on a recovery state, fails with exception is recovering is not allowed to be set.
      */
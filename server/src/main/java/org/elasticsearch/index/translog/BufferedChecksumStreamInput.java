@@ -9,6 +9,7 @@
 package org.elasticsearch.index.translog;
 
 import org.apache.lucene.store.BufferedChecksum;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.stream.FilterStreamInput;
 import org.elasticsearch.common.io.stream.StreamInput;
 
@@ -83,6 +84,12 @@ public final class BufferedChecksumStreamInput extends FilterStreamInput {
             | ((((buf[4] & 0xFF) << 24) | ((buf[5] & 0xFF) << 16) | ((buf[6] & 0xFF) << 8) | (buf[7] & 0xFF)) & 0xFFFFFFFFL);
     }
 
+    @Override
+    public BytesReference readSharedBytesReference() throws IOException {
+        // read through this stream so that the bytes are checksummed
+        return readBytesReference();
+    }
+
     @Override
     public void reset() throws IOException {
         delegate.reset();
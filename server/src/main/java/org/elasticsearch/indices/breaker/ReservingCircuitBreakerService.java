@@ -0,0 +1,185 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.indices.breaker;
+
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.lease.Releasable;
+
+/**
+ * A {@link CircuitBreakerService} for the allocations of a single request, which reserves the bytes it accounts for against one of the
+ * breakers of the node in chunks of at least {@code reservationSize} bytes, rather than going to that breaker and its parent for every
+ * allocation. The request then allocates from its reservation until it runs out, and only keeps up to one chunk of unused bytes
+ * reserved when it frees memory again.
+ *
+ * Closing the service gives the unused part of the reservation back. Bytes that are still in use at that point remain accounted for
+ * against the breaker of the node, and freeing them afterwards adjusts that breaker directly.
+ */
+public class ReservingCircuitBreakerService extends CircuitBreakerService implements Releasable {
+
+    private final CircuitBreakerService delegate;
+    private final ReservingCircuitBreaker breaker;
+
+    public ReservingCircuitBreakerService(CircuitBreakerService delegate, String breakerName, long reservationSize) {
+        if (reservationSize <= 0) {
+            throw new IllegalArgumentException("reservation size must be positive but was [" + reservationSize + "]");
+        }
+        this.delegate = delegate;
+        this.breaker = new ReservingCircuitBreaker(delegate.getBreaker(breakerName), reservationSize);
+    }
+
+    @Override
+    public CircuitBreaker getBreaker(String name) {
+        if (breaker.getName().equals(name)) {
+            return breaker;
+        }
+        return delegate.getBreaker(name);
+    }
+
+    @Override
+    public AllCircuitBreakerStats stats() {
+        return delegate.stats();
+    }
+
+    @Override
+    public CircuitBreakerStats stats(String name) {
+        return delegate.stats(name);
+    }
+
+    /**
+     * The number of bytes that this request accounts for.
+     */
+    public long getUsed() {
+        return breaker.getUsed();
+    }
+
+    /**
+     * The number of bytes that are currently reserved against the breaker of the node.
+     */
+    public long getReserved() {
+        return breaker.getReserved();
+    }
+
+    @Override
+    public void close() {
+        breaker.close();
+    }
+
+    private static class ReservingCircuitBreaker implements CircuitBreaker {
+
+        private final CircuitBreaker delegate;
+        private final long reservationSize;
+        private long used;
+        private long reserved;
+        private boolean closed;
+
+        ReservingCircuitBreaker(CircuitBreaker delegate, long reservationSize) {
+            this.delegate = delegate;
+            this.reservationSize = reservationSize;
+        }
+
+        @Override
+        public synchronized double addEstimateBytesAndMaybeBreak(long bytes, String label) throws CircuitBreakingException {
+            if (closed) {
+                return delegate.addEstimateBytesAndMaybeBreak(bytes, label);
+            }
+            if (bytes > 0 && used + bytes > reserved) {
+                final long missing = used + bytes - reserved;
+                final long reservation = Math.max(missing, reservationSize);
+                try {
+                    delegate.addEstimateBytesAndMaybeBreak(reservation, label);
+                    reserved += reservation;
+                } catch (CircuitBreakingException e) {
+                    if (reservation == missing) {
+                        throw e;
+                    }
+                    // only trip if the bytes that are actually needed do not fit
+                    delegate.addEstimateBytesAndMaybeBreak(missing, label);
+                    reserved += missing;
+                }
+            }
+            return addToUsed(bytes);
+        }
+
+        @Override
+        public synchronized long addWithoutBreaking(long bytes) {
+            if (closed) {
+                return delegate.addWithoutBreaking(bytes);
+            }
+            if (used + bytes > reserved) {
+                delegate.addWithoutBreaking(used + bytes - reserved);
+                reserved = used + bytes;
+            }
+            return addToUsed(bytes);
+        }
+
+        private long addToUsed(long bytes) {
+            used += bytes;
+            assert used >= 0 : "used bytes must not be negative but were [" + used + "]";
+            final long excess = reserved - used - reservationSize;
+            if (excess > 0) {
+                delegate.addWithoutBreaking(-excess);
+                reserved -= excess;
+            }
+            return used;
+        }
+
+        synchronized long getReserved() {
+            return reserved;
+        }
+
+        synchronized void close() {
+            if (closed == false) {
+                closed = true;
+                delegate.addWithoutBreaking(used - reserved);
+                reserved = used;
+            }
+        }
+
+        @Override
+        public void circuitBreak(String fieldName, long bytesNeeded) {
+            delegate.circuitBreak(fieldName, bytesNeeded);
+        }
+
+        @Override
+        public synchronized long getUsed() {
+            return used;
+        }
+
+        @Override
+        public long getLimit() {
+            return delegate.getLimit();
+        }
+
+        @Override
+        public double getOverhead() {
+            return delegate.getOverhead();
+        }
+
+        @Override
+        public long getTrippedCount() {
+            return delegate.getTrippedCount();
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Durability getDurability() {
+            return delegate.getDurability();
+        }
+
+        @Override
+        public void setLimitAndOverhead(long limit, double overhead) {
+            throw new UnsupportedOperationException("the limit of a reserving breaker is the limit of the breaker it reserves from");
+        }
+    }
+}
@@ -110,6 +110,10 @@ public class IndicesClusterStateService extends AbstractLifecycleComponent imple
     private final Consumer<ShardId> globalCheckpointSyncer;
     private final RetentionLeaseSyncer retentionLeaseSyncer;
 
+    // the last cluster state that was fully applied, or null if the last application did not complete; only accessed under the
+    // mutex of applyClusterState
+    private ClusterState lastAppliedState;
+
     @Inject
     public IndicesClusterStateService(
             final Settings settings,
@@ -209,6 +213,10 @@ public class IndicesClusterStateService extends AbstractLifecycleComponent imple
         }
 
         final ClusterState state = event.state();
+        // if the previous state was fully applied then the local shards match it, and only the indices that changed since then
+        // need to be looked at again
+        final boolean incremental = lastAppliedState != null && event.previousState() == lastAppliedState;
+        lastAppliedState = null;
 
         // we need to clean the shards and indices we have on this node, since we
         // are going to recover them again once state persistence is disabled (no master / not recovered)
@@ -218,6 +226,7 @@ public class IndicesClusterStateService extends AbstractLifecycleComponent imple
                 // also cleans shards
                 indicesService.removeIndex(indexService.index(), NO_LONGER_ASSIGNED, "cleaning index (disabled block persistence)");
             }
+            lastAppliedState = state;
             return;
         }
 
@@ -229,13 +238,15 @@ public class IndicesClusterStateService extends AbstractLifecycleComponent imple
 
         failMissingShards(state);
 
-        removeShards(state);   // removes any local shards that doesn't match what the master expects
+        removeShards(event, incremental);   // removes any local shards that doesn't match what the master expects
 
         updateIndices(event); // can also fail shards, but these are then guaranteed to be in failedShardsCache
 
         createIndices(state);
 
-        createOrUpdateShards(state);
+        createOrUpdateShards(event, incremental);
+
+        lastAppliedState = state;
     }
 
     /**
@@ -410,15 +421,22 @@ public class IndicesClusterStateService extends AbstractLifecycleComponent imple
      * Removes shards that are currently loaded by indicesService but have disappeared from the routing table of the current node.
      * This method does not delete the shard data.
      *
-     * @param state new cluster state
+     * @param event cluster change event
+     * @param incremental whether the local shards match the previous cluster state, so that only indices with changed routing need to be
+     *                    checked
      */
-    private void removeShards(final ClusterState state) {
+    private void removeShards(final ClusterChangedEvent event, final boolean incremental) {
+        final ClusterState state = event.state();
         final String localNodeId = state.nodes().getLocalNodeId();
         assert localNodeId != null;
 
         // remove shards based on routing nodes (no deletion of data)
         RoutingNode localRoutingNode = state.getRoutingNodes().node(localNodeId);
+        final Set<String> indicesWithChangedRouting = incremental ? event.indicesWithChangedRouting() : null;
         for (AllocatedIndex<? extends Shard> indexService : indicesService) {
+            if (incremental && indicesWithChangedRouting.contains(indexService.index().getName()) == false) {
+                continue;
+            }
             for (Shard shard : indexService) {
                 ShardRouting currentRoutingEntry = shard.routingEntry();
                 ShardId shardId = currentRoutingEntry.shardId();
@@ -540,7 +558,8 @@ public class IndicesClusterStateService extends AbstractLifecycleComponent imple
         }
     }
 
-    private void createOrUpdateShards(final ClusterState state) {
+    private void createOrUpdateShards(final ClusterChangedEvent event, final boolean incremental) {
+        final ClusterState state = event.state();
         RoutingNode localRoutingNode = state.getRoutingNodes().node(state.nodes().getLocalNodeId());
         if (localRoutingNode == null) {
             return;
@@ -548,6 +567,8 @@ public class IndicesClusterStateService extends AbstractLifecycleComponent imple
 
         DiscoveryNodes nodes = state.nodes();
         RoutingTable routingTable = state.routingTable();
+        final Set<String> indicesWithChangedRouting = incremental ? event.indicesWithChangedRouting() : null;
+        final Set<String> indicesWithChangedMetadata = incremental ? event.indicesWithChangedMetadata() : null;
 
         for (final ShardRouting shardRouting : localRoutingNode) {
             ShardId shardId = shardRouting.shardId();
@@ -558,6 +579,13 @@ public class IndicesClusterStateService extends AbstractLifecycleComponent imple
                 if (shard == null) {
                     assert shardRouting.initializing() : shardRouting + " should have been removed by failMissingShards";
                     createShard(nodes, routingTable, shardRouting, state);
+                } else if (incremental && shardRouting.active()
+                    && indicesWithChangedRouting.contains(shardId.getIndexName()) == false
+                    && indicesWithChangedMetadata.contains(shardId.getIndexName()) == false) {
+                    // the shard already applied this routing entry, primary term and set of in-sync copies, it only needs to know that
+                    // it is up to date with this cluster state version. Initializing shards are always updated so that shard started
+                    // messages are resent to a new master.
+                    shard.updateAppliedClusterStateVersion(state.version());
                 } else {
                     updateShard(nodes, shardRouting, shard, routingTable, state);
                 }
@@ -813,6 +841,15 @@ public class IndicesClusterStateService extends AbstractLifecycleComponent imple
                               long applyingClusterStateVersion,
                               Set<String> inSyncAllocationIds,
                               IndexShardRoutingTable routingTable) throws IOException;
+
+        /**
+         * Records that the shard is up to date with the given cluster state version, which changed neither its routing entry nor its
+         * primary term nor the allocation ids that are tracked by the shard if it is a primary.
+         * See {@link ReplicationTracker#updateAppliedClusterStateVersion(long)} for details.
+         *
+         * @param applyingClusterStateVersion the cluster state version being applied
+         */
+        void updateAppliedClusterStateVersion(long applyingClusterStateVersion);
     }
 
     public interface AllocatedIndex<T extends Shard> extends Iterable<T>, IndexComponent {
@@ -28,6 +28,7 @@ import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.fielddata.LeafFieldData;
 import org.elasticsearch.index.fielddata.IndexFieldData;
@@ -38,6 +39,7 @@ import org.elasticsearch.index.shard.ShardUtils;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.function.ToLongBiFunction;
 
 public class IndicesFieldDataCache implements RemovalListener<IndicesFieldDataCache.Key, Accountable>, Releasable{
@@ -109,6 +111,8 @@ public class IndicesFieldDataCache implements RemovalListener<IndicesFieldDataCa
         final String fieldName;
         private final Cache<Key, Accountable> cache;
         private final Listener[] listeners;
+        // the key of the last global field data loaded per shard, used to reuse global ordinals across refreshes
+        private final Map<ShardId, Key> lastGlobalKeys = ConcurrentCollections.newConcurrentMap();
 
         IndexFieldCache(Logger logger,final Cache<Key, Accountable> cache, Index index, String fieldName, Listener... listeners) {
             this.logger = logger;
@@ -171,17 +175,32 @@ public class IndicesFieldDataCache implements RemovalListener<IndicesFieldDataCa
                 }
                 return ifd;
             });
+            if (shardId != null) {
+                lastGlobalKeys.put(shardId, key);
+            }
             return (IFD) accountable;
         }
 
+        @Override
+        public IndexFieldData.Global<?> getLastLoadedGlobal(ShardId shardId) {
+            final Key key = lastGlobalKeys.get(shardId);
+            if (key == null) {
+                return null;
+            }
+            final Accountable accountable = cache.get(key);
+            return accountable instanceof IndexFieldData.Global ? (IndexFieldData.Global<?>) accountable : null;
+        }
+
         @Override
         public void onClose(CacheKey key) throws IOException {
+            lastGlobalKeys.values().removeIf(lastKey -> lastKey.readerKey == key);
             cache.invalidate(new Key(this, key, null));
             // don't call cache.cleanUp here as it would have bad performance implications
         }
 
         @Override
         public void clear() {
+            lastGlobalKeys.clear();
             for (Key key : cache.keys()) {
                 if (key.indexCache.index.equals(index)) {
                     cache.invalidate(key);
@@ -193,6 +212,9 @@ public class IndicesFieldDataCache implements RemovalListener<IndicesFieldDataCa
 
         @Override
         public void clear(String fieldName) {
+            if (this.fieldName.equals(fieldName)) {
+                lastGlobalKeys.clear();
+            }
             for (Key key : cache.keys()) {
                 if (key.indexCache.index.equals(index)) {
                     if (key.indexCache.fieldName.equals(fieldName)) {
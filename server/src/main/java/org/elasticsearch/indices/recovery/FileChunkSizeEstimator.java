@@ -0,0 +1,78 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.indices.recovery;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Estimates the size of the file chunks to send during phase 1 of a peer recovery. Each file chunk request pays a fixed cost of (at least)
+ * one round trip between the source and the target node, so chunks should be large enough for this cost to be small compared to the time
+ * it takes to transfer the chunk. This estimator sizes the chunks to the bandwidth-delay product of the connection, computed from the
+ * throughput of the transfer so far and the smallest round-trip time observed for a file chunk request.
+ * <p>
+ * Chunks are always a multiple of the buffer size used to read the files (the base chunk size) so that the recovery source never needs to
+ * allocate larger buffers, and never exceed the maximum chunk size.
+ */
+final class FileChunkSizeEstimator {
+
+    private final int bufferSize;
+    private final int maxBuffersPerChunk;
+    private final LongSupplier relativeTimeInNanos;
+    private final long startTimeInNanos;
+
+    private long acknowledgedBytes;
+    private long minRoundTripTimeInNanos = Long.MAX_VALUE;
+    private volatile int buffersPerChunk = 1;
+
+    FileChunkSizeEstimator(int bufferSize, int maxChunkSize, LongSupplier relativeTimeInNanos) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("buffer size must be > 0 but was [" + bufferSize + "]");
+        }
+        this.bufferSize = bufferSize;
+        this.maxBuffersPerChunk = Math.max(1, maxChunkSize / bufferSize);
+        this.relativeTimeInNanos = relativeTimeInNanos;
+        this.startTimeInNanos = relativeTimeInNanos.getAsLong();
+    }
+
+    /**
+     * @return the number of buffers that the next file chunk should be made of
+     */
+    int buffersPerChunk() {
+        return buffersPerChunk;
+    }
+
+    /**
+     * Records that a file chunk of the given size has been acknowledged by the target node, and adjusts the size of the next chunks.
+     *
+     * @param bytes                  the size of the acknowledged chunk
+     * @param roundTripTimeInNanos   the time elapsed between sending the chunk and receiving its acknowledgement
+     */
+    synchronized void onChunkAcknowledged(long bytes, long roundTripTimeInNanos) {
+        if (maxBuffersPerChunk == 1) {
+            return; // nothing to adapt
+        }
+        acknowledgedBytes += bytes;
+        minRoundTripTimeInNanos = Math.min(minRoundTripTimeInNanos, Math.max(1L, roundTripTimeInNanos));
+        final long elapsedTimeInNanos = relativeTimeInNanos.getAsLong() - startTimeInNanos;
+        if (elapsedTimeInNanos <= 0L) {
+            return;
+        }
+        final double throughputInBytesPerNano = (double) acknowledgedBytes / elapsedTimeInNanos;
+        final double bandwidthDelayProduct = throughputInBytesPerNano * minRoundTripTimeInNanos;
+        final long buffers = (long) Math.ceil(bandwidthDelayProduct / bufferSize);
+        buffersPerChunk = (int) Math.max(1L, Math.min(buffers, maxBuffersPerChunk));
+    }
+
+    /**
+     * @return the current estimated size of the file chunks, in bytes
+     */
+    long chunkSizeInBytes() {
+        return (long) buffersPerChunk * bufferSize;
+    }
+}
@@ -162,6 +162,28 @@ public class MultiFileWriter extends AbstractRefCounted implements Releasable {
         }
     }
 
+    /**
+     * Discards everything that was written so far for the given file, so that it can be written again from its first chunk. This is
+     * used when a file could not be fully copied from a snapshot repository and must be sent by the recovery source instead.
+     */
+    public void discardFile(String fileName) {
+        ensureOpen.run();
+        fileChunkWriters.remove(fileName);
+        final IndexOutput indexOutput = openIndexOutputs.remove(fileName);
+        if (indexOutput != null) {
+            try {
+                indexOutput.close();
+            } catch (Exception e) {
+                logger.debug(() -> new ParameterizedMessage("error while closing recovery output [{}]", indexOutput), e);
+            }
+        }
+        final String tempFileName = getTempNameForFile(fileName);
+        if (tempFileNames.remove(tempFileName) != null) {
+            store.deleteQuiet(tempFileName);
+        }
+        indexState.resetRecoveredBytesOfFile(fileName);
+    }
+
     /** renames all temporary files to their true name, potentially overriding existing files */
     public void renameAllTempFiles() throws IOException {
         ensureOpen.run();
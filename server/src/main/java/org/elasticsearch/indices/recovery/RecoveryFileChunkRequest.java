@@ -8,6 +8,7 @@
 
 package org.elasticsearch.indices.recovery;
 
+import org.apache.lucene.index.IndexFileNames;
 import org.apache.lucene.util.Version;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.stream.StreamInput;
@@ -15,10 +16,19 @@ import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.transport.PrecompressedTransportRequest;
 
 import java.io.IOException;
+import java.util.Set;
+
+public final class RecoveryFileChunkRequest extends RecoveryTransportRequest implements PrecompressedTransportRequest {
+
+    /**
+     * Extensions of the Lucene files whose content is compressed by Lucene itself (stored fields and term vectors data), chunks of which
+     * are not worth compressing again at the transport level.
+     */
+    private static final Set<String> COMPRESSED_FILE_EXTENSIONS = org.elasticsearch.common.collect.Set.of("fdt", "tvd");
 
-public final class RecoveryFileChunkRequest extends RecoveryTransportRequest {
     private final boolean lastChunk;
     private final long recoveryId;
     private final ShardId shardId;
@@ -75,6 +85,12 @@ public final class RecoveryFileChunkRequest extends RecoveryTransportRequest {
         return position;
     }
 
+    @Override
+    public boolean isPrecompressed() {
+        final String extension = IndexFileNames.getExtension(metadata.name());
+        return extension != null && COMPRESSED_FILE_EXTENSIONS.contains(extension);
+    }
+
     public long length() {
         return metadata.length();
     }
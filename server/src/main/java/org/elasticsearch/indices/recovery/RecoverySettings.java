@@ -14,6 +14,9 @@ import org.apache.lucene.store.RateLimiter;
 import org.apache.lucene.store.RateLimiter.SimpleRateLimiter;
 import org.elasticsearch.bootstrap.JavaVersion;
 import org.elasticsearch.cluster.node.DiscoveryNodeRole;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
@@ -21,6 +24,7 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.AdjustableSemaphore;
 import org.elasticsearch.monitor.os.OsProbe;
 import org.elasticsearch.node.NodeRoleSettings;
 
@@ -77,10 +81,48 @@ public class RecoverySettings {
             Property.NodeScope);
 
     /**
-     * Controls the maximum number of file chunk requests that can be sent concurrently from the source node to the target node.
+     * Controls the maximum number of file chunk requests that can be sent concurrently from the source node to the target node. Concurrent
+     * file chunk requests are spread across all the recovery connections to the target node, see
+     * {@code transport.connections_per_node.recovery}.
      */
     public static final Setting<Integer> INDICES_RECOVERY_MAX_CONCURRENT_FILE_CHUNKS_SETTING =
-        Setting.intSetting("indices.recovery.max_concurrent_file_chunks", 2, 1, 5, Property.Dynamic, Property.NodeScope);
+        Setting.intSetting("indices.recovery.max_concurrent_file_chunks", 2, 1, 8, Property.Dynamic, Property.NodeScope);
+
+    /**
+     * Controls the maximum size of the file chunks sent from the source node to the target node. File chunks start at
+     * {@link #DEFAULT_CHUNK_SIZE} and grow towards this limit according to the throughput and round-trip time measured during the recovery
+     * so that high-bandwidth, high-latency links can be saturated with only a few concurrent requests.
+     */
+    public static final Setting<ByteSizeValue> INDICES_RECOVERY_MAX_FILE_CHUNK_SIZE_SETTING =
+        Setting.byteSizeSetting("indices.recovery.max_file_chunk_size", new ByteSizeValue(4, ByteSizeUnit.MB),
+            new ByteSizeValue(0, ByteSizeUnit.BYTES), new ByteSizeValue(64, ByteSizeUnit.MB), Property.Dynamic, Property.NodeScope);
+
+    /**
+     * Controls whether the recovery target may copy files from the latest snapshot of the shard, in a repository registered with
+     * {@code use_for_peer_recovery: true}, instead of receiving them from the recovery source.
+     */
+    public static final Setting<Boolean> INDICES_RECOVERY_USE_SNAPSHOTS_SETTING =
+        Setting.boolSetting("indices.recovery.use_snapshots", true, Property.Dynamic, Property.NodeScope);
+
+    /**
+     * Controls the maximum number of files that a recovery target copies concurrently from a snapshot repository.
+     */
+    public static final Setting<Integer> INDICES_RECOVERY_MAX_CONCURRENT_SNAPSHOT_FILE_DOWNLOADS_SETTING =
+        Setting.intSetting("indices.recovery.max_concurrent_snapshot_file_downloads", 5, 1, 20, Property.Dynamic, Property.NodeScope);
+
+    /**
+     * Controls the maximum number of downloads from snapshot repositories that the snapshot restores on a node run concurrently.
+     */
+    public static final Setting<Integer> INDICES_RECOVERY_MAX_CONCURRENT_SNAPSHOT_FILE_DOWNLOADS_PER_NODE_SETTING =
+        Setting.intSetting("indices.recovery.max_concurrent_snapshot_file_downloads_per_node", 25, 1,
+            Property.Dynamic, Property.NodeScope);
+
+    /**
+     * Size of the byte ranges in which snapshot restores download large files concurrently.
+     */
+    public static final Setting<ByteSizeValue> INDICES_RECOVERY_SNAPSHOT_FILE_DOWNLOAD_RANGE_SIZE_SETTING =
+        Setting.byteSizeSetting("indices.recovery.snapshot_file_download_range_size", new ByteSizeValue(32, ByteSizeUnit.MB),
+            new ByteSizeValue(1, ByteSizeUnit.MB), new ByteSizeValue(1, ByteSizeUnit.GB), Property.Dynamic, Property.NodeScope);
 
     /**
      * Controls the maximum number of operation chunk requests that can be sent concurrently from the source node to the target node.
@@ -134,7 +176,12 @@ public class RecoverySettings {
 
     private volatile ByteSizeValue maxBytesPerSec;
     private volatile int maxConcurrentFileChunks;
+    private volatile ByteSizeValue maxFileChunkSize;
     private volatile int maxConcurrentOperations;
+    private volatile boolean useSnapshotsDuringRecovery;
+    private volatile int maxConcurrentSnapshotFileDownloads;
+    private volatile ByteSizeValue snapshotFileDownloadRangeSize;
+    private final AdjustableSemaphore snapshotFileDownloadsPerNode;
     private volatile SimpleRateLimiter rateLimiter;
     private volatile TimeValue retryDelayStateSync;
     private volatile TimeValue retryDelayNetwork;
@@ -148,7 +195,13 @@ public class RecoverySettings {
     public RecoverySettings(Settings settings, ClusterSettings clusterSettings) {
         this.retryDelayStateSync = INDICES_RECOVERY_RETRY_DELAY_STATE_SYNC_SETTING.get(settings);
         this.maxConcurrentFileChunks = INDICES_RECOVERY_MAX_CONCURRENT_FILE_CHUNKS_SETTING.get(settings);
+        this.maxFileChunkSize = INDICES_RECOVERY_MAX_FILE_CHUNK_SIZE_SETTING.get(settings);
         this.maxConcurrentOperations = INDICES_RECOVERY_MAX_CONCURRENT_OPERATIONS_SETTING.get(settings);
+        this.useSnapshotsDuringRecovery = INDICES_RECOVERY_USE_SNAPSHOTS_SETTING.get(settings);
+        this.maxConcurrentSnapshotFileDownloads = INDICES_RECOVERY_MAX_CONCURRENT_SNAPSHOT_FILE_DOWNLOADS_SETTING.get(settings);
+        this.snapshotFileDownloadRangeSize = INDICES_RECOVERY_SNAPSHOT_FILE_DOWNLOAD_RANGE_SIZE_SETTING.get(settings);
+        this.snapshotFileDownloadsPerNode =
+            new AdjustableSemaphore(INDICES_RECOVERY_MAX_CONCURRENT_SNAPSHOT_FILE_DOWNLOADS_PER_NODE_SETTING.get(settings), true);
         // doesn't have to be fast as nodes are reconnected every 10s by default (see InternalClusterService.ReconnectToNodes)
         // and we want to give the master time to remove a faulty node
         this.retryDelayNetwork = INDICES_RECOVERY_RETRY_DELAY_NETWORK_SETTING.get(settings);
@@ -170,8 +223,16 @@ public class RecoverySettings {
 
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_MAX_BYTES_PER_SEC_SETTING, this::setMaxBytesPerSec);
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_MAX_CONCURRENT_FILE_CHUNKS_SETTING, this::setMaxConcurrentFileChunks);
+        clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_MAX_FILE_CHUNK_SIZE_SETTING, this::setMaxFileChunkSize);
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_MAX_CONCURRENT_OPERATIONS_SETTING,
             this::setMaxConcurrentOperations);
+        clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_USE_SNAPSHOTS_SETTING, this::setUseSnapshotsDuringRecovery);
+        clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_MAX_CONCURRENT_SNAPSHOT_FILE_DOWNLOADS_SETTING,
+            this::setMaxConcurrentSnapshotFileDownloads);
+        clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_MAX_CONCURRENT_SNAPSHOT_FILE_DOWNLOADS_PER_NODE_SETTING,
+            snapshotFileDownloadsPerNode::setMaxPermits);
+        clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_SNAPSHOT_FILE_DOWNLOAD_RANGE_SIZE_SETTING,
+            this::setSnapshotFileDownloadRangeSize);
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_RETRY_DELAY_STATE_SYNC_SETTING, this::setRetryDelayStateSync);
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_RETRY_DELAY_NETWORK_SETTING, this::setRetryDelayNetwork);
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_INTERNAL_ACTION_TIMEOUT_SETTING, this::setInternalActionTimeout);
@@ -257,6 +318,19 @@ public class RecoverySettings {
         this.maxConcurrentFileChunks = maxConcurrentFileChunks;
     }
 
+    /**
+     * @return the maximum size of a file chunk, which is never smaller than {@link #getChunkSize()}
+     */
+    public ByteSizeValue getMaxFileChunkSize() {
+        final ByteSizeValue chunkSize = this.chunkSize;
+        final ByteSizeValue maxFileChunkSize = this.maxFileChunkSize;
+        return maxFileChunkSize.compareTo(chunkSize) < 0 ? chunkSize : maxFileChunkSize;
+    }
+
+    private void setMaxFileChunkSize(ByteSizeValue maxFileChunkSize) {
+        this.maxFileChunkSize = maxFileChunkSize;
+    }
+
     public int getMaxConcurrentOperations() {
         return maxConcurrentOperations;
     }
@@ -264,4 +338,41 @@ public class RecoverySettings {
     private void setMaxConcurrentOperations(int maxConcurrentOperations) {
         this.maxConcurrentOperations = maxConcurrentOperations;
     }
+
+    public boolean getUseSnapshotsDuringRecovery() {
+        return useSnapshotsDuringRecovery;
+    }
+
+    private void setUseSnapshotsDuringRecovery(boolean useSnapshotsDuringRecovery) {
+        this.useSnapshotsDuringRecovery = useSnapshotsDuringRecovery;
+    }
+
+    public int getMaxConcurrentSnapshotFileDownloads() {
+        return maxConcurrentSnapshotFileDownloads;
+    }
+
+    private void setMaxConcurrentSnapshotFileDownloads(int maxConcurrentSnapshotFileDownloads) {
+        this.maxConcurrentSnapshotFileDownloads = maxConcurrentSnapshotFileDownloads;
+    }
+
+    public ByteSizeValue getSnapshotFileDownloadRangeSize() {
+        return snapshotFileDownloadRangeSize;
+    }
+
+    private void setSnapshotFileDownloadRangeSize(ByteSizeValue snapshotFileDownloadRangeSize) {
+        this.snapshotFileDownloadRangeSize = snapshotFileDownloadRangeSize;
+    }
+
+    /**
+     * Tries to acquire one of the permits that limit the number of concurrent downloads from snapshot repositories on this node.
+     *
+     * @return a releasable that returns the permit, or {@code null} if all permits are in use
+     */
+    @Nullable
+    public Releasable tryAcquireSnapshotFileDownloadPermit() {
+        if (snapshotFileDownloadsPerNode.tryAcquire()) {
+            return Releasables.releaseOnce(snapshotFileDownloadsPerNode::release);
+        }
+        return null;
+    }
 }
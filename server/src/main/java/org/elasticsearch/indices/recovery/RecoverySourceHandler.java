@@ -24,15 +24,18 @@ import org.elasticsearch.Version;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.ActionRunnable;
 import org.elasticsearch.action.StepListener;
+import org.elasticsearch.action.support.GroupedActionListener;
 import org.elasticsearch.action.support.PlainActionFuture;
 import org.elasticsearch.action.support.ThreadedActionListener;
 import org.elasticsearch.action.support.replication.ReplicationResponse;
 import org.elasticsearch.cluster.routing.IndexShardRoutingTable;
 import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.common.CheckedRunnable;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.StopWatch;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.common.logging.Loggers;
@@ -55,6 +58,7 @@ import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.IndexShardClosedException;
 import org.elasticsearch.index.shard.IndexShardRelocatedException;
 import org.elasticsearch.index.shard.IndexShardState;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot;
 import org.elasticsearch.index.store.Store;
 import org.elasticsearch.index.store.StoreFileMetadata;
 import org.elasticsearch.index.translog.Translog;
@@ -69,8 +73,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -101,9 +107,13 @@ public class RecoverySourceHandler {
     // Request containing source and target node information
     private final StartRecoveryRequest request;
     private final int chunkSizeInBytes;
+    private final int maxFileChunkSizeInBytes;
     private final RecoveryTargetHandler recoveryTarget;
     private final int maxConcurrentFileChunks;
     private final int maxConcurrentOperations;
+    @Nullable
+    private final ShardSnapshotsService shardSnapshotsService;
+    private final int maxConcurrentSnapshotFileDownloads;
     private final ThreadPool threadPool;
     private final CancellableThreads cancellableThreads = new CancellableThreads();
     private final List<Closeable> resources = new CopyOnWriteArrayList<>();
@@ -112,6 +122,19 @@ public class RecoverySourceHandler {
     public RecoverySourceHandler(IndexShard shard, RecoveryTargetHandler recoveryTarget, ThreadPool threadPool,
                                  StartRecoveryRequest request, int fileChunkSizeInBytes, int maxConcurrentFileChunks,
                                  int maxConcurrentOperations) {
+        this(shard, recoveryTarget, threadPool, request, fileChunkSizeInBytes, fileChunkSizeInBytes, maxConcurrentFileChunks,
+            maxConcurrentOperations, null, 1);
+    }
+
+    /**
+     * @param shardSnapshotsService              finds the latest snapshot of the shard so that the target can copy identical files from the
+     *                                           repository, or {@code null} if all files must be sent by this node
+     * @param maxConcurrentSnapshotFileDownloads the maximum number of files that the target copies concurrently from the repository
+     */
+    public RecoverySourceHandler(IndexShard shard, RecoveryTargetHandler recoveryTarget, ThreadPool threadPool,
+                                 StartRecoveryRequest request, int fileChunkSizeInBytes, int maxFileChunkSizeInBytes,
+                                 int maxConcurrentFileChunks, int maxConcurrentOperations,
+                                 @Nullable ShardSnapshotsService shardSnapshotsService, int maxConcurrentSnapshotFileDownloads) {
         this.shard = shard;
         this.recoveryTarget = recoveryTarget;
         this.threadPool = threadPool;
@@ -119,9 +142,13 @@ public class RecoverySourceHandler {
         this.shardId = this.request.shardId().id();
         this.logger = Loggers.getLogger(getClass(), request.shardId(), "recover to " + request.targetNode().getName());
         this.chunkSizeInBytes = fileChunkSizeInBytes;
+        this.maxFileChunkSizeInBytes = Math.max(fileChunkSizeInBytes, maxFileChunkSizeInBytes);
         // if the target is on an old version, it won't be able to handle out-of-order file chunks.
         this.maxConcurrentFileChunks = request.targetNode().getVersion().onOrAfter(Version.V_6_7_0) ? maxConcurrentFileChunks : 1;
         this.maxConcurrentOperations = maxConcurrentOperations;
+        // older targets do not know how to copy files from a snapshot repository
+        this.shardSnapshotsService = request.targetNode().getVersion().onOrAfter(Version.V_7_11_3) ? shardSnapshotsService : null;
+        this.maxConcurrentSnapshotFileDownloads = maxConcurrentSnapshotFileDownloads;
     }
 
     public StartRecoveryRequest getRequest() {
@@ -519,6 +546,7 @@ public class RecoverySourceHandler {
                     phase1FileNames.size(), new ByteSizeValue(totalSizeInBytes),
                     phase1ExistingFileNames.size(), new ByteSizeValue(existingTotalSizeInBytes));
                 final StepListener<Void> sendFileInfoStep = new StepListener<>();
+                final StepListener<List<StoreFileMetadata>> recoverFilesFromSnapshotStep = new StepListener<>();
                 final StepListener<Void> sendFilesStep = new StepListener<>();
                 final StepListener<RetentionLease> createRetentionLeaseStep = new StepListener<>();
                 final StepListener<Void> cleanFilesStep = new StepListener<>();
@@ -527,7 +555,10 @@ public class RecoverySourceHandler {
                         phase1ExistingFileSizes, translogOps.getAsInt(), sendFileInfoStep);
 
                 sendFileInfoStep.whenComplete(r ->
-                    sendFiles(store, phase1Files.toArray(new StoreFileMetadata[0]), translogOps, sendFilesStep), listener::onFailure);
+                    recoverFilesFromSnapshot(phase1Files, recoverFilesFromSnapshotStep), listener::onFailure);
+
+                recoverFilesFromSnapshotStep.whenComplete(filesToSend ->
+                    sendFiles(store, filesToSend.toArray(new StoreFileMetadata[0]), translogOps, sendFilesStep), listener::onFailure);
 
                 sendFilesStep.whenComplete(r -> createRetentionLease(startingSeqNo, createRetentionLeaseStep), listener::onFailure);
 
@@ -571,6 +602,88 @@ public class RecoverySourceHandler {
         }
     }
 
+    /**
+     * Asks the target to copy the files that are identical in the latest snapshot of the shard directly from the snapshot repository,
+     * and completes the listener with the files that must still be sent by this node: the files that are not in the snapshot and the
+     * files that could not be copied from the repository.
+     */
+    void recoverFilesFromSnapshot(List<StoreFileMetadata> phase1Files, ActionListener<List<StoreFileMetadata>> listener) {
+        if (shardSnapshotsService == null || phase1Files.isEmpty()) {
+            listener.onResponse(phase1Files);
+            return;
+        }
+        shardSnapshotsService.fetchLatestSnapshot(request.shardId(), ActionListener.wrap(shardSnapshot -> {
+            if (shardSnapshot.isPresent()) {
+                recoverFilesFromSnapshot(shardSnapshot.get(), phase1Files, listener);
+            } else {
+                listener.onResponse(phase1Files);
+            }
+        }, listener::onFailure));
+    }
+
+    private void recoverFilesFromSnapshot(ShardSnapshotsService.ShardSnapshot shardSnapshot, List<StoreFileMetadata> phase1Files,
+                                          ActionListener<List<StoreFileMetadata>> listener) {
+        cancellableThreads.checkForCancel();
+        final Map<String, StoreFileMetadata> sourceFiles = new HashMap<>();
+        final List<StoreFileMetadata> filesToSend = Collections.synchronizedList(new ArrayList<>());
+        final Deque<BlobStoreIndexShardSnapshot.FileInfo> filesToRecover = new ConcurrentLinkedDeque<>();
+        for (StoreFileMetadata md : phase1Files) {
+            final BlobStoreIndexShardSnapshot.FileInfo fileInfo = shardSnapshot.getFileInfo(md.name());
+            // files whose contents are entirely held in their metadata are cheaper to send than to download
+            if (fileInfo != null && md.hashEqualsContents() == false && fileInfo.metadata().isSame(md)) {
+                sourceFiles.put(md.name(), md);
+                filesToRecover.add(fileInfo);
+            } else {
+                filesToSend.add(md);
+            }
+        }
+        if (filesToRecover.isEmpty()) {
+            listener.onResponse(phase1Files);
+            return;
+        }
+        final int filesInSnapshot = filesToRecover.size();
+        final AtomicInteger failedFiles = new AtomicInteger();
+        logger.trace("recovery [phase1]: recovering [{}] files from snapshot [{}] in repository [{}]",
+            filesInSnapshot, shardSnapshot.getSnapshotName(), shardSnapshot.getRepository());
+        final int workers = Math.max(1, Math.min(maxConcurrentSnapshotFileDownloads, filesInSnapshot));
+        final ActionListener<Void> workersListener = new GroupedActionListener<>(ActionListener.wrap(r -> {
+            logger.debug("recovery [phase1]: recovered [{}] out of [{}] files from snapshot [{}] in repository [{}]",
+                filesInSnapshot - failedFiles.get(), filesInSnapshot, shardSnapshot.getSnapshotName(), shardSnapshot.getRepository());
+            listener.onResponse(new ArrayList<>(filesToSend));
+        }, listener::onFailure), workers);
+        for (int i = 0; i < workers; i++) {
+            recoverNextFileFromSnapshot(shardSnapshot, filesToRecover, sourceFiles, filesToSend, failedFiles, workersListener);
+        }
+    }
+
+    private void recoverNextFileFromSnapshot(ShardSnapshotsService.ShardSnapshot shardSnapshot,
+                                             Deque<BlobStoreIndexShardSnapshot.FileInfo> filesToRecover,
+                                             Map<String, StoreFileMetadata> sourceFiles, List<StoreFileMetadata> filesToSend,
+                                             AtomicInteger failedFiles, ActionListener<Void> listener) {
+        final BlobStoreIndexShardSnapshot.FileInfo fileInfo = filesToRecover.poll();
+        if (fileInfo == null) {
+            listener.onResponse(null);
+            return;
+        }
+        recoveryTarget.restoreFileFromSnapshot(shardSnapshot.getRepository(), shardSnapshot.getIndexId(), fileInfo,
+            new ActionListener<Void>() {
+                @Override
+                public void onResponse(Void aVoid) {
+                    recoverNextFileFromSnapshot(shardSnapshot, filesToRecover, sourceFiles, filesToSend, failedFiles, listener);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    // the target discarded whatever it copied of this file, so we can send it ourselves
+                    logger.debug(new ParameterizedMessage("recovery [phase1]: failed to recover [{}] from snapshot [{}] in repository [{}]",
+                        fileInfo.physicalName(), shardSnapshot.getSnapshotName(), shardSnapshot.getRepository()), e);
+                    failedFiles.incrementAndGet();
+                    filesToSend.add(sourceFiles.get(fileInfo.physicalName()));
+                    recoverNextFileFromSnapshot(shardSnapshot, filesToRecover, sourceFiles, filesToSend, failedFiles, listener);
+                }
+            });
+    }
+
     void createRetentionLease(final long startingSeqNo, ActionListener<RetentionLease> listener) {
         runUnderPrimaryPermit(() -> {
                 // Clone the peer recovery retention lease belonging to the source shard. We are retaining history between the the local
@@ -896,6 +1009,9 @@ public class RecoverySourceHandler {
     void sendFiles(Store store, StoreFileMetadata[] files, IntSupplier translogOps, ActionListener<Void> listener) {
         ArrayUtil.timSort(files, Comparator.comparingLong(StoreFileMetadata::length)); // send smallest first
 
+        // chunks are made of one or more buffers of chunkSizeInBytes, whose number adapts to the measured throughput and latency
+        final FileChunkSizeEstimator chunkSizeEstimator = new FileChunkSizeEstimator(chunkSizeInBytes, maxFileChunkSizeInBytes,
+            System::nanoTime);
         final MultiChunkTransfer<StoreFileMetadata, FileChunk>multiFileSender = new MultiChunkTransfer<StoreFileMetadata, FileChunk>(
             logger, threadPool.getThreadContext(), listener, maxConcurrentFileChunks, Arrays.asList(files)) {
 
@@ -928,24 +1044,49 @@ public class RecoverySourceHandler {
                 protected FileChunk nextChunkRequest(StoreFileMetadata md) throws IOException {
                     assert Transports.assertNotTransportThread("read file chunk");
                     cancellableThreads.checkForCancel();
-                    final byte[] buffer = acquireBuffer();
-                    final int bytesRead = currentInput.read(buffer);
-                    if (bytesRead == -1) {
-                        throw new CorruptIndexException("file truncated; length=" + md.length() + " offset=" + offset, md.name());
+                    final int buffersPerChunk = chunkSizeEstimator.buffersPerChunk();
+                    final List<byte[]> chunkBuffers = new ArrayList<>(buffersPerChunk);
+                    final Releasable releaseBuffers = () -> chunkBuffers.forEach(buffers::addFirst);
+                    final BytesReference[] contents = new BytesReference[buffersPerChunk];
+                    int chunkLength = 0;
+                    boolean success = false;
+                    try {
+                        do {
+                            final byte[] buffer = acquireBuffer();
+                            chunkBuffers.add(buffer);
+                            final int bytesRead = currentInput.read(buffer);
+                            if (bytesRead == -1) {
+                                final long position = offset + chunkLength;
+                                throw new CorruptIndexException("file truncated; length=" + md.length() + " offset=" + position, md.name());
+                            }
+                            contents[chunkBuffers.size() - 1] = new BytesArray(buffer, 0, bytesRead);
+                            chunkLength += bytesRead;
+                        } while (chunkBuffers.size() < buffersPerChunk && offset + chunkLength < md.length());
+                        success = true;
+                    } finally {
+                        if (success == false) {
+                            releaseBuffers.close();
+                        }
                     }
-                    final boolean lastChunk = offset + bytesRead == md.length();
-                    final FileChunk chunk = new FileChunk(md, new BytesArray(buffer, 0, bytesRead), offset, lastChunk,
-                        () -> buffers.addFirst(buffer));
-                    offset += bytesRead;
+                    final BytesReference content = chunkBuffers.size() == 1
+                        ? contents[0]
+                        : CompositeBytesReference.of(Arrays.copyOf(contents, chunkBuffers.size()));
+                    final boolean lastChunk = offset + chunkLength == md.length();
+                    final FileChunk chunk = new FileChunk(md, content, offset, lastChunk, releaseBuffers);
+                    offset += chunkLength;
                     return chunk;
                 }
 
                 @Override
                 protected void executeChunkRequest(FileChunk request, ActionListener<Void> listener) {
                     cancellableThreads.checkForCancel();
+                    final long startTimeInNanos = System.nanoTime();
                     recoveryTarget.writeFileChunk(
                         request.md, request.position, request.content, request.lastChunk, translogOps.getAsInt(),
-                        ActionListener.runBefore(listener, request::close));
+                        ActionListener.runBefore(listener, request::close).map(r -> {
+                            chunkSizeEstimator.onChunkAcknowledged(request.content.length(), System.nanoTime() - startTimeInNanos);
+                            return r;
+                        }));
                 }
 
                 @Override
@@ -955,6 +1096,8 @@ public class RecoverySourceHandler {
 
                 @Override
                 public void close() throws IOException {
+                    logger.trace("finished sending files with a file chunk size of [{}]",
+                        new ByteSizeValue(chunkSizeEstimator.chunkSizeInBytes()));
                     IOUtils.close(currentInput, () -> currentInput = null);
                 }
             };
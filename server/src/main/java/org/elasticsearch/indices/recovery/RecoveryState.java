@@ -348,6 +348,8 @@ public class RecoveryState implements ToXContentFragment, Writeable {
         static final String REUSED = "reused";
         static final String REUSED_IN_BYTES = "reused_in_bytes";
         static final String PERCENT = "percent";
+        static final String THROUGHPUT_PER_SEC = "throughput_per_sec";
+        static final String THROUGHPUT_PER_SEC_IN_BYTES = "throughput_per_sec_in_bytes";
         static final String DETAILS = "details";
         static final String SIZE = "size";
         static final String SOURCE_THROTTLE_TIME = "source_throttle_time";
@@ -632,6 +634,11 @@ public class RecoveryState implements ToXContentFragment, Writeable {
             recovered += bytes;
         }
 
+        void resetRecoveredBytes() {
+            assert reused == false : "file is marked as reused, can't reset recovered bytes";
+            recovered = 0;
+        }
+
         /**
          * file name *
          */
@@ -760,6 +767,12 @@ public class RecoveryState implements ToXContentFragment, Writeable {
             file.addRecoveredBytes(bytes);
         }
 
+        public void resetRecoveredBytesOfFile(String name) {
+            FileDetail file = fileDetails.get(name);
+            assert file != null : "file [" + name + "] hasn't been reported";
+            file.resetRecoveredBytes();
+        }
+
         public FileDetail get(String name) {
             return fileDetails.get(name);
         }
@@ -844,6 +857,13 @@ public class RecoveryState implements ToXContentFragment, Writeable {
             fileDetails.addRecoveredBytesToFile(name, bytes);
         }
 
+        /**
+         * Resets the number of recovered bytes of the given file, for instance after a partial copy of the file had to be discarded.
+         */
+        public synchronized void resetRecoveredBytesOfFile(String name) {
+            fileDetails.resetRecoveredBytesOfFile(name);
+        }
+
         public synchronized void addSourceThrottling(long timeInNanos) {
             if (sourceThrottlingInNanos == UNKNOWN) {
                 sourceThrottlingInNanos = timeInNanos;
@@ -978,6 +998,23 @@ public class RecoveryState implements ToXContentFragment, Writeable {
             return total;
         }
 
+        /**
+         * average number of bytes recovered per second since the start of the index stage, excluding reused files
+         */
+        public synchronized long recoveredBytesPerSecond() {
+            final long timeInMillis = time();
+            if (timeInMillis <= 0L) {
+                return 0L;
+            }
+            long recovered = 0L;
+            for (FileDetail file : fileDetails.values()) {
+                if (file.reused() == false) {
+                    recovered += file.recovered();
+                }
+            }
+            return recovered * 1000L / timeInMillis;
+        }
+
         /**
          * percent of bytes recovered out of total files bytes *to be* recovered
          */
@@ -1029,6 +1066,8 @@ public class RecoveryState implements ToXContentFragment, Writeable {
             builder.humanReadableField(Fields.REUSED_IN_BYTES, Fields.REUSED, new ByteSizeValue(reusedBytes()));
             builder.humanReadableField(Fields.RECOVERED_IN_BYTES, Fields.RECOVERED, new ByteSizeValue(recoveredBytes()));
             builder.field(Fields.PERCENT, String.format(Locale.ROOT, "%1.1f%%", recoveredBytesPercent()));
+            builder.humanReadableField(Fields.THROUGHPUT_PER_SEC_IN_BYTES, Fields.THROUGHPUT_PER_SEC,
+                new ByteSizeValue(recoveredBytesPerSecond()));
             builder.endObject();
 
             builder.startObject(Fields.FILES);
@@ -9,6 +9,7 @@
 package org.elasticsearch.indices.recovery;
 
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.index.IndexFormatTooNewException;
 import org.apache.lucene.index.IndexFormatTooOldException;
@@ -17,14 +18,18 @@ import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.Version;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRunnable;
 import org.elasticsearch.action.admin.indices.flush.FlushRequest;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.Streams;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.common.lucene.Lucene;
+import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.util.CancellableThreads;
 import org.elasticsearch.common.util.concurrent.AbstractRefCounted;
 import org.elasticsearch.index.engine.Engine;
@@ -36,11 +41,16 @@ import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.IndexShardNotRecoveringException;
 import org.elasticsearch.index.shard.IndexShardState;
 import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot;
 import org.elasticsearch.index.store.Store;
 import org.elasticsearch.index.store.StoreFileMetadata;
 import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.repositories.IndexId;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
@@ -59,6 +69,8 @@ public class RecoveryTarget extends AbstractRefCounted implements RecoveryTarget
 
     private static final String RECOVERY_PREFIX = "recovery.";
 
+    private static final int SNAPSHOT_FILE_BUFFER_SIZE = ByteSizeUnit.KB.toIntBytes(512);
+
     private final ShardId shardId;
     private final long recoveryId;
     private final IndexShard indexShard;
@@ -67,6 +79,8 @@ public class RecoveryTarget extends AbstractRefCounted implements RecoveryTarget
     private final RecoveryRequestTracker requestTracker = new RecoveryRequestTracker();
     private final Store store;
     private final PeerRecoveryTargetService.RecoveryListener listener;
+    @Nullable
+    private final SnapshotFilesProvider snapshotFilesProvider;
 
     private final AtomicBoolean finished = new AtomicBoolean();
 
@@ -88,10 +102,25 @@ public class RecoveryTarget extends AbstractRefCounted implements RecoveryTarget
      * @param listener                          called when recovery is completed/failed
      */
     public RecoveryTarget(IndexShard indexShard, DiscoveryNode sourceNode, PeerRecoveryTargetService.RecoveryListener listener) {
+        this(indexShard, sourceNode, null, listener);
+    }
+
+    /**
+     * Creates a new recovery target object that represents a recovery to the provided shard.
+     *
+     * @param indexShard                        local shard where we want to recover to
+     * @param sourceNode                        source node of the recovery where we recover from
+     * @param snapshotFilesProvider             gives access to snapshotted files, or {@code null} if files may not be copied from
+     *                                          snapshot repositories
+     * @param listener                          called when recovery is completed/failed
+     */
+    public RecoveryTarget(IndexShard indexShard, DiscoveryNode sourceNode, @Nullable SnapshotFilesProvider snapshotFilesProvider,
+                          PeerRecoveryTargetService.RecoveryListener listener) {
         super("recovery_status");
         this.cancellableThreads = new CancellableThreads();
         this.recoveryId = idGenerator.incrementAndGet();
         this.listener = listener;
+        this.snapshotFilesProvider = snapshotFilesProvider;
         this.logger = Loggers.getLogger(getClass(), indexShard.shardId());
         this.indexShard = indexShard;
         this.sourceNode = sourceNode;
@@ -111,7 +140,7 @@ public class RecoveryTarget extends AbstractRefCounted implements RecoveryTarget
      * @return a copy of this recovery target
      */
     public RecoveryTarget retryCopy() {
-        return new RecoveryTarget(indexShard, sourceNode, listener);
+        return new RecoveryTarget(indexShard, sourceNode, snapshotFilesProvider, listener);
     }
 
     @Nullable
@@ -498,6 +527,64 @@ public class RecoveryTarget extends AbstractRefCounted implements RecoveryTarget
         }
     }
 
+    @Override
+    public void restoreFileFromSnapshot(String repository, IndexId indexId, BlobStoreIndexShardSnapshot.FileInfo snapshotFile,
+                                        ActionListener<Void> listener) {
+        if (snapshotFilesProvider == null) {
+            listener.onFailure(new IllegalStateException("recovery target of " + shardId + " cannot copy files from snapshots"));
+            return;
+        }
+        if (tryIncRef() == false) {
+            listener.onFailure(new IllegalStateException("recovery target of " + shardId + " is already closed"));
+            return;
+        }
+        // reading from the repository blocks, so the copy runs on the generic pool and is interrupted if the recovery is cancelled
+        indexShard.getThreadPool().generic().execute(ActionRunnable.run(ActionListener.runAfter(listener, this::decRef), () -> {
+            final StoreFileMetadata metadata = snapshotFile.metadata();
+            try {
+                cancellableThreads.execute(() -> {
+                    try {
+                        copyFileFromSnapshot(repository, indexId, snapshotFile);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (Exception e) {
+                final Exception cause = e instanceof UncheckedIOException ? ((UncheckedIOException) e).getCause() : e;
+                logger.debug(new ParameterizedMessage("failed to copy [{}] from snapshot repository [{}]", metadata.name(), repository),
+                    cause);
+                try {
+                    multiFileWriter.discardFile(metadata.name());
+                } catch (Exception inner) {
+                    cause.addSuppressed(inner);
+                }
+                throw cause;
+            }
+        }));
+    }
+
+    private void copyFileFromSnapshot(String repository, IndexId indexId, BlobStoreIndexShardSnapshot.FileInfo snapshotFile)
+        throws IOException {
+        final StoreFileMetadata metadata = snapshotFile.metadata();
+        try (InputStream stream = snapshotFilesProvider.getInputStreamForSnapshotFile(repository, indexId, shardId, snapshotFile)) {
+            final byte[] buffer = new byte[Math.toIntExact(Math.max(1L, Math.min(SNAPSHOT_FILE_BUFFER_SIZE, metadata.length())))];
+            long position = 0L;
+            while (position < metadata.length()) {
+                cancellableThreads.checkForCancel();
+                final int toRead = Math.toIntExact(Math.min(buffer.length, metadata.length() - position));
+                final int length = Streams.readFully(stream, buffer, 0, toRead);
+                if (length == 0) {
+                    throw new EOFException("unexpected end of snapshotted file [" + snapshotFile.name() + "] at position [" + position
+                        + "] of [" + metadata.length() + "]");
+                }
+                // chunks are written synchronously since they are in order, so the buffer can be reused
+                final boolean lastChunk = position + length == metadata.length();
+                multiFileWriter.writeFileChunk(metadata, position, new BytesArray(buffer, 0, length), lastChunk);
+                position += length;
+            }
+        }
+    }
+
     /** Get a temporary name for the provided file name. */
     public String getTempNameForFile(String origFile) {
         return multiFileWriter.getTempNameForFile(origFile);
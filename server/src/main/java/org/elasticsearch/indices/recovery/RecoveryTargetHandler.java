@@ -11,9 +11,11 @@ import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.index.seqno.ReplicationTracker;
 import org.elasticsearch.index.seqno.RetentionLeases;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot;
 import org.elasticsearch.index.store.Store;
 import org.elasticsearch.index.store.StoreFileMetadata;
 import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.repositories.IndexId;
 
 import java.util.List;
 
@@ -96,5 +98,16 @@ public interface RecoveryTargetHandler {
     void writeFileChunk(StoreFileMetadata fileMetadata, long position, BytesReference content,
                         boolean lastChunk, int totalTranslogOps, ActionListener<Void> listener);
 
+    /**
+     * Asks the target to copy a file from a snapshot repository instead of receiving it from the source. If this fails then any partial
+     * copy of the file is discarded on the target, so that the file can be sent with {@link #writeFileChunk} instead.
+     *
+     * @param repository   the name of the repository that holds the snapshot
+     * @param indexId      the id of the index in the repository
+     * @param snapshotFile the snapshotted file, which must be identical to the file on the source
+     */
+    void restoreFileFromSnapshot(String repository, IndexId indexId, BlobStoreIndexShardSnapshot.FileInfo snapshotFile,
+                                 ActionListener<Void> listener);
+
     default void cancel() {}
 }
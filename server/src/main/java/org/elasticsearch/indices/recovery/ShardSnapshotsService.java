@@ -0,0 +1,188 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.indices.recovery;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRunnable;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.RepositoriesMetadata;
+import org.elasticsearch.cluster.metadata.RepositoryMetadata;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshots;
+import org.elasticsearch.index.snapshots.blobstore.SnapshotFiles;
+import org.elasticsearch.repositories.IndexId;
+import org.elasticsearch.repositories.RepositoriesService;
+import org.elasticsearch.repositories.Repository;
+import org.elasticsearch.repositories.RepositoryData;
+import org.elasticsearch.repositories.blobstore.BlobStoreRepository;
+import org.elasticsearch.snapshots.SnapshotId;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the latest snapshot of a shard in the repositories that are registered with
+ * {@link BlobStoreRepository#USE_FOR_PEER_RECOVERY_SETTING}, so that a peer recovery can copy the files that did not change since then
+ * directly from the repository instead of from the primary.
+ */
+public class ShardSnapshotsService {
+
+    private static final Logger logger = LogManager.getLogger(ShardSnapshotsService.class);
+
+    private final ClusterService clusterService;
+    private final RepositoriesService repositoriesService;
+    private final ThreadPool threadPool;
+
+    public ShardSnapshotsService(ClusterService clusterService, RepositoriesService repositoriesService, ThreadPool threadPool) {
+        this.clusterService = clusterService;
+        this.repositoriesService = repositoriesService;
+        this.threadPool = threadPool;
+    }
+
+    /**
+     * Looks up the latest snapshot of the given shard. The repositories are searched in turn and the first one that holds a snapshot of
+     * the shard wins. This never fails: repositories that cannot be read are skipped, and the listener is completed with an empty
+     * optional if no snapshot can be found.
+     */
+    public void fetchLatestSnapshot(ShardId shardId, ActionListener<Optional<ShardSnapshot>> listener) {
+        final RepositoriesMetadata repositoriesMetadata = clusterService.state().metadata().custom(RepositoriesMetadata.TYPE);
+        if (repositoriesMetadata == null) {
+            listener.onResponse(Optional.empty());
+            return;
+        }
+        final List<String> repositories = repositoriesMetadata.repositories().stream()
+            .filter(repositoryMetadata -> BlobStoreRepository.USE_FOR_PEER_RECOVERY_SETTING.get(repositoryMetadata.settings()))
+            .map(RepositoryMetadata::name)
+            .collect(Collectors.toList());
+        fetchLatestSnapshot(shardId, repositories.iterator(), listener);
+    }
+
+    private void fetchLatestSnapshot(ShardId shardId, Iterator<String> repositories, ActionListener<Optional<ShardSnapshot>> listener) {
+        if (repositories.hasNext() == false) {
+            listener.onResponse(Optional.empty());
+            return;
+        }
+        final String repositoryName = repositories.next();
+        final ActionListener<Optional<ShardSnapshot>> repositoryListener = new ActionListener<Optional<ShardSnapshot>>() {
+            @Override
+            public void onResponse(Optional<ShardSnapshot> shardSnapshot) {
+                if (shardSnapshot.isPresent()) {
+                    listener.onResponse(shardSnapshot);
+                } else {
+                    fetchLatestSnapshot(shardId, repositories, listener);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                logger.debug(new ParameterizedMessage("{} failed to fetch the latest snapshot of the shard from repository [{}]",
+                    shardId, repositoryName), e);
+                fetchLatestSnapshot(shardId, repositories, listener);
+            }
+        };
+        try {
+            final Repository repository = repositoriesService.repository(repositoryName);
+            if (repository instanceof BlobStoreRepository == false) {
+                repositoryListener.onResponse(Optional.empty());
+                return;
+            }
+            final BlobStoreRepository blobStoreRepository = (BlobStoreRepository) repository;
+            blobStoreRepository.getRepositoryData(ActionListener.wrap(
+                // the repository data may be cached and returned on the calling thread, reading the shard's snapshots requires IO
+                repositoryData -> threadPool.generic().execute(ActionRunnable.supply(repositoryListener,
+                    () -> loadLatestSnapshot(repositoryName, blobStoreRepository, repositoryData, shardId))),
+                repositoryListener::onFailure));
+        } catch (Exception e) {
+            repositoryListener.onFailure(e);
+        }
+    }
+
+    private static Optional<ShardSnapshot> loadLatestSnapshot(String repositoryName, BlobStoreRepository repository,
+                                                              RepositoryData repositoryData, ShardId shardId) throws IOException {
+        final IndexId indexId = repositoryData.getIndices().get(shardId.getIndexName());
+        if (indexId == null) {
+            return Optional.empty();
+        }
+        final String shardGen = repositoryData.shardGenerations().getShardGen(indexId, shardId.id());
+        final BlobStoreIndexShardSnapshots shardSnapshots = repository.getBlobStoreIndexShardSnapshots(indexId, shardId.id(), shardGen);
+        final List<SnapshotFiles> snapshots = shardSnapshots.snapshots();
+        if (snapshots.isEmpty()) {
+            return Optional.empty();
+        }
+        // snapshots are listed in the order in which they were taken
+        final SnapshotFiles latestSnapshot = snapshots.get(snapshots.size() - 1);
+        if (isSnapshotOfSameIndex(repository, repositoryData, indexId, latestSnapshot, shardId) == false) {
+            logger.debug("{} latest snapshot [{}] in repository [{}] was taken from another index with the same name",
+                shardId, latestSnapshot.snapshot(), repositoryName);
+            return Optional.empty();
+        }
+        return Optional.of(new ShardSnapshot(repositoryName, indexId, latestSnapshot));
+    }
+
+    /**
+     * Checks that the snapshot was taken from the index of the given shard and not from an index with the same name that was deleted
+     * since then, by comparing the UUID of the index with the one of the index metadata stored along with the snapshot.
+     */
+    private static boolean isSnapshotOfSameIndex(BlobStoreRepository repository, RepositoryData repositoryData, IndexId indexId,
+                                                 SnapshotFiles snapshotFiles, ShardId shardId) throws IOException {
+        final Optional<SnapshotId> snapshotId = repositoryData.getSnapshots(indexId).stream()
+            .filter(candidate -> candidate.getName().equals(snapshotFiles.snapshot()))
+            .findFirst();
+        if (snapshotId.isPresent() == false) {
+            return false;
+        }
+        final IndexMetadata indexMetadata = repository.getSnapshotIndexMetaData(repositoryData, snapshotId.get(), indexId);
+        return shardId.getIndex().getUUID().equals(indexMetadata.getIndexUUID());
+    }
+
+    /**
+     * The files of a shard snapshot, along with the location of the snapshot.
+     */
+    public static final class ShardSnapshot {
+        private final String repository;
+        private final IndexId indexId;
+        private final SnapshotFiles snapshotFiles;
+
+        ShardSnapshot(String repository, IndexId indexId, SnapshotFiles snapshotFiles) {
+            this.repository = repository;
+            this.indexId = indexId;
+            this.snapshotFiles = snapshotFiles;
+        }
+
+        public String getRepository() {
+            return repository;
+        }
+
+        public IndexId getIndexId() {
+            return indexId;
+        }
+
+        public String getSnapshotName() {
+            return snapshotFiles.snapshot();
+        }
+
+        /**
+         * @return the snapshotted file with the given physical name, or {@code null} if the snapshot does not contain such a file
+         */
+        @Nullable
+        public BlobStoreIndexShardSnapshot.FileInfo getFileInfo(String physicalName) {
+            return snapshotFiles.findPhysicalIndexFile(physicalName);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.indices.recovery;
+
+import org.elasticsearch.common.blobstore.BlobContainer;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot;
+import org.elasticsearch.index.snapshots.blobstore.SlicedInputStream;
+import org.elasticsearch.repositories.IndexId;
+import org.elasticsearch.repositories.RepositoriesService;
+import org.elasticsearch.repositories.Repository;
+import org.elasticsearch.repositories.blobstore.BlobStoreRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Gives recovery targets access to the contents of the files of a shard snapshot, so that they can copy them from the repository rather
+ * than receiving them from the recovery source.
+ */
+public class SnapshotFilesProvider {
+
+    private final RepositoriesService repositoriesService;
+
+    public SnapshotFilesProvider(RepositoriesService repositoriesService) {
+        this.repositoriesService = repositoriesService;
+    }
+
+    /**
+     * Opens a stream over the whole contents of a snapshotted file, reading its parts in turn. The stream is rate limited in the same
+     * way as restores from the repository, which includes the recovery rate limit.
+     */
+    public InputStream getInputStreamForSnapshotFile(String repositoryName, IndexId indexId, ShardId shardId,
+                                                     BlobStoreIndexShardSnapshot.FileInfo fileInfo) {
+        final Repository repository = repositoriesService.repository(repositoryName);
+        if (repository instanceof BlobStoreRepository == false) {
+            throw new IllegalArgumentException("repository [" + repositoryName + "] does not support recovering files from snapshots");
+        }
+        final BlobStoreRepository blobStoreRepository = (BlobStoreRepository) repository;
+        final BlobContainer container = blobStoreRepository.shardContainer(indexId, shardId.id());
+        return blobStoreRepository.maybeRateLimitRestores(new SlicedInputStream(fileInfo.numberOfParts()) {
+            @Override
+            protected InputStream openSlice(int slice) throws IOException {
+                return container.readBlob(fileInfo.partName(slice));
+            }
+        });
+    }
+}
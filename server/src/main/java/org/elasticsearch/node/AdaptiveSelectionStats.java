@@ -70,6 +70,13 @@ public class AdaptiveSelectionStats implements Writeable, ToXContentFragment {
                     builder.field("avg_response_time", new TimeValue((long) stats.responseTime, TimeUnit.NANOSECONDS).toString());
                 }
                 builder.field("avg_response_time_ns", (long) stats.responseTime);
+                if (stats.responseTimeP99 >= 0) {
+                    builder.startObject("response_time_percentiles_ns");
+                    builder.field("50.0", (long) stats.responseTimeP50);
+                    builder.field("95.0", (long) stats.responseTimeP95);
+                    builder.field("99.0", (long) stats.responseTimeP99);
+                    builder.endObject();
+                }
                 builder.field("rank", String.format(Locale.ROOT, "%.1f", stats.rank(outgoingSearches)));
             }
             builder.endObject();
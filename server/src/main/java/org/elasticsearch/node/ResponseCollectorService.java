@@ -11,11 +11,14 @@ package org.elasticsearch.node;
 import org.elasticsearch.cluster.ClusterChangedEvent;
 import org.elasticsearch.cluster.ClusterStateListener;
 import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.Version;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.ExponentiallyDecayingHistogram;
 import org.elasticsearch.common.ExponentiallyWeightedMovingAverage;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 
 import java.io.IOException;
@@ -28,16 +31,38 @@ import java.util.concurrent.ConcurrentMap;
 /**
  * Collects statistics about queue size, response time, and service time of
  * tasks executed on each node, making the EWMA of the values available to the
- * coordinating node.
+ * coordinating node. Response times are also recorded in a decaying histogram
+ * so that tail latencies of a node are available as well.
  */
 public final class ResponseCollectorService implements ClusterStateListener {
 
+    /**
+     * Whether nodes should be ranked by the 99th percentile of their recent response times instead of by the
+     * EWMA of their response times. The tail reacts much faster to a single node slowing down, e.g. due to GC.
+     */
+    public static final Setting<Boolean> RANK_BY_TAIL_LATENCY_SETTING =
+        Setting.boolSetting("cluster.routing.adaptive_replica_selection.rank_by_tail_latency", false,
+            Setting.Property.Dynamic, Setting.Property.NodeScope);
+
     private static final double ALPHA = 0.3;
+    // each response time weighs ~2% more than the previous one, so the histogram mostly reflects the last ~50 responses
+    private static final double HISTOGRAM_ALPHA = 0.02;
+    private static final long HISTOGRAM_UNIT_NANOS = 1000;
+    // percentiles of fewer responses than this are too noisy to rank nodes by
+    static final long MIN_RESPONSES_FOR_PERCENTILES = 10;
 
     private final ConcurrentMap<String, NodeStatistics> nodeIdToStats = ConcurrentCollections.newConcurrentMap();
 
+    private volatile boolean rankByTailLatency;
+
     public ResponseCollectorService(ClusterService clusterService) {
         clusterService.addListener(this);
+        this.rankByTailLatency = RANK_BY_TAIL_LATENCY_SETTING.get(clusterService.getSettings());
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(RANK_BY_TAIL_LATENCY_SETTING, this::setRankByTailLatency);
+    }
+
+    private void setRankByTailLatency(boolean rankByTailLatency) {
+        this.rankByTailLatency = rankByTailLatency;
     }
 
     @Override
@@ -58,10 +83,13 @@ public final class ResponseCollectorService implements ClusterStateListener {
             if (ns == null) {
                 ExponentiallyWeightedMovingAverage queueEWMA = new ExponentiallyWeightedMovingAverage(ALPHA, queueSize);
                 ExponentiallyWeightedMovingAverage responseEWMA = new ExponentiallyWeightedMovingAverage(ALPHA, responseTimeNanos);
-                return new NodeStatistics(nodeId, queueEWMA, responseEWMA, avgServiceTimeNanos);
+                NodeStatistics stats = new NodeStatistics(nodeId, queueEWMA, responseEWMA, avgServiceTimeNanos);
+                stats.responseTimeHistogram.addValue(responseTimeNanos);
+                return stats;
             } else {
                 ns.queueSize.addValue((double) queueSize);
                 ns.responseTime.addValue((double) responseTimeNanos);
+                ns.responseTimeHistogram.addValue(responseTimeNanos);
                 ns.serviceTime = avgServiceTimeNanos;
                 return ns;
             }
@@ -72,8 +100,9 @@ public final class ResponseCollectorService implements ClusterStateListener {
         final int clientNum = nodeIdToStats.size();
         // Transform the mutable object internally used for accounting into the computed version
         Map<String, ComputedNodeStats> nodeStats = new HashMap<>(nodeIdToStats.size());
+        final boolean rankByTailLatency = this.rankByTailLatency;
         nodeIdToStats.forEach((k, v) -> {
-            nodeStats.put(k, new ComputedNodeStats(clientNum, v));
+            nodeStats.put(k, new ComputedNodeStats(clientNum, v, rankByTailLatency));
         });
         return nodeStats;
     }
@@ -89,13 +118,14 @@ public final class ResponseCollectorService implements ClusterStateListener {
      */
     public Optional<ComputedNodeStats> getNodeStatistics(final String nodeId) {
         final int clientNum = nodeIdToStats.size();
-        return Optional.ofNullable(nodeIdToStats.get(nodeId)).map(ns -> new ComputedNodeStats(clientNum, ns));
+        final boolean rankByTailLatency = this.rankByTailLatency;
+        return Optional.ofNullable(nodeIdToStats.get(nodeId)).map(ns -> new ComputedNodeStats(clientNum, ns, rankByTailLatency));
     }
 
     /**
      * Struct-like class encapsulating a point-in-time snapshot of a particular
      * node's statistics. This includes the EWMA of queue size, response time,
-     * and service time.
+     * and service time, as well as percentiles of the recent response times.
      */
     public static class ComputedNodeStats implements Writeable {
         // We store timestamps with nanosecond precision, however, the
@@ -104,24 +134,41 @@ public final class ResponseCollectorService implements ClusterStateListener {
         private final double FACTOR = 1000000.0;
         private final int clientNum;
 
+        private final boolean rankByTailLatency;
+
         private double cachedRank = 0;
 
         public final String nodeId;
         public final int queueSize;
         public final double responseTime;
         public final double serviceTime;
+        // percentiles of the recent response times, -1 if too few responses were collected
+        public final double responseTimeP50;
+        public final double responseTimeP95;
+        public final double responseTimeP99;
 
         public ComputedNodeStats(String nodeId, int clientNum, int queueSize, double responseTime, double serviceTime) {
+            this(nodeId, clientNum, queueSize, responseTime, serviceTime, -1, -1, -1, false);
+        }
+
+        public ComputedNodeStats(String nodeId, int clientNum, int queueSize, double responseTime, double serviceTime,
+                                 double responseTimeP50, double responseTimeP95, double responseTimeP99, boolean rankByTailLatency) {
             this.nodeId = nodeId;
             this.clientNum = clientNum;
             this.queueSize = queueSize;
             this.responseTime = responseTime;
             this.serviceTime = serviceTime;
+            this.responseTimeP50 = responseTimeP50;
+            this.responseTimeP95 = responseTimeP95;
+            this.responseTimeP99 = responseTimeP99;
+            this.rankByTailLatency = rankByTailLatency;
         }
 
-        ComputedNodeStats(int clientNum, NodeStatistics nodeStats) {
+        ComputedNodeStats(int clientNum, NodeStatistics nodeStats, boolean rankByTailLatency) {
             this(nodeStats.nodeId, clientNum,
-                    (int) nodeStats.queueSize.getAverage(), nodeStats.responseTime.getAverage(), nodeStats.serviceTime);
+                    (int) nodeStats.queueSize.getAverage(), nodeStats.responseTime.getAverage(), nodeStats.serviceTime,
+                    nodeStats.responseTimePercentile(50), nodeStats.responseTimePercentile(95), nodeStats.responseTimePercentile(99),
+                    rankByTailLatency);
         }
 
         ComputedNodeStats(StreamInput in) throws IOException {
@@ -130,6 +177,17 @@ public final class ResponseCollectorService implements ClusterStateListener {
             this.queueSize = in.readInt();
             this.responseTime = in.readDouble();
             this.serviceTime = in.readDouble();
+            if (in.getVersion().onOrAfter(Version.V_7_11_3)) {
+                this.responseTimeP50 = in.readDouble();
+                this.responseTimeP95 = in.readDouble();
+                this.responseTimeP99 = in.readDouble();
+                this.rankByTailLatency = in.readBoolean();
+            } else {
+                this.responseTimeP50 = -1;
+                this.responseTimeP95 = -1;
+                this.responseTimeP99 = -1;
+                this.rankByTailLatency = false;
+            }
         }
 
         @Override
@@ -139,6 +197,12 @@ public final class ResponseCollectorService implements ClusterStateListener {
             out.writeInt(this.queueSize);
             out.writeDouble(this.responseTime);
             out.writeDouble(this.serviceTime);
+            if (out.getVersion().onOrAfter(Version.V_7_11_3)) {
+                out.writeDouble(this.responseTimeP50);
+                out.writeDouble(this.responseTimeP95);
+                out.writeDouble(this.responseTimeP99);
+                out.writeBoolean(this.rankByTailLatency);
+            }
         }
 
         /**
@@ -159,8 +223,8 @@ public final class ResponseCollectorService implements ClusterStateListener {
             double qBar = queueSize;
             double qHatS = 1 + concurrencyCompensation + qBar;
 
-            // EWMA of response time
-            double rS = responseTime / FACTOR;
+            // EWMA of response time, or its 99th percentile if ranking by tail latency
+            double rS = (rankByTailLatency && responseTimeP99 > 0 ? responseTimeP99 : responseTime) / FACTOR;
             // EWMA of service time
             double muBarS = serviceTime / FACTOR;
 
@@ -184,6 +248,7 @@ public final class ResponseCollectorService implements ClusterStateListener {
             sb.append(", queue: ").append(queueSize);
             sb.append(", response time: ").append(String.format(Locale.ROOT, "%.1f", responseTime));
             sb.append(", service time: ").append(String.format(Locale.ROOT, "%.1f", serviceTime));
+            sb.append(", response time p99: ").append(String.format(Locale.ROOT, "%.1f", responseTimeP99));
             sb.append(", rank: ").append(String.format(Locale.ROOT, "%.1f", rank(1)));
             sb.append(")");
             return sb.toString();
@@ -199,6 +264,8 @@ public final class ResponseCollectorService implements ClusterStateListener {
         final String nodeId;
         final ExponentiallyWeightedMovingAverage queueSize;
         final ExponentiallyWeightedMovingAverage responseTime;
+        final ExponentiallyDecayingHistogram responseTimeHistogram =
+            new ExponentiallyDecayingHistogram(HISTOGRAM_ALPHA, HISTOGRAM_UNIT_NANOS);
         double serviceTime;
 
         NodeStatistics(String nodeId,
@@ -210,5 +277,12 @@ public final class ResponseCollectorService implements ClusterStateListener {
             this.responseTime = responseTimeEWMA;
             this.serviceTime = serviceTimeEWMA;
         }
+
+        double responseTimePercentile(double percentile) {
+            if (responseTimeHistogram.getCount() < MIN_RESPONSES_FOR_PERCENTILES) {
+                return -1;
+            }
+            return responseTimeHistogram.getPercentile(percentile);
+        }
     }
 }
@@ -13,6 +13,7 @@ import org.elasticsearch.ResourceNotFoundException;
 import org.elasticsearch.Version;
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.util.CollectionUtils;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentParser;
@@ -22,11 +23,14 @@ import org.elasticsearch.snapshots.SnapshotState;
 import org.elasticsearch.snapshots.SnapshotsService;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -361,6 +365,211 @@ public final class RepositoryData {
         return snapshotIds;
     }
 
+    /**
+     * Computes the changes from the repository data of an earlier generation to this instance, so that only the changes rather than the
+     * full repository data have to be written to the {@code index-N} blob of the generation of this instance.
+     *
+     * @param previous repository data of the generation that this instance was derived from
+     * @return the changes, or {@code null} if the changes cannot be expressed as a {@link Delta}
+     */
+    @Nullable
+    public Delta deltaFrom(RepositoryData previous) {
+        final Set<String> removedSnapshots = new HashSet<>(previous.snapshotIds.keySet());
+        removedSnapshots.removeAll(snapshotIds.keySet());
+        final Map<SnapshotId, List<IndexId>> addedSnapshots = new LinkedHashMap<>();
+        for (SnapshotId snapshotId : snapshotIds.values()) {
+            final String uuid = snapshotId.getUUID();
+            if (previous.snapshotIds.containsKey(uuid) == false) {
+                continue;
+            }
+            // a delta only adds and removes snapshots, the snapshots that are kept must not change
+            if (Objects.equals(snapshotStates.get(uuid), previous.snapshotStates.get(uuid)) == false
+                || Objects.equals(snapshotVersions.get(uuid), previous.snapshotVersions.get(uuid)) == false
+                || Objects.equals(indexMetaDataGenerations.lookup.get(snapshotId),
+                    previous.indexMetaDataGenerations.lookup.get(snapshotId)) == false) {
+                return null;
+            }
+        }
+        // collect the indices of the added snapshots from the indices whose snapshots changed, unchanged lists are shared with the
+        // previous instance so this does not have to look at every index in every snapshot
+        final Map<SnapshotId, List<IndexId>> addedSnapshotIndices = new HashMap<>();
+        final Map<SnapshotId, Set<SnapshotId>> successors = new HashMap<>();
+        final Map<SnapshotId, Integer> predecessorCounts = new HashMap<>();
+        for (SnapshotId snapshotId : snapshotIds.values()) {
+            if (previous.snapshotIds.containsKey(snapshotId.getUUID()) == false) {
+                addedSnapshotIndices.put(snapshotId, new ArrayList<>());
+                successors.put(snapshotId, new HashSet<>());
+                predecessorCounts.put(snapshotId, 0);
+            }
+        }
+        for (Map.Entry<IndexId, List<SnapshotId>> entry : indexSnapshots.entrySet()) {
+            if (entry.getValue() == previous.indexSnapshots.get(entry.getKey())) {
+                continue;
+            }
+            SnapshotId predecessor = null;
+            for (SnapshotId snapshotId : entry.getValue()) {
+                final List<IndexId> indices = addedSnapshotIndices.get(snapshotId);
+                if (indices != null) {
+                    indices.add(entry.getKey());
+                    if (predecessor != null && successors.get(predecessor).add(snapshotId)) {
+                        predecessorCounts.merge(snapshotId, 1, Integer::sum);
+                    }
+                    predecessor = snapshotId;
+                }
+            }
+        }
+        // the added snapshots are appended to the snapshots of each of their indices one after the other, so they must be ordered
+        // consistently with the order of the snapshots of every index
+        final Deque<SnapshotId> ready = predecessorCounts.entrySet().stream().filter(e -> e.getValue() == 0).map(Map.Entry::getKey)
+            .collect(Collectors.toCollection(ArrayDeque::new));
+        while (ready.isEmpty() == false) {
+            final SnapshotId snapshotId = ready.poll();
+            addedSnapshots.put(snapshotId, addedSnapshotIndices.get(snapshotId));
+            for (SnapshotId successor : successors.get(snapshotId)) {
+                if (predecessorCounts.merge(successor, -1, Integer::sum) == 0) {
+                    ready.add(successor);
+                }
+            }
+        }
+        if (addedSnapshots.size() != addedSnapshotIndices.size()) {
+            return null;
+        }
+
+        final Set<IndexId> shardGenerationIndices = new HashSet<>(shardGenerations.indices());
+        shardGenerationIndices.addAll(previous.shardGenerations.indices());
+        final Map<IndexId, List<String>> changedShardGenerations = new HashMap<>();
+        for (IndexId indexId : shardGenerationIndices) {
+            // the shard generations of removed indices are dropped along with the index
+            if (indexSnapshots.containsKey(indexId)) {
+                final List<String> generations = shardGenerations.getGens(indexId);
+                if (generations.equals(previous.shardGenerations.getGens(indexId)) == false) {
+                    changedShardGenerations.put(indexId, generations);
+                }
+            }
+        }
+
+        final Map<String, String> addedIdentifiers = new HashMap<>();
+        for (Map.Entry<String, String> entry : indexMetaDataGenerations.identifiers.entrySet()) {
+            if (entry.getValue().equals(previous.indexMetaDataGenerations.identifiers.get(entry.getKey())) == false) {
+                addedIdentifiers.put(entry.getKey(), entry.getValue());
+            }
+        }
+        final Set<String> removedIdentifiers = new HashSet<>(previous.indexMetaDataGenerations.identifiers.keySet());
+        removedIdentifiers.removeAll(indexMetaDataGenerations.identifiers.keySet());
+
+        final Map<String, SnapshotState> addedStates = new HashMap<>();
+        final Map<String, Version> addedVersions = new HashMap<>();
+        final Map<SnapshotId, Map<IndexId, String>> addedLookup = new HashMap<>();
+        for (SnapshotId snapshotId : addedSnapshots.keySet()) {
+            final String uuid = snapshotId.getUUID();
+            if (snapshotStates.containsKey(uuid)) {
+                addedStates.put(uuid, snapshotStates.get(uuid));
+            }
+            if (snapshotVersions.containsKey(uuid)) {
+                addedVersions.put(uuid, snapshotVersions.get(uuid));
+            }
+            if (indexMetaDataGenerations.lookup.containsKey(snapshotId)) {
+                addedLookup.put(snapshotId, indexMetaDataGenerations.lookup.get(snapshotId));
+            }
+        }
+
+        final Delta delta = new Delta(previous.genId, removedSnapshots, addedSnapshots, addedStates, addedVersions, addedLookup,
+            changedShardGenerations, addedIdentifiers, removedIdentifiers);
+        // e.g. snapshots that were added to their indices in different orders cannot be replayed from a delta
+        if (previous.withDelta(delta, genId).equals(this) == false) {
+            return null;
+        }
+        return delta;
+    }
+
+    /**
+     * Applies the changes read from the {@code index-N} blob of a later generation to this instance.
+     *
+     * @param delta         changes to the generation of this instance
+     * @param newGeneration generation that the changes were read from
+     * @return the repository data of the new generation
+     */
+    public RepositoryData withDelta(Delta delta, long newGeneration) {
+        if (delta.baseGeneration != genId) {
+            throw new IllegalArgumentException("cannot apply changes to generation [" + delta.baseGeneration
+                + "] to repository data of generation [" + genId + "]");
+        }
+        final Map<String, SnapshotId> newSnapshotIds = new HashMap<>(snapshotIds);
+        final Map<String, SnapshotState> newSnapshotStates = new HashMap<>(snapshotStates);
+        final Map<String, Version> newSnapshotVersions = new HashMap<>(snapshotVersions);
+        final Map<SnapshotId, Map<IndexId, String>> newLookup = new HashMap<>(indexMetaDataGenerations.lookup);
+        final Set<SnapshotId> removedSnapshots = new HashSet<>();
+        for (String uuid : delta.removedSnapshots) {
+            final SnapshotId snapshotId = newSnapshotIds.remove(uuid);
+            if (snapshotId == null) {
+                throw new IllegalArgumentException("cannot remove unknown snapshot [" + uuid + "] from generation [" + genId + "]");
+            }
+            removedSnapshots.add(snapshotId);
+            newSnapshotStates.remove(uuid);
+            newSnapshotVersions.remove(uuid);
+            newLookup.remove(snapshotId);
+        }
+
+        final Map<IndexId, List<SnapshotId>> newIndexSnapshots = new HashMap<>(indexSnapshots.size());
+        for (Map.Entry<IndexId, List<SnapshotId>> entry : indexSnapshots.entrySet()) {
+            List<SnapshotId> snapshots = entry.getValue();
+            if (removedSnapshots.isEmpty() == false && snapshots.stream().anyMatch(removedSnapshots::contains)) {
+                snapshots = Collections.unmodifiableList(
+                    snapshots.stream().filter(snapshotId -> removedSnapshots.contains(snapshotId) == false).collect(Collectors.toList()));
+            }
+            if (snapshots.isEmpty() == false) {
+                newIndexSnapshots.put(entry.getKey(), snapshots);
+            }
+        }
+        for (Map.Entry<SnapshotId, List<IndexId>> entry : delta.addedSnapshots.entrySet()) {
+            final SnapshotId snapshotId = entry.getKey();
+            final String uuid = snapshotId.getUUID();
+            if (newSnapshotIds.put(uuid, snapshotId) != null) {
+                throw new IllegalArgumentException("cannot add existing snapshot [" + snapshotId + "] to generation [" + genId + "]");
+            }
+            if (delta.snapshotStates.containsKey(uuid)) {
+                newSnapshotStates.put(uuid, delta.snapshotStates.get(uuid));
+            }
+            if (delta.snapshotVersions.containsKey(uuid)) {
+                newSnapshotVersions.put(uuid, delta.snapshotVersions.get(uuid));
+            }
+            if (delta.indexMetaLookup.containsKey(snapshotId)) {
+                newLookup.put(snapshotId, delta.indexMetaLookup.get(snapshotId));
+            }
+            for (IndexId indexId : entry.getValue()) {
+                newIndexSnapshots.compute(indexId, (index, snapshots) -> snapshots == null ? Collections.singletonList(snapshotId)
+                    : CollectionUtils.appendToCopy(snapshots, snapshotId));
+            }
+        }
+
+        // the shard generations of removed indices are dropped along with the index
+        final ShardGenerations.Builder newShardGenerations = ShardGenerations.builder();
+        for (IndexId indexId : shardGenerations.indices()) {
+            if (delta.shardGenerations.containsKey(indexId) == false && newIndexSnapshots.containsKey(indexId)) {
+                putShardGenerations(newShardGenerations, indexId, shardGenerations.getGens(indexId));
+            }
+        }
+        delta.shardGenerations.forEach((indexId, generations) -> putShardGenerations(newShardGenerations, indexId, generations));
+
+        final Map<String, String> newIdentifiers = new HashMap<>(indexMetaDataGenerations.identifiers);
+        newIdentifiers.keySet().removeAll(delta.removedIdentifiers);
+        newIdentifiers.putAll(delta.addedIdentifiers);
+        final IndexMetaDataGenerations newIndexMetaGenerations = newLookup.isEmpty() && newIdentifiers.isEmpty()
+            ? IndexMetaDataGenerations.EMPTY : new IndexMetaDataGenerations(newLookup, newIdentifiers);
+
+        return new RepositoryData(newGeneration, newSnapshotIds, newSnapshotStates, newSnapshotVersions, newIndexSnapshots,
+            newShardGenerations.build(), newIndexMetaGenerations);
+    }
+
+    private static void putShardGenerations(ShardGenerations.Builder builder, IndexId indexId, List<String> generations) {
+        for (int i = 0; i < generations.size(); i++) {
+            final String generation = generations.get(i);
+            if (generation != null) {
+                builder.put(indexId, i, generation);
+            }
+        }
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
@@ -437,6 +646,9 @@ public final class RepositoryData {
     private static final String STATE = "state";
     private static final String VERSION = "version";
     private static final String MIN_VERSION = "min_version";
+    private static final String BASE_GENERATION = "base_generation";
+    private static final String REMOVED_SNAPSHOTS = "removed_snapshots";
+    private static final String REMOVED_INDEX_METADATA_IDENTIFIERS = "removed_index_metadata_identifiers";
 
     /**
      * Writes the snapshots metadata and the related indices metadata to x-content.
@@ -517,7 +729,29 @@ public final class RepositoryData {
      */
     public static RepositoryData snapshotsFromXContent(XContentParser parser, long genId, boolean fixBrokenShardGens) throws IOException {
         XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.nextToken(), parser);
+        return snapshotsFromXContent(parser, parser.nextToken(), genId, fixBrokenShardGens);
+    }
 
+    /**
+     * Reads the contents of an {@code index-N} blob from x-content. The blob either holds the full repository data, as written by
+     * {@link #snapshotsToXContent}, or the changes to the repository data of an earlier generation, as written by
+     * {@link Delta#toXContent}.
+     *
+     * @param fixBrokenShardGens see {@link #snapshotsFromXContent(XContentParser, long, boolean)}
+     * @return the repository data read from the blob as {@link Tuple#v1()} or the delta read from the blob as {@link Tuple#v2()}
+     */
+    public static Tuple<RepositoryData, Delta> indexBlobFromXContent(XContentParser parser, long genId,
+                                                                     boolean fixBrokenShardGens) throws IOException {
+        XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.nextToken(), parser);
+        final XContentParser.Token token = parser.nextToken();
+        if (token == XContentParser.Token.FIELD_NAME && BASE_GENERATION.equals(parser.currentName())) {
+            return Tuple.tuple(null, Delta.fromXContent(parser, genId));
+        }
+        return Tuple.tuple(snapshotsFromXContent(parser, token, genId, fixBrokenShardGens), null);
+    }
+
+    private static RepositoryData snapshotsFromXContent(XContentParser parser, XContentParser.Token token, long genId,
+                                                        boolean fixBrokenShardGens) throws IOException {
         final Map<String, SnapshotId> snapshots = new HashMap<>();
         final Map<String, SnapshotState> snapshotStates = new HashMap<>();
         final Map<String, Version> snapshotVersions = new HashMap<>();
@@ -526,7 +760,7 @@ public final class RepositoryData {
         final ShardGenerations.Builder shardGenerations = ShardGenerations.builder();
         final Map<SnapshotId, Map<String, String>> indexMetaLookup = new HashMap<>();
         Map<String, String> indexMetaIdentifiers = null;
-        while (parser.nextToken() == XContentParser.Token.FIELD_NAME) {
+        for (; token == XContentParser.Token.FIELD_NAME; token = parser.nextToken()) {
             final String field = parser.currentName();
             switch (field) {
                 case SNAPSHOTS:
@@ -727,4 +961,251 @@ public final class RepositoryData {
         }
         return uuid;
     }
+
+    /**
+     * The changes to the {@link RepositoryData} of an earlier generation, see {@link #deltaFrom}. The {@code index-N} blob of a generation
+     * holds either the full repository data or the changes to the repository data of its {@link #baseGeneration()}, which in turn may
+     * hold the changes to an even earlier generation. Since a delta only contains the added and removed snapshots and the shard
+     * generations that changed, its size is proportional to the number of shards that an operation changed rather than to the size of
+     * the repository.
+     */
+    public static final class Delta {
+
+        private final long baseGeneration;
+        private final Set<String> removedSnapshots;
+        private final Map<SnapshotId, List<IndexId>> addedSnapshots;
+        private final Map<String, SnapshotState> snapshotStates;
+        private final Map<String, Version> snapshotVersions;
+        private final Map<SnapshotId, Map<IndexId, String>> indexMetaLookup;
+        private final Map<IndexId, List<String>> shardGenerations;
+        private final Map<String, String> addedIdentifiers;
+        private final Set<String> removedIdentifiers;
+
+        private Delta(long baseGeneration, Set<String> removedSnapshots, Map<SnapshotId, List<IndexId>> addedSnapshots,
+                      Map<String, SnapshotState> snapshotStates, Map<String, Version> snapshotVersions,
+                      Map<SnapshotId, Map<IndexId, String>> indexMetaLookup, Map<IndexId, List<String>> shardGenerations,
+                      Map<String, String> addedIdentifiers, Set<String> removedIdentifiers) {
+            this.baseGeneration = baseGeneration;
+            this.removedSnapshots = removedSnapshots;
+            this.addedSnapshots = addedSnapshots;
+            this.snapshotStates = snapshotStates;
+            this.snapshotVersions = snapshotVersions;
+            this.indexMetaLookup = indexMetaLookup;
+            this.shardGenerations = shardGenerations;
+            this.addedIdentifiers = addedIdentifiers;
+            this.removedIdentifiers = removedIdentifiers;
+        }
+
+        /**
+         * @return the generation of the repository data that these changes apply to
+         */
+        public long baseGeneration() {
+            return baseGeneration;
+        }
+
+        /**
+         * Writes the changes to x-content. The base generation is always written first, which is how
+         * {@link #indexBlobFromXContent} tells deltas from full repository data. Versions that do not know about deltas fail reading
+         * them on this unknown field.
+         */
+        public XContentBuilder toXContent(XContentBuilder builder) throws IOException {
+            builder.startObject();
+            builder.field(BASE_GENERATION, baseGeneration);
+            builder.field(MIN_VERSION, SnapshotsService.INCREMENTAL_REPO_DATA_VERSION.toString());
+            builder.startArray(REMOVED_SNAPSHOTS);
+            for (String uuid : removedSnapshots) {
+                builder.value(uuid);
+            }
+            builder.endArray();
+            builder.startArray(SNAPSHOTS);
+            for (Map.Entry<SnapshotId, List<IndexId>> entry : addedSnapshots.entrySet()) {
+                final SnapshotId snapshotId = entry.getKey();
+                builder.startObject();
+                builder.field(NAME, snapshotId.getName());
+                builder.field(UUID, snapshotId.getUUID());
+                final SnapshotState state = snapshotStates.get(snapshotId.getUUID());
+                if (state != null) {
+                    builder.field(STATE, state.value());
+                }
+                final Version version = snapshotVersions.get(snapshotId.getUUID());
+                if (version != null) {
+                    builder.field(VERSION, version.toString());
+                }
+                builder.startObject(INDEX_METADATA_LOOKUP);
+                for (Map.Entry<IndexId, String> lookup : indexMetaLookup.getOrDefault(snapshotId, Collections.emptyMap()).entrySet()) {
+                    builder.field(lookup.getKey().getId(), lookup.getValue());
+                }
+                builder.endObject();
+                builder.startObject(INDICES);
+                for (IndexId indexId : entry.getValue()) {
+                    builder.field(indexId.getName(), indexId.getId());
+                }
+                builder.endObject();
+                builder.endObject();
+            }
+            builder.endArray();
+            builder.startObject(INDICES);
+            for (Map.Entry<IndexId, List<String>> entry : shardGenerations.entrySet()) {
+                builder.startObject(entry.getKey().getName());
+                builder.field(INDEX_ID, entry.getKey().getId());
+                builder.startArray(SHARD_GENERATIONS);
+                for (String generation : entry.getValue()) {
+                    builder.value(generation);
+                }
+                builder.endArray();
+                builder.endObject();
+            }
+            builder.endObject();
+            builder.field(INDEX_METADATA_IDENTIFIERS, addedIdentifiers);
+            builder.startArray(REMOVED_INDEX_METADATA_IDENTIFIERS);
+            for (String identifier : removedIdentifiers) {
+                builder.value(identifier);
+            }
+            builder.endArray();
+            builder.endObject();
+            return builder;
+        }
+
+        /**
+         * Reads the changes from x-content, the parser must be positioned on the base generation field name.
+         */
+        private static Delta fromXContent(XContentParser parser, long genId) throws IOException {
+            XContentParserUtils.ensureExpectedToken(XContentParser.Token.VALUE_NUMBER, parser.nextToken(), parser);
+            final long baseGeneration = parser.longValue();
+            if (baseGeneration < 0 || baseGeneration >= genId) {
+                throw new ElasticsearchParseException("Detected a corrupted repository, generation [" + genId
+                    + "] holds changes to invalid generation [" + baseGeneration + "]");
+            }
+            final Set<String> removedSnapshots = new HashSet<>();
+            final Map<SnapshotId, List<IndexId>> addedSnapshots = new LinkedHashMap<>();
+            final Map<String, SnapshotState> snapshotStates = new HashMap<>();
+            final Map<String, Version> snapshotVersions = new HashMap<>();
+            final Map<SnapshotId, Map<IndexId, String>> indexMetaLookup = new HashMap<>();
+            final Map<IndexId, List<String>> shardGenerations = new HashMap<>();
+            final Map<String, String> addedIdentifiers = new HashMap<>();
+            final Set<String> removedIdentifiers = new HashSet<>();
+            while (parser.nextToken() == XContentParser.Token.FIELD_NAME) {
+                final String field = parser.currentName();
+                switch (field) {
+                    case MIN_VERSION:
+                        XContentParserUtils.ensureExpectedToken(XContentParser.Token.VALUE_STRING, parser.nextToken(), parser);
+                        break;
+                    case REMOVED_SNAPSHOTS:
+                        parseStrings(parser, removedSnapshots);
+                        break;
+                    case SNAPSHOTS:
+                        XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_ARRAY, parser.nextToken(), parser);
+                        while (parser.nextToken() != XContentParser.Token.END_ARRAY) {
+                            parseAddedSnapshot(parser, addedSnapshots, snapshotStates, snapshotVersions, indexMetaLookup);
+                        }
+                        break;
+                    case INDICES:
+                        XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.nextToken(), parser);
+                        while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
+                            final String indexName = parser.currentName();
+                            String id = null;
+                            final List<String> generations = new ArrayList<>();
+                            XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.nextToken(), parser);
+                            while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
+                                final String indexField = parser.currentName();
+                                final XContentParser.Token token = parser.nextToken();
+                                if (INDEX_ID.equals(indexField)) {
+                                    id = parser.text();
+                                } else if (SHARD_GENERATIONS.equals(indexField)) {
+                                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_ARRAY, token, parser);
+                                    while (parser.nextToken() != XContentParser.Token.END_ARRAY) {
+                                        generations.add(parser.textOrNull());
+                                    }
+                                } else {
+                                    XContentParserUtils.throwUnknownField(indexField, parser.getTokenLocation());
+                                }
+                            }
+                            if (id == null) {
+                                throw new ElasticsearchParseException("missing id for index [" + indexName + "]");
+                            }
+                            shardGenerations.put(new IndexId(indexName, id), generations);
+                        }
+                        break;
+                    case INDEX_METADATA_IDENTIFIERS:
+                        XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.nextToken(), parser);
+                        addedIdentifiers.putAll(parser.mapStrings());
+                        break;
+                    case REMOVED_INDEX_METADATA_IDENTIFIERS:
+                        parseStrings(parser, removedIdentifiers);
+                        break;
+                    default:
+                        XContentParserUtils.throwUnknownField(field, parser.getTokenLocation());
+                }
+            }
+            return new Delta(baseGeneration, removedSnapshots, addedSnapshots, snapshotStates, snapshotVersions, indexMetaLookup,
+                shardGenerations, addedIdentifiers, removedIdentifiers);
+        }
+
+        private static void parseAddedSnapshot(XContentParser parser, Map<SnapshotId, List<IndexId>> addedSnapshots,
+                                               Map<String, SnapshotState> snapshotStates, Map<String, Version> snapshotVersions,
+                                               Map<SnapshotId, Map<IndexId, String>> indexMetaLookup) throws IOException {
+            XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.currentToken(), parser);
+            String name = null;
+            String uuid = null;
+            Map<String, String> lookup = Collections.emptyMap();
+            Map<String, String> indices = Collections.emptyMap();
+            while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
+                final String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case NAME:
+                        name = parser.text();
+                        break;
+                    case UUID:
+                        uuid = parser.text();
+                        break;
+                    case STATE:
+                        snapshotStates.put(Objects.requireNonNull(uuid), SnapshotState.fromValue((byte) parser.intValue()));
+                        break;
+                    case VERSION:
+                        snapshotVersions.put(Objects.requireNonNull(uuid), Version.fromString(parser.text()));
+                        break;
+                    case INDEX_METADATA_LOOKUP:
+                        lookup = parser.mapStrings();
+                        break;
+                    case INDICES:
+                        indices = parser.mapStrings();
+                        break;
+                    default:
+                        XContentParserUtils.throwUnknownField(field, parser.getTokenLocation());
+                }
+            }
+            if (name == null || uuid == null) {
+                throw new ElasticsearchParseException("missing name or uuid for added snapshot");
+            }
+            final SnapshotId snapshotId = new SnapshotId(name, uuid);
+            final List<IndexId> indexIds = new ArrayList<>(indices.size());
+            final Map<String, IndexId> indexIdsById = new HashMap<>(indices.size());
+            for (Map.Entry<String, String> entry : indices.entrySet()) {
+                final IndexId indexId = new IndexId(entry.getKey(), entry.getValue());
+                indexIds.add(indexId);
+                indexIdsById.put(indexId.getId(), indexId);
+            }
+            addedSnapshots.put(snapshotId, indexIds);
+            if (lookup.isEmpty() == false) {
+                final Map<IndexId, String> snapshotLookup = new HashMap<>(lookup.size());
+                for (Map.Entry<String, String> entry : lookup.entrySet()) {
+                    final IndexId indexId = indexIdsById.get(entry.getKey());
+                    if (indexId == null) {
+                        throw new ElasticsearchParseException("Detected a corrupted repository, snapshot [" + snapshotId
+                            + "] references index metadata of unknown index [" + entry.getKey() + "]");
+                    }
+                    snapshotLookup.put(indexId, entry.getValue());
+                }
+                indexMetaLookup.put(snapshotId, Collections.unmodifiableMap(snapshotLookup));
+            }
+        }
+
+        private static void parseStrings(XContentParser parser, Collection<String> strings) throws IOException {
+            XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_ARRAY, parser.nextToken(), parser);
+            while (parser.nextToken() != XContentParser.Token.END_ARRAY) {
+                strings.add(parser.text());
+            }
+        }
+    }
 }
@@ -22,6 +22,7 @@ import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.store.RateLimiter;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.SetOnce;
+import org.apache.lucene.util.ThreadInterruptedException;
 import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.Version;
 import org.elasticsearch.action.ActionListener;
@@ -41,6 +42,7 @@ import org.elasticsearch.cluster.metadata.RepositoryMetadata;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.routing.allocation.AllocationService;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.CheckedRunnable;
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.Numbers;
 import org.elasticsearch.common.Strings;
@@ -50,13 +52,14 @@ import org.elasticsearch.common.blobstore.BlobMetadata;
 import org.elasticsearch.common.blobstore.BlobPath;
 import org.elasticsearch.common.blobstore.BlobStore;
 import org.elasticsearch.common.blobstore.DeleteResult;
+import org.elasticsearch.common.blobstore.MultipartUpload;
 import org.elasticsearch.common.blobstore.fs.FsBlobContainer;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.component.AbstractLifecycleComponent;
-import org.elasticsearch.common.compress.CompressorFactory;
 import org.elasticsearch.common.compress.NotXContentException;
+import org.elasticsearch.common.hash.Checksums;
 import org.elasticsearch.common.io.Streams;
 import org.elasticsearch.common.io.stream.ReleasableBytesStreamOutput;
 import org.elasticsearch.common.lease.Releasable;
@@ -76,6 +79,7 @@ import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.core.internal.io.IOUtils;
 import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.snapshots.IndexShardRestoreFailedException;
@@ -110,13 +114,17 @@ import org.elasticsearch.snapshots.SnapshotMissingException;
 import org.elasticsearch.snapshots.SnapshotsService;
 import org.elasticsearch.threadpool.ThreadPool;
 
+import java.io.EOFException;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.NoSuchFileException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -134,6 +142,7 @@ import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
 
 import static org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.FileInfo.canonicalName;
 
@@ -215,12 +224,38 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
     public static final Setting<Integer> MAX_SNAPSHOTS_SETTING =
             Setting.intSetting("max_number_of_snapshots", Integer.MAX_VALUE, 1, Setting.Property.NodeScope);
 
+    /**
+     * Setting that allows peer recoveries to copy the files of a shard from the latest snapshot of the shard in this repository, rather
+     * than from the primary, whenever the files are identical.
+     */
+    public static final Setting<Boolean> USE_FOR_PEER_RECOVERY_SETTING =
+            Setting.boolSetting("use_for_peer_recovery", false, Setting.Property.NodeScope);
+
+    /**
+     * Size of the parts in which a blob is uploaded concurrently if the blob container supports multipart uploads. Blobs that are not
+     * larger than this are uploaded in a single request.
+     */
+    public static final Setting<ByteSizeValue> MULTIPART_UPLOAD_PART_SIZE_SETTING = Setting.byteSizeSetting("multipart_upload_part_size",
+        ByteSizeValue.parseBytesSizeValue("64mb", "multipart_upload_part_size"),
+        ByteSizeValue.parseBytesSizeValue("1kb", "multipart_upload_part_size"),
+        ByteSizeValue.parseBytesSizeValue("5gb", "multipart_upload_part_size"), Setting.Property.NodeScope);
+
+    /**
+     * Maximum number of consecutive {@code index-N} blobs that only hold the changes to the previous generation of the
+     * {@link RepositoryData}, after which the full repository data is written again. Defaults to {@code 0} which always writes the full
+     * repository data.
+     */
+    public static final Setting<Integer> MAX_REPOSITORY_DATA_DELTAS_SETTING =
+            Setting.intSetting("max_repository_data_deltas", 0, 0, Setting.Property.NodeScope);
+
     protected final boolean supportURLRepo;
 
     private final boolean compress;
 
     private final boolean cacheRepositoryData;
 
+    private final int maxRepositoryDataDeltas;
+
     private final RateLimiter snapshotRateLimiter;
 
     private final RateLimiter restoreRateLimiter;
@@ -300,6 +335,11 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
      */
     private final int maxSnapshotCount;
 
+    /**
+     * Size of the parts of a multipart upload, see {@link #MULTIPART_UPLOAD_PART_SIZE_SETTING}.
+     */
+    private final long multipartUploadPartSize;
+
     /**
      * Constructs new BlobStoreRepository
      * @param metadata   The metadata for this repository including name and settings
@@ -324,8 +364,10 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         restoreRateLimiter = getRateLimiter(metadata.settings(), "max_restore_bytes_per_sec", ByteSizeValue.ZERO);
         readOnly = metadata.settings().getAsBoolean("readonly", false);
         cacheRepositoryData = CACHE_REPOSITORY_DATA.get(metadata.settings());
+        maxRepositoryDataDeltas = MAX_REPOSITORY_DATA_DELTAS_SETTING.get(metadata.settings());
         bufferSize = Math.toIntExact(BUFFER_SIZE_SETTING.get(metadata.settings()).getBytes());
         this.maxSnapshotCount = MAX_SNAPSHOTS_SETTING.get(metadata.settings());
+        this.multipartUploadPartSize = MULTIPART_UPLOAD_PART_SIZE_SETTING.get(metadata.settings()).getBytes();
     }
 
     @Override
@@ -671,13 +713,10 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
     private RepositoryData safeRepositoryData(long repositoryStateId, Map<String, BlobMetadata> rootBlobs) throws IOException {
         final long generation = latestGeneration(rootBlobs.keySet());
         final long genToLoad;
-        final Tuple<Long, BytesReference> cached;
         if (bestEffortConsistency) {
             genToLoad = latestKnownRepoGen.updateAndGet(known -> Math.max(known, repositoryStateId));
-            cached = null;
         } else {
             genToLoad = latestKnownRepoGen.get();
-            cached = latestKnownRepositoryData.get();
         }
         if (genToLoad > generation) {
             // It's always a possibility to not see the latest index-N in the listing here on an eventually consistent blob store, just
@@ -690,10 +729,7 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
             throw new RepositoryException(metadata.name(), "concurrent modification of the index-N file, expected current generation [" +
                 repositoryStateId + "], actual current generation [" + genToLoad + "]");
         }
-        if (cached != null && cached.v1() == genToLoad) {
-            return repositoryDataFromCachedEntry(cached);
-        }
-        return getRepositoryData(genToLoad);
+        return readRepositoryData(genToLoad).repositoryData;
     }
 
     /**
@@ -922,7 +958,8 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         }, listener::onFailure), 2);
 
         final Executor executor = threadPool.executor(ThreadPool.Names.SNAPSHOT);
-        final List<String> staleRootBlobs = staleRootBlobs(newRepoData, rootBlobs.keySet());
+        final List<String> staleRootBlobs = staleRootBlobs(newRepoData, oldestIndexGeneration(newRepoData.getGenId()),
+            rootBlobs.keySet());
         if (staleRootBlobs.isEmpty()) {
             groupedListener.onResponse(DeleteResult.ZERO);
         } else {
@@ -964,7 +1001,8 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
             final Map<String, BlobContainer> foundIndices = blobStore().blobContainer(indicesPath()).children();
             final Set<String> survivingIndexIds =
                 repositoryData.getIndices().values().stream().map(IndexId::getId).collect(Collectors.toSet());
-            final List<String> staleRootBlobs = staleRootBlobs(repositoryData, rootBlobs.keySet());
+            final List<String> staleRootBlobs = staleRootBlobs(repositoryData, oldestIndexGeneration(repositoryData.getGenId()),
+                rootBlobs.keySet());
             if (survivingIndexIds.equals(foundIndices.keySet()) && staleRootBlobs.isEmpty()) {
                 // Nothing to clean up we return
                 listener.onResponse(new RepositoryCleanupResult(DeleteResult.ZERO));
@@ -979,8 +1017,9 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         }
     }
 
-    // Finds all blobs directly under the repository root path that are not referenced by the current RepositoryData
-    private static List<String> staleRootBlobs(RepositoryData repositoryData, Set<String> rootBlobNames) {
+    // Finds all blobs directly under the repository root path that are not referenced by the current RepositoryData, keeping all index-N
+    // blobs starting from the given generation
+    private static List<String> staleRootBlobs(RepositoryData repositoryData, long oldestIndexGeneration, Set<String> rootBlobNames) {
         final Set<String> allSnapshotIds =
             repositoryData.getSnapshotIds().stream().map(SnapshotId::getUUID).collect(Collectors.toSet());
         return rootBlobNames.stream().filter(
@@ -1002,13 +1041,26 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                     return allSnapshotIds.contains(foundUUID) == false;
                 } else if (blob.startsWith(INDEX_FILE_PREFIX)) {
                     // TODO: Include the current generation here once we remove keeping index-(N-1) around from #writeIndexGen
-                    return repositoryData.getGenId() > Long.parseLong(blob.substring(INDEX_FILE_PREFIX.length()));
+                    return oldestIndexGeneration > Long.parseLong(blob.substring(INDEX_FILE_PREFIX.length()));
                 }
                 return false;
             }
         ).collect(Collectors.toList());
     }
 
+    /**
+     * Finds the oldest {@code index-N} blob that the {@link RepositoryData} of the given generation is read from. This is the given
+     * generation itself unless its {@code index-N} blob only holds the changes to an earlier generation.
+     */
+    private long oldestIndexGeneration(long generation) {
+        final CachedRepositoryData cached = latestKnownRepositoryData.get();
+        if (bestEffortConsistency == false && cached != null && cached.generation >= generation) {
+            // the index-N blobs of the latest generation are all we need to keep
+            return Math.min(generation, cached.fullGeneration);
+        }
+        return Math.min(generation, readRepositoryData(generation).fullGeneration);
+    }
+
     private List<String> cleanupStaleRootFiles(long previousGeneration, Collection<SnapshotId> deletedSnapshots,
                                                List<String> blobsToDelete) {
         if (blobsToDelete.isEmpty()) {
@@ -1234,6 +1286,19 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         return blobStore().blobContainer(indicesPath().add(indexId.getId()).add(Integer.toString(shardId)));
     }
 
+    /**
+     * Loads the list of snapshots of a shard, as tracked by the given shard generation.
+     *
+     * @param shardGen shard generation or {@code null} if it is not tracked in the {@link RepositoryData}, in which case it is
+     *                 determined by listing the contents of the shard directory
+     */
+    public BlobStoreIndexShardSnapshots getBlobStoreIndexShardSnapshots(IndexId indexId, int shardId,
+                                                                        @Nullable String shardGen) throws IOException {
+        final BlobContainer shardContainer = shardContainer(indexId, shardId);
+        final Set<String> blobs = shardGen == null ? shardContainer.listBlobs().keySet() : Collections.emptySet();
+        return buildBlobStoreIndexShardSnapshots(blobs, shardContainer, shardGen).v1();
+    }
+
     /**
      * Configures RateLimiter based on repository and global settings
      *
@@ -1305,8 +1370,41 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
     // and concurrent modifications.
     private final AtomicLong latestKnownRepoGen = new AtomicLong(RepositoryData.UNKNOWN_REPO_GEN);
 
-    // Best effort cache of the latest known repository data and its generation, cached serialized as compressed json
-    private final AtomicReference<Tuple<Long, BytesReference>> latestKnownRepositoryData = new AtomicReference<>();
+    // Best effort cache of the latest known repository data and the index-N blobs it was read from
+    private final AtomicReference<CachedRepositoryData> latestKnownRepositoryData = new AtomicReference<>();
+
+    /**
+     * The latest known {@link RepositoryData} along with the {@code index-N} blobs that it is read from. The {@code index-N} blob of
+     * {@link #generation} holds either the full repository data or only the changes to an earlier generation. In the latter case the
+     * repository data is read by applying the changes in the chain of {@link #deltas} blobs to the full repository data found at
+     * {@link #fullGeneration}.
+     */
+    private static final class CachedRepositoryData {
+
+        // null if caching is disabled, in which case only the index-N blobs are tracked
+        @Nullable
+        final RepositoryData repositoryData;
+
+        final long generation;
+
+        final long fullGeneration;
+
+        final int deltas;
+
+        // total size of the index-N blobs that the repository data is read from
+        final long serializedSize;
+
+        CachedRepositoryData(@Nullable RepositoryData repositoryData, long generation, long fullGeneration, int deltas,
+                             long serializedSize) {
+            assert repositoryData == null || repositoryData.getGenId() == generation;
+            assert fullGeneration <= generation;
+            this.repositoryData = repositoryData;
+            this.generation = generation;
+            this.fullGeneration = fullGeneration;
+            this.deltas = deltas;
+            this.serializedSize = serializedSize;
+        }
+    }
 
     @Override
     public void getRepositoryData(ActionListener<RepositoryData> listener) {
@@ -1314,15 +1412,12 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
             listener.onFailure(corruptedStateException(null));
             return;
         }
-        final Tuple<Long, BytesReference> cached = latestKnownRepositoryData.get();
+        final CachedRepositoryData cached = latestKnownRepositoryData.get();
         // Fast path loading repository data directly from cache if we're in fully consistent mode and the cache matches up with
         // the latest known repository generation
-        if (bestEffortConsistency == false && cached != null && cached.v1() == latestKnownRepoGen.get()) {
-            try {
-                listener.onResponse(repositoryDataFromCachedEntry(cached));
-            } catch (Exception e) {
-                listener.onFailure(e);
-            }
+        if (bestEffortConsistency == false && cached != null && cached.repositoryData != null
+                && cached.generation == latestKnownRepoGen.get()) {
+            listener.onResponse(cached.repositoryData);
             return;
         }
         if (metadata.generation() == RepositoryData.UNKNOWN_REPO_GEN && isReadOnly() == false &&
@@ -1447,20 +1542,9 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                 genToLoad = latestKnownRepoGen.get();
             }
             try {
-                final Tuple<Long, BytesReference> cached = latestKnownRepositoryData.get();
-                final RepositoryData loaded;
-                // Caching is not used with #bestEffortConsistency see docs on #cacheRepositoryData for details
-                if (bestEffortConsistency == false && cached != null && cached.v1() == genToLoad) {
-                    loaded = repositoryDataFromCachedEntry(cached);
-                } else {
-                    loaded = getRepositoryData(genToLoad);
-                    // We can cache serialized in the most recent version here without regard to the actual repository metadata version
-                    // since we're only caching the information that we just wrote and thus won't accidentally cache any information that
-                    // isn't safe
-                    cacheRepositoryData(compressRepoDataForCache(BytesReference.bytes(
-                            loaded.snapshotsToXContent(XContentFactory.jsonBuilder(), Version.CURRENT))), genToLoad);
-                }
-                listener.onResponse(loaded);
+                final CachedRepositoryData loaded = readRepositoryData(genToLoad);
+                cacheRepositoryData(cacheableRepositoryData(loaded));
+                listener.onResponse(loaded.repositoryData);
                 return;
             } catch (RepositoryException e) {
                 // If the generation to load changed concurrently and we didn't just try loading the same generation before we retry
@@ -1493,57 +1577,56 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
      * modification can lead to moving from a higher {@code N} to a lower {@code N} value which mean we can't safely assume that a given
      * generation will always contain the same {@link RepositoryData}.
      *
-     * @param serialized serialized RepositoryData to cache if newer than the cache contents or null if no data should be cached for the
-     *                   given generation
-     * @param generation repository generation of the given repository data
+     * @param loaded repository data to cache along with the {@code index-N} blobs it is read from, as returned by
+     *               {@link #cacheableRepositoryData}
      */
-    private void cacheRepositoryData(@Nullable BytesReference serialized, long generation) {
+    private void cacheRepositoryData(CachedRepositoryData loaded) {
+        if (bestEffortConsistency) {
+            return;
+        }
         latestKnownRepositoryData.updateAndGet(known -> {
-            if (known != null && known.v1() > generation) {
+            if (known != null && known.generation > loaded.generation) {
                 return known;
             }
-            return serialized == null ? null : new Tuple<>(generation, serialized);
+            return loaded;
         });
     }
 
     /**
-     * Creates a compressed version of serialized {@link RepositoryData} that can be used with {@link #cacheRepositoryData} if possible.
+     * Creates a version of the given {@link CachedRepositoryData} that can be used with {@link #cacheRepositoryData}, which only tracks
+     * the {@code index-N} blobs that the repository data is read from if caching is disabled or the repository data is too large to cache.
      *
-     * @param uncompressed uncompressed, serialized {@link RepositoryData}
-     * @return compressed repository data to cache or {@code null} if caching is disabled or the data is too large to cache
+     * @param loaded repository data along with the {@code index-N} blobs it is read from
+     * @return repository data to cache
      */
-    @Nullable
-    private BytesReference compressRepoDataForCache(BytesReference uncompressed) {
-        if (cacheRepositoryData == false || bestEffortConsistency) {
-            return null;
-        }
-        try {
-            final BytesReference serialized = CompressorFactory.COMPRESSOR.compress(uncompressed);
-            final int len = serialized.length();
-            if (len > ByteSizeUnit.KB.toBytes(500)) {
-                logger.debug("Not caching repository data of size [{}] for repository [{}] because it is larger than 500KB in" +
-                        " serialized size", len, metadata.name());
-                if (len > ByteSizeUnit.MB.toBytes(5)) {
-                    logger.warn("The repository metadata for repository [{}] has size [{}B] which is larger than 5MB. Consider " +
-                            "moving to a fresh repository for new snapshots or deleting unneeded snapshots from this repository to " +
-                            "ensure stable repository behavior going forward.", metadata.name(), len);
-                }
-                return null;
-            }
-            return serialized;
-        } catch (IOException e) {
-            assert false : new AssertionError("Impossible, no IO happens here", e);
-            logger.warn("Failed to serialize repository data", e);
-            return null;
+    private CachedRepositoryData cacheableRepositoryData(CachedRepositoryData loaded) {
+        if (loaded.repositoryData == null
+                || (cacheRepositoryData && bestEffortConsistency == false && fitsInCache(loaded.serializedSize))) {
+            return loaded;
         }
+        return new CachedRepositoryData(null, loaded.generation, loaded.fullGeneration, loaded.deltas, loaded.serializedSize);
     }
 
-    private RepositoryData repositoryDataFromCachedEntry(Tuple<Long, BytesReference> cacheEntry) throws IOException {
-        try (InputStream input = CompressorFactory.COMPRESSOR.threadLocalInputStream(cacheEntry.v2().streamInput())) {
-            return RepositoryData.snapshotsFromXContent(
-                    XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY,
-                            LoggingDeprecationHandler.INSTANCE, input), cacheEntry.v1(), false);
+    /**
+     * Checks whether repository data is small enough to be kept in the cache, by the total size of the {@code index-N} blobs that it is
+     * read from. This is the size of the full repository data plus the size of the changes applied to it, which overestimates the size
+     * of the repository data if snapshots were deleted since it was last written in full.
+     *
+     * @param serializedSize total size of the {@code index-N} blobs that the repository data is read from
+     * @return true if the repository data can be cached
+     */
+    private boolean fitsInCache(long serializedSize) {
+        if (serializedSize > ByteSizeUnit.KB.toBytes(500)) {
+            logger.debug("Not caching repository data of size [{}] for repository [{}] because it is larger than 500KB in" +
+                    " serialized size", serializedSize, metadata.name());
+            if (serializedSize > ByteSizeUnit.MB.toBytes(5)) {
+                logger.warn("The repository metadata for repository [{}] has size [{}B] which is larger than 5MB. Consider " +
+                        "moving to a fresh repository for new snapshots or deleting unneeded snapshots from this repository to " +
+                        "ensure stable repository behavior going forward.", metadata.name(), serializedSize);
+            }
+            return false;
         }
+        return true;
     }
 
     private RepositoryException corruptedStateException(@Nullable Exception cause) {
@@ -1597,19 +1680,49 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
             });
     }
 
-    private RepositoryData getRepositoryData(long indexGen) {
+    /**
+     * Reads the {@link RepositoryData} of the given generation. If the {@code index-N} blob of the generation only holds the changes to an
+     * earlier generation, the chain of blobs is followed back to the full repository data or to the cached repository data, whichever
+     * comes first, and the changes are applied to it.
+     */
+    private CachedRepositoryData readRepositoryData(long indexGen) {
         if (indexGen == RepositoryData.EMPTY_REPO_GEN) {
-            return RepositoryData.EMPTY;
+            return new CachedRepositoryData(RepositoryData.EMPTY, indexGen, indexGen, 0, 0L);
         }
         try {
-            final String snapshotsIndexBlobName = INDEX_FILE_PREFIX + Long.toString(indexGen);
-
-            // EMPTY is safe here because RepositoryData#fromXContent calls namedObject
-            try (InputStream blob = blobContainer().readBlob(snapshotsIndexBlobName);
-                 XContentParser parser = XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY,
-                     LoggingDeprecationHandler.INSTANCE, blob)) {
-                return RepositoryData.snapshotsFromXContent(parser, indexGen, true);
+            // Caching is not used with #bestEffortConsistency see docs on #cacheRepositoryData for details
+            final CachedRepositoryData cached = bestEffortConsistency ? null : latestKnownRepositoryData.get();
+            final Deque<Tuple<Long, RepositoryData.Delta>> deltas = new ArrayDeque<>();
+            long generation = indexGen;
+            long serializedSize = 0L;
+            RepositoryData repositoryData;
+            long fullGeneration;
+            int chainLength;
+            while (true) {
+                if (cached != null && cached.repositoryData != null && cached.generation == generation) {
+                    repositoryData = cached.repositoryData;
+                    fullGeneration = cached.fullGeneration;
+                    chainLength = cached.deltas;
+                    serializedSize += cached.serializedSize;
+                    break;
+                }
+                final IndexBlob indexBlob = readIndexBlob(generation);
+                serializedSize += indexBlob.length;
+                if (indexBlob.repositoryData != null) {
+                    repositoryData = indexBlob.repositoryData;
+                    fullGeneration = generation;
+                    chainLength = 0;
+                    break;
+                }
+                deltas.push(Tuple.tuple(generation, indexBlob.delta));
+                generation = indexBlob.delta.baseGeneration();
             }
+            while (deltas.isEmpty() == false) {
+                final Tuple<Long, RepositoryData.Delta> delta = deltas.pop();
+                repositoryData = repositoryData.withDelta(delta.v2(), delta.v1());
+                chainLength++;
+            }
+            return new CachedRepositoryData(repositoryData, indexGen, fullGeneration, chainLength, serializedSize);
         } catch (IOException ioe) {
             if (bestEffortConsistency) {
                 // If we fail to load the generation we tracked in latestKnownRepoGen we reset it.
@@ -1623,6 +1736,40 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         }
     }
 
+    private IndexBlob readIndexBlob(long indexGen) throws IOException {
+        final String snapshotsIndexBlobName = INDEX_FILE_PREFIX + Long.toString(indexGen);
+
+        // EMPTY is safe here because RepositoryData#fromXContent calls namedObject
+        try (CountingInputStream blob = new CountingInputStream(blobContainer().readBlob(snapshotsIndexBlobName));
+             XContentParser parser = XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY,
+                 LoggingDeprecationHandler.INSTANCE, blob)) {
+            final Tuple<RepositoryData, RepositoryData.Delta> indexBlob = RepositoryData.indexBlobFromXContent(parser, indexGen, true);
+            return new IndexBlob(indexBlob.v1(), indexBlob.v2(), blob.count);
+        }
+    }
+
+    /**
+     * The contents of an {@code index-N} blob, which holds either the full {@link RepositoryData} or only the changes to an earlier
+     * generation, along with the size of the blob.
+     */
+    private static final class IndexBlob {
+
+        @Nullable
+        final RepositoryData repositoryData;
+
+        @Nullable
+        final RepositoryData.Delta delta;
+
+        final long length;
+
+        IndexBlob(@Nullable RepositoryData repositoryData, @Nullable RepositoryData.Delta delta, long length) {
+            assert (repositoryData == null) != (delta == null);
+            this.repositoryData = repositoryData;
+            this.delta = delta;
+            this.length = length;
+        }
+    }
+
     private static String testBlobPrefix(String seed) {
         return TESTS_FILE + seed;
     }
@@ -1756,15 +1903,39 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                 return;
             }
             final String indexBlob = INDEX_FILE_PREFIX + Long.toString(newGen);
-            logger.debug("Repository [{}] writing new index generational blob [{}]", metadata.name(), indexBlob);
-            final BytesReference repoDataToCache;
+            // Only write the changes to the previous generation if we know the chain of index-N blobs that it is read from, so that
+            // the chain does not grow beyond the configured maximum length
+            final CachedRepositoryData previous = latestKnownRepositoryData.get();
+            final boolean knownPrevious = bestEffortConsistency == false && previous != null && previous.generation == expectedGen;
+            final RepositoryData.Delta delta;
+            if (knownPrevious && expectedGen != RepositoryData.EMPTY_REPO_GEN
+                    && previous.deltas < maxRepositoryDataDeltas && SnapshotsService.useIncrementalRepositoryData(version)) {
+                final RepositoryData previousRepositoryData = previousRepositoryData(previous);
+                delta = previousRepositoryData == null ? null : newRepositoryData.deltaFrom(previousRepositoryData);
+            } else {
+                delta = null;
+            }
+            logger.debug("Repository [{}] writing new index generational blob [{}] holding {}", metadata.name(), indexBlob,
+                delta == null ? "the full repository data" : "the changes to generation [" + expectedGen + "]");
+            final CachedRepositoryData repoDataToCache;
             try (ReleasableBytesStreamOutput out = new ReleasableBytesStreamOutput(bigArrays)) {
                 try (XContentBuilder xContentBuilder = XContentFactory.jsonBuilder(Streams.noCloseStream(out))) {
-                    newRepositoryData.snapshotsToXContent(xContentBuilder, version);
+                    if (delta == null) {
+                        newRepositoryData.snapshotsToXContent(xContentBuilder, version);
+                    } else {
+                        delta.toXContent(xContentBuilder);
+                    }
                 }
                 final BytesReference serializedRepoData = out.bytes();
                 writeAtomic(blobContainer(), indexBlob, serializedRepoData, true);
-                repoDataToCache = compressRepoDataForCache(serializedRepoData);
+                if (delta != null) {
+                    repoDataToCache = cacheableRepositoryData(new CachedRepositoryData(newRepositoryData, newGen,
+                        previous.fullGeneration, previous.deltas + 1, previous.serializedSize + serializedRepoData.length()));
+                } else {
+                    repoDataToCache = cacheableRepositoryData(new CachedRepositoryData(
+                        writtenRepositoryData(newRepositoryData, serializedRepoData, version), newGen, newGen, 0,
+                        serializedRepoData.length()));
+                }
             }
             maybeWriteIndexLatest(newGen);
 
@@ -1797,14 +1968,20 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
 
                     @Override
                     public void clusterStateProcessed(String source, ClusterState oldState, ClusterState newState) {
-                        cacheRepositoryData(repoDataToCache, newGen);
+                        cacheRepositoryData(repoDataToCache);
                         threadPool.executor(ThreadPool.Names.SNAPSHOT).execute(ActionRunnable.supply(listener, () -> {
+                            if (delta != null) {
+                                // the new index-N blob only holds the changes to the previous generations so they must all be kept
+                                return newRepositoryData;
+                            }
                             // Delete all now outdated index files up to 1000 blobs back from the new generation.
                             // If there are more than 1000 dangling index-N cleanup functionality on repo delete will take care of them.
                             // Deleting one older than the current expectedGen is done for BwC reasons as older versions used to keep
-                            // two index-N blobs around.
+                            // two index-N blobs around. If the previous generation only held the changes to earlier generations, the
+                            // blobs that these changes were applied to are deleted as well.
+                            final long oldestPrevious = knownPrevious ? Math.min(expectedGen - 1, previous.fullGeneration) : newGen - 1000;
                             final List<String> oldIndexN = LongStream.range(
-                                Math.max(Math.max(expectedGen - 1, 0), newGen - 1000), newGen)
+                                Math.max(Math.max(oldestPrevious, 0), newGen - 1000), newGen)
                                 .mapToObj(gen -> INDEX_FILE_PREFIX + gen)
                                 .collect(Collectors.toList());
                             try {
@@ -1819,6 +1996,43 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         }, listener::onFailure);
     }
 
+    /**
+     * Returns the repository data of the previous generation to compute the changes of a new generation from. Repository data that is
+     * too large to be cached is read back from the chain of {@code index-N} blobs of the previous generation, which is cheaper than
+     * writing it in full again.
+     *
+     * @return the repository data of the previous generation or {@code null} if it could not be read
+     */
+    @Nullable
+    private RepositoryData previousRepositoryData(CachedRepositoryData previous) {
+        if (previous.repositoryData != null) {
+            return previous.repositoryData;
+        }
+        try {
+            return readRepositoryData(previous.generation).repositoryData;
+        } catch (RepositoryException e) {
+            logger.debug(() -> new ParameterizedMessage("Repository [{}] failed to read generation [{}], writing the full repository data",
+                metadata.name(), previous.generation), e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the repository data that was just written in full to an {@code index-N} blob, as it will be read back from the blob.
+     * Repository data written in the format of an older version may be missing information, in which case the serialized blob is read
+     * back so that the cache only holds information that is safe to use with the given version.
+     */
+    private RepositoryData writtenRepositoryData(RepositoryData repositoryData, BytesReference serialized, Version version)
+            throws IOException {
+        if (SnapshotsService.useIndexGenerations(version)) {
+            return repositoryData;
+        }
+        try (XContentParser parser = XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY,
+                LoggingDeprecationHandler.INSTANCE, serialized.streamInput())) {
+            return RepositoryData.snapshotsFromXContent(parser, repositoryData.getGenId(), false);
+        }
+    }
+
     /**
      * Write {@code index.latest} blob to support using this repository as the basis of a url repository.
      *
@@ -2204,6 +2418,12 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         final BlobStoreIndexShardSnapshot.FileInfo snapshotFileInfo = filesToSnapshot.poll(0L, TimeUnit.MILLISECONDS);
         if (snapshotFileInfo == null) {
             listener.onResponse(null);
+        } else if (useMultipartUpload(shardContainer(indexId, shardId), snapshotFileInfo)) {
+            // the parts of the file are uploaded by separate tasks, and this worker moves on to the next file once they all completed
+            executor.execute(ActionRunnable.wrap(listener, l -> snapshotFileInParts(snapshotFileInfo, indexId, shardId, snapshotId,
+                snapshotStatus, store, executor, ActionListener.wrap(
+                    v -> executeOneFileSnapshot(store, snapshotId, indexId, snapshotStatus, filesToSnapshot, executor, l),
+                    l::onFailure))));
         } else {
             executor.execute(ActionRunnable.wrap(listener, l -> {
                 try (Releasable ignored = incrementStoreRef(store, snapshotStatus, shardId)) {
@@ -2214,6 +2434,10 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         }
     }
 
+    private boolean useMultipartUpload(BlobContainer shardContainer, BlobStoreIndexShardSnapshot.FileInfo fileInfo) {
+        return fileInfo.length() > multipartUploadPartSize && shardContainer.supportsMultipartUpload();
+    }
+
     private static Releasable incrementStoreRef(Store store, IndexShardSnapshotStatus snapshotStatus, ShardId shardId) {
         if (store.tryIncRef() == false) {
             if (snapshotStatus.isAborted()) {
@@ -2255,40 +2479,85 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                     if (filesToRecover.isEmpty()) {
                         listener.onResponse(null);
                     } else {
-                        // Start as many workers as fit into the snapshot pool at once at the most
-                        final int workers =
-                            Math.min(threadPool.info(ThreadPool.Names.SNAPSHOT).getMax(), snapshotFiles.indexFiles().size());
-                        final BlockingQueue<BlobStoreIndexShardSnapshot.FileInfo> files = new LinkedBlockingQueue<>(filesToRecover);
-                        final ActionListener<Void> allFilesListener = fileQueueListener(files, workers, listener.map(v -> null));
+                        // files larger than a single range are downloaded in ranges concurrently, holding in memory at most as many
+                        // ranges of a file as there are snapshot threads
+                        final long rangeSize = recoverySettings.getSnapshotFileDownloadRangeSize().getBytes();
+                        final int snapshotThreads = threadPool.info(ThreadPool.Names.SNAPSHOT).getMax();
+                        final BlockingQueue<CheckedRunnable<IOException>> downloads = new LinkedBlockingQueue<>();
+                        final List<RangedFileRestore> rangedRestores = new ArrayList<>();
+                        for (BlobStoreIndexShardSnapshot.FileInfo fileInfo : filesToRecover) {
+                            if (useRangedRestore(fileInfo, rangeSize) == false) {
+                                downloads.add(() -> restoreFile(fileInfo, store));
+                            } else {
+                                final RangedFileRestore rangedRestore = new RangedFileRestore(fileInfo, rangeSize, snapshotThreads);
+                                rangedRestores.add(rangedRestore);
+                                for (int i = 0; i < rangedRestore.ranges(); i++) {
+                                    final int range = i;
+                                    downloads.add(() -> rangedRestore.restoreRange(range));
+                                }
+                            }
+                        }
+                        // Start as many workers as fit into the snapshot pool at once at the most, as long as the node-wide budget of
+                        // concurrent snapshot file downloads allows for them. A restore always makes progress with at least one worker.
+                        final int maxWorkers = Math.min(snapshotThreads, downloads.size());
+                        final List<Releasable> permits = new ArrayList<>(maxWorkers);
+                        while (permits.size() < maxWorkers) {
+                            final Releasable permit = recoverySettings.tryAcquireSnapshotFileDownloadPermit();
+                            if (permit == null) {
+                                break;
+                            }
+                            permits.add(permit);
+                        }
+                        final int workers = Math.max(1, permits.size());
+                        final ActionListener<Collection<Void>> restoredListener = listener.map(v -> null);
+                        final ActionListener<Collection<Void>> downloadsListener =
+                            ActionListener.delegateResponse(restoredListener, (l, e) -> {
+                                // no worker writes to the files restored in ranges any more, remove the ones that are incomplete
+                                rangedRestores.forEach(RangedFileRestore::abort);
+                                l.onFailure(e);
+                            });
+                        final ActionListener<Void> allFilesListener = fileQueueListener(downloads, workers, downloadsListener);
                         // restore the files from the snapshot to the Lucene store
                         for (int i = 0; i < workers; ++i) {
+                            // a worker returns its permit as soon as it runs out of downloads or fails
+                            final ActionListener<Void> workerListener = i < permits.size()
+                                ? ActionListener.runBefore(allFilesListener, permits.get(i)::close) : allFilesListener;
                             try {
-                                executeOneFileRestore(files, allFilesListener);
+                                executeOneFileRestore(downloads, workerListener);
                             } catch (Exception e) {
-                                allFilesListener.onFailure(e);
+                                workerListener.onFailure(e);
                             }
                         }
                     }
                 }
 
-                private void executeOneFileRestore(BlockingQueue<BlobStoreIndexShardSnapshot.FileInfo> files,
+                private void executeOneFileRestore(BlockingQueue<CheckedRunnable<IOException>> downloads,
                                                    ActionListener<Void> allFilesListener) throws InterruptedException {
-                    final BlobStoreIndexShardSnapshot.FileInfo fileToRecover = files.poll(0L, TimeUnit.MILLISECONDS);
-                    if (fileToRecover == null) {
+                    final CheckedRunnable<IOException> download = downloads.poll(0L, TimeUnit.MILLISECONDS);
+                    if (download == null) {
                         allFilesListener.onResponse(null);
                     } else {
                         executor.execute(ActionRunnable.wrap(allFilesListener, filesListener -> {
                             store.incRef();
                             try {
-                                restoreFile(fileToRecover, store);
+                                download.run();
                             } finally {
                                 store.decRef();
                             }
-                            executeOneFileRestore(files, filesListener);
+                            executeOneFileRestore(downloads, filesListener);
                         }));
                     }
                 }
 
+                /**
+                 * Whether the given file is restored in ranges, rather than in a single download because it fits into one range, has
+                 * no data blob, or the repository does not support reading ranges of blobs.
+                 */
+                private boolean useRangedRestore(BlobStoreIndexShardSnapshot.FileInfo fileInfo, long rangeSize) {
+                    return fileInfo.length() > rangeSize && fileInfo.name().startsWith(VIRTUAL_DATA_BLOB_PREFIX) == false
+                        && container.supportsRangedReads();
+                }
+
                 private void restoreFile(BlobStoreIndexShardSnapshot.FileInfo fileInfo, Store store) throws IOException {
                     ensureNotClosing(store);
                     logger.trace(() -> new ParameterizedMessage("[{}] restoring [{}] to [{}]", metadata.name(), fileInfo, store));
@@ -2334,6 +2603,194 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                     }
                 }
 
+                /**
+                 * Restores a file in ranges that are downloaded concurrently into memory and written to the file in order, through the
+                 * same verifying output as a file that is restored in a single download, so that every byte is written once and the
+                 * file is verified against the checksum recorded in the snapshot once the last range is written. A range is only
+                 * downloaded once it is within {@code maxBufferedRanges} of the next range to write, which bounds the memory that a
+                 * file holds while an earlier range is still being downloaded.
+                 */
+                private final class RangedFileRestore {
+
+                    private final BlobStoreIndexShardSnapshot.FileInfo fileInfo;
+                    private final long rangeSize;
+                    private final int maxBufferedRanges;
+
+                    // guarded by this
+                    private final byte[][] downloadedRanges;
+                    private int nextRange;
+                    private boolean writing;
+                    private boolean failed;
+                    private boolean completed;
+                    // only accessed by the thread that writes, which takes over through the synchronized blocks
+                    private IndexOutput indexOutput;
+
+                    RangedFileRestore(BlobStoreIndexShardSnapshot.FileInfo fileInfo, long rangeSize, int maxBufferedRanges) {
+                        assert maxBufferedRanges > 0 : maxBufferedRanges;
+                        this.fileInfo = fileInfo;
+                        this.rangeSize = rangeSize;
+                        this.maxBufferedRanges = maxBufferedRanges;
+                        this.downloadedRanges = new byte[Math.toIntExact((fileInfo.length() + rangeSize - 1) / rangeSize)][];
+                    }
+
+                    int ranges() {
+                        return downloadedRanges.length;
+                    }
+
+                    void restoreRange(int range) throws IOException {
+                        boolean success = false;
+                        try {
+                            ensureNotClosing(store);
+                            awaitBufferSpace(range);
+                            final byte[] bytes = downloadRange(range);
+                            final boolean write;
+                            synchronized (this) {
+                                ensureNotFailed();
+                                downloadedRanges[range] = bytes;
+                                // the range is left to the thread that writes the ranges before it unless it is the next one to write
+                                write = writing == false && range == nextRange;
+                                if (write) {
+                                    writing = true;
+                                }
+                            }
+                            if (write) {
+                                writeDownloadedRanges();
+                            }
+                            success = true;
+                        } finally {
+                            if (success == false) {
+                                fail();
+                            }
+                        }
+                    }
+
+                    private synchronized void awaitBufferSpace(int range) throws IOException {
+                        // ranges are taken from the queue in order, so the ranges before this one are already being downloaded
+                        while (range >= nextRange + maxBufferedRanges) {
+                            ensureNotFailed();
+                            try {
+                                wait();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new ThreadInterruptedException(e);
+                            }
+                        }
+                        ensureNotFailed();
+                    }
+
+                    private byte[] downloadRange(int range) throws IOException {
+                        final long start = range * rangeSize;
+                        final long end = Math.min(start + rangeSize, fileInfo.length());
+                        final long partSize = fileInfo.partBytes(0);
+                        final byte[] bytes = new byte[Math.toIntExact(end - start)];
+                        long position = start;
+                        while (position < end) {
+                            // a range may span several parts of the file in the repository
+                            final int part = Math.toIntExact(position / partSize);
+                            final long partEnd = Math.min(end, (part + 1) * partSize);
+                            try (InputStream stream = maybeRateLimitRestores(
+                                container.readBlob(fileInfo.partName(part), position - part * partSize, partEnd - position))) {
+                                while (position < partEnd) {
+                                    final int offset = Math.toIntExact(position - start);
+                                    final int length = stream.read(bytes, offset,
+                                        Math.toIntExact(Math.min(bufferSize, partEnd - position)));
+                                    if (length < 0) {
+                                        throw new EOFException("unexpected end of blob [" + fileInfo.partName(part)
+                                            + "] while restoring [" + fileInfo.physicalName() + "]");
+                                    }
+                                    ensureNotClosing(store);
+                                    position += length;
+                                    recoveryState.getIndex().addRecoveredBytesToFile(fileInfo.physicalName(), length);
+                                }
+                            }
+                        }
+                        return bytes;
+                    }
+
+                    private void writeDownloadedRanges() throws IOException {
+                        while (true) {
+                            final int range;
+                            final byte[] bytes;
+                            synchronized (this) {
+                                ensureNotFailed();
+                                range = nextRange;
+                                bytes = downloadedRanges[range];
+                                if (bytes == null) {
+                                    // the thread that downloads the next range writes it
+                                    writing = false;
+                                    return;
+                                }
+                                downloadedRanges[range] = null;
+                            }
+                            ensureNotClosing(store);
+                            if (indexOutput == null) {
+                                logger.trace(() -> new ParameterizedMessage("[{}] restoring [{}] to [{}] in [{}] ranges", metadata.name(),
+                                    fileInfo, store, downloadedRanges.length));
+                                indexOutput = store.createVerifyingOutput(fileInfo.physicalName(), fileInfo.metadata(), IOContext.DEFAULT);
+                            }
+                            indexOutput.writeBytes(bytes, 0, bytes.length);
+                            if (range == downloadedRanges.length - 1) {
+                                finish();
+                                return;
+                            }
+                            synchronized (this) {
+                                nextRange = range + 1;
+                                notifyAll();
+                            }
+                        }
+                    }
+
+                    private void finish() throws IOException {
+                        boolean success = false;
+                        try {
+                            Store.verify(indexOutput);
+                            indexOutput.close();
+                            store.directory().sync(Collections.singleton(fileInfo.physicalName()));
+                            success = true;
+                        } catch (CorruptIndexException | IndexFormatTooOldException | IndexFormatTooNewException ex) {
+                            try {
+                                store.markStoreCorrupted(ex);
+                            } catch (IOException e) {
+                                logger.warn("store cannot be marked as corrupted", e);
+                            }
+                            throw ex;
+                        } finally {
+                            synchronized (this) {
+                                completed = true;
+                            }
+                            if (success == false) {
+                                IOUtils.closeWhileHandlingException(indexOutput);
+                                store.deleteQuiet(fileInfo.physicalName());
+                            }
+                        }
+                    }
+
+                    private synchronized void ensureNotFailed() {
+                        if (failed) {
+                            throw new AlreadyClosedException("restore of [" + fileInfo.physicalName() + "] was aborted");
+                        }
+                    }
+
+                    /**
+                     * Stops the restore of the file and wakes up the threads that wait for buffer space, the file is left to
+                     * {@link #abort()} once no worker is restoring a range any more.
+                     */
+                    private synchronized void fail() {
+                        failed = true;
+                        Arrays.fill(downloadedRanges, null);
+                        notifyAll();
+                    }
+
+                    synchronized void abort() {
+                        fail();
+                        if (completed == false) {
+                            completed = true;
+                            IOUtils.closeWhileHandlingException(indexOutput);
+                            store.deleteQuiet(fileInfo.physicalName());
+                        }
+                    }
+                }
+
                 void ensureNotClosing(final Store store) throws AlreadyClosedException {
                     assert store.refCount() > 0;
                     if (store.isClosing()) {
@@ -2345,7 +2802,7 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         }));
     }
 
-    private static ActionListener<Void> fileQueueListener(BlockingQueue<BlobStoreIndexShardSnapshot.FileInfo> files, int workers,
+    private static ActionListener<Void> fileQueueListener(BlockingQueue<?> files, int workers,
                                                           ActionListener<Collection<Void>> listener) {
         return ActionListener.delegateResponse(new GroupedActionListener<>(listener, workers), (l, e) -> {
             files.clear(); // Stop uploading the remaining files if we run into any exception
@@ -2558,29 +3015,8 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
             for (int i = 0; i < fileInfo.numberOfParts(); i++) {
                 final long partBytes = fileInfo.partBytes(i);
 
-                // Make reads abortable by mutating the snapshotStatus object
-                final InputStream inputStream = new FilterInputStream(maybeRateLimitSnapshots(
-                    new InputStreamIndexInput(indexInput, partBytes))) {
-                    @Override
-                    public int read() throws IOException {
-                        checkAborted();
-                        return super.read();
-                    }
-
-                    @Override
-                    public int read(byte[] b, int off, int len) throws IOException {
-                        checkAborted();
-                        return super.read(b, off, len);
-                    }
-
-                    private void checkAborted() {
-                        if (snapshotStatus.isAborted()) {
-                            logger.debug("[{}] [{}] Aborted on the file [{}], exiting", shardId,
-                                snapshotId, fileInfo.physicalName());
-                            throw new AbortedSnapshotException();
-                        }
-                    }
-                };
+                final InputStream inputStream = abortableInputStream(maybeRateLimitSnapshots(
+                    new InputStreamIndexInput(indexInput, partBytes)), fileInfo, shardId, snapshotId, snapshotStatus);
                 final String partName = fileInfo.partName(i);
                 logger.trace(() ->
                         new ParameterizedMessage("[{}] Writing [{}] to [{}]", metadata.name(), partName, shardContainer.path()));
@@ -2595,6 +3031,148 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         }
     }
 
+    /**
+     * Snapshots a file by uploading its blobs in parts of {@link #MULTIPART_UPLOAD_PART_SIZE_SETTING} concurrently on the given executor.
+     * Each part computes the checksum of the bytes it uploads, and the checksums of all parts are combined to verify the file against its
+     * footer checksum before the blobs are completed, so the file is still only read once.
+     */
+    private void snapshotFileInParts(BlobStoreIndexShardSnapshot.FileInfo fileInfo, IndexId indexId, ShardId shardId,
+                                     SnapshotId snapshotId, IndexShardSnapshotStatus snapshotStatus, Store store, Executor executor,
+                                     ActionListener<Void> listener) throws IOException {
+        final BlobContainer shardContainer = shardContainer(indexId, shardId);
+        // the checksum in the footer of the file covers all bytes of the file except for the checksum itself
+        final long checksummedLength = fileInfo.length() - Long.BYTES;
+        final List<MultipartUpload> uploads = new ArrayList<>();
+        final List<UploadPart> parts = new ArrayList<>();
+        try {
+            long blobOffset = 0L;
+            for (int i = 0; i < fileInfo.numberOfParts(); i++) {
+                final String blobName = fileInfo.partName(i);
+                final long blobBytes = fileInfo.partBytes(i);
+                logger.trace(() -> new ParameterizedMessage("[{}] Writing [{}] to [{}] in parts", metadata.name(), blobName,
+                    shardContainer.path()));
+                final MultipartUpload upload = shardContainer.startMultipartUpload(blobName, blobBytes, false);
+                uploads.add(upload);
+                int partNumber = 0;
+                for (long position = 0L; position < blobBytes; position += multipartUploadPartSize) {
+                    final long fileOffset = blobOffset + position;
+                    final long length = Math.min(multipartUploadPartSize, blobBytes - position);
+                    final long checksummedBytes = Math.max(0L, Math.min(length, checksummedLength - fileOffset));
+                    parts.add(new UploadPart(upload, partNumber++, position, fileOffset, length, checksummedBytes));
+                }
+                blobOffset += blobBytes;
+            }
+        } catch (Exception e) {
+            abortUploads(uploads, e);
+            snapshotStatus.addProcessedFile(0);
+            throw e;
+        }
+
+        final GroupedActionListener<Tuple<Integer, Long>> partsListener = new GroupedActionListener<>(
+            new ActionListener<Collection<Tuple<Integer, Long>>>() {
+                @Override
+                public void onResponse(Collection<Tuple<Integer, Long>> partChecksums) {
+                    try {
+                        verifyPartChecksums(fileInfo, parts, partChecksums);
+                        for (MultipartUpload upload : uploads) {
+                            upload.complete();
+                        }
+                    } catch (Exception e) {
+                        onFailure(e);
+                        return;
+                    }
+                    snapshotStatus.addProcessedFile(fileInfo.length());
+                    listener.onResponse(null);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    failStoreIfCorrupted(store, e);
+                    abortUploads(uploads, e);
+                    snapshotStatus.addProcessedFile(0);
+                    listener.onFailure(e);
+                }
+            }, parts.size());
+        for (int i = 0; i < parts.size(); i++) {
+            final int partIndex = i;
+            final UploadPart part = parts.get(i);
+            executor.execute(ActionRunnable.supply(partsListener,
+                () -> Tuple.tuple(partIndex, uploadPart(fileInfo, part, shardId, snapshotId, snapshotStatus, store))));
+        }
+    }
+
+    /**
+     * Uploads a single part of a file.
+     *
+     * @return the CRC32 checksum of the bytes of the part that are covered by the footer checksum of the file
+     */
+    private long uploadPart(BlobStoreIndexShardSnapshot.FileInfo fileInfo, UploadPart part, ShardId shardId, SnapshotId snapshotId,
+                            IndexShardSnapshotStatus snapshotStatus, Store store) throws IOException {
+        try (Releasable ignored = incrementStoreRef(store, snapshotStatus, shardId);
+             IndexInput indexInput = store.directory().openInput(fileInfo.physicalName(), IOContext.READONCE)) {
+            indexInput.seek(part.fileOffset);
+            final ChecksummingInputStream inputStream = new ChecksummingInputStream(abortableInputStream(maybeRateLimitSnapshots(
+                new InputStreamIndexInput(indexInput, part.length)), fileInfo, shardId, snapshotId, snapshotStatus), part.checksummedBytes);
+            part.upload.writePart(part.partNumber, part.position, inputStream, part.length);
+            return inputStream.checksum();
+        }
+    }
+
+    private static void verifyPartChecksums(BlobStoreIndexShardSnapshot.FileInfo fileInfo, List<UploadPart> parts,
+                                            Collection<Tuple<Integer, Long>> partChecksums) throws CorruptIndexException {
+        final long[] checksums = new long[parts.size()];
+        for (Tuple<Integer, Long> partChecksum : partChecksums) {
+            checksums[partChecksum.v1()] = partChecksum.v2();
+        }
+        long checksum = 0L;
+        for (int i = 0; i < checksums.length; i++) {
+            checksum = Checksums.combineCrc32(checksum, checksums[i], parts.get(i).checksummedBytes);
+        }
+        final String calculated = Store.digestToString(checksum);
+        if (calculated.equals(fileInfo.metadata().checksum()) == false) {
+            throw new CorruptIndexException("verification failed : calculated=" + calculated + " stored=" + fileInfo.metadata().checksum(),
+                fileInfo.physicalName());
+        }
+    }
+
+    private static void abortUploads(List<MultipartUpload> uploads, Exception e) {
+        for (MultipartUpload upload : uploads) {
+            try {
+                upload.abort();
+            } catch (Exception inner) {
+                e.addSuppressed(inner);
+            }
+        }
+    }
+
+    /**
+     * Makes reads abortable by mutating the snapshotStatus object.
+     */
+    private static InputStream abortableInputStream(InputStream inputStream, BlobStoreIndexShardSnapshot.FileInfo fileInfo,
+                                                    ShardId shardId, SnapshotId snapshotId, IndexShardSnapshotStatus snapshotStatus) {
+        return new FilterInputStream(inputStream) {
+            @Override
+            public int read() throws IOException {
+                checkAborted();
+                return super.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                checkAborted();
+                return super.read(b, off, len);
+            }
+
+            private void checkAborted() {
+                if (snapshotStatus.isAborted()) {
+                    logger.debug("[{}] [{}] Aborted on the file [{}], exiting", shardId,
+                        snapshotId, fileInfo.physicalName());
+                    throw new AbortedSnapshotException();
+                }
+            }
+        };
+    }
+
     private static void failStoreIfCorrupted(Store store, Exception e) {
         if (Lucene.isCorruptionException(e)) {
             try {
@@ -2606,6 +3184,128 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         }
     }
 
+    /**
+     * A part of a blob of a file that is snapshotted in parts, see {@link #snapshotFileInParts}.
+     */
+    private static final class UploadPart {
+
+        private final MultipartUpload upload;
+
+        private final int partNumber;
+
+        // Position of the part in its blob
+        private final long position;
+
+        // Position of the part in the file
+        private final long fileOffset;
+
+        private final long length;
+
+        // Number of leading bytes of the part that are covered by the footer checksum of the file
+        private final long checksummedBytes;
+
+        UploadPart(MultipartUpload upload, int partNumber, long position, long fileOffset, long length, long checksummedBytes) {
+            this.upload = upload;
+            this.partNumber = partNumber;
+            this.position = position;
+            this.fileOffset = fileOffset;
+            this.length = length;
+            this.checksummedBytes = checksummedBytes;
+        }
+    }
+
+    /**
+     * Counts the bytes read from the stream.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    /**
+     * Computes the CRC32 checksum of a number of leading bytes of the stream while it is read.
+     */
+    private static final class ChecksummingInputStream extends FilterInputStream {
+
+        private final CRC32 crc32 = new CRC32();
+
+        private long remainingChecksummedBytes;
+
+        ChecksummingInputStream(InputStream in, long checksummedBytes) {
+            super(in);
+            this.remainingChecksummedBytes = checksummedBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0 && remainingChecksummedBytes > 0) {
+                crc32.update(b);
+                remainingChecksummedBytes--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int read = super.read(b, off, len);
+            if (read > 0 && remainingChecksummedBytes > 0) {
+                final int checksummed = (int) Math.min(read, remainingChecksummedBytes);
+                crc32.update(b, off, checksummed);
+                remainingChecksummedBytes -= checksummed;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            throw new UnsupportedOperationException("skipping would bypass the checksum");
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        long checksum() {
+            return crc32.getValue();
+        }
+    }
+
     /**
      * The result of removing a snapshot from a shard folder in the repository.
      */
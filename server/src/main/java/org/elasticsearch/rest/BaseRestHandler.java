@@ -238,5 +238,10 @@ public abstract class BaseRestHandler implements RestHandler {
         public boolean allowsUnsafeBuffers() {
             return delegate.allowsUnsafeBuffers();
         }
+
+        @Override
+        public boolean shouldPauseReading() {
+            return delegate.shouldPauseReading();
+        }
     }
 }
@@ -54,6 +54,15 @@ public interface RestHandler {
         return false;
     }
 
+    /**
+     * Indicates if the HTTP layer should stop reading the content of requests for this handler from the network for now, because the
+     * node is too busy to take on more of them. It is checked when a request starts to arrive and while its content is read, and reading
+     * resumes once it returns false again, see {@link org.elasticsearch.http.HttpServerTransport.Dispatcher#readPauseCondition}.
+     */
+    default boolean shouldPauseReading() {
+        return false;
+    }
+
     /**
      * The list of {@link Route}s that this RestHandler is responsible for handling.
      */
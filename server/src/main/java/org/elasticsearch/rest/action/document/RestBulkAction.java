@@ -14,8 +14,10 @@ import org.elasticsearch.action.bulk.BulkShardRequest;
 import org.elasticsearch.action.support.ActiveShardCount;
 import org.elasticsearch.client.Requests;
 import org.elasticsearch.client.node.NodeClient;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.logging.DeprecationLogger;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.IndexingPressure;
 import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.rest.BaseRestHandler;
 import org.elasticsearch.rest.RestRequest;
@@ -43,12 +45,23 @@ import static org.elasticsearch.rest.RestRequest.Method.PUT;
 public class RestBulkAction extends BaseRestHandler {
 
     private final boolean allowExplicitIndex;
+    @Nullable
+    private final IndexingPressure indexingPressure;
     private static final DeprecationLogger deprecationLogger = DeprecationLogger.getLogger(RestSearchAction.class);
     public static final String TYPES_DEPRECATION_MESSAGE = "[types removal]" +
     " Specifying types in bulk requests is deprecated.";
 
     public RestBulkAction(Settings settings) {
+        this(settings, null);
+    }
+
+    /**
+     * @param indexingPressure the indexing pressure of the node, to stop reading bulk requests from the network while it is high, or
+     *                         {@code null} to always read them
+     */
+    public RestBulkAction(Settings settings, @Nullable IndexingPressure indexingPressure) {
         this.allowExplicitIndex = MULTI_ALLOW_EXPLICIT_INDEX.get(settings);
+        this.indexingPressure = indexingPressure;
     }
 
     @Override
@@ -103,4 +116,9 @@ public class RestBulkAction extends BaseRestHandler {
     public boolean allowsUnsafeBuffers() {
         return true;
     }
+
+    @Override
+    public boolean shouldPauseReading() {
+        return indexingPressure != null && indexingPressure.shouldPauseHttpReads();
+    }
 }
@@ -168,6 +168,10 @@ public class RestSearchAction extends BaseRestHandler {
             searchRequest.scroll(new Scroll(parseTimeValue(scroll, null, "scroll")));
         }
 
+        if (request.hasParam("deadline")) {
+            searchRequest.deadline(request.paramAsTime("deadline", null));
+        }
+
         if (request.hasParam("type")) {
             deprecationLogger.deprecate("search_with_types", TYPES_DEPRECATION_MESSAGE);
             searchRequest.types(Strings.splitStringByCommaToArray(request.param("type")));
@@ -26,6 +26,7 @@ import org.elasticsearch.action.support.TransportActions;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.CheckedSupplier;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.component.AbstractLifecycleComponent;
@@ -37,31 +38,49 @@ import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.CollectionUtils;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.common.util.concurrent.ConcurrentMapLong;
+import org.elasticsearch.common.util.concurrent.QueueResizingEsThreadPoolExecutor;
 import org.elasticsearch.core.internal.io.IOUtils;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.IndexNotFoundException;
 import org.elasticsearch.index.IndexService;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.BoostingQueryBuilder;
+import org.elasticsearch.index.query.ConstantScoreQueryBuilder;
 import org.elasticsearch.index.query.CoordinatorRewriteContextProvider;
+import org.elasticsearch.index.query.DisMaxQueryBuilder;
+import org.elasticsearch.index.query.ExistsQueryBuilder;
+import org.elasticsearch.index.query.IdsQueryBuilder;
 import org.elasticsearch.index.query.InnerHitContextBuilder;
 import org.elasticsearch.index.query.MatchAllQueryBuilder;
+import org.elasticsearch.index.query.MatchBoolPrefixQueryBuilder;
 import org.elasticsearch.index.query.MatchNoneQueryBuilder;
+import org.elasticsearch.index.query.MatchPhrasePrefixQueryBuilder;
+import org.elasticsearch.index.query.MatchPhraseQueryBuilder;
+import org.elasticsearch.index.query.MatchQueryBuilder;
+import org.elasticsearch.index.query.MultiMatchQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryRewriteContext;
 import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.index.query.RangeQueryBuilder;
 import org.elasticsearch.index.query.Rewriteable;
+import org.elasticsearch.index.query.TermQueryBuilder;
+import org.elasticsearch.index.query.TermsQueryBuilder;
 import org.elasticsearch.index.shard.IndexEventListener;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.SearchOperationListener;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.indices.breaker.ReservingCircuitBreakerService;
 import org.elasticsearch.indices.cluster.IndicesClusterStateService.AllocatedIndices.IndexRemovalReason;
 import org.elasticsearch.node.ResponseCollectorService;
 import org.elasticsearch.script.FieldScript;
@@ -106,6 +125,7 @@ import org.elasticsearch.search.rescore.RescorerBuilder;
 import org.elasticsearch.search.searchafter.SearchAfterBuilder;
 import org.elasticsearch.search.sort.FieldSortBuilder;
 import org.elasticsearch.search.sort.MinAndMax;
+import org.elasticsearch.search.sort.ScriptSortBuilder;
 import org.elasticsearch.search.sort.SortAndFormats;
 import org.elasticsearch.search.sort.SortBuilder;
 import org.elasticsearch.search.suggest.Suggest;
@@ -127,6 +147,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.LongSupplier;
+import java.util.stream.Stream;
 
 import static org.elasticsearch.common.unit.TimeValue.timeValueHours;
 import static org.elasticsearch.common.unit.TimeValue.timeValueMillis;
@@ -162,6 +183,25 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
     public static final Setting<Integer> MAX_OPEN_SCROLL_CONTEXT =
         Setting.intSetting("search.max_open_scroll_context", 500, 0, Property.Dynamic, Property.NodeScope);
 
+    /**
+     * If positive, the aggregations of a shard request reserve request breaker bytes in chunks of at least this size, rather than
+     * charging the request and parent breakers for every allocation. Reserved bytes that are not used yet count against the breakers
+     * of the node like used ones, so this is off by default and the breakers are charged for every allocation.
+     */
+    public static final Setting<ByteSizeValue> AGGS_BREAKER_RESERVATION_SIZE_SETTING = Setting.byteSizeSetting(
+        "search.aggs.breaker_reservation_size", ByteSizeValue.ZERO, ByteSizeValue.ZERO,
+        new ByteSizeValue(64, ByteSizeUnit.MB), Property.Dynamic, Property.NodeScope);
+
+    /**
+     * The maximum number of top hits ({@code from + size}) that a lightweight request may retrieve.
+     */
+    static final int LIGHTWEIGHT_MAX_HITS = 100;
+
+    /**
+     * The maximum number of values of a {@code terms} query in a lightweight request.
+     */
+    static final int LIGHTWEIGHT_MAX_TERMS = 100;
+
     public static final int DEFAULT_SIZE = 10;
     public static final int DEFAULT_FROM = 0;
 
@@ -177,6 +217,8 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
 
     private final BigArrays bigArrays;
 
+    private final CircuitBreakerService circuitBreakerService;
+
     private final DfsPhase dfsPhase = new DfsPhase();
 
     private final QueryPhase queryPhase;
@@ -195,6 +237,10 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
 
     private volatile int maxOpenScrollContext;
 
+    private final boolean lightLaneEnabled;
+
+    private volatile long aggsBreakerReservationSize;
+
     private final Cancellable keepAliveReaper;
 
     private final AtomicLong idGenerator = new AtomicLong();
@@ -216,6 +262,7 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         this.scriptService = scriptService;
         this.responseCollectorService = responseCollectorService;
         this.bigArrays = bigArrays;
+        this.circuitBreakerService = circuitBreakerService;
         this.queryPhase = new QueryPhase();
         this.fetchPhase = fetchPhase;
         this.multiBucketConsumerService = new MultiBucketConsumerService(clusterService, settings,
@@ -241,6 +288,12 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
 
         lowLevelCancellation = LOW_LEVEL_CANCELLATION_SETTING.get(settings);
         clusterService.getClusterSettings().addSettingsUpdateConsumer(LOW_LEVEL_CANCELLATION_SETTING, this::setLowLevelCancellation);
+
+        lightLaneEnabled = ThreadPool.SEARCH_LIGHT_ENABLED_SETTING.get(settings);
+
+        aggsBreakerReservationSize = AGGS_BREAKER_RESERVATION_SIZE_SETTING.get(settings).getBytes();
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(AGGS_BREAKER_RESERVATION_SIZE_SETTING,
+            this::setAggsBreakerReservationSize);
     }
 
     private void validateKeepAlives(TimeValue defaultKeepAlive, TimeValue maxKeepAlive) {
@@ -277,6 +330,10 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         this.lowLevelCancellation = lowLevelCancellation;
     }
 
+    private void setAggsBreakerReservationSize(ByteSizeValue aggsBreakerReservationSize) {
+        this.aggsBreakerReservationSize = aggsBreakerReservationSize.getBytes();
+    }
+
     @Override
     public void afterIndexRemoved(Index index, IndexSettings indexSettings, IndexRemovalReason reason) {
         // once an index is removed due to deletion or closing, we can just clean up all the pending search context information
@@ -329,7 +386,8 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
             @Override
             public void onResponse(ShardSearchRequest rewritten) {
                 // fork the execution in the search thread pool
-                runAsync(getExecutor(shard), () -> executeDfsPhase(request, task, keepStatesInContext), listener);
+                runAsync(getExecutor(shard, request), request.deadline(),
+                    () -> executeDfsPhase(request, task, keepStatesInContext), listener);
             }
 
             @Override
@@ -392,7 +450,7 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
                     }
                 }
                 // fork the execution in the search thread pool
-                runAsync(getExecutor(shard), () -> executeQueryPhase(orig, task, keepStatesInContext), listener);
+                runAsync(getExecutor(shard, orig), orig.deadline(), () -> executeQueryPhase(orig, task, keepStatesInContext), listener);
             }
 
             @Override
@@ -414,6 +472,19 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         executor.execute(ActionRunnable.supply(listener, executable::get));
     }
 
+    /**
+     * Like {@link #runAsync(Executor, CheckedSupplier, ActionListener)} but rejects the execution right away if the request has a
+     * deadline and its estimated wait in the queue of the executor exceeds it.
+     */
+    private <T> void runAsync(Executor executor, @Nullable TimeValue deadline, CheckedSupplier<T, Exception> executable,
+                              ActionListener<T> listener) {
+        if (deadline != null && executor instanceof QueueResizingEsThreadPoolExecutor) {
+            ((QueueResizingEsThreadPoolExecutor) executor).execute(ActionRunnable.supply(listener, executable::get), deadline);
+        } else {
+            runAsync(executor, executable, listener);
+        }
+    }
+
     private SearchPhaseResult executeQueryPhase(ShardSearchRequest request,
                                                 SearchShardTask task,
                                                 boolean keepStatesInContext) throws Exception {
@@ -523,18 +594,84 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
     }
 
     private Executor getExecutor(IndexShard indexShard) {
+        return getExecutor(indexShard, null);
+    }
+
+    private Executor getExecutor(IndexShard indexShard, @Nullable ShardSearchRequest request) {
         assert indexShard != null;
         final String executorName;
         if (indexShard.isSystem()) {
             executorName = Names.SYSTEM_READ;
         } else if (indexShard.indexSettings().isSearchThrottled()) {
             executorName = Names.SEARCH_THROTTLED;
+        } else if (request != null && lightLaneEnabled && isLightweight(request)) {
+            executorName = Names.SEARCH_LIGHT;
         } else {
             executorName = Names.SEARCH;
         }
         return threadPool.executor(executorName);
     }
 
+    /**
+     * Returns whether the provided request is cheap to execute: it retrieves at most {@link #LIGHTWEIGHT_MAX_HITS} top hits and does not
+     * need to count all matches, without aggregations, rescoring, scrolling, profiling or script sorts, and its query and post filter
+     * are made of cheap queries only, see {@link #isCheapQuery}.
+     */
+    static boolean isLightweight(ShardSearchRequest request) {
+        if (request.scroll() != null) {
+            return false;
+        }
+        final SearchSourceBuilder source = request.source();
+        if (source == null) {
+            return true;
+        }
+        final int from = source.from() == -1 ? DEFAULT_FROM : source.from();
+        final int size = source.size() == -1 ? DEFAULT_SIZE : source.size();
+        return from + size <= LIGHTWEIGHT_MAX_HITS
+            && source.aggregations() == null
+            && (source.rescores() == null || source.rescores().isEmpty())
+            && source.profile() == false
+            && (source.trackTotalHitsUpTo() == null || source.trackTotalHitsUpTo() != SearchContext.TRACK_TOTAL_HITS_ACCURATE)
+            && (source.sorts() == null || source.sorts().stream().noneMatch(sort -> sort instanceof ScriptSortBuilder))
+            && (source.query() == null || isCheapQuery(source.query()))
+            && (source.postFilter() == null || isCheapQuery(source.postFilter()));
+    }
+
+    /**
+     * Returns whether the provided query only matches terms that are looked up directly in the terms dictionary, or ranges, and
+     * compounds of such queries. Queries that expand to many terms, such as {@code wildcard}, {@code regexp} or {@code fuzzy}, and
+     * queries that run scripts or join documents are not cheap.
+     */
+    static boolean isCheapQuery(QueryBuilder query) {
+        if (query instanceof BoolQueryBuilder) {
+            final BoolQueryBuilder bool = (BoolQueryBuilder) query;
+            return Stream.of(bool.must(), bool.filter(), bool.should(), bool.mustNot())
+                .flatMap(List::stream)
+                .allMatch(SearchService::isCheapQuery);
+        } else if (query instanceof ConstantScoreQueryBuilder) {
+            return isCheapQuery(((ConstantScoreQueryBuilder) query).innerQuery());
+        } else if (query instanceof DisMaxQueryBuilder) {
+            return ((DisMaxQueryBuilder) query).innerQueries().stream().allMatch(SearchService::isCheapQuery);
+        } else if (query instanceof BoostingQueryBuilder) {
+            final BoostingQueryBuilder boosting = (BoostingQueryBuilder) query;
+            return isCheapQuery(boosting.positiveQuery()) && isCheapQuery(boosting.negativeQuery());
+        } else if (query instanceof TermsQueryBuilder) {
+            final TermsQueryBuilder terms = (TermsQueryBuilder) query;
+            return terms.termsLookup() == null && terms.values().size() <= LIGHTWEIGHT_MAX_TERMS;
+        }
+        return query instanceof MatchAllQueryBuilder
+            || query instanceof MatchNoneQueryBuilder
+            || query instanceof TermQueryBuilder
+            || query instanceof IdsQueryBuilder
+            || query instanceof ExistsQueryBuilder
+            || query instanceof RangeQueryBuilder
+            || query instanceof MatchQueryBuilder
+            || query instanceof MatchPhraseQueryBuilder
+            || query instanceof MatchPhrasePrefixQueryBuilder
+            || query instanceof MatchBoolPrefixQueryBuilder
+            || query instanceof MultiMatchQueryBuilder;
+    }
+
     public void executeFetchPhase(InternalScrollSearchRequest request, SearchShardTask task,
                                   ActionListener<ScrollQueryFetchSearchResult> listener) {
         final LegacyReaderContext readerContext = (LegacyReaderContext) findReaderContext(request.contextId(), request);
@@ -925,8 +1062,17 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         }
         context.terminateAfter(source.terminateAfter());
         if (source.aggregations() != null && includeAggregations) {
+            BigArrays aggBigArrays = context.getQueryShardContext().bigArrays();
+            final long reservationSize = aggsBreakerReservationSize;
+            if (reservationSize > 0) {
+                ReservingCircuitBreakerService reservingBreakerService =
+                    new ReservingCircuitBreakerService(circuitBreakerService, CircuitBreaker.REQUEST, reservationSize);
+                context.addReleasable(reservingBreakerService);
+                aggBigArrays = aggBigArrays.withBreakerService(reservingBreakerService);
+            }
             AggregationContext aggContext = new ProductionAggregationContext(
                 context.getQueryShardContext(),
+                aggBigArrays,
                 /*
                  * The query on the search context right now doesn't include
                  * the filter for nested documents or slicing so we have to
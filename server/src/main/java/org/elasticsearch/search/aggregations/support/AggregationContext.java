@@ -254,6 +254,7 @@ public abstract class AggregationContext {
 
         public ProductionAggregationContext(
             QueryShardContext context,
+            BigArrays bigArrays,
             Supplier<Query> topLevelQuery,
             @Nullable AggregationProfiler profiler,
             MultiBucketConsumer multiBucketConsumer,
@@ -265,7 +266,7 @@ public abstract class AggregationContext {
             Supplier<Boolean> isCancelled
         ) {
             this.context = context;
-            this.bigArrays = context.bigArrays().withCircuitBreaking();  // We can break in searches.
+            this.bigArrays = bigArrays.withCircuitBreaking();  // We can break in searches.
             this.topLevelQuery = topLevelQuery;
             this.profiler = profiler;
             this.multiBucketConsumer = multiBucketConsumer;
@@ -13,6 +13,7 @@ import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.fetch.FetchContext;
 import org.elasticsearch.search.fetch.FetchSubPhase;
@@ -20,7 +21,11 @@ import org.elasticsearch.search.fetch.FetchSubPhaseProcessor;
 import org.elasticsearch.search.lookup.SourceLookup;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 public final class FetchSourcePhase implements FetchSubPhase {
 
@@ -32,6 +37,9 @@ public final class FetchSourcePhase implements FetchSubPhase {
         }
         String index = fetchContext.getIndexName();
         assert fetchSourceContext.fetchSource();
+        Set<String> streamingIncludes = canFilterWhileParsing(fetchSourceContext)
+            ? new HashSet<>(Arrays.asList(fetchSourceContext.includes()))
+            : null;
 
         return new FetchSubPhaseProcessor() {
             @Override
@@ -41,12 +49,12 @@ public final class FetchSourcePhase implements FetchSubPhase {
 
             @Override
             public void process(HitContext hitContext) {
-                hitExecute(index, fetchSourceContext, hitContext);
+                hitExecute(index, fetchSourceContext, streamingIncludes, hitContext);
             }
         };
     }
 
-    private void hitExecute(String index, FetchSourceContext fetchSourceContext, HitContext hitContext) {
+    private void hitExecute(String index, FetchSourceContext fetchSourceContext, Set<String> streamingIncludes, HitContext hitContext) {
 
         final boolean nestedHit = hitContext.hit().getNestedIdentity() != null;
         SourceLookup source = hitContext.sourceLookup();
@@ -66,6 +74,20 @@ public final class FetchSourcePhase implements FetchSubPhase {
             return;
         }
 
+        // If this is a parent document and the source can be filtered while it is parsed, then copy the matching fields
+        // directly instead of loading the whole source as a map.
+        if (nestedHit == false && streamingIncludes != null) {
+            try {
+                BytesReference filtered = filterWhileParsing(source, streamingIncludes);
+                if (filtered != null) {
+                    hitContext.hit().sourceRef(filtered);
+                    return;
+                }
+            } catch (IOException e) {
+                throw new ElasticsearchException("Error filtering source", e);
+            }
+        }
+
         // Otherwise, filter the source and add it to the hit.
         Object value = source.filter(fetchSourceContext);
         if (nestedHit) {
@@ -97,6 +119,50 @@ public final class FetchSourcePhase implements FetchSubPhase {
         return context.includes().length != 0 || context.excludes().length != 0;
     }
 
+    /**
+     * Whether the source can be filtered while it is parsed rather than after it was loaded as a map. Filtering while parsing matches
+     * field names one segment at a time, while the map based filtering lets wildcards match across dots and keeps the objects whose
+     * content was entirely excluded, so this is only done for inclusive filters that have no wildcard except at their very end.
+     */
+    static boolean canFilterWhileParsing(FetchSourceContext context) {
+        if (context.includes().length == 0 || context.excludes().length != 0) {
+            return false;
+        }
+        for (String include : context.includes()) {
+            if (include.isEmpty() || include.trim().length() != include.length()
+                || include.startsWith(".") || include.endsWith(".") || include.contains("..") || include.indexOf('\\') >= 0) {
+                return false;
+            }
+            int wildcard = include.indexOf('*');
+            if (wildcard >= 0 && wildcard != include.length() - 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the fields of the source that match the given inclusive filters, or returns {@code null} if the source was already
+     * loaded as a map.
+     */
+    private static BytesReference filterWhileParsing(SourceLookup source, Set<String> includes) throws IOException {
+        try (XContentParser parser = source.filteredSourceParser(includes, Collections.emptySet())) {
+            if (parser == null) {
+                return null;
+            }
+            BytesStreamOutput streamOutput = new BytesStreamOutput(Math.min(1024, source.internalSourceRef().length()));
+            XContentBuilder builder = new XContentBuilder(parser.contentType().xContent(), streamOutput);
+            if (parser.nextToken() == null) {
+                // Nothing matched the filters, return an empty top level object like the map based filtering does.
+                builder.startObject();
+                builder.endObject();
+            } else {
+                builder.copyCurrentStructure(parser);
+            }
+            return BytesReference.bytes(builder);
+        }
+    }
+
     private Map<String, Object> getNestedSource(Map<String, Object> sourceAsMap, HitContext hitContext) {
         for (SearchHit.NestedIdentity o = hitContext.hit().getNestedIdentity(); o != null; o = o.getChild()) {
             sourceAsMap = (Map<String, Object>) sourceAsMap.get(o.getField().string());
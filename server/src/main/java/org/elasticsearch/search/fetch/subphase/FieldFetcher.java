@@ -13,7 +13,10 @@ import org.apache.lucene.util.automaton.Automata;
 import org.apache.lucene.util.automaton.CharacterRunAutomaton;
 import org.elasticsearch.common.document.DocumentField;
 import org.elasticsearch.common.regex.Regex;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.index.mapper.ArraySourceValueFetcher;
 import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.SourceValueFetcher;
 import org.elasticsearch.index.mapper.ValueFetcher;
 import org.elasticsearch.index.query.QueryShardContext;
 import org.elasticsearch.search.lookup.SearchLookup;
@@ -22,7 +25,9 @@ import org.elasticsearch.search.lookup.SourceLookup;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -40,6 +45,7 @@ public class FieldFetcher {
         // Using a LinkedHashMap so fields are returned in the order requested.
         // We won't formally guarantee this but but its good for readability of the response
         Map<String, FieldContext> fieldContexts = new LinkedHashMap<>();
+        Set<String> sourcePaths = new HashSet<>();
         List<String> unmappedFetchPattern = new ArrayList<>();
         boolean includeUnmapped = false;
 
@@ -58,7 +64,12 @@ public class FieldFetcher {
                     continue;
                 }
                 ValueFetcher valueFetcher = ft.valueFetcher(context, format);
-                fieldContexts.put(field, new FieldContext(field, valueFetcher));
+                // these fetchers only ever look at the source paths of their field, so they can be given a source that only holds them
+                boolean fetchesFromSource = valueFetcher instanceof SourceValueFetcher || valueFetcher instanceof ArraySourceValueFetcher;
+                if (fetchesFromSource) {
+                    sourcePaths.addAll(context.sourcePath(field));
+                }
+                fieldContexts.put(field, new FieldContext(field, valueFetcher, fetchesFromSource));
             }
         }
         CharacterRunAutomaton unmappedFetchAutomaton = new CharacterRunAutomaton(Automata.makeEmpty());
@@ -67,25 +78,31 @@ public class FieldFetcher {
                 Regex.simpleMatchToAutomaton(unmappedFetchPattern.toArray(new String[unmappedFetchPattern.size()]))
             );
         }
-        return new FieldFetcher(fieldContexts, unmappedFetchAutomaton, includeUnmapped);
+        // unmapped fields are collected from the whole source, so there is no point in extracting the source paths beforehand
+        return new FieldFetcher(fieldContexts, includeUnmapped || sourcePaths.isEmpty() ? null : sourcePaths, unmappedFetchAutomaton,
+            includeUnmapped);
     }
 
     private final Map<String, FieldContext> fieldContexts;
+    private final Set<String> sourcePaths;
     private final CharacterRunAutomaton unmappedFetchAutomaton;
     private final boolean includeUnmapped;
 
     private FieldFetcher(
         Map<String, FieldContext> fieldContexts,
+        Set<String> sourcePaths,
         CharacterRunAutomaton unmappedFetchAutomaton,
         boolean includeUnmapped
     ) {
         this.fieldContexts = fieldContexts;
+        this.sourcePaths = sourcePaths;
         this.unmappedFetchAutomaton = unmappedFetchAutomaton;
         this.includeUnmapped = includeUnmapped;
     }
 
     public Map<String, DocumentField> fetch(SourceLookup sourceLookup, Set<String> ignoredFields) throws IOException {
         Map<String, DocumentField> documentFields = new HashMap<>();
+        SourceLookup fieldsSourceLookup = null;
         for (FieldContext context : fieldContexts.values()) {
             String field = context.fieldName;
             if (ignoredFields.contains(field)) {
@@ -93,7 +110,14 @@ public class FieldFetcher {
             }
 
             ValueFetcher valueFetcher = context.valueFetcher;
-            List<Object> parsedValues = valueFetcher.fetchValues(sourceLookup);
+            SourceLookup lookup = sourceLookup;
+            if (context.fetchesFromSource && sourcePaths != null) {
+                if (fieldsSourceLookup == null) {
+                    fieldsSourceLookup = extractSourcePaths(sourceLookup);
+                }
+                lookup = fieldsSourceLookup;
+            }
+            List<Object> parsedValues = valueFetcher.fetchValues(lookup);
 
             if (parsedValues.isEmpty() == false) {
                 documentFields.put(field, new DocumentField(field, parsedValues));
@@ -105,6 +129,21 @@ public class FieldFetcher {
         return documentFields;
     }
 
+    /**
+     * Returns a lookup over the parts of the source that hold the fields to fetch, so that the whole source isn't loaded as a map
+     * for every hit. The given lookup is returned as-is if its source was already loaded.
+     */
+    private SourceLookup extractSourcePaths(SourceLookup sourceLookup) throws IOException {
+        try (XContentParser parser = sourceLookup.filteredSourceParser(sourcePaths, Collections.emptySet())) {
+            if (parser == null) {
+                return sourceLookup;
+            }
+            SourceLookup extracted = new SourceLookup();
+            extracted.setSource(parser.nextToken() == null ? Collections.emptyMap() : parser.map());
+            return extracted;
+        }
+    }
+
     private void collectUnmapped(Map<String, DocumentField> documentFields, Map<String, Object> source, String parentPath, int lastState) {
         for (String key : source.keySet()) {
             Object value = source.get(key);
@@ -186,11 +225,14 @@ public class FieldFetcher {
     private static class FieldContext {
         final String fieldName;
         final ValueFetcher valueFetcher;
+        final boolean fetchesFromSource;
 
         FieldContext(String fieldName,
-                     ValueFetcher valueFetcher) {
+                     ValueFetcher valueFetcher,
+                     boolean fetchesFromSource) {
             this.fieldName = fieldName;
             this.valueFetcher = valueFetcher;
+            this.fetchesFromSource = fetchesFromSource;
         }
     }
 }
@@ -79,6 +79,7 @@ public class ShardSearchRequest extends TransportRequest implements IndicesReque
     private SearchSourceBuilder source;
     private final ShardSearchContextId readerId;
     private final TimeValue keepAlive;
+    private TimeValue deadline;
 
     public ShardSearchRequest(OriginalIndices originalIndices,
                               SearchRequest searchRequest,
@@ -120,6 +121,7 @@ public class ShardSearchRequest extends TransportRequest implements IndicesReque
             clusterAlias,
             readerId,
             keepAlive);
+        this.deadline = searchRequest.deadline();
         // If allowPartialSearchResults is unset (ie null), the cluster-level default should have been substituted
         // at this stage. Any NPEs in the above are therefore an error in request preparation logic.
         assert searchRequest.allowPartialSearchResults() != null;
@@ -207,6 +209,9 @@ public class ShardSearchRequest extends TransportRequest implements IndicesReque
             this.readerId = null;
             this.keepAlive = null;
         }
+        if (in.getVersion().onOrAfter(Version.V_7_11_3)) {
+            deadline = in.readOptionalTimeValue();
+        }
         originalIndices = OriginalIndices.readOriginalIndices(in);
         assert keepAlive == null || readerId != null : "readerId: " + readerId + " keepAlive: " + keepAlive;
     }
@@ -230,6 +235,7 @@ public class ShardSearchRequest extends TransportRequest implements IndicesReque
         this.originalIndices = clone.originalIndices;
         this.readerId = clone.readerId;
         this.keepAlive = clone.keepAlive;
+        this.deadline = clone.deadline;
     }
 
     @Override
@@ -275,6 +281,9 @@ public class ShardSearchRequest extends TransportRequest implements IndicesReque
             out.writeOptionalWriteable(readerId);
             out.writeOptionalTimeValue(keepAlive);
         }
+        if (out.getVersion().onOrAfter(Version.V_7_11_3) && asKey == false) {
+            out.writeOptionalTimeValue(deadline);
+        }
     }
 
     @Override
@@ -400,6 +409,18 @@ public class ShardSearchRequest extends TransportRequest implements IndicesReque
         return keepAlive;
     }
 
+    /**
+     * Returns the maximum time that this request may wait in the queue of a search thread pool, or {@code null} if unspecified.
+     */
+    @Nullable
+    public TimeValue deadline() {
+        return deadline;
+    }
+
+    public void deadline(@Nullable TimeValue deadline) {
+        this.deadline = deadline;
+    }
+
     /**
      * Returns the cache key for this shard search request, based on its content
      */
@@ -15,7 +15,10 @@ import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.lucene.index.SequentialStoredFieldsLeafReader;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
 import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.common.xcontent.support.XContentMapValues;
 import org.elasticsearch.index.fieldvisitor.FieldsVisitor;
@@ -105,6 +108,37 @@ public class SourceLookup implements Map {
         return this.source;
     }
 
+    /**
+     * Returns a parser over the source that only returns the fields matching the given inclusive and/or exclusive filters, skipping
+     * over the rest of the source instead of loading it as a map. Returns {@code null} if the source was already loaded as a map, in
+     * which case filtering the map is cheaper, or if the document has no source.
+     */
+    @Nullable
+    public XContentParser filteredSourceParser(Set<String> includes, Set<String> excludes) throws IOException {
+        if (source != null) {
+            return null;
+        }
+        BytesReference sourceAsBytes = loadSourceBytesIfNeeded();
+        if (sourceAsBytes == null) {
+            return null;
+        }
+        return XContentHelper.createParser(NamedXContentRegistry.EMPTY, DeprecationHandler.THROW_UNSUPPORTED_OPERATION, sourceAsBytes,
+            includes, excludes);
+    }
+
+    private BytesReference loadSourceBytesIfNeeded() {
+        if (sourceAsBytes == null && fieldReader != null) {
+            try {
+                FieldsVisitor sourceFieldVisitor = new FieldsVisitor(true);
+                fieldReader.accept(docId, sourceFieldVisitor);
+                sourceAsBytes = sourceFieldVisitor.source();
+            } catch (Exception e) {
+                throw new ElasticsearchParseException("failed to load source", e);
+            }
+        }
+        return sourceAsBytes;
+    }
+
     private static Tuple<XContentType, Map<String, Object>> sourceAsMapAndType(BytesReference source) throws ElasticsearchParseException {
         return XContentHelper.convertToMap(source, false);
     }
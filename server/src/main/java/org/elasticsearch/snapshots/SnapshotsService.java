@@ -128,6 +128,8 @@ public class SnapshotsService extends AbstractLifecycleComponent implements Clus
 
     public static final Version INDEX_GEN_IN_REPO_DATA_VERSION = Version.V_7_9_0;
 
+    public static final Version INCREMENTAL_REPO_DATA_VERSION = Version.V_7_11_3;
+
     public static final Version OLD_SNAPSHOT_FORMAT = Version.V_7_5_0;
 
     public static final Version MULTI_DELETE_VERSION = Version.V_7_8_0;
@@ -2297,6 +2299,17 @@ public class SnapshotsService extends AbstractLifecycleComponent implements Clus
         return repositoryMetaVersion.onOrAfter(INDEX_GEN_IN_REPO_DATA_VERSION);
     }
 
+    /**
+     * Checks whether the metadata version supports writing the {@code index-N} blob as a {@link RepositoryData.Delta} to the
+     * {@link RepositoryData} of an earlier generation.
+     *
+     * @param repositoryMetaVersion version to check
+     * @return true if version supports incremental {@link RepositoryData}
+     */
+    public static boolean useIncrementalRepositoryData(Version repositoryMetaVersion) {
+        return repositoryMetaVersion.onOrAfter(INCREMENTAL_REPO_DATA_VERSION);
+    }
+
     /** Deletes snapshot from repository
      *
      * @param deleteEntry       delete entry in cluster state
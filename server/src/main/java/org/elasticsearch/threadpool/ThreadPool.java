@@ -62,6 +62,7 @@ public class ThreadPool implements ReportingService<ThreadPoolInfo>, Scheduler {
         public static final String WRITE = "write";
         public static final String SEARCH = "search";
         public static final String SEARCH_THROTTLED = "search_throttled";
+        public static final String SEARCH_LIGHT = "search_light";
         public static final String MANAGEMENT = "management";
         public static final String FLUSH = "flush";
         public static final String REFRESH = "refresh";
@@ -156,6 +157,13 @@ public class ThreadPool implements ReportingService<ThreadPoolInfo>, Scheduler {
         Setting.timeSetting("thread_pool.estimated_time_interval",
             TimeValue.timeValueMillis(200), TimeValue.ZERO, Setting.Property.NodeScope);
 
+    /**
+     * Whether to create the {@link Names#SEARCH_LIGHT} thread pool and to run the query phase of lightweight search requests on it, so
+     * that they do not queue up behind expensive requests on the {@link Names#SEARCH} thread pool.
+     */
+    public static final Setting<Boolean> SEARCH_LIGHT_ENABLED_SETTING =
+        Setting.boolSetting("thread_pool.search_light.enabled", false, Setting.Property.NodeScope);
+
     public ThreadPool(final Settings settings, final ExecutorBuilder<?>... customBuilders) {
         assert Node.NODE_NAME_SETTING.exists(settings);
 
@@ -172,6 +180,10 @@ public class ThreadPool implements ReportingService<ThreadPoolInfo>, Scheduler {
                         Names.SEARCH, searchThreadPoolSize(allocatedProcessors), 1000, 1000, 1000, 2000));
         builders.put(Names.SEARCH_THROTTLED, new AutoQueueAdjustingExecutorBuilder(settings,
             Names.SEARCH_THROTTLED, 1, 100, 100, 100, 200));
+        if (SEARCH_LIGHT_ENABLED_SETTING.get(settings)) {
+            builders.put(Names.SEARCH_LIGHT, new AutoQueueAdjustingExecutorBuilder(settings,
+                Names.SEARCH_LIGHT, halfProcMaxAt10, 1000, 1000, 1000, 2000));
+        }
         builders.put(Names.MANAGEMENT, new ScalingExecutorBuilder(Names.MANAGEMENT, 1, 5, TimeValue.timeValueMinutes(5)));
         // no queue as this means clients will need to handle rejections on listener queue even if the operation succeeded
         // the assumption here is that the listeners should be very lightweight on the listeners side
@@ -10,13 +10,20 @@ package org.elasticsearch.transport;
 
 import org.elasticsearch.core.internal.io.IOUtils;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.compress.CompressorFactory;
 import org.elasticsearch.common.io.Streams;
 import org.elasticsearch.common.io.stream.BytesStream;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.common.lease.Releasables;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.zip.DeflaterOutputStream;
 
 /**
@@ -29,14 +36,28 @@ import java.util.zip.DeflaterOutputStream;
  * written to this stream. If compression is enabled, the proper EOS bytes will be written at that point.
  * The underlying {@link BytesReference} will be returned.
  *
+ * If compression is disabled, bytes references written with {@link #writeSharedBytesReference(BytesReference)} are not
+ * copied into the underlying stream but become part of the returned {@link BytesReference} as they are. Shared
+ * {@link ReleasableBytesReference}s are retained until the releasable returned by {@link #takeSharedBytesRelease()}
+ * is closed, which must only happen once the returned bytes were sent.
+ *
  * {@link CompressibleBytesOutputStream#close()} will NOT close the underlying stream. The byte stream passed
  * in the constructor must be closed individually.
  */
 final class CompressibleBytesOutputStream extends StreamOutput {
 
+    /**
+     * Shared bytes references smaller than this are copied, as the bookkeeping for them costs more than the copy.
+     */
+    static final int MIN_SHARED_BYTES_LENGTH = 4 * 1024;
+
     private final OutputStream stream;
     private final BytesStream bytesStreamOutput;
     private final boolean shouldCompress;
+    // the shared bytes references that were written, along with the position of the underlying stream they belong at
+    private final List<Tuple<Long, BytesReference>> sharedBytes = new ArrayList<>();
+    // the shared bytes references that were retained, released on close unless their release was taken over
+    private final List<ReleasableBytesReference> retainedSharedBytes = new ArrayList<>();
 
     CompressibleBytesOutputStream(BytesStream bytesStreamOutput, boolean shouldCompress) throws IOException {
         this.bytesStreamOutput = bytesStreamOutput;
@@ -62,7 +83,51 @@ final class CompressibleBytesOutputStream extends StreamOutput {
             stream.close();
         }
 
-        return bytesStreamOutput.bytes();
+        final BytesReference bytes = bytesStreamOutput.bytes();
+        if (sharedBytes.isEmpty()) {
+            return bytes;
+        }
+        final List<BytesReference> parts = new ArrayList<>(2 * sharedBytes.size() + 1);
+        int offset = 0;
+        for (Tuple<Long, BytesReference> shared : sharedBytes) {
+            final int position = Math.toIntExact(shared.v1());
+            if (position > offset) {
+                parts.add(bytes.slice(offset, position - offset));
+            }
+            parts.add(shared.v2());
+            offset = position;
+        }
+        if (bytes.length() > offset) {
+            parts.add(bytes.slice(offset, bytes.length() - offset));
+        }
+        return CompositeBytesReference.of(parts.toArray(new BytesReference[0]));
+    }
+
+    @Override
+    public void writeSharedBytesReference(BytesReference bytes) throws IOException {
+        if (shouldCompress || bytes == null || bytes.length() < MIN_SHARED_BYTES_LENGTH) {
+            super.writeSharedBytesReference(bytes);
+        } else {
+            writeVInt(bytes.length());
+            if (bytes instanceof ReleasableBytesReference) {
+                retainedSharedBytes.add(((ReleasableBytesReference) bytes).retain());
+            }
+            sharedBytes.add(new Tuple<>(bytesStreamOutput.position(), bytes));
+        }
+    }
+
+    /**
+     * Takes over the release of the shared bytes references that were retained when they were written to this stream.
+     *
+     * @return a releasable that releases them, to be closed once the materialized bytes were sent, or {@code null} if none were retained
+     */
+    Releasable takeSharedBytesRelease() {
+        if (retainedSharedBytes.isEmpty()) {
+            return null;
+        }
+        final List<ReleasableBytesReference> toRelease = new ArrayList<>(retainedSharedBytes);
+        retainedSharedBytes.clear();
+        return Releasables.releaseOnce(() -> Releasables.close(toRelease));
     }
 
     @Override
@@ -82,9 +147,14 @@ final class CompressibleBytesOutputStream extends StreamOutput {
 
     @Override
     public void close() throws IOException {
-        if (stream != bytesStreamOutput) {
-            assert shouldCompress : "If the streams are different we should be compressing";
-            IOUtils.close(stream);
+        try {
+            if (stream != bytesStreamOutput) {
+                assert shouldCompress : "If the streams are different we should be compressing";
+                IOUtils.close(stream);
+            }
+        } finally {
+            Releasables.close(retainedSharedBytes);
+            retainedSharedBytes.clear();
         }
     }
 
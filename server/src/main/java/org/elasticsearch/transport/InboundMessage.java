@@ -8,13 +8,19 @@
 
 package org.elasticsearch.transport;
 
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.FilterStreamInput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.core.internal.io.IOUtils;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class InboundMessage implements Releasable {
 
@@ -24,6 +30,9 @@ public class InboundMessage implements Releasable {
     private final boolean isPing;
     private Releasable breakerRelease;
     private StreamInput streamInput;
+    // the slices of the content that were read as shared bytes references, each of which retains the content
+    private final List<ReleasableBytesReference> sharedSlices = new ArrayList<>();
+    private boolean releaseControlTaken;
 
     public InboundMessage(Header header, ReleasableBytesReference content, Releasable breakerRelease) {
         this.header = header;
@@ -73,33 +82,81 @@ public class InboundMessage implements Releasable {
         return exception != null;
     }
 
+    /**
+     * Takes over the release of the bytes that were reserved for this message, which happens once the response to the request was sent.
+     * This also releases the slices of the content of the request that were read as shared bytes references, see
+     * {@link #openOrGetStreamInput()}.
+     */
     public Releasable takeBreakerReleaseControl() {
         final Releasable toReturn = breakerRelease;
         breakerRelease = null;
-        if (toReturn != null) {
+        releaseControlTaken = true;
+        if (content != null && header.isRequest()) {
+            return () -> Releasables.close(toReturn, this::releaseSharedSlices);
+        } else if (toReturn != null) {
             return toReturn;
         } else {
             return () -> {};
         }
     }
 
+    /**
+     * Returns a stream over the content of this message. For requests, bytes references read with
+     * {@link StreamInput#readSharedBytesReference()} are {@link ReleasableBytesReference} slices of the content rather than copies. They
+     * retain the content until the releasable returned by {@link #takeBreakerReleaseControl()} is closed, and outbound messages that
+     * share them retain the content further until they were sent.
+     */
     public StreamInput openOrGetStreamInput() throws IOException {
         assert isPing == false && content != null;
         if (streamInput == null) {
-            streamInput = content.streamInput();
+            streamInput = header.isRequest() ? new SharedContentStreamInput(content.streamInput()) : content.streamInput();
             streamInput.setVersion(header.getVersion());
         }
         return streamInput;
     }
 
+    private void releaseSharedSlices() {
+        Releasables.close(sharedSlices);
+        sharedSlices.clear();
+    }
+
     @Override
     public void close() {
         IOUtils.closeWhileHandlingException(streamInput);
         Releasables.closeWhileHandlingException(content, breakerRelease);
+        if (releaseControlTaken == false) {
+            releaseSharedSlices();
+        }
     }
 
     @Override
     public String toString() {
         return "InboundMessage{" + header + "}";
     }
+
+    private class SharedContentStreamInput extends FilterStreamInput {
+
+        SharedContentStreamInput(StreamInput delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public BytesReference readSharedBytesReference() throws IOException {
+            final int length = readVInt();
+            if (length < 0) {
+                throw new NegativeArraySizeException("array size must be positive but was: " + length);
+            }
+            if (length == 0) {
+                return BytesArray.EMPTY;
+            }
+            ensureCanReadBytes(length);
+            final int offset = content.length() - delegate.available();
+            if (delegate.skip(length) != length) {
+                throw new EOFException("tried to skip: " + length + " bytes but only " + delegate.available() + " remaining");
+            }
+            final ReleasableBytesReference slice = content.retainedSlice(offset, length);
+            sharedSlices.add(slice);
+            return slice;
+        }
+    }
 }
@@ -17,6 +17,7 @@ import org.elasticsearch.action.NotifyOnceListener;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.common.CheckedSupplier;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.stream.ReleasableBytesStreamOutput;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.lease.Releasables;
@@ -140,6 +141,7 @@ final class OutboundHandler {
         private final OutboundMessage message;
         private final BigArrays bigArrays;
         private volatile ReleasableBytesStreamOutput bytesStreamOutput;
+        private volatile Releasable sharedBytesRelease;
 
         private MessageSerializer(OutboundMessage message, BigArrays bigArrays) {
             this.message = message;
@@ -149,12 +151,18 @@ final class OutboundHandler {
         @Override
         public BytesReference get() throws IOException {
             bytesStreamOutput = new ReleasableBytesStreamOutput(bigArrays);
-            return message.serialize(bytesStreamOutput);
+            final BytesReference reference = message.serialize(bytesStreamOutput);
+            if (reference instanceof ReleasableBytesReference) {
+                // the message shares bytes with other messages, which must remain valid until it was sent
+                sharedBytesRelease = (ReleasableBytesReference) reference;
+            }
+            return reference;
         }
 
         @Override
         public void close() {
             IOUtils.closeWhileHandlingException(bytesStreamOutput);
+            Releasables.closeWhileHandlingException(sharedBytesRelease);
         }
     }
 
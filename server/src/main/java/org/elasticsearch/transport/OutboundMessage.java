@@ -11,9 +11,11 @@ import org.elasticsearch.Version;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.bytes.CompositeBytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
 
 import java.io.IOException;
@@ -28,12 +30,17 @@ abstract class OutboundMessage extends NetworkMessage {
         this.message = message;
     }
 
+    /**
+     * Serializes this message into the given stream. If the message shares bytes references that must stay valid until it was sent,
+     * the returned bytes are a {@link ReleasableBytesReference} that releases them when closed.
+     */
     BytesReference serialize(BytesStreamOutput bytesStream) throws IOException {
         bytesStream.setVersion(version);
         bytesStream.skip(TcpHeader.headerSize(version));
 
         // The compressible bytes stream will not close the underlying bytes stream
         BytesReference reference;
+        Releasable sharedBytesRelease;
         int variableHeaderLength = -1;
         final long preHeaderPosition = bytesStream.position();
 
@@ -51,12 +58,13 @@ abstract class OutboundMessage extends NetworkMessage {
                 writeVariableHeader(stream);
             }
             reference = writeMessage(stream);
+            sharedBytesRelease = stream.takeSharedBytesRelease();
         }
 
         bytesStream.seek(0);
         final int contentSize = reference.length() - TcpHeader.headerSize(version);
         TcpHeader.writeHeader(bytesStream, requestId, status, version, contentSize, variableHeaderLength);
-        return reference;
+        return sharedBytesRelease == null ? reference : new ReleasableBytesReference(reference, sharedBytesRelease);
     }
 
     protected void writeVariableHeader(StreamOutput stream) throws IOException {
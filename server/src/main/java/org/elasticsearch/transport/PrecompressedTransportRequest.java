@@ -0,0 +1,23 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.transport;
+
+/**
+ * A transport request whose payload may already be compressed. Compressing such a payload again costs CPU on both ends of the connection
+ * without noticeably reducing the size of the message, so these requests are sent uncompressed even if compression is enabled on the
+ * connection.
+ */
+public interface PrecompressedTransportRequest {
+
+    /**
+     * @return {@code true} if the payload of this request is already compressed and should not be compressed again by the transport
+     */
+    boolean isPrecompressed();
+
+}
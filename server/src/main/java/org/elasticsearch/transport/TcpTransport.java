@@ -256,7 +256,10 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
                 throw new NodeNotConnectedException(node, "connection already closed");
             }
             TcpChannel channel = channel(options.type());
-            outboundHandler.sendRequest(node, channel, requestId, action, request, options, getVersion(), compress, false);
+            final boolean compressRequest = compress
+                && (request instanceof PrecompressedTransportRequest == false
+                    || ((PrecompressedTransportRequest) request).isPrecompressed() == false);
+            outboundHandler.sendRequest(node, channel, requestId, action, request, options, getVersion(), compressRequest, false);
         }
     }
 
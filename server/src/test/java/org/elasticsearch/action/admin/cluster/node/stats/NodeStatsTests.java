@@ -9,6 +9,7 @@
 package org.elasticsearch.action.admin.cluster.node.stats;
 
 import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.service.ClusterApplierRecordingService;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.discovery.DiscoveryStats;
@@ -249,6 +250,7 @@ public class NodeStatsTests extends ESTestCase {
                         assertEquals(queueStats.getTotal(), deserializedDiscoveryStats.getQueueStats().getTotal());
                         assertEquals(queueStats.getPending(), deserializedDiscoveryStats.getQueueStats().getPending());
                     }
+                    assertEquals(discoveryStats.getApplierRecordingStats(), deserializedDiscoveryStats.getApplierRecordingStats());
                 }
                 IngestStats ingestStats = nodeStats.getIngestStats();
                 IngestStats deserializedIngestStats = deserializedNodeStats.getIngestStats();
@@ -455,6 +457,9 @@ public class NodeStatsTests extends ESTestCase {
                     randomNonNegativeLong(),
                     randomNonNegativeLong(),
                     randomNonNegativeLong())
+                : null,
+                randomBoolean()
+                ? randomApplierRecordingStats()
                 : null)
             : null;
         IngestStats ingestStats = null;
@@ -513,4 +518,14 @@ public class NodeStatsTests extends ESTestCase {
     private IngestStats.Stats getPipelineStats(List<IngestStats.PipelineStat> pipelineStats, String id) {
         return pipelineStats.stream().filter(p1 -> p1.getPipelineId().equals(id)).findFirst().map(p2 -> p2.getStats()).orElse(null);
     }
+
+    private static ClusterApplierRecordingService.Stats randomApplierRecordingStats() {
+        int numRecordings = randomIntBetween(0, 5);
+        Map<String, ClusterApplierRecordingService.Recording> recordings = new HashMap<>(numRecordings);
+        for (int i = 0; i < numRecordings; i++) {
+            recordings.put(randomAlphaOfLength(10),
+                new ClusterApplierRecordingService.Recording(randomNonNegativeLong(), randomNonNegativeLong()));
+        }
+        return new ClusterApplierRecordingService.Stats(recordings);
+    }
 }
@@ -12,13 +12,17 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.threadpool.Scheduler;
 import org.elasticsearch.threadpool.TestThreadPool;
@@ -41,6 +45,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 
+import static org.hamcrest.Matchers.greaterThan;
+
 public class BulkProcessorTests extends ESTestCase {
 
     private ThreadPool threadPool;
@@ -315,6 +321,51 @@ public class BulkProcessorTests extends ESTestCase {
         assertTrue(called.get());
     }
 
+    public void testAdaptiveBulkLimits() throws Exception {
+        final AtomicBoolean reject = new AtomicBoolean(true);
+        BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer = (request, listener) -> {
+            final BulkItemResponse[] items = new BulkItemResponse[request.numberOfActions()];
+            for (int i = 0; i < items.length; i++) {
+                if (reject.get()) {
+                    items[i] = new BulkItemResponse(i, DocWriteRequest.OpType.INDEX,
+                        new BulkItemResponse.Failure("index", "_doc", null, new EsRejectedExecutionException("overloaded")));
+                } else {
+                    items[i] = new BulkItemResponse(i, DocWriteRequest.OpType.INDEX,
+                        new IndexResponse(new ShardId("index", "_na_", 0), "_doc", Integer.toString(i), 1, 1, 1, true));
+                }
+            }
+            listener.onResponse(new BulkResponse(items, 1));
+        };
+        BulkProcessor bulkProcessor = new BulkProcessor(consumer, BackoffPolicy.constantBackoff(TimeValue.timeValueMillis(1), 1),
+            emptyListener(), 0, 16, new ByteSizeValue(-1), null, threadPool, threadPool, () -> {}, BulkRequest::new, true);
+        assertEquals(16, bulkProcessor.getBulkActions());
+
+        // the limit is halved when backing off, and once more when the items are still rejected after the retry
+        for (int i = 0; i < 16; i++) {
+            bulkProcessor.add(new IndexRequest("index"));
+        }
+        assertEquals(4, bulkProcessor.getBulkActions());
+        for (int i = 0; i < 4; i++) {
+            bulkProcessor.add(new IndexRequest("index"));
+        }
+        assertEquals(1, bulkProcessor.getBulkActions());
+        assertEquals(-1, bulkProcessor.getBulkSize());
+
+        // bulk requests that go through grow the limit back to the configured one
+        reject.set(false);
+        int bulks = 0;
+        while (bulkProcessor.getBulkActions() < 16) {
+            final int bulkActions = bulkProcessor.getBulkActions();
+            for (int i = 0; i < bulkActions; i++) {
+                bulkProcessor.add(new IndexRequest("index"));
+            }
+            assertThat(bulkProcessor.getBulkActions(), greaterThan(bulkActions));
+            bulks++;
+        }
+        assertEquals(8, bulks);
+        bulkProcessor.close();
+    }
+
     private BulkProcessor.Listener emptyListener() {
         return new BulkProcessor.Listener() {
             @Override
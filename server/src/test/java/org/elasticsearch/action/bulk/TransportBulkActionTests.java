@@ -29,6 +29,7 @@ import org.elasticsearch.cluster.metadata.Metadata;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodeRole;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
@@ -77,9 +78,13 @@ public class TransportBulkActionTests extends ESTestCase {
         boolean indexCreated = false; // set when the "real" index is created
 
         TestTransportBulkAction() {
+            this(new IndexingPressure(Settings.EMPTY));
+        }
+
+        TestTransportBulkAction(IndexingPressure indexingPressure) {
             super(TransportBulkActionTests.this.threadPool, transportService, clusterService, null, null,
                     null, new ActionFilters(Collections.emptySet()), new Resolver(),
-                    new IndexingPressure(Settings.EMPTY), new SystemIndices(emptyMap()));
+                    indexingPressure, new SystemIndices(emptyMap()));
         }
 
         @Override
@@ -274,6 +279,62 @@ public class TransportBulkActionTests extends ESTestCase {
         }
     }
 
+    public void testWaitsForIndexingPressureToDrop() throws Exception {
+        final boolean waitForCapacity = randomBoolean();
+        IndexingPressure indexingPressure = new IndexingPressure(Settings.builder()
+            .put(IndexingPressure.MAX_INDEXING_BYTES.getKey(), "1kb")
+            .put(IndexingPressure.COORDINATING_WAIT_TIMEOUT.getKey(), waitForCapacity ? "30s" : "0s")
+            .build());
+        TestTransportBulkAction action = new TestTransportBulkAction(indexingPressure);
+        BulkRequest bulkRequest = new BulkRequest().add(new DeleteRequest("index", "type", "id"));
+
+        Releasable outstanding = indexingPressure.markCoordinatingOperationStarted(1024, false);
+        PlainActionFuture<BulkResponse> future = PlainActionFuture.newFuture();
+        ActionTestUtils.execute(action, null, bulkRequest, future);
+        if (waitForCapacity) {
+            assertFalse(future.isDone());
+            outstanding.close();
+            assertEquals(1, future.actionGet().getItems().length);
+            assertEquals(0, indexingPressure.stats().getCoordinatingRejections());
+        } else {
+            expectThrows(EsRejectedExecutionException.class, future::actionGet);
+            assertEquals(1, indexingPressure.stats().getCoordinatingRejections());
+            outstanding.close();
+        }
+        assertEquals(0, indexingPressure.stats().getCurrentCoordinatingBytes());
+    }
+
+    public void testRejectsRightAwayIfTooManyBytesAreWaiting() throws Exception {
+        IndexingPressure indexingPressure = new IndexingPressure(Settings.builder()
+            .put(IndexingPressure.MAX_INDEXING_BYTES.getKey(), "1kb")
+            .put(IndexingPressure.COORDINATING_WAIT_TIMEOUT.getKey(), "30s")
+            .build());
+        TestTransportBulkAction action = new TestTransportBulkAction(indexingPressure);
+        BulkRequest bulkRequest = new BulkRequest().add(new DeleteRequest("index", "type", "id"));
+
+        Releasable outstanding = indexingPressure.markCoordinatingOperationStarted(1024, false);
+        // the waiting budget is half the limit
+        Releasable waiting = indexingPressure.tryMarkCoordinatingOperationWaiting(512);
+        assertNotNull(waiting);
+        assertNull(indexingPressure.tryMarkCoordinatingOperationWaiting(1));
+
+        PlainActionFuture<BulkResponse> future = PlainActionFuture.newFuture();
+        ActionTestUtils.execute(action, null, bulkRequest, future);
+        expectThrows(EsRejectedExecutionException.class, future::actionGet);
+        assertEquals(1, indexingPressure.stats().getCoordinatingRejections());
+        assertEquals(512, indexingPressure.getCurrentWaitingCoordinatingBytes());
+
+        waiting.close();
+        future = PlainActionFuture.newFuture();
+        ActionTestUtils.execute(action, null, bulkRequest, future);
+        assertFalse(future.isDone());
+        assertEquals(bulkRequest.ramBytesUsed(), indexingPressure.getCurrentWaitingCoordinatingBytes());
+        outstanding.close();
+        assertEquals(1, future.actionGet().getItems().length);
+        assertEquals(0, indexingPressure.getCurrentWaitingCoordinatingBytes());
+        assertEquals(0, indexingPressure.stats().getCurrentCoordinatingBytes());
+    }
+
     private BulkRequest buildBulkRequest(List<String> indices) {
         BulkRequest request = new BulkRequest();
         for (String index : indices) {
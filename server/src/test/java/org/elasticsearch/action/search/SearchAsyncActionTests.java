@@ -19,6 +19,7 @@ import org.elasticsearch.cluster.routing.UnassignedInfo;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.search.SearchPhaseResult;
@@ -27,6 +28,8 @@ import org.elasticsearch.search.internal.AliasFilter;
 import org.elasticsearch.search.internal.InternalSearchResponse;
 import org.elasticsearch.search.internal.ShardSearchContextId;
 import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.threadpool.TestThreadPool;
+import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.Transport;
 import org.elasticsearch.transport.TransportException;
 import org.elasticsearch.transport.TransportRequest;
@@ -48,6 +51,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
 import static org.elasticsearch.common.util.concurrent.ConcurrentCollections.newConcurrentMap;
 import static org.elasticsearch.common.util.concurrent.ConcurrentCollections.newConcurrentSet;
@@ -367,6 +371,268 @@ public class SearchAsyncActionTests extends ESTestCase {
         executor.shutdown();
     }
 
+    public void testHedgedRequests() throws InterruptedException {
+        SearchRequest request = new SearchRequest();
+        request.allowPartialSearchResults(true);
+        ActionListener<SearchResponse> responseListener = ActionListener.wrap(response -> {},
+            (e) -> { throw new AssertionError("unexpected", e);});
+        DiscoveryNode primaryNode = new DiscoveryNode("node_1", buildNewFakeTransportAddress(), Version.CURRENT);
+        DiscoveryNode replicaNode = new DiscoveryNode("node_2", buildNewFakeTransportAddress(), Version.CURRENT);
+
+        AtomicInteger contextIdGenerator = new AtomicInteger(0);
+        int numShards = randomIntBetween(1, 5);
+        GroupShardsIterator<SearchShardIterator> shardsIter = getShardsIter("idx",
+            new OriginalIndices(new String[]{"idx"}, SearchRequest.DEFAULT_INDICES_OPTIONS),
+            numShards, true, primaryNode, replicaNode);
+        Set<ShardSearchContextId> releasedContexts = newConcurrentSet();
+        SearchTransportService transportService = new SearchTransportService(null, null, null) {
+            @Override
+            public void sendFreeContext(Transport.Connection connection, ShardSearchContextId contextId, OriginalIndices originalIndices) {
+                releasedContexts.add(contextId);
+            }
+        };
+        Map<String, Transport.Connection> lookup = new HashMap<>();
+        lookup.put(primaryNode.getId(), new MockConnection(primaryNode));
+        lookup.put(replicaNode.getId(), new MockConnection(replicaNode));
+        Map<String, AliasFilter> aliasFilters = Collections.singletonMap("_na_", new AliasFilter(null, Strings.EMPTY_ARRAY));
+        Map<ShardId, String> slowNodes = new ConcurrentHashMap<>();
+        Map<ShardId, Runnable> slowResponses = new ConcurrentHashMap<>();
+        Map<ShardId, String> respondingNodes = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        ThreadPool threadPool = new TestThreadPool(getTestName());
+        try {
+            AbstractSearchAsyncAction<TestSearchPhaseResult> asyncAction =
+                new AbstractSearchAsyncAction<TestSearchPhaseResult>(
+                    "test",
+                    logger,
+                    transportService,
+                    (cluster, node) -> {
+                        assert cluster == null : "cluster was not null: " + cluster;
+                        return lookup.get(node); },
+                    aliasFilters,
+                    Collections.emptyMap(),
+                    threadPool.executor(ThreadPool.Names.GENERIC),
+                    request,
+                    responseListener,
+                    shardsIter,
+                    new TransportSearchAction.SearchTimeProvider(0, 0, () -> 0),
+                    ClusterState.EMPTY_STATE,
+                    new SearchTask(0, "n/a", "n/a", () -> "test", null, Collections.emptyMap()),
+                    new ArraySearchPhaseResults<>(shardsIter.size()),
+                    request.getMaxConcurrentShardRequests(),
+                    SearchResponse.Clusters.EMPTY) {
+
+                    @Override
+                    protected void executePhaseOnShard(SearchShardIterator shardIt, SearchShardTarget shard,
+                                                       SearchActionListener<TestSearchPhaseResult> listener) {
+                        Transport.Connection connection = getConnection(null, shard.getNodeId());
+                        TestSearchPhaseResult testSearchPhaseResult = new TestSearchPhaseResult(
+                            new ShardSearchContextId(UUIDs.randomBase64UUID(), contextIdGenerator.incrementAndGet()),
+                            connection.getNode());
+                        // the first copy of each shard hangs, the hedged request to the second copy responds right away
+                        if (slowNodes.putIfAbsent(shard.getShardId(), shard.getNodeId()) == null) {
+                            slowResponses.put(shard.getShardId(), () -> listener.onResponse(testSearchPhaseResult));
+                        } else {
+                            new Thread(() -> listener.onResponse(testSearchPhaseResult)).start();
+                        }
+                    }
+
+                    @Override
+                    protected SearchPhase getNextPhase(SearchPhaseResults<TestSearchPhaseResult> results, SearchPhaseContext context) {
+                        return new SearchPhase("test") {
+                            @Override
+                            public void run() {
+                                for (int i = 0; i < results.getNumShards(); i++) {
+                                    TestSearchPhaseResult result = results.getAtomicArray().get(i);
+                                    respondingNodes.put(result.getSearchShardTarget().getShardId(), result.node.getId());
+                                }
+                                latch.countDown();
+                            }
+                        };
+                    }
+                };
+            asyncAction.enableHedging(threadPool, nodeId -> TimeValue.timeValueMillis(randomIntBetween(1, 10)));
+            asyncAction.start();
+            latch.await();
+            SearchResponse searchResponse = asyncAction.buildSearchResponse(null, asyncAction.buildShardFailures(), null, null);
+            assertEquals(0, searchResponse.getFailedShards());
+            assertEquals(numShards, searchResponse.getSuccessfulShards());
+            assertEquals(numShards, respondingNodes.size());
+            respondingNodes.forEach((shardId, nodeId) -> assertNotEquals(slowNodes.get(shardId), nodeId));
+            assertTrue(releasedContexts.isEmpty());
+
+            // once the slow copies respond their search contexts are released
+            slowResponses.values().forEach(Runnable::run);
+            assertEquals(numShards, releasedContexts.size());
+        } finally {
+            terminate(threadPool);
+        }
+    }
+
+    public void testHedgedRequestRacingWithFirstResponse() throws InterruptedException {
+        DiscoveryNode primaryNode = new DiscoveryNode("node_1", buildNewFakeTransportAddress(), Version.CURRENT);
+        DiscoveryNode replicaNode = new DiscoveryNode("node_2", buildNewFakeTransportAddress(), Version.CURRENT);
+        ThreadPool threadPool = new TestThreadPool(getTestName());
+        try {
+            int iters = scaledRandomIntBetween(10, 50);
+            for (int i = 0; i < iters; i++) {
+                SearchRequest request = new SearchRequest();
+                request.allowPartialSearchResults(true);
+                // a single shard, so that the response of its first copy is the one that completes the phase
+                GroupShardsIterator<SearchShardIterator> shardsIter = getShardsIter("idx",
+                    new OriginalIndices(new String[]{"idx"}, SearchRequest.DEFAULT_INDICES_OPTIONS), 1, true, primaryNode, replicaNode);
+                AtomicReference<Runnable> firstResponse = new AtomicReference<>();
+                AtomicBoolean firstResponded = new AtomicBoolean();
+                Runnable respondFirst = () -> {
+                    if (firstResponded.compareAndSet(false, true)) {
+                        firstResponse.get().run();
+                    }
+                };
+                CountDownLatch latch = new CountDownLatch(1);
+                AbstractSearchAsyncAction<TestSearchPhaseResult> asyncAction = createHedgingAction(request, shardsIter,
+                    threadPool, primaryNode, replicaNode, latch, (shard, respond) -> {
+                        if (firstResponse.compareAndSet(null, respond)) {
+                            if (randomBoolean()) {
+                                // the first copy may respond right before or after the hedged request is sent
+                                int delay = randomIntBetween(0, 2);
+                                new Thread(() -> {
+                                    sleepQuietly(delay);
+                                    respondFirst.run();
+                                }).start();
+                            }
+                        } else {
+                            // the first copy responds once the hedged request took the next copy of the shard
+                            new Thread(() -> {
+                                respondFirst.run();
+                                respond.run();
+                            }).start();
+                        }
+                    });
+                asyncAction.enableHedging(threadPool, nodeId -> TimeValue.timeValueMillis(1));
+                asyncAction.start();
+                assertTrue("search did not complete", latch.await(10, TimeUnit.SECONDS));
+                SearchResponse searchResponse = asyncAction.buildSearchResponse(null, asyncAction.buildShardFailures(), null, null);
+                assertEquals(0, searchResponse.getFailedShards());
+                assertEquals(1, searchResponse.getSuccessfulShards());
+            }
+        } finally {
+            terminate(threadPool);
+        }
+    }
+
+    public void testHedgedRequestsCountAgainstMaxConcurrentShardRequests() throws InterruptedException {
+        SearchRequest request = new SearchRequest();
+        request.allowPartialSearchResults(true);
+        request.setMaxConcurrentShardRequests(1);
+        DiscoveryNode primaryNode = new DiscoveryNode("node_1", buildNewFakeTransportAddress(), Version.CURRENT);
+        DiscoveryNode replicaNode = new DiscoveryNode("node_2", buildNewFakeTransportAddress(), Version.CURRENT);
+        int numShards = randomIntBetween(2, 5);
+        GroupShardsIterator<SearchShardIterator> shardsIter = getShardsIter("idx",
+            new OriginalIndices(new String[]{"idx"}, SearchRequest.DEFAULT_INDICES_OPTIONS), numShards, true, primaryNode, replicaNode);
+        Map<String, AtomicInteger> inFlightRequests = new ConcurrentHashMap<>();
+        Set<ShardId> sentShards = newConcurrentSet();
+        AtomicInteger maxInFlightRequests = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        ThreadPool threadPool = new TestThreadPool(getTestName());
+        try {
+            AbstractSearchAsyncAction<TestSearchPhaseResult> asyncAction = createHedgingAction(request, shardsIter,
+                threadPool, primaryNode, replicaNode, latch, (shard, respond) -> {
+                    AtomicInteger inFlight = inFlightRequests.computeIfAbsent(shard.getNodeId(), n -> new AtomicInteger());
+                    maxInFlightRequests.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    // the first copy of each shard is slow, so that hedged requests are sent
+                    int delay = sentShards.add(shard.getShardId()) ? randomIntBetween(5, 20) : 0;
+                    new Thread(() -> {
+                        sleepQuietly(delay);
+                        inFlight.decrementAndGet();
+                        respond.run();
+                    }).start();
+                });
+            asyncAction.enableHedging(threadPool, nodeId -> TimeValue.timeValueMillis(1));
+            asyncAction.start();
+            assertTrue("search did not complete", latch.await(10, TimeUnit.SECONDS));
+            SearchResponse searchResponse = asyncAction.buildSearchResponse(null, asyncAction.buildShardFailures(), null, null);
+            assertEquals(0, searchResponse.getFailedShards());
+            assertEquals(numShards, searchResponse.getSuccessfulShards());
+            assertEquals(1, maxInFlightRequests.get());
+        } finally {
+            terminate(threadPool);
+        }
+    }
+
+    /**
+     * Creates a search action whose initial phase calls the given consumer with the target of every shard request and a runnable that
+     * sends a successful response for it, and that counts down the given latch once the phase is done.
+     */
+    private AbstractSearchAsyncAction<TestSearchPhaseResult> createHedgingAction(SearchRequest request,
+                                                                                 GroupShardsIterator<SearchShardIterator> shardsIter,
+                                                                                 ThreadPool threadPool,
+                                                                                 DiscoveryNode primaryNode,
+                                                                                 DiscoveryNode replicaNode,
+                                                                                 CountDownLatch latch,
+                                                                                 BiConsumer<SearchShardTarget, Runnable> onShardRequest) {
+        ActionListener<SearchResponse> responseListener = ActionListener.wrap(response -> {},
+            (e) -> { throw new AssertionError("unexpected", e);});
+        AtomicInteger contextIdGenerator = new AtomicInteger(0);
+        SearchTransportService transportService = new SearchTransportService(null, null, null) {
+            @Override
+            public void sendFreeContext(Transport.Connection connection, ShardSearchContextId contextId, OriginalIndices originalIndices) {
+                // the search contexts of the copies that responded last are released, which does not matter here
+            }
+        };
+        Map<String, Transport.Connection> lookup = new HashMap<>();
+        lookup.put(primaryNode.getId(), new MockConnection(primaryNode));
+        lookup.put(replicaNode.getId(), new MockConnection(replicaNode));
+        Map<String, AliasFilter> aliasFilters = Collections.singletonMap("_na_", new AliasFilter(null, Strings.EMPTY_ARRAY));
+        return new AbstractSearchAsyncAction<TestSearchPhaseResult>(
+            "test",
+            logger,
+            transportService,
+            (cluster, node) -> {
+                assert cluster == null : "cluster was not null: " + cluster;
+                return lookup.get(node); },
+            aliasFilters,
+            Collections.emptyMap(),
+            threadPool.executor(ThreadPool.Names.GENERIC),
+            request,
+            responseListener,
+            shardsIter,
+            new TransportSearchAction.SearchTimeProvider(0, 0, () -> 0),
+            ClusterState.EMPTY_STATE,
+            new SearchTask(0, "n/a", "n/a", () -> "test", null, Collections.emptyMap()),
+            new ArraySearchPhaseResults<>(shardsIter.size()),
+            request.getMaxConcurrentShardRequests(),
+            SearchResponse.Clusters.EMPTY) {
+
+            @Override
+            protected void executePhaseOnShard(SearchShardIterator shardIt, SearchShardTarget shard,
+                                               SearchActionListener<TestSearchPhaseResult> listener) {
+                Transport.Connection connection = getConnection(null, shard.getNodeId());
+                TestSearchPhaseResult testSearchPhaseResult = new TestSearchPhaseResult(
+                    new ShardSearchContextId(UUIDs.randomBase64UUID(), contextIdGenerator.incrementAndGet()),
+                    connection.getNode());
+                onShardRequest.accept(shard, () -> listener.onResponse(testSearchPhaseResult));
+            }
+
+            @Override
+            protected SearchPhase getNextPhase(SearchPhaseResults<TestSearchPhaseResult> results, SearchPhaseContext context) {
+                return new SearchPhase("test") {
+                    @Override
+                    public void run() {
+                        latch.countDown();
+                    }
+                };
+            }
+        };
+    }
+
+    private static void sleepQuietly(int millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     public void testFanOutAndFail() throws InterruptedException {
         SearchRequest request = new SearchRequest();
         request.allowPartialSearchResults(true);
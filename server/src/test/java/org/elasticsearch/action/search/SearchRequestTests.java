@@ -42,6 +42,9 @@ public class SearchRequestTests extends AbstractSearchTestCase {
     @Override
     protected SearchRequest createSearchRequest() throws IOException {
         SearchRequest request = super.createSearchRequest();
+        if (randomBoolean()) {
+            request.deadline(TimeValue.timeValueMillis(randomLongBetween(1, 100_000)));
+        }
         if (randomBoolean()) {
             return request;
         }
@@ -96,6 +99,11 @@ public class SearchRequestTests extends AbstractSearchTestCase {
             assertEquals(searchRequest.getAbsoluteStartMillis(), deserializedRequest.getAbsoluteStartMillis());
             assertEquals(searchRequest.isFinalReduce(), deserializedRequest.isFinalReduce());
         }
+        if (version.before(Version.V_7_11_3)) {
+            assertNull(deserializedRequest.deadline());
+        } else {
+            assertEquals(searchRequest.deadline(), deserializedRequest.deadline());
+        }
     }
 
     public void testReadFromPre6_7_0() throws IOException {
@@ -241,6 +249,8 @@ public class SearchRequestTests extends AbstractSearchTestCase {
             () -> randomFrom(SearchType.DFS_QUERY_THEN_FETCH, SearchType.QUERY_THEN_FETCH))));
         mutators.add(() -> mutation.source(randomValueOtherThan(searchRequest.source(), this::createSearchSourceBuilder)));
         mutators.add(() -> mutation.setCcsMinimizeRoundtrips(searchRequest.isCcsMinimizeRoundtrips() == false));
+        mutators.add(() -> mutation.deadline(randomValueOtherThan(searchRequest.deadline(),
+            () -> TimeValue.timeValueMillis(randomLongBetween(1, 100_000)))));
         randomFrom(mutators).run();
         return mutation;
     }
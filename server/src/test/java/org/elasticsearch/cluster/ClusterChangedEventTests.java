@@ -214,6 +214,45 @@ public class ClusterChangedEventTests extends ESTestCase {
         assertTrue("index routing table should not be the same object", event.indexRoutingTableChanged(initialIndices.get(0).getName()));
     }
 
+    /**
+     * Test the per-index routing table and index metadata change sets.
+     */
+    public void testIndicesWithChangedRoutingAndMetadata() {
+        final int numNodesInCluster = 3;
+        final ClusterState originalState = createState(numNodesInCluster, randomBoolean(), initialIndices);
+
+        ClusterChangedEvent event = new ClusterChangedEvent("_na_", ClusterState.builder(originalState).build(), originalState);
+        assertThat(event.indicesWithChangedRouting(), equalTo(Collections.emptySet()));
+        assertThat(event.indicesWithChangedMetadata(), equalTo(Collections.emptySet()));
+
+        final Index idx1 = initialIndices.get(0);
+        final Index idx2 = initialIndices.get(1);
+        final Index idx3 = initialIndices.get(2);
+        final Index idx4 = new Index("idx4", UUIDs.randomBase64UUID());
+        final IndexMetadata idx1Metadata = originalState.metadata().index(idx1);
+        final IndexMetadata idx4Metadata = createIndexMetadata(idx4);
+        final Metadata metadata = Metadata.builder(originalState.metadata())
+            .put(createIndexMetadata(idx1, idx1Metadata.getVersion() + 1), true)
+            .remove(idx3.getName())
+            .put(idx4Metadata, true)
+            .build();
+        final RoutingTable routingTable = RoutingTable.builder(originalState.routingTable())
+            .remove(idx2.getName())
+            .addAsNew(originalState.metadata().index(idx2))
+            .remove(idx3.getName())
+            .addAsNew(idx4Metadata)
+            .build();
+        final ClusterState newState = ClusterState.builder(originalState).metadata(metadata).routingTable(routingTable).build();
+
+        event = new ClusterChangedEvent("_na_", newState, originalState);
+        assertThat(event.indicesWithChangedRouting(),
+            equalTo(new HashSet<>(Arrays.asList(idx2.getName(), idx3.getName(), idx4.getName()))));
+        assertThat(event.indicesWithChangedMetadata(), equalTo(new HashSet<>(Arrays.asList(idx1.getName(), idx4.getName()))));
+        // the sets are computed once
+        assertSame(event.indicesWithChangedRouting(), event.indicesWithChangedRouting());
+        assertSame(event.indicesWithChangedMetadata(), event.indicesWithChangedMetadata());
+    }
+
     /**
      * Test custom metadata change checks
      */
@@ -136,6 +136,36 @@ public class IndexMetadataTests extends ESTestCase {
         }
     }
 
+    public void testDiffSerialization() throws IOException {
+        final IndexMetadata before = IndexMetadata.builder("foo")
+            .settings(Settings.builder()
+                .put("index.version.created", 1)
+                .put("index.number_of_shards", 1)
+                .put("index.number_of_replicas", 1)
+                .build())
+            .primaryTerm(0, 1)
+            .build();
+        final boolean changeSettings = randomBoolean();
+        final IndexMetadata.Builder afterBuilder = IndexMetadata.builder(before).version(before.getVersion() + 1).primaryTerm(0, 2);
+        if (changeSettings) {
+            afterBuilder.settings(Settings.builder().put(before.getSettings()).put("index.number_of_replicas", 2))
+                .settingsVersion(before.getSettingsVersion() + 1);
+        }
+        final IndexMetadata after = afterBuilder.build();
+
+        final BytesStreamOutput out = new BytesStreamOutput();
+        out.setVersion(randomFrom(Version.CURRENT, Version.V_7_10_0));
+        after.diff(before).writeTo(out);
+        try (StreamInput in = new NamedWriteableAwareStreamInput(out.bytes().streamInput(), writableRegistry())) {
+            in.setVersion(out.getVersion());
+            final IndexMetadata applied = IndexMetadata.readDiffFrom(in).apply(before);
+            assertEquals(after, applied);
+            assertEquals(after.getSettings(), applied.getSettings());
+            assertEquals(changeSettings ? 2 : 1, applied.getNumberOfReplicas());
+            assertEquals(2, applied.primaryTerm(0));
+        }
+    }
+
     public void testGetRoutingFactor() {
         Integer numShard = randomFrom(1, 2, 4, 8, 16);
         int routingFactor = IndexMetadata.getRoutingFactor(32, numShard);
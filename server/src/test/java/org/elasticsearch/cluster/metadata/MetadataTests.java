@@ -8,6 +8,8 @@
 
 package org.elasticsearch.cluster.metadata;
 
+import com.carrotsearch.hppc.cursors.ObjectCursor;
+
 import org.elasticsearch.Version;
 import org.elasticsearch.action.admin.indices.alias.get.GetAliasesRequest;
 import org.elasticsearch.cluster.ClusterModule;
@@ -53,6 +55,7 @@ import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.Matchers.startsWith;
 
 public class MetadataTests extends ESTestCase {
@@ -591,6 +594,65 @@ public class MetadataTests extends ESTestCase {
         }
     }
 
+    public void testMappingsAreSharedBetweenIndices() throws IOException {
+        final Settings.Builder settings = Settings.builder().put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT)
+            .put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1).put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, 0);
+        final Metadata.Builder builder = Metadata.builder();
+        final int numberOfIndices = randomIntBetween(2, 10);
+        for (int i = 0; i < numberOfIndices; i++) {
+            // every index gets its own, equal, mapping instance
+            builder.put(IndexMetadata.builder("index" + i).settings(settings).putMapping("_doc", FIND_MAPPINGS_TEST_ITEM));
+        }
+        builder.put(IndexMetadata.builder("other").settings(settings)
+            .putMapping("_doc", "{\"_doc\":{\"properties\":{\"field\":{\"type\":\"keyword\"}}}}"));
+        final Metadata metadata = builder.build();
+
+        assertThat(metadata.getMappingsByHash().size(), equalTo(2));
+        final MappingMetadata shared = metadata.index("index0").mapping();
+        for (int i = 0; i < numberOfIndices; i++) {
+            assertSame(shared, metadata.index("index" + i).mapping());
+        }
+        assertNotSame(shared, metadata.index("other").mapping());
+
+        final Metadata updated = Metadata.builder(metadata)
+            .put(IndexMetadata.builder("new").settings(settings).putMapping("_doc", FIND_MAPPINGS_TEST_ITEM))
+            .remove("other")
+            .build();
+        assertThat(updated.getMappingsByHash().size(), equalTo(1));
+        assertSame(shared, updated.index("new").mapping());
+        for (int i = 0; i < numberOfIndices; i++) {
+            assertSame(metadata.index("index" + i), updated.index("index" + i));
+        }
+
+        // indices that already share their mapping are kept even if the builder does not know which instance was shared before
+        final Metadata.Builder rebuilder = Metadata.builder();
+        final List<IndexMetadata> shuffledIndices = new ArrayList<>();
+        for (ObjectCursor<IndexMetadata> cursor : updated.indices().values()) {
+            shuffledIndices.add(cursor.value);
+        }
+        shuffledIndices.add(IndexMetadata.builder("another").settings(settings).putMapping("_doc", FIND_MAPPINGS_TEST_ITEM).build());
+        Collections.shuffle(shuffledIndices, random());
+        for (IndexMetadata indexMetadata : shuffledIndices) {
+            rebuilder.put(indexMetadata, false);
+        }
+        final Metadata rebuilt = rebuilder.build();
+        for (int i = 0; i < numberOfIndices; i++) {
+            assertSame(updated.index("index" + i), rebuilt.index("index" + i));
+        }
+        assertSame(shared, rebuilt.index("another").mapping());
+
+        final BytesStreamOutput out = new BytesStreamOutput();
+        updated.writeTo(out);
+        final Metadata fromStream = Metadata.readFrom(new NamedWriteableAwareStreamInput(out.bytes().streamInput(),
+            new NamedWriteableRegistry(ClusterModule.getNamedWriteables())));
+        assertThat(fromStream.getMappingsByHash().size(), equalTo(1));
+        for (ObjectCursor<IndexMetadata> cursor : updated.indices().values()) {
+            final IndexMetadata fromStreamIndex = fromStream.index(cursor.value.getIndex());
+            assertEquals(cursor.value.mapping(), fromStreamIndex.mapping());
+            assertSame(fromStream.index("new").mapping(), fromStreamIndex.mapping());
+        }
+    }
+
     public void testFindMappingsNoOpFilters() throws IOException {
         MappingMetadata originalMappingMetadata = new MappingMetadata("_doc",
                 XContentHelper.convertToMap(JsonXContent.jsonXContent, FIND_MAPPINGS_TEST_ITEM, true));
@@ -1133,6 +1195,19 @@ public class MetadataTests extends ESTestCase {
         }
     }
 
+    public void testReversedIndicesLookup() {
+        final String dataStreamName = "my-data-stream";
+        CreateIndexResult result = createIndices(randomIntBetween(2, 5), randomIntBetween(2, 5), dataStreamName);
+
+        SortedMap<String, IndexAbstraction> indicesLookup = result.metadata.getIndicesLookup();
+        SortedMap<String, IndexAbstraction> reversedIndicesLookup = result.metadata.getReversedIndicesLookup();
+        assertThat(reversedIndicesLookup.size(), equalTo(indicesLookup.size()));
+        for (IndexAbstraction indexAbstraction : indicesLookup.values()) {
+            String reversedName = new StringBuilder(indexAbstraction.getName()).reverse().toString();
+            assertThat(reversedIndicesLookup.get(reversedName), sameInstance(indexAbstraction));
+        }
+    }
+
     public void testSerialization() throws IOException {
         final Metadata orig = randomMetadata();
         final BytesStreamOutput out = new BytesStreamOutput();
@@ -13,13 +13,17 @@ import org.elasticsearch.action.support.IndicesOptions;
 import org.elasticsearch.cluster.ClusterName;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.metadata.IndexMetadata.State;
+import org.elasticsearch.common.regex.Regex;
 import org.elasticsearch.index.IndexNotFoundException;
 import org.elasticsearch.test.ESTestCase;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.elasticsearch.cluster.DataStreamTestHelper.createBackingIndex;
 import static org.elasticsearch.cluster.DataStreamTestHelper.createTimestampField;
@@ -124,6 +128,61 @@ public class WildcardExpressionResolverTests extends ESTestCase {
         assertThat(newHashSet(resolver.resolve(context, Collections.singletonList("*Y*X"))).size(), equalTo(0));
     }
 
+    public void testPrefixAndSuffixWildcards() {
+        Metadata.Builder mdBuilder = Metadata.builder()
+            .put(indexBuilder("logs-web-01").putAlias(AliasMetadata.builder("web-logs")))
+            .put(indexBuilder("logs-db-01"))
+            .put(indexBuilder("metrics-web-01"))
+            .put(indexBuilder("metrics-db-02"));
+        ClusterState state = ClusterState.builder(new ClusterName("_name")).metadata(mdBuilder).build();
+        IndexNameExpressionResolver.WildcardExpressionResolver resolver = new IndexNameExpressionResolver.WildcardExpressionResolver();
+
+        IndexNameExpressionResolver.Context context =
+            new IndexNameExpressionResolver.Context(state, IndicesOptions.lenientExpandOpen(), false);
+        assertThat(newHashSet(resolver.resolve(context, Collections.singletonList("*-01"))),
+            equalTo(newHashSet("logs-web-01", "logs-db-01", "metrics-web-01")));
+        assertThat(newHashSet(resolver.resolve(context, Collections.singletonList("*web-01"))),
+            equalTo(newHashSet("logs-web-01", "metrics-web-01")));
+        assertThat(newHashSet(resolver.resolve(context, Collections.singletonList("m*-01"))), equalTo(newHashSet("metrics-web-01")));
+        assertThat(newHashSet(resolver.resolve(context, Collections.singletonList("*-logs"))), equalTo(newHashSet("logs-web-01")));
+        assertThat(newHashSet(resolver.resolve(context, Collections.singletonList("*s-*-02"))), equalTo(newHashSet("metrics-db-02")));
+        assertThat(newHashSet(resolver.resolve(context, Collections.singletonList("*-03"))).size(), equalTo(0));
+
+        context = new IndexNameExpressionResolver.Context(state, IndicesOptions.lenientExpandOpen(), true, false, false, false);
+        assertThat(newHashSet(resolver.resolve(context, Collections.singletonList("*-logs"))), equalTo(newHashSet("web-logs")));
+    }
+
+    public void testWildcardsMatchSameNamesAsSimpleMatch() {
+        Metadata.Builder mdBuilder = Metadata.builder();
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            String name = randomAlphaOfLengthBetween(1, 6).toLowerCase(Locale.ROOT).replaceAll("[^abc]", "b");
+            if (names.add(name)) {
+                mdBuilder.put(indexBuilder(name));
+            }
+        }
+        ClusterState state = ClusterState.builder(new ClusterName("_name")).metadata(mdBuilder).build();
+        IndexNameExpressionResolver.WildcardExpressionResolver resolver = new IndexNameExpressionResolver.WildcardExpressionResolver();
+        IndexNameExpressionResolver.Context context =
+            new IndexNameExpressionResolver.Context(state, IndicesOptions.lenientExpandOpen(), false);
+
+        for (int i = 0; i < 100; i++) {
+            StringBuilder pattern = new StringBuilder();
+            int wildcard = randomIntBetween(0, 3);
+            for (int j = 0; j < 4; j++) {
+                if (j == wildcard) {
+                    pattern.append('*');
+                }
+                if (randomBoolean()) {
+                    pattern.append(randomFrom('a', 'b', 'c', '*'));
+                }
+            }
+            Set<String> expected = names.stream().filter(name -> Regex.simpleMatch(pattern.toString(), name)).collect(Collectors.toSet());
+            assertThat(pattern.toString(), newHashSet(resolver.resolve(context, Collections.singletonList(pattern.toString()))),
+                equalTo(expected));
+        }
+    }
+
     public void testAll() {
         Metadata.Builder mdBuilder = Metadata.builder()
             .put(indexBuilder("testXXX"))
@@ -0,0 +1,191 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.cluster.routing.allocation.allocator;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.ESAllocationTestCase;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.elasticsearch.cluster.node.DiscoveryNodes;
+import org.elasticsearch.cluster.routing.RoutingTable;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.cluster.routing.UnassignedInfo;
+import org.elasticsearch.cluster.routing.allocation.AllocationService;
+import org.elasticsearch.cluster.routing.allocation.decider.ClusterRebalanceAllocationDecider;
+import org.elasticsearch.cluster.routing.allocation.decider.ConcurrentRebalanceAllocationDecider;
+import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.test.MockLogAppender;
+import org.elasticsearch.test.junit.annotations.TestLogging;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.elasticsearch.cluster.routing.ShardRoutingState.INITIALIZING;
+import static org.elasticsearch.cluster.routing.ShardRoutingState.RELOCATING;
+import static org.hamcrest.Matchers.equalTo;
+
+public class BalancedShardsAllocatorTests extends ESAllocationTestCase {
+
+    public void testIncrementalModeAllocatesLikeDefaultMode() {
+        final Settings.Builder settings = Settings.builder()
+            .put(BalancedShardsAllocator.INDEX_BALANCE_FACTOR_SETTING.getKey(), 0.1f + randomFloat())
+            .put(BalancedShardsAllocator.SHARD_BALANCE_FACTOR_SETTING.getKey(), 0.1f + randomFloat())
+            .put(BalancedShardsAllocator.THRESHOLD_SETTING.getKey(), 1.0f + randomFloat())
+            .put(ConcurrentRebalanceAllocationDecider.CLUSTER_ROUTING_ALLOCATION_CLUSTER_CONCURRENT_REBALANCE_SETTING.getKey(),
+                between(1, 5))
+            .put(ClusterRebalanceAllocationDecider.CLUSTER_ROUTING_ALLOCATION_ALLOW_REBALANCE_SETTING.getKey(),
+                randomFrom(ClusterRebalanceAllocationDecider.ClusterRebalanceType.values()).toString());
+        final AllocationService defaultService =
+            createAllocationService(settings.put(BalancedShardsAllocator.INCREMENTAL_SETTING.getKey(), false).build());
+        final AllocationService incrementalService =
+            createAllocationService(settings.put(BalancedShardsAllocator.INCREMENTAL_SETTING.getKey(), true).build());
+
+        ClusterState clusterState = ClusterState.builder(ClusterName.CLUSTER_NAME_SETTING.getDefault(Settings.EMPTY))
+            .nodes(DiscoveryNodes.builder()).build();
+        int nodeIds = 0;
+        int indexIds = 0;
+        for (int i = between(1, 10); i > 0; i--) {
+            clusterState = addNode(clusterState, "node" + nodeIds++);
+        }
+        for (int i = between(1, 10); i > 0; i--) {
+            clusterState = addIndex(clusterState, "index" + indexIds++);
+        }
+        final ClusterState initialState = clusterState;
+        clusterState = assertSameAllocation(defaultService, incrementalService, service -> service.reroute(initialState, "initial"));
+
+        for (int round = between(10, 30); round > 0; round--) {
+            final ClusterState currentState = clusterState;
+            switch (between(0, 4)) {
+                case 0:
+                case 1:
+                    final List<ShardRouting> initializingShards = currentState.routingTable().shardsWithState(INITIALIZING);
+                    clusterState = assertSameAllocation(defaultService, incrementalService,
+                        service -> service.applyStartedShards(currentState, initializingShards));
+                    break;
+                case 2:
+                    // the balancer breaks ties between equally heavy nodes alike in both modes as long as it sorts fewer nodes than
+                    // the threshold below which sorting the nodes is stable
+                    if (currentState.nodes().getSize() < 15) {
+                        final ClusterState withNode = addNode(currentState, "node" + nodeIds++);
+                        clusterState = assertSameAllocation(defaultService, incrementalService,
+                            service -> service.reroute(withNode, "node added"));
+                    }
+                    break;
+                case 3:
+                    if (currentState.nodes().getSize() > 1) {
+                        final String nodeId = randomFrom(currentState.nodes().getDataNodes().keys().toArray(String.class));
+                        final ClusterState withoutNode = ClusterState.builder(currentState)
+                            .nodes(DiscoveryNodes.builder(currentState.nodes()).remove(nodeId)).build();
+                        clusterState = assertSameAllocation(defaultService, incrementalService,
+                            service -> service.disassociateDeadNodes(withoutNode, true, "node left"));
+                    }
+                    break;
+                case 4:
+                    final ClusterState withIndex = addIndex(currentState, "index" + indexIds++);
+                    clusterState = assertSameAllocation(defaultService, incrementalService,
+                        service -> service.reroute(withIndex, "index added"));
+                    break;
+                default:
+                    throw new AssertionError("unexpected action");
+            }
+        }
+    }
+
+    @TestLogging(value = "org.elasticsearch.cluster.routing.allocation.allocator.BalancedShardsAllocator:TRACE",
+        reason = "checks that balancing stops once no shards can be rebalanced any more")
+    public void testIncrementalModeStopsBalancingOnceNoShardsCanBeRebalanced() throws IllegalAccessException {
+        final int concurrentRebalances = between(1, 3);
+        final Settings.Builder settings = Settings.builder()
+            .put(ConcurrentRebalanceAllocationDecider.CLUSTER_ROUTING_ALLOCATION_CLUSTER_CONCURRENT_REBALANCE_SETTING.getKey(),
+                concurrentRebalances);
+        final AllocationService defaultService =
+            createAllocationService(settings.put(BalancedShardsAllocator.INCREMENTAL_SETTING.getKey(), false).build());
+        final AllocationService incrementalService =
+            createAllocationService(settings.put(BalancedShardsAllocator.INCREMENTAL_SETTING.getKey(), true).build());
+
+        // all shards start on two nodes, then two empty nodes join so that many more shards would have to move than are allowed to
+        ClusterState clusterState = ClusterState.builder(ClusterName.CLUSTER_NAME_SETTING.getDefault(Settings.EMPTY))
+            .nodes(DiscoveryNodes.builder()).build();
+        clusterState = addNode(addNode(clusterState, "node0"), "node1");
+        for (int i = 0; i < 5; i++) {
+            clusterState = addIndex(clusterState, "index" + i, 4, 0);
+        }
+        clusterState = applyStartedShardsUntilNoChange(defaultService.reroute(clusterState, "initial"), defaultService);
+        assertThat(clusterState.routingTable().shardsWithState(INITIALIZING).size(), equalTo(0));
+        final ClusterState withNodes = addNode(addNode(clusterState, "node2"), "node3");
+
+        final Logger balancerLogger = LogManager.getLogger(BalancedShardsAllocator.class);
+        final MockLogAppender mockAppender = new MockLogAppender();
+        mockAppender.start();
+        mockAppender.addExpectation(new MockLogAppender.SeenEventExpectation(
+            "stops balancing",
+            BalancedShardsAllocator.class.getCanonicalName(),
+            Level.TRACE,
+            "Stop balancing as no further shards can be rebalanced in this round"));
+        Loggers.addAppender(balancerLogger, mockAppender);
+        final ClusterState rebalanced;
+        try {
+            rebalanced = incrementalService.reroute(withNodes, "nodes added");
+            mockAppender.assertAllExpectationsMatched();
+        } finally {
+            Loggers.removeAppender(balancerLogger, mockAppender);
+            mockAppender.stop();
+        }
+
+        assertThat(rebalanced.routingTable().shardsWithState(RELOCATING).size(), equalTo(concurrentRebalances));
+        assertThat(allocation(rebalanced), equalTo(allocation(defaultService.reroute(withNodes, "nodes added"))));
+    }
+
+    /**
+     * Applies the given change to the cluster state with the balancer in both its default and its incremental mode, checks that the
+     * shards end up in the same places, and returns the cluster state of the default mode.
+     */
+    private static ClusterState assertSameAllocation(AllocationService defaultService, AllocationService incrementalService,
+                                                     Function<AllocationService, ClusterState> change) {
+        final ClusterState defaultState = change.apply(defaultService);
+        assertThat(allocation(change.apply(incrementalService)), equalTo(allocation(defaultState)));
+        return defaultState;
+    }
+
+    /**
+     * Describes where each shard is allocated, leaving out the allocation ids which are random.
+     */
+    private static List<String> allocation(ClusterState clusterState) {
+        return clusterState.routingTable().allShards().stream()
+            .map(shard -> shard.shardId() + (shard.primary() ? "[P]" : "[R]") + "[" + shard.state() + "][" + shard.currentNodeId()
+                + "][" + shard.relocatingNodeId() + "]")
+            .sorted()
+            .collect(Collectors.toList());
+    }
+
+    private static ClusterState addNode(ClusterState clusterState, String nodeId) {
+        return ClusterState.builder(clusterState).nodes(DiscoveryNodes.builder(clusterState.nodes()).add(newNode(nodeId))).build();
+    }
+
+    private static ClusterState addIndex(ClusterState clusterState, String index) {
+        return addIndex(clusterState, index, between(1, 5), between(0, 2));
+    }
+
+    private static ClusterState addIndex(ClusterState clusterState, String index, int shards, int replicas) {
+        final IndexMetadata indexMetadata = IndexMetadata.builder(index)
+            .settings(settings(Version.CURRENT).put(UnassignedInfo.INDEX_DELAYED_NODE_LEFT_TIMEOUT_SETTING.getKey(), "0s"))
+            .numberOfShards(shards).numberOfReplicas(replicas).build();
+        return ClusterState.builder(clusterState)
+            .metadata(Metadata.builder(clusterState.metadata()).put(indexMetadata, false))
+            .routingTable(RoutingTable.builder(clusterState.routingTable()).addAsNew(indexMetadata).build())
+            .build();
+    }
+}
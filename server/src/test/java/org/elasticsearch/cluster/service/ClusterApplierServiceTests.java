@@ -14,6 +14,8 @@ import org.apache.logging.log4j.Logger;
 import org.elasticsearch.Version;
 import org.elasticsearch.cluster.ClusterName;
 import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.ClusterStateApplier;
+import org.elasticsearch.cluster.ClusterStateListener;
 import org.elasticsearch.cluster.ClusterStateObserver;
 import org.elasticsearch.cluster.LocalNodeMasterListener;
 import org.elasticsearch.cluster.block.ClusterBlocks;
@@ -434,6 +436,42 @@ public class ClusterApplierServiceTests extends ESTestCase {
         assertTrue(applierCalled.get());
     }
 
+    public void testRecordsTimeSpentInAppliersAndListeners() throws InterruptedException {
+        final ClusterStateApplier applier = event -> {};
+        final ClusterStateListener listener = event -> {};
+        clusterApplierService.addStateApplier(applier);
+        clusterApplierService.addListener(listener);
+
+        final int numUpdates = randomIntBetween(1, 5);
+        for (int i = 0; i < numUpdates; i++) {
+            CountDownLatch latch = new CountDownLatch(1);
+            clusterApplierService.onNewClusterState("test", () -> ClusterState.builder(clusterApplierService.state()).build(),
+                new ClusterApplyListener() {
+
+                    @Override
+                    public void onSuccess(String source) {
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onFailure(String source, Exception e) {
+                        throw new AssertionError(e);
+                    }
+                }
+            );
+            latch.await();
+        }
+
+        final Map<String, ClusterApplierRecordingService.Recording> recordings = clusterApplierService.getStats().getRecordings();
+        for (Object recorded : new Object[] { applier, listener }) {
+            final ClusterApplierRecordingService.Recording recording =
+                recordings.get(ClusterApplierRecordingService.recordingName(recorded));
+            assertNotNull(recording);
+            assertThat(recording.getCount(), is((long) numUpdates));
+        }
+        assertThat(recordings.get("connecting to new nodes").getCount(), is((long) numUpdates));
+    }
+
     public void testClusterStateApplierCanCreateAnObserver() throws InterruptedException {
         AtomicReference<Throwable> error = new AtomicReference<>();
         AtomicBoolean applierCalled = new AtomicBoolean();
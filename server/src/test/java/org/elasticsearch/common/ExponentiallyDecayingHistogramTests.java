@@ -0,0 +1,75 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.common;
+
+import org.elasticsearch.test.ESTestCase;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+
+public class ExponentiallyDecayingHistogramTests extends ESTestCase {
+
+    public void testEmpty() {
+        final ExponentiallyDecayingHistogram histogram = new ExponentiallyDecayingHistogram(0.1, 1);
+        assertThat(histogram.getCount(), equalTo(0L));
+        assertThat(histogram.getPercentile(50), equalTo(0.0));
+    }
+
+    public void testPercentilesAreWithinBucketError() {
+        final ExponentiallyDecayingHistogram histogram = new ExponentiallyDecayingHistogram(0.001, 1);
+        for (int i = 1; i <= 1000; i++) {
+            histogram.addValue(i);
+        }
+        assertThat(histogram.getCount(), equalTo(1000L));
+        // newer (larger) values carry slightly more weight, and percentiles are reported as bucket upper bounds
+        assertThat(histogram.getPercentile(50), greaterThanOrEqualTo(500.0));
+        assertThat(histogram.getPercentile(50), lessThan(500.0 * 1.5));
+        assertThat(histogram.getPercentile(99), greaterThanOrEqualTo(990.0));
+        assertThat(histogram.getPercentile(99), lessThan(990.0 * 1.2));
+    }
+
+    public void testTailFollowsRecentValues() {
+        final ExponentiallyDecayingHistogram histogram = new ExponentiallyDecayingHistogram(0.05, 1000);
+        for (int i = 0; i < 100; i++) {
+            histogram.addValue(1_000_000);
+        }
+        assertThat(histogram.getPercentile(99), lessThan(2_000_000.0));
+        // a burst of slow responses shows up in the tail right away
+        for (int i = 0; i < 5; i++) {
+            histogram.addValue(500_000_000);
+        }
+        assertThat(histogram.getPercentile(99), greaterThanOrEqualTo(500_000_000.0));
+        // and is forgotten again once responses are fast
+        for (int i = 0; i < 200; i++) {
+            histogram.addValue(1_000_000);
+        }
+        assertThat(histogram.getPercentile(99), lessThan(2_000_000.0));
+    }
+
+    public void testRescalingKeepsPercentiles() {
+        final ExponentiallyDecayingHistogram histogram = new ExponentiallyDecayingHistogram(0.5, 1);
+        // with alpha 0.5 weights double with every value and need to be rescaled regularly
+        for (int i = 0; i < 10_000; i++) {
+            histogram.addValue(randomBoolean() ? 10 : 20);
+        }
+        histogram.addValue(1000);
+        assertThat(histogram.getPercentile(100), greaterThanOrEqualTo(1000.0));
+        assertThat(histogram.getPercentile(0), lessThan(30.0));
+    }
+
+    public void testInvalidArguments() {
+        IllegalArgumentException ex = expectThrows(IllegalArgumentException.class, () -> new ExponentiallyDecayingHistogram(0, 1));
+        assertThat(ex.getMessage(), equalTo("alpha must be greater than 0 and less than 1"));
+        ex = expectThrows(IllegalArgumentException.class, () -> new ExponentiallyDecayingHistogram(0.5, 0));
+        assertThat(ex.getMessage(), equalTo("unit must be greater than 0"));
+        ex = expectThrows(IllegalArgumentException.class, () -> new ExponentiallyDecayingHistogram(0.5, 1).getPercentile(101));
+        assertThat(ex.getMessage(), equalTo("percentile must be between 0 and 100 but was [101.0]"));
+    }
+}
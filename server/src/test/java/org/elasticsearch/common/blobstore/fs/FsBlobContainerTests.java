@@ -11,6 +11,8 @@ import org.apache.lucene.mockfile.FilterFileSystemProvider;
 import org.apache.lucene.mockfile.FilterSeekableByteChannel;
 import org.apache.lucene.util.LuceneTestCase;
 import org.elasticsearch.common.blobstore.BlobPath;
+import org.elasticsearch.common.blobstore.MultipartUpload;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.PathUtils;
 import org.elasticsearch.common.io.PathUtilsForTesting;
 import org.elasticsearch.common.io.Streams;
@@ -19,23 +21,33 @@ import org.elasticsearch.test.ESTestCase;
 import org.junit.After;
 import org.junit.Before;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.SeekableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.spi.FileSystemProvider;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.startsWith;
@@ -91,6 +103,77 @@ public class FsBlobContainerTests extends ESTestCase {
         assertThat(FsBlobContainer.isTempBlobName(tempBlobName), is(true));
     }
 
+    public void testMultipartUpload() throws Exception {
+        final String blobName = randomAlphaOfLengthBetween(1, 20).toLowerCase(Locale.ROOT);
+        final byte[] blobData = randomByteArrayOfLength(randomIntBetween(1, frequently() ? 512 : 1 << 20)); // rarely up to 1mb
+
+        final Path path = PathUtils.get(createTempDir().toString());
+        final FsBlobContainer container =
+            new FsBlobContainer(new FsBlobStore(randomIntBetween(1, 8) * 1024, path, false), BlobPath.cleanPath(), path);
+        assertThat(container.supportsMultipartUpload(), is(true));
+
+        final int partSize = randomIntBetween(1, blobData.length);
+        final int numberOfParts = (blobData.length + partSize - 1) / partSize;
+        final MultipartUpload upload = container.startMultipartUpload(blobName, blobData.length, true);
+        // parts are written concurrently and in any order
+        final Thread[] threads = new Thread[numberOfParts];
+        final List<Exception> failures = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < numberOfParts; i++) {
+            final int part = i;
+            final int position = part * partSize;
+            final int length = Math.min(partSize, blobData.length - position);
+            threads[i] = new Thread(() -> {
+                try {
+                    upload.writePart(part, position, new ByteArrayInputStream(blobData, position, length), length);
+                } catch (Exception e) {
+                    failures.add(e);
+                }
+            });
+        }
+        Collections.shuffle(Arrays.asList(threads), random());
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(failures, empty());
+        assertThat(container.blobExists(blobName), is(false));
+
+        upload.complete();
+        assertThat(container.listBlobs().keySet(), contains(blobName));
+        try (InputStream stream = container.readBlob(blobName)) {
+            assertArrayEquals(blobData, BytesReference.toBytes(Streams.readFully(stream)));
+        }
+
+        final MultipartUpload existing = container.startMultipartUpload(blobName, blobData.length, true);
+        existing.writePart(0, 0L, new ByteArrayInputStream(blobData), blobData.length);
+        expectThrows(FileAlreadyExistsException.class, existing::complete);
+        assertThat(container.listBlobs().keySet(), contains(blobName));
+    }
+
+    public void testAbortMultipartUpload() throws IOException {
+        final String blobName = randomAlphaOfLengthBetween(1, 20).toLowerCase(Locale.ROOT);
+        final byte[] blobData = randomByteArrayOfLength(randomIntBetween(2, 512));
+
+        final Path path = PathUtils.get(createTempDir().toString());
+        final FsBlobContainer container =
+            new FsBlobContainer(new FsBlobStore(randomIntBetween(1, 8) * 1024, path, false), BlobPath.cleanPath(), path);
+
+        final MultipartUpload upload = container.startMultipartUpload(blobName, blobData.length, false);
+        upload.writePart(0, 0L, new ByteArrayInputStream(blobData), blobData.length - 1);
+        expectThrows(EOFException.class, () -> upload.writePart(1, blobData.length - 1, new ByteArrayInputStream(new byte[0]), 1L));
+        expectThrows(IllegalArgumentException.class,
+            () -> upload.writePart(1, blobData.length - 1, new ByteArrayInputStream(blobData), blobData.length));
+        upload.abort();
+        upload.abort();
+        assertThat(container.listBlobs().isEmpty(), is(true));
+        expectThrows(IllegalStateException.class, upload::complete);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(path)) {
+            assertThat(files.iterator().hasNext(), is(false));
+        }
+    }
+
     static class MockFileSystemProvider extends FilterFileSystemProvider {
 
         final Consumer<Long> onRead;
@@ -10,6 +10,8 @@ package org.elasticsearch.common.compress;
 
 import org.apache.lucene.util.LineFileDocs;
 import org.apache.lucene.util.TestUtil;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.core.internal.io.Streams;
 import org.elasticsearch.test.ESTestCase;
 
 import java.io.ByteArrayInputStream;
@@ -20,6 +22,7 @@ import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Random;
 import java.util.concurrent.CountDownLatch;
+import java.util.zip.Deflater;
 
 /**
  * Test streaming compression (e.g. used for recovery)
@@ -370,6 +373,20 @@ public class DeflateCompressTests extends ESTestCase {
         }
     }
 
+    public void testCompressionLevel() throws IOException {
+        final byte[] bytes = randomByteArrayOfLength(randomIntBetween(0, 100000));
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (OutputStream os = DeflateCompressor.outputStream(bos, randomIntBetween(Deflater.BEST_SPEED, Deflater.BEST_COMPRESSION))) {
+            os.write(bytes);
+        }
+        assertTrue(compressor.isCompressed(new BytesArray(bos.toByteArray())));
+
+        // the compression level makes no difference to reading the compressed bytes
+        final ByteArrayOutputStream uncompressedOut = new ByteArrayOutputStream();
+        Streams.copy(compressor.threadLocalInputStream(new ByteArrayInputStream(bos.toByteArray())), uncompressedOut);
+        assertArrayEquals(bytes, uncompressedOut.toByteArray());
+    }
+
     private void doTest(byte bytes[]) throws IOException {
         InputStream rawIn = new ByteArrayInputStream(bytes);
         Compressor c = compressor;
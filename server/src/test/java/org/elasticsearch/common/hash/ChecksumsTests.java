@@ -0,0 +1,42 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.common.hash;
+
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.zip.CRC32;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class ChecksumsTests extends ESTestCase {
+
+    public void testCombineCrc32() {
+        final byte[] bytes = randomByteArrayOfLength(randomIntBetween(0, 1 << 16));
+        final CRC32 expected = new CRC32();
+        expected.update(bytes, 0, bytes.length);
+
+        // split the bytes into random consecutive slices and combine their checksums
+        long combined = 0L;
+        int offset = 0;
+        while (offset < bytes.length) {
+            final int length = randomIntBetween(1, bytes.length - offset);
+            final CRC32 slice = new CRC32();
+            slice.update(bytes, offset, length);
+            combined = Checksums.combineCrc32(combined, slice.getValue(), length);
+            offset += length;
+        }
+        assertThat(combined, equalTo(expected.getValue()));
+    }
+
+    public void testCombineWithEmptySequence() {
+        final long crc = randomLongBetween(0L, 0xffffffffL);
+        assertThat(Checksums.combineCrc32(crc, 0L, 0L), equalTo(crc));
+        expectThrows(IllegalArgumentException.class, () -> Checksums.combineCrc32(crc, 0L, randomLongBetween(Long.MIN_VALUE, -1L)));
+    }
+}
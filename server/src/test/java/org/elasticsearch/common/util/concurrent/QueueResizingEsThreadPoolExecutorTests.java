@@ -12,7 +12,9 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.test.ESTestCase;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 import static org.hamcrest.Matchers.equalTo;
@@ -229,6 +231,68 @@ public class QueueResizingEsThreadPoolExecutorTests extends ESTestCase {
         executor.awaitTermination(10, TimeUnit.SECONDS);
     }
 
+    public void testRejectTasksThatCannotMeetTheirTimeout() throws Exception {
+        ThreadContext context = new ThreadContext(Settings.EMPTY);
+        ResizableBlockingQueue<Runnable> queue =
+            new ResizableBlockingQueue<>(ConcurrentCollections.<Runnable>newBlockingQueue(), 100);
+        EsAbortPolicy rejectionHandler = new EsAbortPolicy();
+
+        QueueResizingEsThreadPoolExecutor executor =
+            new QueueResizingEsThreadPoolExecutor(
+                "test-threadpool", 1, 1, 1000,
+                TimeUnit.MILLISECONDS, queue, 10, 200, slowRunningWrapper(), 10, TimeValue.timeValueMillis(1),
+                EsExecutors.daemonThreadFactory("queuetest"), rejectionHandler, context);
+        executor.prestartAllCoreThreads();
+        logger.info("--> executor: {}", executor);
+
+        assertThat(executor.estimateQueueWaitNanos(), equalTo(0L));
+        executeTask(executor, 1);
+        assertBusy(() -> assertThat((long) executor.getTaskExecutionEWMA(), greaterThan(0L)));
+
+        CountDownLatch blocker = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        });
+        assertBusy(() -> assertThat(executor.getActiveCount(), equalTo(1)));
+        executeTask(executor, 1);
+        assertThat(executor.estimateQueueWaitNanos(), equalTo((long) executor.getTaskExecutionEWMA()));
+
+        AtomicBoolean rejected = new AtomicBoolean();
+        AbstractRunnable task = new AbstractRunnable() {
+            @Override
+            public void onFailure(Exception e) {
+                throw new AssertionError(e);
+            }
+
+            @Override
+            public void onRejection(Exception e) {
+                rejected.set(true);
+            }
+
+            @Override
+            protected void doRun() {
+            }
+        };
+        executor.execute(task, TimeValue.timeValueMillis(1));
+        assertTrue(rejected.get());
+        assertThat(rejectionHandler.rejected(), equalTo(1L));
+        assertThat(executor.getCurrentQueueSize(), equalTo(1));
+
+        rejected.set(false);
+        executor.execute(task, randomBoolean() ? TimeValue.timeValueHours(1) : TimeValue.MINUS_ONE);
+        assertFalse(rejected.get());
+        assertThat(rejectionHandler.rejected(), equalTo(1L));
+        assertThat(executor.getCurrentQueueSize(), equalTo(2));
+
+        blocker.countDown();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
     private Function<Runnable, WrappedRunnable> fastWrapper() {
         return (runnable) -> new SettableTimedRunnable(TimeUnit.NANOSECONDS.toNanos(100), false);
     }
@@ -237,6 +301,23 @@ public class QueueResizingEsThreadPoolExecutorTests extends ESTestCase {
         return (runnable) -> new SettableTimedRunnable(TimeUnit.MINUTES.toNanos(2), false);
     }
 
+    /**
+     * The returned function outputs a WrappedRunnable that runs the original task but reports that it took two minutes.
+     */
+    private Function<Runnable, WrappedRunnable> slowRunningWrapper() {
+        return (runnable) -> new TimedRunnable(runnable) {
+            @Override
+            long getTotalNanos() {
+                return TimeUnit.MINUTES.toNanos(2);
+            }
+
+            @Override
+            long getTotalExecutionNanos() {
+                return TimeUnit.MINUTES.toNanos(2);
+            }
+        };
+    }
+
     /**
      * The returned function outputs a WrappedRunnabled that simulates the case
      * where {@link TimedRunnable#getTotalExecutionNanos()} returns -1 because
@@ -59,6 +59,33 @@ public abstract class AbstractXContentFilteringTestCase extends AbstractFilterin
         testFilter(expected, sample, singleton("foo"), singleton("foo.b*"));
     }
 
+    public void testFilteredParser() throws IOException {
+        final XContentBuilder sample = createBuilder().startObject()
+            .field("foo.bar", "dotted")
+            .startObject("foo").field("bar", "test").field("baz", "other").endObject()
+            .field("qux", "value")
+            .endObject();
+        final XContentBuilder expected = createBuilder().startObject()
+            .field("foo.bar", "dotted")
+            .startObject("foo").field("bar", "test").endObject()
+            .endObject();
+        assertFilterResult(expected, copyFiltered(sample, singleton("foo.bar"), emptySet()));
+        assertFilterResult(expected, copyFiltered(sample, emptySet(), org.elasticsearch.common.collect.Set.of("foo.baz", "qux")));
+        assertFilterResult(createBuilder(), copyFiltered(sample, singleton("missing"), emptySet()));
+    }
+
+    private XContentBuilder copyFiltered(XContentBuilder source, Set<String> includes, Set<String> excludes) throws IOException {
+        final XContentBuilder builder = createBuilder();
+        final byte[] bytes = BytesReference.toBytes(BytesReference.bytes(source));
+        try (XContentParser parser = getXContentType().xContent().createParser(NamedXContentRegistry.EMPTY,
+                DeprecationHandler.THROW_UNSUPPORTED_OPERATION, bytes, 0, bytes.length, includes, excludes)) {
+            if (parser.nextToken() != null) {
+                builder.copyCurrentStructure(parser);
+            }
+        }
+        return builder;
+    }
+
     static void assertXContentBuilderAsString(final XContentBuilder expected, final XContentBuilder actual) {
         assertThat(Strings.toString(actual), is(Strings.toString(expected)));
     }
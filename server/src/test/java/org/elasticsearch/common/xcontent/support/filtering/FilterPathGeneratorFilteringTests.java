@@ -156,10 +156,31 @@ public class FilterPathGeneratorFilteringTests extends ESTestCase {
         assertResult("{'a':0,'b.c':'value','b':{'c':'c_value'}}", "b\\.c", false, "{'a':0,'b':{'c':'c_value'}}");
     }
 
+    public void testInclusiveFiltersMatchingFieldNamesWithDots() throws Exception {
+        final String SAMPLE = "{'a':0,'b.c':'value','b':{'c':'c_value'},'d':{'e.f':{'g':1,'h':2}}}";
+        assertResult(SAMPLE, "b.c", true, true, "{'b.c':'value','b':{'c':'c_value'}}");
+        assertResult(SAMPLE, "b", true, true, "{'b.c':'value','b':{'c':'c_value'}}");
+        assertResult(SAMPLE, "b\\.c", true, true, "{'b.c':'value'}");
+        assertResult(SAMPLE, "d.e.f.g", true, true, "{'d':{'e.f':{'g':1}}}");
+        assertResult(SAMPLE, "d.e.*", true, true, "{'d':{'e.f':{'g':1,'h':2}}}");
+        assertResult(SAMPLE, "d.e.f.z", true, true, "");
+    }
+
+    public void testExclusiveFiltersMatchingFieldNamesWithDots() throws Exception {
+        final String SAMPLE = "{'a':0,'b.c':'value','b':{'c':'c_value'},'d':{'e.f':{'g':1,'h':2}}}";
+        assertResult(SAMPLE, "b.c", false, true, "{'a':0,'d':{'e.f':{'g':1,'h':2}}}");
+        assertResult(SAMPLE, "d.e.f.g", false, true, "{'a':0,'b.c':'value','b':{'c':'c_value'},'d':{'e.f':{'h':2}}}");
+    }
+
     private void assertResult(String input, String filter, boolean inclusive, String expected) throws Exception {
+        assertResult(input, filter, inclusive, false, expected);
+    }
+
+    private void assertResult(String input, String filter, boolean inclusive, boolean matchFieldNamesWithDots,
+                              String expected) throws Exception {
         try (BytesStreamOutput os = new BytesStreamOutput()) {
             try (FilteringGeneratorDelegate generator = new FilteringGeneratorDelegate(JSON_FACTORY.createGenerator(os),
-                    new FilterPathBasedFilter(Collections.singleton(filter), inclusive), true, true)) {
+                    new FilterPathBasedFilter(Collections.singleton(filter), inclusive, matchFieldNamesWithDots), true, true)) {
                 try (JsonParser parser = JSON_FACTORY.createParser(replaceQuotes(input))) {
                     while (parser.nextToken() != null) {
                         generator.copyCurrentStructure(parser);
@@ -10,9 +10,16 @@ package org.elasticsearch.gateway;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FilterDirectory;
 import org.apache.lucene.store.IOContext;
@@ -27,12 +34,17 @@ import org.elasticsearch.cluster.metadata.Metadata;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
 import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.MockBigArrays;
 import org.elasticsearch.common.util.MockPageCacheRecycler;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.core.internal.io.IOUtils;
 import org.elasticsearch.env.Environment;
 import org.elasticsearch.env.NodeEnvironment;
@@ -50,8 +62,10 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
@@ -727,6 +741,157 @@ public class PersistedClusterStateServiceTests extends ESTestCase {
         }
     }
 
+    public void testStoresEachDistinctMappingOnce() throws IOException {
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment(createDataPaths())) {
+            final PersistedClusterStateService persistedClusterStateService = newPersistedClusterStateService(nodeEnvironment);
+            final String sharedMapping = "{\"_doc\":{\"properties\":{\"shared\":{\"type\":\"keyword\"}}}}";
+            final String otherMapping = "{\"_doc\":{\"properties\":{\"other\":{\"type\":\"long\"}}}}";
+
+            try (Writer writer = persistedClusterStateService.createWriter()) {
+                ClusterState clusterState = loadPersistedClusterState(persistedClusterStateService);
+                final Metadata.Builder metadata = Metadata.builder(clusterState.metadata()).version(1L);
+                for (int i = 0; i < 3; i++) {
+                    metadata.put(indexWithMapping("shared-" + i, sharedMapping));
+                }
+                metadata.put(indexWithMapping("other", otherMapping));
+                writeState(writer, 0L, ClusterState.builder(clusterState).metadata(metadata).incrementVersion().build(), clusterState);
+
+                clusterState = loadPersistedClusterState(persistedClusterStateService);
+                assertThat(countMappingDocuments(nodeEnvironment), equalTo(2));
+                for (int i = 0; i < 3; i++) {
+                    assertThat(clusterState.metadata().index("shared-" + i).mapping().source().string(), equalTo(sharedMapping));
+                }
+                assertThat(clusterState.metadata().index("other").mapping().source().string(), equalTo(otherMapping));
+
+                // the mapping is removed once no index refers to it any more
+                writer.writeIncrementalStateAndCommit(0L, clusterState, ClusterState.builder(clusterState)
+                    .metadata(Metadata.builder(clusterState.metadata()).remove("other"))
+                    .incrementVersion().build());
+
+                clusterState = loadPersistedClusterState(persistedClusterStateService);
+                assertThat(countMappingDocuments(nodeEnvironment), equalTo(1));
+                assertThat(clusterState.metadata().indices().size(), equalTo(3));
+                assertThat(clusterState.metadata().index("shared-0").mapping().source().string(), equalTo(sharedMapping));
+            }
+        }
+    }
+
+    public void testLoadsMappingsInlinedInCommitsWithoutFormatVersion() throws IOException {
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment(createDataPaths())) {
+            final PersistedClusterStateService persistedClusterStateService = newPersistedClusterStateService(nodeEnvironment);
+            final String mapping = "{\"_doc\":{\"properties\":{\"field\":{\"type\":\"keyword\"}}}}";
+
+            try (Writer writer = persistedClusterStateService.createWriter()) {
+                final ClusterState clusterState = loadPersistedClusterState(persistedClusterStateService);
+                writeState(writer, 0L, ClusterState.builder(clusterState)
+                    .metadata(Metadata.builder(clusterState.metadata()).version(1L).put(indexWithMapping("test", mapping)))
+                    .incrementVersion().build(), clusterState);
+            }
+
+            // rewrite the on-disk state the way it was written before the format version was recorded
+            final IndexMetadata indexMetadata = loadPersistedClusterState(persistedClusterStateService).metadata().index("test");
+            for (Path dataPath : nodeEnvironment.nodeDataPaths()) {
+                try (Directory directory = new SimpleFSDirectory(dataPath.resolve(PersistedClusterStateService.METADATA_DIRECTORY_NAME))) {
+                    final Map<String, String> commitData;
+                    try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                        commitData = new HashMap<>(reader.getIndexCommit().getUserData());
+                    }
+                    assertThat(commitData.remove("format_version"),
+                        equalTo(Integer.toString(PersistedClusterStateService.CURRENT_FORMAT_VERSION)));
+                    try (IndexWriter indexWriter = new IndexWriter(directory, new IndexWriterConfig())) {
+                        indexWriter.deleteDocuments(new Term("type", "mapping"));
+                        indexWriter.updateDocument(new Term("index_uuid", indexMetadata.getIndexUUID()),
+                            inlineMappingsDocument(indexMetadata));
+                        indexWriter.setLiveCommitData(commitData.entrySet());
+                        indexWriter.commit();
+                    }
+                }
+            }
+            assertThat(countMappingDocuments(nodeEnvironment), equalTo(0));
+
+            ClusterState clusterState = loadPersistedClusterState(persistedClusterStateService);
+            assertThat(clusterState.metadata().index("test").mapping().source().string(), equalTo(mapping));
+
+            // the next full write switches to the current format
+            try (Writer writer = persistedClusterStateService.createWriter()) {
+                writeState(writer, 0L, ClusterState.builder(clusterState).incrementVersion().build(), clusterState);
+            }
+            assertThat(countMappingDocuments(nodeEnvironment), equalTo(1));
+            clusterState = loadPersistedClusterState(persistedClusterStateService);
+            assertThat(clusterState.metadata().index("test").mapping().source().string(), equalTo(mapping));
+        }
+    }
+
+    public void testFailsIfFormatVersionIsNewer() throws IOException {
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment(createDataPaths())) {
+            final PersistedClusterStateService persistedClusterStateService = newPersistedClusterStateService(nodeEnvironment);
+            try (Writer writer = persistedClusterStateService.createWriter()) {
+                final ClusterState clusterState = loadPersistedClusterState(persistedClusterStateService);
+                writeState(writer, 0L, ClusterState.builder(clusterState)
+                    .metadata(Metadata.builder(clusterState.metadata()).version(1L))
+                    .incrementVersion().build(), clusterState);
+            }
+
+            final Path dataPath = randomFrom(nodeEnvironment.nodeDataPaths());
+            try (Directory directory = new SimpleFSDirectory(dataPath.resolve(PersistedClusterStateService.METADATA_DIRECTORY_NAME))) {
+                final Map<String, String> commitData;
+                try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                    commitData = new HashMap<>(reader.getIndexCommit().getUserData());
+                }
+                commitData.put("format_version", Integer.toString(PersistedClusterStateService.CURRENT_FORMAT_VERSION + 1));
+                try (IndexWriter indexWriter = new IndexWriter(directory, new IndexWriterConfig())) {
+                    indexWriter.setLiveCommitData(commitData.entrySet());
+                    indexWriter.commit();
+                }
+            }
+
+            final String message = expectThrows(IllegalStateException.class,
+                persistedClusterStateService::loadBestOnDiskState).getMessage();
+            assertThat(message, allOf(
+                containsString("format version [" + (PersistedClusterStateService.CURRENT_FORMAT_VERSION + 1) + "]"),
+                containsString(dataPath.toString())));
+        }
+    }
+
+    private static Document inlineMappingsDocument(IndexMetadata indexMetadata) throws IOException {
+        final Map<String, String> params = new HashMap<>();
+        params.put("binary", "true");
+        params.put(Metadata.CONTEXT_MODE_PARAM, Metadata.CONTEXT_MODE_GATEWAY);
+        final Document document = new Document();
+        document.add(new StringField("type", "index", Field.Store.NO));
+        document.add(new StringField("index_uuid", indexMetadata.getIndexUUID(), Field.Store.NO));
+        try (XContentBuilder builder = XContentFactory.contentBuilder(XContentType.SMILE)) {
+            builder.startObject();
+            indexMetadata.toXContent(builder, new ToXContent.MapParams(params));
+            builder.endObject();
+            document.add(new StoredField("data", BytesReference.bytes(builder).toBytesRef()));
+        }
+        return document;
+    }
+
+    private static IndexMetadata.Builder indexWithMapping(String name, String mapping) throws IOException {
+        return IndexMetadata.builder(name)
+            .settings(Settings.builder()
+                .put(IndexMetadata.INDEX_NUMBER_OF_SHARDS_SETTING.getKey(), 1)
+                .put(IndexMetadata.INDEX_NUMBER_OF_REPLICAS_SETTING.getKey(), 0)
+                .put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT)
+                .put(IndexMetadata.SETTING_INDEX_UUID, UUIDs.randomBase64UUID(random())))
+            .putMapping("_doc", mapping);
+    }
+
+    private static int countMappingDocuments(NodeEnvironment nodeEnvironment) throws IOException {
+        int count = -1;
+        for (Path dataPath : nodeEnvironment.nodeDataPaths()) {
+            try (Directory directory = new SimpleFSDirectory(dataPath.resolve(PersistedClusterStateService.METADATA_DIRECTORY_NAME));
+                 DirectoryReader reader = DirectoryReader.open(directory)) {
+                final int pathCount = new IndexSearcher(reader).count(new TermQuery(new Term("type", "mapping")));
+                assertTrue("every data path holds the same mappings", count == -1 || count == pathCount);
+                count = pathCount;
+            }
+        }
+        return count;
+    }
+
     public void testReloadsMetadataAcrossMultipleSegments() throws IOException {
         try (NodeEnvironment nodeEnvironment = newNodeEnvironment(createDataPaths())) {
             final PersistedClusterStateService persistedClusterStateService = newPersistedClusterStateService(nodeEnvironment);
@@ -794,7 +959,7 @@ public class PersistedClusterStateServiceTests extends ESTestCase {
                     PersistedClusterStateService.class.getCanonicalName(),
                     Level.WARN,
                     "writing cluster state took [*] which is above the warn threshold of [*]; " +
-                        "wrote full state with [0] indices"));
+                        "wrote full state with [0] indices and [0] mappings; *"));
 
                 writeDurationMillis.set(randomLongBetween(slowWriteLoggingThresholdMillis, slowWriteLoggingThresholdMillis * 2));
                 assertExpectedLogs(1L, null, clusterState, writer, new MockLogAppender.SeenEventExpectation(
@@ -802,7 +967,7 @@ public class PersistedClusterStateServiceTests extends ESTestCase {
                     PersistedClusterStateService.class.getCanonicalName(),
                     Level.WARN,
                     "writing cluster state took [*] which is above the warn threshold of [*]; " +
-                        "wrote full state with [0] indices"));
+                        "wrote full state with [0] indices and [0] mappings; *"));
 
                 writeDurationMillis.set(randomLongBetween(1, slowWriteLoggingThresholdMillis - 1));
                 assertExpectedLogs(1L, null, clusterState, writer, new MockLogAppender.UnseenEventExpectation(
@@ -819,7 +984,7 @@ public class PersistedClusterStateServiceTests extends ESTestCase {
                     PersistedClusterStateService.class.getCanonicalName(),
                     Level.WARN,
                     "writing cluster state took [*] which is above the warn threshold of [*]; " +
-                        "wrote full state with [0] indices"));
+                        "wrote full state with [0] indices and [0] mappings; *"));
 
                 final ClusterState newClusterState = ClusterState.builder(clusterState)
                     .metadata(Metadata.builder(clusterState.metadata())
@@ -837,7 +1002,8 @@ public class PersistedClusterStateServiceTests extends ESTestCase {
                     PersistedClusterStateService.class.getCanonicalName(),
                     Level.WARN,
                     "writing cluster state took [*] which is above the warn threshold of [*]; " +
-                        "wrote global metadata [false] and metadata for [1] indices and skipped [0] unchanged indices"));
+                        "wrote global metadata [false] and metadata for [1] indices and skipped [0] unchanged indices, " +
+                        "wrote [0] and removed [0] mappings; *"));
 
                 writeDurationMillis.set(randomLongBetween(0, writeDurationMillis.get() - 1));
                 assertExpectedLogs(1L, clusterState, newClusterState, writer, new MockLogAppender.UnseenEventExpectation(
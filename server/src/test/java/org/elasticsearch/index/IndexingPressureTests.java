@@ -11,9 +11,12 @@ package org.elasticsearch.index;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.index.stats.IndexingPressureStats;
 import org.elasticsearch.test.ESTestCase;
 
+import java.util.Collections;
+
 public class IndexingPressureTests extends ESTestCase {
 
     private final Settings settings = Settings.builder().put(IndexingPressure.MAX_INDEXING_BYTES.getKey(), "10KB").build();
@@ -129,4 +132,41 @@ public class IndexingPressureTests extends ESTestCase {
         }
         assertEquals(0, indexingPressure.stats().getCurrentCoordinatingBytes());
     }
+
+    public void testPressureResponseHeader() {
+        IndexingPressure indexingPressure = new IndexingPressure(settings);
+        try (Releasable coordinating = indexingPressure.markCoordinatingOperationStarted(1024 * 2, false)) {
+            ThreadContext threadContext = new ThreadContext(Settings.EMPTY);
+            indexingPressure.addPressureResponseHeader(threadContext, false);
+            assertNull(threadContext.getResponseHeaders().get(IndexingPressure.PRESSURE_RESPONSE_HEADER));
+
+            try (Releasable primary = indexingPressure.markPrimaryOperationStarted(1024 * 4, false)) {
+                assertEquals(0.6, indexingPressure.getCoordinatingAndPrimaryUtilization(), 0.0001);
+                indexingPressure.addPressureResponseHeader(threadContext, false);
+                assertEquals(Collections.singletonList("utilization=60%;delay=200ms"),
+                    threadContext.getResponseHeaders().get(IndexingPressure.PRESSURE_RESPONSE_HEADER));
+            }
+
+            threadContext = new ThreadContext(Settings.EMPTY);
+            indexingPressure.addPressureResponseHeader(threadContext, true);
+            assertEquals(Collections.singletonList("utilization=100%;delay=1000ms"),
+                threadContext.getResponseHeaders().get(IndexingPressure.PRESSURE_RESPONSE_HEADER));
+        }
+        assertEquals(0.0, indexingPressure.getCoordinatingAndPrimaryUtilization(), 0.0);
+    }
+
+    public void testPauseHttpReads() {
+        IndexingPressure disabled = new IndexingPressure(settings);
+        IndexingPressure enabled = new IndexingPressure(Settings.builder().put(settings)
+            .put(IndexingPressure.PAUSE_HTTP_READS.getKey(), true).build());
+        try (Releasable coordinating = enabled.markCoordinatingOperationStarted(1024 * 8, false);
+             Releasable alsoCoordinating = disabled.markCoordinatingOperationStarted(1024 * 10, false)) {
+            assertFalse(enabled.shouldPauseHttpReads());
+            try (Releasable replica = enabled.markReplicaOperationStarted(1024 * 2, false)) {
+                assertTrue(enabled.shouldPauseHttpReads());
+            }
+            assertFalse(enabled.shouldPauseHttpReads());
+            assertFalse(disabled.shouldPauseHttpReads());
+        }
+    }
 }
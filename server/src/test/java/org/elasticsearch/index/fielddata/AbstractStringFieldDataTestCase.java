@@ -573,6 +573,42 @@ public abstract class AbstractStringFieldDataTestCase extends AbstractFieldDataI
         }
     }
 
+    public void testGlobalOrdinalsReusedWhenSegmentsDoNotChange() throws Exception {
+        fillExtendedMvSet();
+        refreshReader();
+        IndexOrdinalsFieldData ifd = getForField("string", "value", hasDocValues());
+        IndexOrdinalsFieldData globalOrdinals = ifd.loadGlobal(topLevelReader);
+        assertNotNull(globalOrdinals.getOrdinalMap());
+
+        // deleting a document keeps the segment cores, so the ordinal map of the previous reader is still valid
+        writer.deleteDocuments(new Term("_id", "1"));
+        DirectoryReader readerWithDeletes = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer),
+            new ShardId("foo", "_na_", 1));
+        try {
+            assertThat(readerWithDeletes.leaves().size(), equalTo(topLevelReader.leaves().size()));
+            IndexOrdinalsFieldData reusedGlobalOrdinals = ifd.loadGlobal(readerWithDeletes);
+            assertThat(reusedGlobalOrdinals.getOrdinalMap(), sameInstance(globalOrdinals.getOrdinalMap()));
+
+            // a new segment requires the ordinal map to be rebuilt
+            Document d = new Document();
+            addField(d, "_id", "9");
+            addField(d, "value", "11");
+            writer.addDocument(d);
+            DirectoryReader readerWithNewSegment = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer),
+                new ShardId("foo", "_na_", 1));
+            try {
+                IndexOrdinalsFieldData rebuiltGlobalOrdinals = ifd.loadGlobal(readerWithNewSegment);
+                assertThat(rebuiltGlobalOrdinals.getOrdinalMap(), not(sameInstance(globalOrdinals.getOrdinalMap())));
+                assertThat(rebuiltGlobalOrdinals.getOrdinalMap().getValueCount(),
+                    equalTo(globalOrdinals.getOrdinalMap().getValueCount() + 1));
+            } finally {
+                readerWithNewSegment.close();
+            }
+        } finally {
+            readerWithDeletes.close();
+        }
+    }
+
     public void testGlobalOrdinalsGetRemovedOnceIndexReaderCloses() throws Exception {
         fillExtendedMvSet();
         refreshReader();
@@ -304,6 +304,45 @@ public class DocumentParserTests extends MapperServiceTestCase {
         assertNotNull(doc.rootDoc().getField(IdFieldMapper.NAME));
     }
 
+    public void testParsePlan() throws Exception {
+        DocumentMapper mapper = createDocumentMapper(mapping(b -> {
+            b.startObject("foo").field("type", "keyword").endObject();
+            b.startObject("obj").startObject("properties");
+            {
+                b.startObject("bar").field("type", "keyword").endObject();
+            }
+            b.endObject().endObject();
+        }));
+        ObjectMapper obj = mapper.mappers().objectMappers().get("obj");
+
+        ParsedDocument doc = mapper.parse(source(b -> b.field("foo", "a").startObject("obj").field("bar", 1).endObject()));
+        assertNotNull(doc.rootDoc().getField("foo"));
+        assertNotNull(doc.rootDoc().getField("obj.bar"));
+        ObjectParsePlan rootPlan = mapper.parsePlan(mapper.root());
+        ObjectParsePlan objPlan = mapper.parsePlan(obj);
+        assertNotNull(rootPlan);
+        assertNotNull(objPlan);
+
+        // the same shape reuses the plans
+        doc = mapper.parse(source(b -> b.field("foo", "b").startObject("obj").field("bar", 2).endObject()));
+        assertEquals(new BytesRef("b"), doc.rootDoc().getField("foo").binaryValue());
+        assertEquals(new BytesRef("2"), doc.rootDoc().getField("obj.bar").binaryValue());
+        assertNull(doc.dynamicMappingsUpdate());
+        assertSame(rootPlan, mapper.parsePlan(mapper.root()));
+        assertSame(objPlan, mapper.parsePlan(obj));
+
+        // a different shape falls back to looking up the mappers and records a new plan
+        for (int i = 0; i < 2; i++) {
+            doc = mapper.parse(source(b -> b.field("obj.bar", 3).field("new_field", "c").field("foo", "d")));
+            assertEquals(new BytesRef("d"), doc.rootDoc().getField("foo").binaryValue());
+            assertEquals(new BytesRef("3"), doc.rootDoc().getField("obj.bar").binaryValue());
+            assertNotNull(doc.dynamicMappingsUpdate());
+            assertNotNull(doc.dynamicMappingsUpdate().root().getMapper("new_field"));
+            assertNotSame(rootPlan, mapper.parsePlan(mapper.root()));
+        }
+        assertSame(objPlan, mapper.parsePlan(obj));
+    }
+
     public void testDotsWithFieldDisabled() throws IOException {
         DocumentMapper mapper = createDocumentMapper(fieldMapping(b -> b.field("enabled", false)));
         {
@@ -56,6 +56,7 @@ import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class ReplicationTrackerTests extends ReplicationTrackerTestCase {
 
@@ -604,6 +605,24 @@ public class ReplicationTrackerTests extends ReplicationTrackerTestCase {
         assertFalse(tracker.pendingInSync.contains(newSyncingAllocationId.getId()));
     }
 
+    public void testUpdateAppliedClusterStateVersion() {
+        final AllocationId primaryId = AllocationId.newInitializing();
+        final ReplicationTracker tracker = newTracker(primaryId);
+        final long initialClusterStateVersion = randomNonNegativeLong() / 2;
+        final IndexShardRoutingTable routingTable = routingTable(Collections.emptySet(), primaryId);
+        tracker.updateFromMaster(initialClusterStateVersion, Collections.singleton(primaryId.getId()), routingTable);
+        tracker.activatePrimaryMode(NO_OPS_PERFORMED);
+
+        final long newClusterStateVersion = initialClusterStateVersion + randomLongBetween(1, 10);
+        tracker.updateAppliedClusterStateVersion(newClusterStateVersion);
+        assertThat(tracker.appliedClusterStateVersion, equalTo(newClusterStateVersion));
+        assertThat(tracker.routingTable, sameInstance(routingTable));
+
+        // older cluster state versions are ignored
+        tracker.updateAppliedClusterStateVersion(randomLongBetween(initialClusterStateVersion, newClusterStateVersion));
+        assertThat(tracker.appliedClusterStateVersion, equalTo(newClusterStateVersion));
+    }
+
     /**
      * If we do not update the global checkpoint in {@link ReplicationTracker#markAllocationIdAsInSync(String, long)} after adding the
      * allocation ID to the in-sync set and removing it from pending, the local checkpoint update that freed the thread waiting for the
@@ -0,0 +1,85 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.indices.breaker;
+
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.Collections;
+
+public class ReservingCircuitBreakerServiceTests extends ESTestCase {
+
+    private static final long KB = 1024;
+
+    private CircuitBreakerService nodeBreakerService(String requestLimit) {
+        Settings settings = Settings.builder()
+            .put(HierarchyCircuitBreakerService.USE_REAL_MEMORY_USAGE_SETTING.getKey(), false)
+            .put(HierarchyCircuitBreakerService.REQUEST_CIRCUIT_BREAKER_LIMIT_SETTING.getKey(), requestLimit)
+            .build();
+        return new HierarchyCircuitBreakerService(settings, Collections.emptyList(),
+            new ClusterSettings(settings, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS));
+    }
+
+    public void testReservesInChunks() {
+        CircuitBreakerService nodeService = nodeBreakerService("10mb");
+        CircuitBreaker nodeBreaker = nodeService.getBreaker(CircuitBreaker.REQUEST);
+        ReservingCircuitBreakerService service = new ReservingCircuitBreakerService(nodeService, CircuitBreaker.REQUEST, 100 * KB);
+        CircuitBreaker breaker = service.getBreaker(CircuitBreaker.REQUEST);
+        assertSame(nodeService.getBreaker(CircuitBreaker.FIELDDATA), service.getBreaker(CircuitBreaker.FIELDDATA));
+
+        breaker.addEstimateBytesAndMaybeBreak(10 * KB, "test");
+        assertEquals(10 * KB, service.getUsed());
+        assertEquals(100 * KB, nodeBreaker.getUsed());
+
+        breaker.addEstimateBytesAndMaybeBreak(80 * KB, "test");
+        assertEquals(90 * KB, service.getUsed());
+        assertEquals(100 * KB, nodeBreaker.getUsed());
+
+        // larger allocations reserve what they need
+        breaker.addEstimateBytesAndMaybeBreak(300 * KB, "test");
+        assertEquals(390 * KB, service.getUsed());
+        assertEquals(390 * KB, nodeBreaker.getUsed());
+
+        breaker.addWithoutBreaking(20 * KB);
+        assertEquals(410 * KB, nodeBreaker.getUsed());
+
+        // freeing memory keeps at most one chunk reserved
+        breaker.addWithoutBreaking(-400 * KB);
+        assertEquals(10 * KB, service.getUsed());
+        assertEquals(110 * KB, nodeBreaker.getUsed());
+
+        // closing gives back the unused part of the reservation, the rest is freed against the node breaker
+        service.close();
+        assertEquals(10 * KB, nodeBreaker.getUsed());
+        breaker.addWithoutBreaking(-10 * KB);
+        assertEquals(0, nodeBreaker.getUsed());
+    }
+
+    public void testOnlyTripsIfNeededBytesDoNotFit() {
+        CircuitBreakerService nodeService = nodeBreakerService("1mb");
+        CircuitBreaker nodeBreaker = nodeService.getBreaker(CircuitBreaker.REQUEST);
+        nodeBreaker.addEstimateBytesAndMaybeBreak(900 * KB, "other");
+        ReservingCircuitBreakerService service = new ReservingCircuitBreakerService(nodeService, CircuitBreaker.REQUEST, 512 * KB);
+        CircuitBreaker breaker = service.getBreaker(CircuitBreaker.REQUEST);
+
+        breaker.addEstimateBytesAndMaybeBreak(50 * KB, "test");
+        assertEquals(950 * KB, nodeBreaker.getUsed());
+
+        expectThrows(CircuitBreakingException.class, () -> breaker.addEstimateBytesAndMaybeBreak(200 * KB, "test"));
+        assertEquals(50 * KB, service.getUsed());
+        assertEquals(950 * KB, nodeBreaker.getUsed());
+
+        service.close();
+        breaker.addWithoutBreaking(-50 * KB);
+        assertEquals(900 * KB, nodeBreaker.getUsed());
+    }
+}
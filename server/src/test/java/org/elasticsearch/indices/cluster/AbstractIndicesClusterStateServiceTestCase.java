@@ -141,6 +141,8 @@ public abstract class AbstractIndicesClusterStateServiceTestCase extends ESTestC
                                 equalTo(inSyncIds));
                             assertThat(shard.routingEntry() + " isn't updated with routing table", shard.routingTable,
                                 equalTo(shardRoutingTable));
+                            assertThat(shard.routingEntry() + " isn't updated with cluster state version", shard.appliedClusterStateVersion,
+                                equalTo(state.version()));
                         }
                     }
                 }
@@ -327,6 +329,7 @@ public abstract class AbstractIndicesClusterStateServiceTestCase extends ESTestC
         private volatile Set<String> inSyncAllocationIds;
         private volatile IndexShardRoutingTable routingTable;
         private volatile long term;
+        private volatile long appliedClusterStateVersion = -1L;
 
         public MockIndexShard(ShardRouting shardRouting, long term) {
             this.shardRouting = shardRouting;
@@ -373,6 +376,14 @@ public abstract class AbstractIndicesClusterStateServiceTestCase extends ESTestC
                 term = newPrimaryTerm;
                 this.inSyncAllocationIds = inSyncAllocationIds;
                 this.routingTable = routingTable;
+                updateAppliedClusterStateVersion(applyingClusterStateVersion);
+            }
+        }
+
+        @Override
+        public void updateAppliedClusterStateVersion(long applyingClusterStateVersion) {
+            if (shardRouting.primary()) {
+                appliedClusterStateVersion = Math.max(appliedClusterStateVersion, applyingClusterStateVersion);
             }
         }
 
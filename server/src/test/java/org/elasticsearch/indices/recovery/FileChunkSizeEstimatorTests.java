@@ -0,0 +1,64 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.indices.recovery;
+
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class FileChunkSizeEstimatorTests extends ESTestCase {
+
+    private static final int BUFFER_SIZE = 512 * 1024;
+
+    public void testStartsWithASingleBuffer() {
+        final FileChunkSizeEstimator estimator = new FileChunkSizeEstimator(BUFFER_SIZE, BUFFER_SIZE * 8, System::nanoTime);
+        assertThat(estimator.buffersPerChunk(), equalTo(1));
+        assertThat(estimator.chunkSizeInBytes(), equalTo((long) BUFFER_SIZE));
+    }
+
+    public void testGrowsToBandwidthDelayProduct() {
+        final AtomicLong clock = new AtomicLong();
+        final FileChunkSizeEstimator estimator = new FileChunkSizeEstimator(BUFFER_SIZE, BUFFER_SIZE * 8, clock::get);
+
+        // 10 chunks of 512kb acknowledged in one second, i.e. 5mb/s, with a round-trip time of 150ms: 768kb in flight
+        final long roundTripTime = TimeValue.timeValueMillis(150).nanos();
+        for (int i = 0; i < 10; i++) {
+            clock.addAndGet(TimeValue.timeValueMillis(100).nanos());
+            estimator.onChunkAcknowledged(BUFFER_SIZE, roundTripTime);
+        }
+        assertThat(estimator.buffersPerChunk(), equalTo(2));
+
+        // a shorter round-trip time reduces the size of the chunks again
+        clock.addAndGet(TimeValue.timeValueMillis(100).nanos());
+        estimator.onChunkAcknowledged(BUFFER_SIZE, TimeValue.timeValueMillis(10).nanos());
+        assertThat(estimator.buffersPerChunk(), equalTo(1));
+    }
+
+    public void testNeverExceedsMaxChunkSize() {
+        final AtomicLong clock = new AtomicLong();
+        final int maxBuffers = between(1, 8);
+        final FileChunkSizeEstimator estimator = new FileChunkSizeEstimator(BUFFER_SIZE, BUFFER_SIZE * maxBuffers, clock::get);
+        for (int i = 0; i < 100; i++) {
+            clock.addAndGet(TimeValue.timeValueMillis(1).nanos());
+            estimator.onChunkAcknowledged(BUFFER_SIZE * 64L, TimeValue.timeValueSeconds(1).nanos());
+            assertThat(estimator.buffersPerChunk(), equalTo(maxBuffers));
+        }
+    }
+
+    public void testMaxChunkSizeSmallerThanBufferSize() {
+        final AtomicLong clock = new AtomicLong();
+        final FileChunkSizeEstimator estimator = new FileChunkSizeEstimator(BUFFER_SIZE, between(0, BUFFER_SIZE), clock::get);
+        clock.addAndGet(TimeValue.timeValueMillis(1).nanos());
+        estimator.onChunkAcknowledged(BUFFER_SIZE * 64L, TimeValue.timeValueSeconds(1).nanos());
+        assertThat(estimator.buffersPerChunk(), equalTo(1));
+    }
+}
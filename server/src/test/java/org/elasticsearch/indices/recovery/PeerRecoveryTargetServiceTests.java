@@ -23,6 +23,7 @@ import org.elasticsearch.common.Randomness;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.core.internal.io.IOUtils;
 import org.elasticsearch.index.engine.NoOpEngine;
@@ -31,24 +32,38 @@ import org.elasticsearch.index.seqno.SeqNoStats;
 import org.elasticsearch.index.seqno.SequenceNumbers;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.IndexShardTestCase;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot;
 import org.elasticsearch.index.store.Store;
 import org.elasticsearch.index.store.StoreFileMetadata;
 import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.repositories.IndexId;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
 
 import static org.elasticsearch.index.seqno.SequenceNumbers.UNASSIGNED_SEQ_NO;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.sameInstance;
 
 public class PeerRecoveryTargetServiceTests extends IndexShardTestCase {
@@ -129,6 +144,108 @@ public class PeerRecoveryTargetServiceTests extends IndexShardTestCase {
         closeShards(sourceShard, targetShard);
     }
 
+    public void testRestoreFilesFromSnapshot() throws Exception {
+        IndexShard sourceShard = newStartedShard(true);
+        int numDocs = between(20, 100);
+        for (int i = 0; i < numDocs; i++) {
+            indexDoc(sourceShard, "_doc", Integer.toString(i));
+        }
+        sourceShard.flush(new FlushRequest());
+        Store.MetadataSnapshot sourceSnapshot = sourceShard.store().getMetadata(null);
+        List<StoreFileMetadata> mdFiles = new ArrayList<>();
+        for (StoreFileMetadata md : sourceSnapshot) {
+            mdFiles.add(md);
+        }
+        final Map<String, byte[]> contents = readFiles(sourceShard, mdFiles);
+        // the largest file is only partially available in the repository and must be sent by the source instead
+        final StoreFileMetadata truncatedFile = mdFiles.stream().max(Comparator.comparingLong(StoreFileMetadata::length)).get();
+        final SnapshotFilesProvider snapshotFilesProvider = new SnapshotFilesProvider(null) {
+            @Override
+            public InputStream getInputStreamForSnapshotFile(String repositoryName, IndexId indexId, ShardId shardId,
+                                                             BlobStoreIndexShardSnapshot.FileInfo fileInfo) {
+                assertThat(repositoryName, equalTo("repo"));
+                final byte[] content = contents.get(fileInfo.physicalName());
+                final int length = fileInfo.physicalName().equals(truncatedFile.name()) ? content.length / 2 : content.length;
+                return new ByteArrayInputStream(content, 0, length);
+            }
+        };
+
+        final IndexShard targetShard = newShard(false);
+        final DiscoveryNode pNode = getFakeDiscoNode(sourceShard.routingEntry().currentNodeId());
+        final DiscoveryNode rNode = getFakeDiscoNode(targetShard.routingEntry().currentNodeId());
+        targetShard.markAsRecovering("test-peer-recovery", new RecoveryState(targetShard.routingEntry(), rNode, pNode));
+        final RecoveryTarget recoveryTarget = new RecoveryTarget(targetShard, null, snapshotFilesProvider, null);
+        final PlainActionFuture<Void> receiveFileInfoFuture = new PlainActionFuture<>();
+        recoveryTarget.receiveFileInfo(
+            mdFiles.stream().map(StoreFileMetadata::name).collect(Collectors.toList()),
+            mdFiles.stream().map(StoreFileMetadata::length).collect(Collectors.toList()),
+            Collections.emptyList(), Collections.emptyList(), 0, receiveFileInfoFuture
+        );
+        receiveFileInfoFuture.actionGet();
+
+        final IndexId indexId = new IndexId(sourceShard.shardId().getIndexName(), UUIDs.randomBase64UUID());
+        for (StoreFileMetadata md : mdFiles) {
+            final PlainActionFuture<Void> future = new PlainActionFuture<>();
+            recoveryTarget.restoreFileFromSnapshot("repo", indexId,
+                new BlobStoreIndexShardSnapshot.FileInfo("_" + md.name(), md, new ByteSizeValue(between(1, 1024 * 1024))), future);
+            final RecoveryState.FileDetail fileDetail = targetShard.recoveryState().getIndex().getFileDetails(md.name());
+            if (md == truncatedFile) {
+                final ExecutionException e = expectThrows(ExecutionException.class, future::get);
+                assertThat(e.getCause(), instanceOf(EOFException.class));
+                // the partial copy is discarded
+                assertThat(fileDetail.recovered(), equalTo(0L));
+                assertThat(Arrays.asList(targetShard.store().directory().listAll()),
+                    not(hasItem(recoveryTarget.getTempNameForFile(md.name()))));
+            } else {
+                future.actionGet();
+                assertThat(fileDetail.recovered(), equalTo(md.length()));
+            }
+        }
+
+        // the file that could not be copied from the repository is sent by the source from its first chunk
+        final byte[] content = contents.get(truncatedFile.name());
+        final PlainActionFuture<Void> writeFileChunkFuture = new PlainActionFuture<>();
+        recoveryTarget.writeFileChunk(truncatedFile, 0L, new BytesArray(content), true, 0, writeFileChunkFuture);
+        writeFileChunkFuture.actionGet();
+
+        PlainActionFuture<Void> cleanFilesFuture = new PlainActionFuture<>();
+        recoveryTarget.cleanFiles(0, Long.parseLong(sourceSnapshot.getCommitUserData().get(SequenceNumbers.MAX_SEQ_NO)),
+            sourceSnapshot, cleanFilesFuture);
+        cleanFilesFuture.actionGet();
+        recoveryTarget.decRef();
+        Store.MetadataSnapshot targetSnapshot = targetShard.snapshotStoreMetadata();
+        Store.RecoveryDiff diff = sourceSnapshot.recoveryDiff(targetSnapshot);
+        assertThat(diff.different, empty());
+        assertThat(diff.missing, empty());
+        closeShards(sourceShard, targetShard);
+    }
+
+    public void testRestoreFileFromSnapshotRequiresProvider() throws Exception {
+        final IndexShard targetShard = newShard(false);
+        final DiscoveryNode rNode = getFakeDiscoNode(targetShard.routingEntry().currentNodeId());
+        targetShard.markAsRecovering("test-peer-recovery", new RecoveryState(targetShard.routingEntry(), rNode, rNode));
+        final RecoveryTarget recoveryTarget = new RecoveryTarget(targetShard, null, null);
+        final StoreFileMetadata md = new StoreFileMetadata("_0.cfs", 10L, "checksum", Version.CURRENT.luceneVersion);
+        final PlainActionFuture<Void> future = new PlainActionFuture<>();
+        recoveryTarget.restoreFileFromSnapshot("repo", new IndexId("index", UUIDs.randomBase64UUID()),
+            new BlobStoreIndexShardSnapshot.FileInfo("_0", md, null), future);
+        expectThrows(IllegalStateException.class, future::actionGet);
+        recoveryTarget.decRef();
+        closeShards(targetShard);
+    }
+
+    private static Map<String, byte[]> readFiles(IndexShard shard, List<StoreFileMetadata> mdFiles) throws IOException {
+        final Map<String, byte[]> contents = new HashMap<>();
+        for (StoreFileMetadata md : mdFiles) {
+            try (IndexInput in = shard.store().directory().openInput(md.name(), IOContext.READONCE)) {
+                final byte[] content = new byte[Math.toIntExact(md.length())];
+                in.readBytes(content, 0, content.length);
+                contents.put(md.name(), content);
+            }
+        }
+        return contents;
+    }
+
     private SeqNoStats populateRandomData(IndexShard shard) throws IOException {
         List<Long> seqNos = LongStream.range(0, 100).boxed().collect(Collectors.toList());
         Randomness.shuffle(seqNos);
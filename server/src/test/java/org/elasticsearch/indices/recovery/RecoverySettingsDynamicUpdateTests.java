@@ -8,12 +8,18 @@
 
 package org.elasticsearch.indices.recovery;
 
+import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.indices.recovery.RecoverySettings;
 import org.elasticsearch.test.ESTestCase;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public class RecoverySettingsDynamicUpdateTests extends ESTestCase {
@@ -70,4 +76,44 @@ public class RecoverySettingsDynamicUpdateTests extends ESTestCase {
         ).build());
         assertEquals(new TimeValue(duration, timeUnit), recoverySettings.internalActionLongTimeout());
     }
+
+    public void testSnapshotFileDownloadPermits() {
+        final int permits = between(1, 10);
+        clusterSettings.applySettings(Settings.builder().put(
+                RecoverySettings.INDICES_RECOVERY_MAX_CONCURRENT_SNAPSHOT_FILE_DOWNLOADS_PER_NODE_SETTING.getKey(), permits
+        ).build());
+        final List<Releasable> acquired = new ArrayList<>();
+        for (int i = 0; i < permits; i++) {
+            final Releasable permit = recoverySettings.tryAcquireSnapshotFileDownloadPermit();
+            assertNotNull(permit);
+            acquired.add(permit);
+        }
+        assertNull(recoverySettings.tryAcquireSnapshotFileDownloadPermit());
+
+        // releasing a permit more than once only returns it once
+        final Releasable released = acquired.remove(0);
+        released.close();
+        released.close();
+        acquired.add(recoverySettings.tryAcquireSnapshotFileDownloadPermit());
+        assertNotNull(acquired.get(acquired.size() - 1));
+        assertNull(recoverySettings.tryAcquireSnapshotFileDownloadPermit());
+
+        // raising the budget makes more permits available right away
+        clusterSettings.applySettings(Settings.builder().put(
+                RecoverySettings.INDICES_RECOVERY_MAX_CONCURRENT_SNAPSHOT_FILE_DOWNLOADS_PER_NODE_SETTING.getKey(), permits + 1
+        ).build());
+        final Releasable extra = recoverySettings.tryAcquireSnapshotFileDownloadPermit();
+        assertNotNull(extra);
+        acquired.add(extra);
+        assertNull(recoverySettings.tryAcquireSnapshotFileDownloadPermit());
+        Releasables.close(acquired);
+    }
+
+    public void testSnapshotFileDownloadRangeSize() {
+        final int rangeSizeInMb = between(1, 1024);
+        clusterSettings.applySettings(Settings.builder().put(
+                RecoverySettings.INDICES_RECOVERY_SNAPSHOT_FILE_DOWNLOAD_RANGE_SIZE_SETTING.getKey(), rangeSizeInMb, ByteSizeUnit.MB
+        ).build());
+        assertEquals(new ByteSizeValue(rangeSizeInMb, ByteSizeUnit.MB), recoverySettings.getSnapshotFileDownloadRangeSize());
+    }
 }
@@ -64,9 +64,12 @@ import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.IndexShardRelocatedException;
 import org.elasticsearch.index.shard.IndexShardState;
 import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot;
+import org.elasticsearch.index.snapshots.blobstore.SnapshotFiles;
 import org.elasticsearch.index.store.Store;
 import org.elasticsearch.index.store.StoreFileMetadata;
 import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.repositories.IndexId;
 import org.elasticsearch.test.CorruptionUtils;
 import org.elasticsearch.test.DummyShardLock;
 import org.elasticsearch.test.ESTestCase;
@@ -91,6 +94,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -177,8 +181,10 @@ public class RecoverySourceHandlerTests extends ESTestCase {
                 });
             }
         };
+        // use small chunks made of several buffers to exercise adaptive file chunk sizes
+        final int chunkSizeInBytes = randomBoolean() ? Math.toIntExact(recoverySettings.getChunkSize().getBytes()) : between(1, 1024);
         RecoverySourceHandler handler = new RecoverySourceHandler(null, new AsyncRecoveryTarget(target, recoveryExecutor),
-            threadPool, request, Math.toIntExact(recoverySettings.getChunkSize().getBytes()), between(1, 5), between(1, 5));
+            threadPool, request, chunkSizeInBytes, chunkSizeInBytes * between(1, 8), between(1, 5), between(1, 5), null, 1);
         PlainActionFuture<Void> sendFilesFuture = new PlainActionFuture<>();
         handler.sendFiles(store, metas.toArray(new StoreFileMetadata[0]), () -> 0, sendFilesFuture);
         sendFilesFuture.actionGet();
@@ -691,6 +697,64 @@ public class RecoverySourceHandlerTests extends ESTestCase {
         store.close();
     }
 
+    public void testRecoverFilesFromSnapshot() throws Exception {
+        final Store store = newStore(createTempDir(), false);
+        final List<StoreFileMetadata> files = generateFiles(store, between(1, 20), () -> between(1, 1024));
+        final List<BlobStoreIndexShardSnapshot.FileInfo> snapshotFiles = new ArrayList<>();
+        final Set<String> expectedRestoredFiles = new HashSet<>();
+        final Set<String> expectedSentFiles = ConcurrentCollections.newConcurrentSet();
+        for (StoreFileMetadata md : files) {
+            if (randomBoolean()) {
+                snapshotFiles.add(new BlobStoreIndexShardSnapshot.FileInfo(UUIDs.randomBase64UUID(random()), md, null));
+                expectedRestoredFiles.add(md.name());
+            } else {
+                if (randomBoolean()) {
+                    // the snapshot holds a different version of the file
+                    final StoreFileMetadata other = new StoreFileMetadata(md.name(), md.length(), "different", md.writtenBy());
+                    snapshotFiles.add(new BlobStoreIndexShardSnapshot.FileInfo(UUIDs.randomBase64UUID(random()), other, null));
+                }
+                expectedSentFiles.add(md.name());
+            }
+        }
+        final ShardSnapshotsService.ShardSnapshot shardSnapshot = new ShardSnapshotsService.ShardSnapshot("repo",
+            new IndexId("index", UUIDs.randomBase64UUID(random())), new SnapshotFiles("snapshot", snapshotFiles, null));
+        final ShardSnapshotsService shardSnapshotsService = mock(ShardSnapshotsService.class);
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            final ActionListener<Optional<ShardSnapshotsService.ShardSnapshot>> listener =
+                (ActionListener<Optional<ShardSnapshotsService.ShardSnapshot>>) invocation.getArguments()[1];
+            listener.onResponse(Optional.of(shardSnapshot));
+            return null;
+        }).when(shardSnapshotsService).fetchLatestSnapshot(any(ShardId.class), any());
+
+        final Set<String> restoredFiles = ConcurrentCollections.newConcurrentSet();
+        final TestRecoveryTargetHandler recoveryTarget = new TestRecoveryTargetHandler() {
+            @Override
+            public void restoreFileFromSnapshot(String repository, IndexId indexId, BlobStoreIndexShardSnapshot.FileInfo snapshotFile,
+                                                ActionListener<Void> listener) {
+                assertThat(repository, equalTo("repo"));
+                assertTrue(restoredFiles.add(snapshotFile.physicalName()));
+                if (randomBoolean()) {
+                    listener.onResponse(null);
+                } else {
+                    expectedSentFiles.add(snapshotFile.physicalName());
+                    listener.onFailure(new IOException("simulated"));
+                }
+            }
+        };
+        final int maxConcurrentSnapshotFileDownloads = between(1, 5);
+        final RecoverySourceHandler handler = new RecoverySourceHandler(null, new AsyncRecoveryTarget(recoveryTarget, recoveryExecutor),
+            threadPool, getStartRecoveryRequest(), between(1, 16), between(1, 16), between(1, 5), between(1, 5), shardSnapshotsService,
+            maxConcurrentSnapshotFileDownloads);
+        final PlainActionFuture<List<StoreFileMetadata>> future = new PlainActionFuture<>();
+        handler.recoverFilesFromSnapshot(files, future);
+        final List<StoreFileMetadata> sentFiles = future.actionGet();
+        assertThat(sentFiles.stream().map(StoreFileMetadata::name).collect(Collectors.toSet()), equalTo(expectedSentFiles));
+        assertThat(sentFiles, hasSize(expectedSentFiles.size()));
+        assertThat(restoredFiles, equalTo(expectedRestoredFiles));
+        store.close();
+    }
+
     public void testCancelRecoveryDuringPhase1() throws Exception {
         Store store = newStore(createTempDir("source"), false);
         IndexShard shard = mock(IndexShard.class);
@@ -882,6 +946,11 @@ public class RecoverySourceHandlerTests extends ESTestCase {
         public void writeFileChunk(StoreFileMetadata fileMetadata, long position, BytesReference content, boolean lastChunk,
                                    int totalTranslogOps, ActionListener<Void> listener) {
         }
+
+        @Override
+        public void restoreFileFromSnapshot(String repository, IndexId indexId, BlobStoreIndexShardSnapshot.FileInfo snapshotFile,
+                                            ActionListener<Void> listener) {
+        }
     }
 
     private Translog.Snapshot newTranslogSnapshot(List<Translog.Operation> operations, List<Translog.Operation> operationsToSkip) {
@@ -13,9 +13,16 @@ import org.elasticsearch.cluster.routing.RecoverySource;
 import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.cluster.routing.ShardRoutingState;
 import org.elasticsearch.cluster.routing.TestShardRouting;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.xcontent.ObjectPath;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.indices.recovery.RecoveryState.FileDetail;
 import org.elasticsearch.indices.recovery.RecoveryState.Index;
@@ -29,6 +36,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -329,6 +337,41 @@ public class RecoveryTargetTests extends ESTestCase {
         }
     }
 
+    public void testIndexThroughput() throws IOException {
+        final Index index = new Index();
+        assertThat(index.recoveredBytesPerSecond(), equalTo(0L));
+
+        index.start();
+        final long reusedBytes = randomLongBetween(1L, 1L << 30);
+        final long recoveredBytes = randomLongBetween(1L, 1L << 30);
+        index.addFileDetail("reused", reusedBytes, true);
+        index.addFileDetail("recovered", recoveredBytes, false);
+        index.addRecoveredBytesToFile("recovered", recoveredBytes);
+        index.stop();
+        // pin the duration of the index stage, reused files do not count towards the throughput
+        index.time = randomLongBetween(1L, 100_000L);
+        final long throughput = recoveredBytes * 1000L / index.time;
+        assertThat(index.recoveredBytesPerSecond(), equalTo(throughput));
+
+        final BytesStreamOutput out = new BytesStreamOutput();
+        out.setVersion(randomVersion(random()));
+        index.writeTo(out);
+        final StreamInput in = out.bytes().streamInput();
+        in.setVersion(out.getVersion());
+        final Index read = new Index(in);
+        assertThat(read.time(), equalTo(index.time()));
+        assertThat(read.recoveredBytesPerSecond(), equalTo(throughput));
+
+        final XContentBuilder builder = XContentFactory.jsonBuilder().humanReadable(true);
+        builder.startObject();
+        read.toXContent(builder, ToXContent.EMPTY_PARAMS);
+        builder.endObject();
+        final Map<String, Object> size = ObjectPath.eval("size", XContentHelper.convertToMap(BytesReference.bytes(builder), false,
+            builder.contentType()).v2());
+        assertThat(((Number) size.get("throughput_per_sec_in_bytes")).longValue(), equalTo(throughput));
+        assertThat(size.get("throughput_per_sec"), equalTo(new ByteSizeValue(throughput).toString()));
+    }
+
     public void testStageSequenceEnforcement() {
         final DiscoveryNode discoveryNode = new DiscoveryNode("1", buildNewFakeTransportAddress(), emptyMap(), emptySet(),
             Version.CURRENT);
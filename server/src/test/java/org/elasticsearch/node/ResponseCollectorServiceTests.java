@@ -17,6 +17,7 @@ import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.TransportAddress;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -28,6 +29,8 @@ import java.util.concurrent.CountDownLatch;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
 
 public class ResponseCollectorServiceTests extends ESTestCase {
 
@@ -60,6 +63,36 @@ public class ResponseCollectorServiceTests extends ESTestCase {
         assertThat(nodeStats.get("node1").serviceTime, equalTo(10.0));
     }
 
+    public void testResponseTimePercentiles() {
+        for (int i = 1; i < ResponseCollectorService.MIN_RESPONSES_FOR_PERCENTILES; i++) {
+            collector.addNodeStatistics("node1", 1, TimeValue.timeValueMillis(10).nanos(), 10);
+        }
+        // too few responses to compute meaningful percentiles
+        assertThat(collector.getNodeStatistics("node1").get().responseTimeP99, equalTo(-1.0));
+
+        for (int i = 0; i < 100; i++) {
+            collector.addNodeStatistics("node1", 1, TimeValue.timeValueMillis(10).nanos(), 10);
+        }
+        collector.addNodeStatistics("node1", 1, TimeValue.timeValueSeconds(1).nanos(), 10);
+        ResponseCollectorService.ComputedNodeStats stats = collector.getNodeStatistics("node1").get();
+        assertThat(stats.responseTimeP50, lessThan((double) TimeValue.timeValueMillis(20).nanos()));
+        assertThat(stats.responseTimeP95, lessThan((double) TimeValue.timeValueMillis(20).nanos()));
+        assertThat(stats.responseTimeP99, greaterThanOrEqualTo((double) TimeValue.timeValueSeconds(1).nanos()));
+    }
+
+    public void testRankByTailLatency() {
+        // node1 is slightly faster on average but suffers from occasional long pauses
+        for (int i = 0; i < 100; i++) {
+            collector.addNodeStatistics("node1", 1, TimeValue.timeValueMillis(i % 20 == 0 ? 200 : 10).nanos(), 1000000);
+            collector.addNodeStatistics("node2", 1, TimeValue.timeValueMillis(25).nanos(), 1000000);
+        }
+        assertThat(collector.getNodeStatistics("node1").get().rank(1), lessThan(collector.getNodeStatistics("node2").get().rank(1)));
+
+        clusterService.getClusterSettings().applySettings(Settings.builder()
+            .put(ResponseCollectorService.RANK_BY_TAIL_LATENCY_SETTING.getKey(), true).build());
+        assertThat(collector.getNodeStatistics("node1").get().rank(1), greaterThan(collector.getNodeStatistics("node2").get().rank(1)));
+    }
+
     /*
      * Test that concurrently adding values and removing nodes does not cause exceptions
      */
@@ -12,6 +12,7 @@ import org.elasticsearch.ElasticsearchParseException;
 import org.elasticsearch.Version;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.xcontent.XContent;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentParser;
@@ -319,6 +320,79 @@ public class RepositoryDataTests extends ESTestCase {
         assertEquals(newRepoData.indexMetaDataToRemoveAfterRemovingSnapshots(Collections.singleton(otherSnapshotId)), removeFromOther);
     }
 
+    public void testDeltaXContent() throws IOException {
+        final RepositoryData previous = generateRandomRepoData().withGenId(randomLongBetween(0, 500));
+        RepositoryData repositoryData = previous;
+        if (randomBoolean()) {
+            repositoryData = repositoryData.removeSnapshots(randomSubsetOf(repositoryData.getSnapshotIds()), ShardGenerations.EMPTY);
+        }
+        final List<IndexId> indices = new ArrayList<>(repositoryData.getIndices().values());
+        for (int i = randomIntBetween(0, 5); i > 0; i--) {
+            indices.add(new IndexId(randomAlphaOfLength(8), UUIDs.randomBase64UUID()));
+        }
+        if (indices.isEmpty() == false) {
+            for (int i = randomIntBetween(0, 5); i > 0; i--) {
+                repositoryData = addRandomSnapshot(repositoryData, randomSubsetOf(randomIntBetween(1, indices.size()), indices));
+            }
+        }
+        repositoryData = repositoryData.withGenId(previous.getGenId() + randomIntBetween(1, 10));
+
+        final RepositoryData.Delta delta = repositoryData.deltaFrom(previous);
+        assertNotNull(delta);
+        assertEquals(previous.getGenId(), delta.baseGeneration());
+        final XContentBuilder builder = JsonXContent.contentBuilder();
+        delta.toXContent(builder);
+        try (XContentParser parser = createParser(JsonXContent.jsonXContent, BytesReference.bytes(builder))) {
+            final Tuple<RepositoryData, RepositoryData.Delta> indexBlob =
+                RepositoryData.indexBlobFromXContent(parser, repositoryData.getGenId(), randomBoolean());
+            assertNull(indexBlob.v1());
+            final RepositoryData fromDelta = previous.withDelta(indexBlob.v2(), repositoryData.getGenId());
+            assertEquals(repositoryData, fromDelta);
+            assertEquals(repositoryData.getGenId(), fromDelta.getGenId());
+        }
+    }
+
+    public void testIndexBlobWithFullRepositoryData() throws IOException {
+        final RepositoryData repositoryData = generateRandomRepoData();
+        final XContentBuilder builder = JsonXContent.contentBuilder();
+        repositoryData.snapshotsToXContent(builder, Version.CURRENT);
+        try (XContentParser parser = createParser(JsonXContent.jsonXContent, BytesReference.bytes(builder))) {
+            final long gen = randomIntBetween(0, 500);
+            final Tuple<RepositoryData, RepositoryData.Delta> indexBlob =
+                RepositoryData.indexBlobFromXContent(parser, gen, randomBoolean());
+            assertNull(indexBlob.v2());
+            assertEquals(repositoryData, indexBlob.v1());
+            assertEquals(gen, indexBlob.v1().getGenId());
+        }
+    }
+
+    public void testNoDeltaIfKeptSnapshotChanged() {
+        final RepositoryData previous = generateRandomRepoData();
+        final SnapshotId snapshotId = randomFrom(previous.getSnapshotIds());
+        final Version version = previous.getVersion(snapshotId).equals(Version.CURRENT)
+            ? Version.CURRENT.minimumCompatibilityVersion() : Version.CURRENT;
+        final RepositoryData repositoryData =
+            previous.withVersions(Collections.singletonMap(snapshotId, version)).withGenId(previous.getGenId() + 1);
+        assertNull(repositoryData.deltaFrom(previous));
+    }
+
+    public void testDeltaForWrongGeneration() throws IOException {
+        final RepositoryData previous = generateRandomRepoData().withGenId(randomLongBetween(0, 500));
+        final RepositoryData repositoryData = addRandomSnapshot(previous, new ArrayList<>(previous.getIndices().values()))
+            .withGenId(previous.getGenId() + 1);
+        final RepositoryData.Delta delta = repositoryData.deltaFrom(previous);
+        assertNotNull(delta);
+        expectThrows(IllegalArgumentException.class, () -> repositoryData.withDelta(delta, repositoryData.getGenId() + 1));
+
+        final XContentBuilder builder = JsonXContent.contentBuilder();
+        delta.toXContent(builder);
+        try (XContentParser parser = createParser(JsonXContent.jsonXContent, BytesReference.bytes(builder))) {
+            // a delta can only hold the changes to an earlier generation
+            expectThrows(ElasticsearchParseException.class,
+                () -> RepositoryData.indexBlobFromXContent(parser, previous.getGenId(), randomBoolean()));
+        }
+    }
+
     public static RepositoryData generateRandomRepoData() {
         final int numIndices = randomIntBetween(1, 30);
         final List<IndexId> indices = new ArrayList<>(numIndices);
@@ -328,28 +402,31 @@ public class RepositoryDataTests extends ESTestCase {
         final int numSnapshots = randomIntBetween(1, 30);
         RepositoryData repositoryData = RepositoryData.EMPTY;
         for (int i = 0; i < numSnapshots; i++) {
-            final SnapshotId snapshotId = new SnapshotId(randomAlphaOfLength(8), UUIDs.randomBase64UUID());
-            final List<IndexId> someIndices = indices.subList(0, randomIntBetween(1, numIndices));
-            final ShardGenerations.Builder builder = ShardGenerations.builder();
-            for (IndexId someIndex : someIndices) {
-                final int shardCount = randomIntBetween(1, 10);
-                for (int j = 0; j < shardCount; ++j) {
-                    final String uuid = randomBoolean() ? null : UUIDs.randomBase64UUID(random());
-                    builder.put(someIndex, j, uuid);
-                }
-            }
-            final Map<IndexId, String> indexLookup =
-                someIndices.stream().collect(Collectors.toMap(Function.identity(), ind -> randomAlphaOfLength(256)));
-            repositoryData = repositoryData.addSnapshot(
-                snapshotId, randomFrom(SnapshotState.values()),
-                randomFrom(Version.CURRENT, Version.CURRENT.minimumCompatibilityVersion()),
-                builder.build(),
-                indexLookup,
-                indexLookup.values().stream().collect(Collectors.toMap(Function.identity(), ignored -> UUIDs.randomBase64UUID(random()))));
+            repositoryData = addRandomSnapshot(repositoryData, indices.subList(0, randomIntBetween(1, numIndices)));
         }
         return repositoryData;
     }
 
+    private static RepositoryData addRandomSnapshot(RepositoryData repositoryData, List<IndexId> someIndices) {
+        final SnapshotId snapshotId = new SnapshotId(randomAlphaOfLength(8), UUIDs.randomBase64UUID());
+        final ShardGenerations.Builder builder = ShardGenerations.builder();
+        for (IndexId someIndex : someIndices) {
+            final int shardCount = randomIntBetween(1, 10);
+            for (int j = 0; j < shardCount; ++j) {
+                final String uuid = randomBoolean() ? null : UUIDs.randomBase64UUID(random());
+                builder.put(someIndex, j, uuid);
+            }
+        }
+        final Map<IndexId, String> indexLookup =
+            someIndices.stream().collect(Collectors.toMap(Function.identity(), ind -> randomAlphaOfLength(256)));
+        return repositoryData.addSnapshot(
+            snapshotId, randomFrom(SnapshotState.values()),
+            randomFrom(Version.CURRENT, Version.CURRENT.minimumCompatibilityVersion()),
+            builder.build(),
+            indexLookup,
+            indexLookup.values().stream().collect(Collectors.toMap(Function.identity(), ignored -> UUIDs.randomBase64UUID(random()))));
+    }
+
     private static Map<IndexId, List<SnapshotId>> randomIndices(final Map<String, SnapshotId> snapshotIdsMap) {
         final List<SnapshotId> snapshotIds = new ArrayList<>(snapshotIdsMap.values());
         final int totalSnapshots = snapshotIds.size();
@@ -8,8 +8,10 @@
 
 package org.elasticsearch.repositories.blobstore;
 
+import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.TestUtil;
+import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.Version;
 import org.elasticsearch.action.support.PlainActionFuture;
 import org.elasticsearch.cluster.metadata.Metadata;
@@ -19,8 +21,15 @@ import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.cluster.routing.ShardRoutingHelper;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.blobstore.BlobContainer;
+import org.elasticsearch.common.blobstore.BlobPath;
+import org.elasticsearch.common.blobstore.BlobStore;
+import org.elasticsearch.common.blobstore.support.FilterBlobContainer;
+import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.MockBigArrays;
 import org.elasticsearch.core.internal.io.IOUtils;
 import org.elasticsearch.env.Environment;
@@ -31,6 +40,7 @@ import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.IndexShardState;
 import org.elasticsearch.index.shard.IndexShardTestCase;
 import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.snapshots.IndexShardRestoreFailedException;
 import org.elasticsearch.index.snapshots.IndexShardSnapshotFailedException;
 import org.elasticsearch.index.store.Store;
 import org.elasticsearch.index.store.StoreFileMetadata;
@@ -44,16 +54,22 @@ import org.elasticsearch.snapshots.Snapshot;
 import org.elasticsearch.snapshots.SnapshotId;
 import org.elasticsearch.snapshots.SnapshotInfo;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
 
 /**
  * This class tests the behavior of {@link BlobStoreRepository} when it
@@ -189,18 +205,210 @@ public class BlobStoreRepositoryRestoreTests extends IndexShardTestCase {
         }
     }
 
+    public void testRestoreFileInRanges() throws IOException {
+        final AtomicInteger rangedReads = new AtomicInteger();
+        final Tuple<IndexShard, Store.MetadataSnapshot> restored =
+            restoreLargeFiles(blobContainer -> new RangedReadsBlobContainer(blobContainer, (position, length, stream) -> {
+                rangedReads.incrementAndGet();
+                return stream;
+            }));
+        final IndexShard shard = restored.v1();
+        try {
+            assertThat(rangedReads.get(), greaterThan(1));
+            // check that the restored files are the ones in the snapshot, including their checksums
+            final Store.MetadataSnapshot restoredFiles = shard.snapshotStoreMetadata();
+            for (StoreFileMetadata storeFile : restored.v2()) {
+                final StoreFileMetadata restoredFile = restoredFiles.get(storeFile.name());
+                assertTrue("File [" + storeFile.name() + "] differs from the snapshot", storeFile.isSame(restoredFile));
+                Store.checkIntegrity(restoredFile, shard.store().directory());
+            }
+            TestUtil.checkIndex(shard.store().directory());
+            assertNoTemporaryFiles(shard.store());
+        } finally {
+            closeShards(shard);
+        }
+    }
+
+    public void testRestoreFileInRangesFailsIfRangeFails() throws IOException {
+        final AtomicBoolean failed = new AtomicBoolean();
+        final IndexShardRestoreFailedException e = expectThrows(IndexShardRestoreFailedException.class,
+            () -> restoreLargeFiles(blobContainer -> new RangedReadsBlobContainer(blobContainer, (position, length, stream) -> {
+                // fail the first range that does not start at the beginning of the file part of the way through
+                if (position > 0L && length > 1L && failed.compareAndSet(false, true)) {
+                    return new FilterInputStream(stream) {
+                        private int remaining = Math.toIntExact(randomLongBetween(1L, length - 1L));
+
+                        @Override
+                        public int read(byte[] b, int off, int len) throws IOException {
+                            if (remaining <= 0) {
+                                throw new IOException("simulated failure");
+                            }
+                            final int read = super.read(b, off, Math.min(len, remaining));
+                            remaining -= read;
+                            return read;
+                        }
+                    };
+                }
+                return stream;
+            })));
+        assertTrue(failed.get());
+        assertThat(ExceptionsHelper.unwrap(e, IOException.class).getMessage(), containsString("simulated failure"));
+    }
+
+    public void testRestoreFileInRangesFailsIfChecksumDoesNotMatch() throws IOException {
+        final AtomicBoolean corrupted = new AtomicBoolean();
+        final IndexShardRestoreFailedException e = expectThrows(IndexShardRestoreFailedException.class,
+            () -> restoreLargeFiles(blobContainer -> new RangedReadsBlobContainer(blobContainer, (position, length, stream) -> {
+                // flip the first byte of the first range that does not start at the beginning of the file
+                if (position > 0L && corrupted.compareAndSet(false, true)) {
+                    return new FilterInputStream(stream) {
+                        private boolean flipped;
+
+                        @Override
+                        public int read(byte[] b, int off, int len) throws IOException {
+                            final int read = super.read(b, off, len);
+                            if (read > 0 && flipped == false) {
+                                flipped = true;
+                                b[off] = (byte) (b[off] ^ 0x01);
+                            }
+                            return read;
+                        }
+                    };
+                }
+                return stream;
+            })));
+        assertTrue(corrupted.get());
+        assertNotNull(ExceptionsHelper.unwrap(e, CorruptIndexException.class));
+    }
+
+    /**
+     * Snapshots a shard with a stored fields file that spans several ranges, deletes the files that span several ranges from the
+     * closed shard's store, and restores them through a repository that reads blobs through the given wrapper. Returns the restored shard
+     * along with the files in the snapshot, or closes the shard if the restore fails after checking that no file that was restored in
+     * ranges is left behind.
+     */
+    private Tuple<IndexShard, Store.MetadataSnapshot> restoreLargeFiles(Function<BlobContainer, BlobContainer> blobContainerWrapper)
+            throws IOException {
+        final ByteSizeValue rangeSize = new ByteSizeValue(1, ByteSizeUnit.MB);
+        final IndexId indexId = new IndexId(randomAlphaOfLength(10), UUIDs.randomBase64UUID());
+        IndexShard shard = newShard(new ShardId(indexId.getName(), indexId.getId(), 0), true);
+        final Repository repository = createRepository(
+            Settings.builder().put(RecoverySettings.INDICES_RECOVERY_SNAPSHOT_FILE_DOWNLOAD_RANGE_SIZE_SETTING.getKey(), rangeSize).build(),
+            blobContainerWrapper);
+        final Snapshot snapshot = new Snapshot(repository.getMetadata().name(), new SnapshotId(randomAlphaOfLength(10), "_uuid"));
+        final Store.MetadataSnapshot snapshotFiles;
+        final List<String> largeFiles;
+        try {
+            recoverShardFromStore(shard);
+            // random values hardly compress, so these documents make for a stored fields file of a few ranges
+            for (int i = 0; i < 30; i++) {
+                indexDoc(shard, "_doc", Integer.toString(i), "{\"field\":\"" + randomAlphaOfLength(100_000) + "\"}");
+            }
+            flushShard(shard, true);
+            snapshotShard(shard, snapshot, repository);
+            snapshotFiles = shard.snapshotStoreMetadata();
+            largeFiles = StreamSupport.stream(snapshotFiles.spliterator(), false)
+                .filter(storeFile -> storeFile.length() > rangeSize.getBytes())
+                .map(StoreFileMetadata::name)
+                .collect(Collectors.toList());
+            assertFalse(largeFiles.isEmpty());
+        } finally {
+            closeShards(shard);
+        }
+        for (String largeFile : largeFiles) {
+            Files.delete(shard.shardPath().resolveIndex().resolve(largeFile));
+        }
+
+        shard = newShard(ShardRoutingHelper.initWithSameId(shard.routingEntry(), RecoverySource.ExistingStoreRecoverySource.INSTANCE),
+            shard.shardPath(), shard.indexSettings().getIndexMetadata(), null, null, new InternalEngineFactory(), () -> {},
+            RetentionLeaseSyncer.EMPTY, EMPTY_EVENT_LISTENER);
+        boolean success = false;
+        try {
+            recoverShardFromSnapshot(shard, snapshot, repository);
+            success = true;
+            return Tuple.tuple(shard, snapshotFiles);
+        } finally {
+            if (success == false) {
+                final List<String> files = Arrays.asList(shard.store().directory().listAll());
+                for (String largeFile : largeFiles) {
+                    assertFalse("File [" + largeFile + "] was left behind", files.contains(largeFile));
+                }
+                assertNoTemporaryFiles(shard.store());
+                closeShards(shard);
+            }
+        }
+    }
+
+    private static void assertNoTemporaryFiles(Store store) throws IOException {
+        for (String file : store.directory().listAll()) {
+            assertFalse("Temporary file [" + file + "] was left behind", file.endsWith(".tmp"));
+        }
+    }
+
+    /**
+     * Passes the streams of ranged reads through a function of the read's position and length in the blob.
+     */
+    private static class RangedReadsBlobContainer extends FilterBlobContainer {
+
+        private final RangedRead rangedReads;
+
+        RangedReadsBlobContainer(BlobContainer delegate, RangedRead rangedReads) {
+            super(delegate);
+            this.rangedReads = rangedReads;
+        }
+
+        @Override
+        protected BlobContainer wrapChild(BlobContainer child) {
+            return new RangedReadsBlobContainer(child, rangedReads);
+        }
+
+        @Override
+        public InputStream readBlob(String blobName, long position, long length) throws IOException {
+            return rangedReads.wrap(position, length, super.readBlob(blobName, position, length));
+        }
+
+        @FunctionalInterface
+        interface RangedRead {
+            InputStream wrap(long position, long length, InputStream stream);
+        }
+    }
+
     /** Create a {@link Repository} with a random name **/
     private Repository createRepository() {
+        return createRepository(Settings.EMPTY, Function.identity());
+    }
+
+    /**
+     * Create a {@link Repository} with a random name that uses the given node settings for recoveries, and reads from and writes to
+     * the blob containers returned by the given wrapper
+     **/
+    private Repository createRepository(Settings nodeSettings, Function<BlobContainer, BlobContainer> blobContainerWrapper) {
         Settings settings = Settings.builder().put("location", randomAlphaOfLength(10)).build();
         RepositoryMetadata repositoryMetadata = new RepositoryMetadata(randomAlphaOfLength(10), FsRepository.TYPE, settings);
         final ClusterService clusterService = BlobStoreTestUtil.mockClusterService(repositoryMetadata);
         final FsRepository repository = new FsRepository(repositoryMetadata, createEnvironment(), xContentRegistry(), clusterService,
             MockBigArrays.NON_RECYCLING_INSTANCE,
-            new RecoverySettings(Settings.EMPTY, new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS))) {
+            new RecoverySettings(nodeSettings, new ClusterSettings(nodeSettings, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS))) {
             @Override
             protected void assertSnapshotOrGenericThread() {
                 // eliminate thread name check as we create repo manually
             }
+
+            @Override
+            protected BlobStore createBlobStore() throws Exception {
+                final BlobStore blobStore = super.createBlobStore();
+                return new BlobStore() {
+                    @Override
+                    public BlobContainer blobContainer(BlobPath path) {
+                        return blobContainerWrapper.apply(blobStore.blobContainer(path));
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        blobStore.close();
+                    }
+                };
+            }
         };
         clusterService.addStateApplier(event -> repository.updateState(event.state()));
         // Apply state once to initialize repo properly like RepositoriesService would
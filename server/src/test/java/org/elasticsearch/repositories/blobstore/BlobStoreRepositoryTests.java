@@ -48,6 +48,8 @@ import java.util.stream.Collectors;
 
 import static org.elasticsearch.repositories.RepositoryDataTests.generateRandomRepoData;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.nullValue;
 
 /**
@@ -185,6 +187,77 @@ public class BlobStoreRepositoryTests extends ESSingleNodeTestCase {
         assertThat(repository.readSnapshotIndexLatestBlob(), equalTo(expectedGeneration + 2L));
     }
 
+    public void testIncrementalIndexGenerationalFiles() throws Exception {
+        final int maxDeltas = randomIntBetween(1, 5);
+        final BlobStoreRepository repository =
+            setupRepo(Settings.builder().put(BlobStoreRepository.MAX_REPOSITORY_DATA_DELTAS_SETTING.getKey(), maxDeltas));
+
+        // the first generation is always written in full
+        writeIndexGen(repository, generateRandomRepoData(), RepositoryData.EMPTY_REPO_GEN);
+        final long fullGeneration = repository.latestIndexBlobId();
+
+        for (int i = 0; i < maxDeltas; i++) {
+            final RepositoryData repositoryData =
+                addRandomSnapshotsToRepoData(ESBlobStoreRepositoryIntegTestCase.getRepositoryData(repository), true);
+            writeIndexGen(repository, repositoryData, repositoryData.getGenId());
+            assertEquals(repositoryData, ESBlobStoreRepositoryIntegTestCase.getRepositoryData(repository));
+            assertThat(repository.latestIndexBlobId(), equalTo(fullGeneration + i + 1));
+            // the new generation only holds the changes so the full repository data it applies to must be kept
+            assertTrue(indexBlobExists(repository, fullGeneration));
+        }
+
+        // the full repository data is written again once the maximum number of changes is reached
+        final RepositoryData repositoryData =
+            addRandomSnapshotsToRepoData(ESBlobStoreRepositoryIntegTestCase.getRepositoryData(repository), true);
+        writeIndexGen(repository, repositoryData, repositoryData.getGenId());
+        assertEquals(repositoryData, ESBlobStoreRepositoryIntegTestCase.getRepositoryData(repository));
+        final long newFullGeneration = fullGeneration + maxDeltas + 1;
+        assertThat(repository.latestIndexBlobId(), equalTo(newFullGeneration));
+        for (long generation = fullGeneration; generation < newFullGeneration; generation++) {
+            assertFalse(indexBlobExists(repository, generation));
+        }
+
+        // the full repository data is always written if there may be nodes in the cluster that cannot read the changes
+        final RepositoryData olderVersionData =
+            addRandomSnapshotsToRepoData(ESBlobStoreRepositoryIntegTestCase.getRepositoryData(repository), true);
+        PlainActionFuture.<RepositoryData, Exception>get(f -> repository.writeIndexGen(olderVersionData, olderVersionData.getGenId(),
+            Version.V_7_11_2, Function.identity(), f));
+        assertEquals(olderVersionData, ESBlobStoreRepositoryIntegTestCase.getRepositoryData(repository));
+        assertFalse(indexBlobExists(repository, newFullGeneration));
+    }
+
+    public void testIncrementalIndexGenerationalFilesForLargeRepositoryData() throws Exception {
+        final int maxDeltas = randomIntBetween(1, 5);
+        final BlobStoreRepository repository =
+            setupRepo(Settings.builder().put(BlobStoreRepository.MAX_REPOSITORY_DATA_DELTAS_SETTING.getKey(), maxDeltas));
+
+        // the repository data is too large to be cached
+        writeIndexGen(repository, addSnapshotWithManyIndices(RepositoryData.EMPTY, 2000), RepositoryData.EMPTY_REPO_GEN);
+        final long fullGeneration = repository.latestIndexBlobId();
+        final long fullLength = indexBlobLength(repository, fullGeneration);
+        assertThat(fullLength, greaterThan(ByteSizeUnit.KB.toBytes(500)));
+
+        // but new generations still only hold the changes
+        for (int i = 0; i < maxDeltas; i++) {
+            final RepositoryData repositoryData =
+                addRandomSnapshotsToRepoData(ESBlobStoreRepositoryIntegTestCase.getRepositoryData(repository), false);
+            writeIndexGen(repository, repositoryData, repositoryData.getGenId());
+            assertEquals(repositoryData, ESBlobStoreRepositoryIntegTestCase.getRepositoryData(repository));
+            assertThat(repository.latestIndexBlobId(), equalTo(fullGeneration + i + 1));
+            assertThat(indexBlobLength(repository, fullGeneration + i + 1), lessThan(fullLength / 10));
+            assertTrue(indexBlobExists(repository, fullGeneration));
+        }
+
+        // until the maximum number of changes is reached
+        final RepositoryData repositoryData =
+            addRandomSnapshotsToRepoData(ESBlobStoreRepositoryIntegTestCase.getRepositoryData(repository), false);
+        writeIndexGen(repository, repositoryData, repositoryData.getGenId());
+        assertEquals(repositoryData, ESBlobStoreRepositoryIntegTestCase.getRepositoryData(repository));
+        final long newFullGeneration = fullGeneration + maxDeltas + 1;
+        assertThat(indexBlobLength(repository, newFullGeneration), greaterThan(fullLength));
+        assertFalse(indexBlobExists(repository, fullGeneration));
+    }
+
     public void testRepositoryDataConcurrentModificationNotAllowed() {
         final BlobStoreRepository repository = setupRepo();
 
@@ -238,7 +311,20 @@ public class BlobStoreRepositoryTests extends ESSingleNodeTestCase {
                 f -> repository.writeIndexGen(repositoryData, generation, Version.CURRENT, Function.identity(), f));
     }
 
+    private static boolean indexBlobExists(BlobStoreRepository repository, long generation) throws Exception {
+        return repository.blobContainer().blobExists(BlobStoreRepository.INDEX_FILE_PREFIX + generation);
+    }
+
+    private static long indexBlobLength(BlobStoreRepository repository, long generation) throws Exception {
+        final String blobName = BlobStoreRepository.INDEX_FILE_PREFIX + generation;
+        return repository.blobContainer().listBlobsByPrefix(blobName).get(blobName).length();
+    }
+
     private BlobStoreRepository setupRepo() {
+        return setupRepo(Settings.builder());
+    }
+
+    private BlobStoreRepository setupRepo(Settings.Builder repositorySettings) {
         final Client client = client();
         final Path location = ESIntegTestCase.randomRepoPath(node().settings());
         final String repositoryName = "test-repo";
@@ -246,7 +332,7 @@ public class BlobStoreRepositoryTests extends ESSingleNodeTestCase {
         AcknowledgedResponse putRepositoryResponse =
             client.admin().cluster().preparePutRepository(repositoryName)
                                     .setType(REPO_TYPE)
-                                    .setSettings(Settings.builder().put(node().settings()).put("location", location))
+                                    .setSettings(repositorySettings.put(node().settings()).put("location", location))
                                     .get();
         assertThat(putRepositoryResponse.isAcknowledged(), equalTo(true));
 
@@ -257,6 +343,19 @@ public class BlobStoreRepositoryTests extends ESSingleNodeTestCase {
         return repository;
     }
 
+    private RepositoryData addSnapshotWithManyIndices(RepositoryData repoData, int numIndices) {
+        final SnapshotId snapshotId = new SnapshotId(randomAlphaOfLength(8), UUIDs.randomBase64UUID());
+        final ShardGenerations.Builder builder = ShardGenerations.builder();
+        for (int i = 0; i < numIndices; i++) {
+            builder.put(new IndexId("index-" + i, UUIDs.randomBase64UUID()), 0, "1");
+        }
+        final ShardGenerations shardGenerations = builder.build();
+        final Map<IndexId, String> indexLookup =
+            shardGenerations.indices().stream().collect(Collectors.toMap(Function.identity(), ind -> randomAlphaOfLength(256)));
+        return repoData.addSnapshot(snapshotId, SnapshotState.SUCCESS, Version.CURRENT, shardGenerations, indexLookup,
+            indexLookup.values().stream().collect(Collectors.toMap(Function.identity(), ignored -> UUIDs.randomBase64UUID(random()))));
+    }
+
     private RepositoryData addRandomSnapshotsToRepoData(RepositoryData repoData, boolean inclIndices) {
         int numSnapshots = randomIntBetween(1, 20);
         for (int i = 0; i < numSnapshots; i++) {
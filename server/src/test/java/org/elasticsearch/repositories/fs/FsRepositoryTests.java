@@ -46,6 +46,7 @@ import org.elasticsearch.index.store.Store;
 import org.elasticsearch.indices.recovery.RecoverySettings;
 import org.elasticsearch.indices.recovery.RecoveryState;
 import org.elasticsearch.repositories.IndexId;
+import org.elasticsearch.repositories.blobstore.BlobStoreRepository;
 import org.elasticsearch.repositories.blobstore.BlobStoreTestUtil;
 import org.elasticsearch.snapshots.Snapshot;
 import org.elasticsearch.snapshots.SnapshotId;
@@ -159,6 +160,68 @@ public class FsRepositoryTests extends ESTestCase {
         }
     }
 
+    public void testSnapshotAndRestoreWithMultipartUploads() throws IOException, InterruptedException {
+        ThreadPool threadPool = new TestThreadPool(getClass().getSimpleName());
+        try (Directory directory = newDirectory()) {
+            Path repo = createTempDir();
+            Settings.Builder settings = Settings.builder()
+                .put(Environment.PATH_HOME_SETTING.getKey(), createTempDir().toAbsolutePath())
+                .put(Environment.PATH_REPO_SETTING.getKey(), repo.toAbsolutePath())
+                .putList(Environment.PATH_DATA_SETTING.getKey(), tmpPaths())
+                .put("location", repo)
+                .put("compress", randomBoolean())
+                .put(BlobStoreRepository.MULTIPART_UPLOAD_PART_SIZE_SETTING.getKey(), 1, ByteSizeUnit.KB);
+            if (randomBoolean()) {
+                settings.put("chunk_size", randomIntBetween(1024, 8192), ByteSizeUnit.BYTES);
+            }
+            final Settings repositorySettings = settings.build();
+
+            int numDocs = indexDocs(directory);
+            RepositoryMetadata metadata = new RepositoryMetadata("test", "fs", repositorySettings);
+            FsRepository repository = new FsRepository(metadata, new Environment(repositorySettings, null), NamedXContentRegistry.EMPTY,
+                BlobStoreTestUtil.mockClusterService(), MockBigArrays.NON_RECYCLING_INSTANCE, new RecoverySettings(repositorySettings,
+                new ClusterSettings(repositorySettings, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS)));
+            repository.start();
+            final Settings indexSettings = Settings.builder().put(IndexMetadata.SETTING_INDEX_UUID, "myindexUUID").build();
+            IndexSettings idxSettings = IndexSettingsModule.newIndexSettings("myindex", indexSettings);
+            ShardId shardId = new ShardId(idxSettings.getIndex(), 1);
+            Store store = new Store(shardId, idxSettings, directory, new DummyShardLock(shardId));
+            SnapshotId snapshotId = new SnapshotId("test", "test");
+            IndexId indexId = new IndexId(idxSettings.getIndex().getName(), idxSettings.getUUID());
+
+            IndexCommit indexCommit = Lucene.getIndexCommit(Lucene.readSegmentInfos(store.directory()), store.directory());
+            final Store.MetadataSnapshot snapshotMetadata = store.getMetadata(indexCommit);
+            final PlainActionFuture<String> future = PlainActionFuture.newFuture();
+            runGeneric(threadPool, () -> {
+                IndexShardSnapshotStatus snapshotStatus = IndexShardSnapshotStatus.newInitializing(null);
+                repository.snapshotShard(store, null, snapshotId, indexId, indexCommit, null,
+                    snapshotStatus, Version.CURRENT, Collections.emptyMap(), future);
+                future.actionGet();
+                IndexShardSnapshotStatus.Copy copy = snapshotStatus.asCopy();
+                assertEquals(copy.getTotalFileCount(), copy.getIncrementalFileCount());
+                assertEquals(copy.getTotalSize(), copy.getProcessedSize());
+            });
+            future.actionGet();
+
+            Lucene.cleanLuceneIndex(directory);
+            DiscoveryNode localNode = new DiscoveryNode("foo", buildNewFakeTransportAddress(), emptyMap(), emptySet(), Version.CURRENT);
+            ShardRouting routing = ShardRouting.newUnassigned(shardId, true, new RecoverySource.SnapshotRecoverySource("test",
+                    new Snapshot("foo", snapshotId), Version.CURRENT, indexId),
+                new UnassignedInfo(UnassignedInfo.Reason.EXISTING_INDEX_RESTORED, ""));
+            routing = ShardRoutingHelper.initialize(routing, localNode.getId(), 0);
+            RecoveryState state = new RecoveryState(routing, localNode, null);
+            final PlainActionFuture<Void> restoreFuture = PlainActionFuture.newFuture();
+            runGeneric(threadPool, () -> repository.restoreShard(store, snapshotId, indexId, shardId, state, restoreFuture));
+            restoreFuture.actionGet();
+            assertEquals(indexCommit.getFileNames().size(), state.getIndex().recoveredFileCount());
+            assertEquals(numDocs, Lucene.readSegmentInfos(directory).totalMaxDoc());
+            final Store.RecoveryDiff diff = snapshotMetadata.recoveryDiff(store.getMetadata(null));
+            assertEquals(snapshotMetadata.size(), diff.identical.size());
+        } finally {
+            terminate(threadPool);
+        }
+    }
+
     private void runGeneric(ThreadPool threadPool, Runnable runnable) throws InterruptedException {
         CountDownLatch latch = new CountDownLatch(1);
         threadPool.generic().submit(() -> {
@@ -48,6 +48,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.Matchers.containsString;
@@ -247,6 +248,27 @@ public class RestControllerTests extends ESTestCase {
         assertFalse(handlerCalled.get());
     }
 
+    public void testReadPauseCondition() {
+        final AtomicBoolean pause = new AtomicBoolean();
+        restController.registerHandler(RestRequest.Method.POST, "/{index}/_bulk", new RestHandler() {
+            @Override
+            public void handleRequest(RestRequest request, RestChannel channel, NodeClient client) {
+            }
+
+            @Override
+            public boolean shouldPauseReading() {
+                return pause.get();
+            }
+        });
+
+        final BooleanSupplier condition = restController.readPauseCondition(RestRequest.Method.POST, "/index/_bulk?refresh=true");
+        assertFalse(condition.getAsBoolean());
+        pause.set(true);
+        assertTrue(condition.getAsBoolean());
+        assertFalse(restController.readPauseCondition(RestRequest.Method.PUT, "/index/_bulk").getAsBoolean());
+        assertFalse(restController.readPauseCondition(RestRequest.Method.POST, "/index/_doc").getAsBoolean());
+    }
+
     public void testDispatchRequestAddsAndFreesBytesOnSuccess() {
         int contentLength = BREAKER_LIMIT.bytesAsInt();
         String content = randomAlphaOfLength((int) Math.round(contentLength / inFlightRequestsBreaker.getOverhead()));
@@ -49,6 +49,7 @@ import org.elasticsearch.index.query.AbstractQueryBuilder;
 import org.elasticsearch.index.query.MatchAllQueryBuilder;
 import org.elasticsearch.index.query.MatchNoneQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.index.query.QueryRewriteContext;
 import org.elasticsearch.index.query.QueryShardContext;
 import org.elasticsearch.index.query.TermQueryBuilder;
@@ -57,6 +58,7 @@ import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.SearchOperationListener;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.indices.TermsLookup;
 import org.elasticsearch.indices.settings.InternalOrPrivateSettingsPlugin;
 import org.elasticsearch.plugins.Plugin;
 import org.elasticsearch.plugins.SearchPlugin;
@@ -82,6 +84,7 @@ import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.search.internal.ShardSearchContextId;
 import org.elasticsearch.search.internal.ShardSearchRequest;
 import org.elasticsearch.search.query.QuerySearchResult;
+import org.elasticsearch.search.sort.ScriptSortBuilder;
 import org.elasticsearch.search.suggest.SuggestBuilder;
 import org.elasticsearch.test.ESSingleNodeTestCase;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -398,6 +401,74 @@ public class SearchServiceTests extends ESSingleNodeTestCase {
         assertEquals(0, totalStats.getFetchCurrent());
     }
 
+    public void testIsLightweight() {
+        final ShardId shardId = new ShardId("index", "_na_", 0);
+        final SearchRequest searchRequest = new SearchRequest().allowPartialSearchResults(true);
+        assertTrue(SearchService.isLightweight(newShardSearchRequest(searchRequest, shardId)));
+
+        searchRequest.source(new SearchSourceBuilder().size(randomIntBetween(0, SearchService.LIGHTWEIGHT_MAX_HITS)));
+        assertTrue(SearchService.isLightweight(newShardSearchRequest(searchRequest, shardId)));
+
+        searchRequest.source(new SearchSourceBuilder().from(SearchService.LIGHTWEIGHT_MAX_HITS).size(1));
+        assertFalse(SearchService.isLightweight(newShardSearchRequest(searchRequest, shardId)));
+
+        searchRequest.source(new SearchSourceBuilder().size(0).aggregation(AggregationBuilders.terms("terms").field("field")));
+        assertFalse(SearchService.isLightweight(newShardSearchRequest(searchRequest, shardId)));
+
+        searchRequest.source(new SearchSourceBuilder().profile(true));
+        assertFalse(SearchService.isLightweight(newShardSearchRequest(searchRequest, shardId)));
+
+        searchRequest.source(new SearchSourceBuilder()).scroll(TimeValue.timeValueMinutes(1));
+        assertFalse(SearchService.isLightweight(newShardSearchRequest(searchRequest, shardId)));
+        searchRequest.scroll((Scroll) null);
+
+        searchRequest.source(new SearchSourceBuilder().trackTotalHits(true));
+        assertFalse(SearchService.isLightweight(newShardSearchRequest(searchRequest, shardId)));
+
+        searchRequest.source(new SearchSourceBuilder().sort(
+            new ScriptSortBuilder(new Script("doc['field'].value"), ScriptSortBuilder.ScriptSortType.NUMBER)));
+        assertFalse(SearchService.isLightweight(newShardSearchRequest(searchRequest, shardId)));
+
+        searchRequest.source(new SearchSourceBuilder().query(QueryBuilders.boolQuery()
+            .must(QueryBuilders.matchPhrasePrefixQuery("title", "elastic sea"))
+            .filter(QueryBuilders.termQuery("status", "published"))
+            .filter(QueryBuilders.rangeQuery("date").gte("now-1d"))));
+        assertTrue(SearchService.isLightweight(newShardSearchRequest(searchRequest, shardId)));
+
+        searchRequest.source(new SearchSourceBuilder().query(QueryBuilders.matchAllQuery())
+            .postFilter(QueryBuilders.constantScoreQuery(QueryBuilders.wildcardQuery("title", "*elastic*"))));
+        assertFalse(SearchService.isLightweight(newShardSearchRequest(searchRequest, shardId)));
+    }
+
+    public void testIsCheapQuery() {
+        assertTrue(SearchService.isCheapQuery(QueryBuilders.matchAllQuery()));
+        assertTrue(SearchService.isCheapQuery(QueryBuilders.termQuery("field", "value")));
+        assertTrue(SearchService.isCheapQuery(QueryBuilders.multiMatchQuery("value", "field1", "field2")));
+        assertTrue(SearchService.isCheapQuery(QueryBuilders.disMaxQuery()
+            .add(QueryBuilders.matchQuery("field", "value"))
+            .add(QueryBuilders.existsQuery("field"))));
+        assertTrue(SearchService.isCheapQuery(QueryBuilders.termsQuery("field",
+            randomArray(1, SearchService.LIGHTWEIGHT_MAX_TERMS, String[]::new, () -> randomAlphaOfLength(5)))));
+
+        assertFalse(SearchService.isCheapQuery(QueryBuilders.termsQuery("field",
+            randomArray(SearchService.LIGHTWEIGHT_MAX_TERMS + 1, SearchService.LIGHTWEIGHT_MAX_TERMS * 2, String[]::new,
+                () -> randomAlphaOfLength(5)))));
+        assertFalse(SearchService.isCheapQuery(QueryBuilders.termsLookupQuery("field", new TermsLookup("index", "id", "path"))));
+        assertFalse(SearchService.isCheapQuery(QueryBuilders.regexpQuery("field", "val.*")));
+        assertFalse(SearchService.isCheapQuery(QueryBuilders.fuzzyQuery("field", "value")));
+        assertFalse(SearchService.isCheapQuery(QueryBuilders.scriptQuery(new Script("doc['field'].value > 0"))));
+        assertFalse(SearchService.isCheapQuery(QueryBuilders.boolQuery()
+            .should(QueryBuilders.termQuery("field", "value"))
+            .mustNot(QueryBuilders.wildcardQuery("field", "*value"))));
+        assertFalse(SearchService.isCheapQuery(QueryBuilders.boostingQuery(QueryBuilders.matchAllQuery(),
+            QueryBuilders.queryStringQuery("field:value*"))));
+    }
+
+    private static ShardSearchRequest newShardSearchRequest(SearchRequest searchRequest, ShardId shardId) {
+        return new ShardSearchRequest(OriginalIndices.NONE, searchRequest, shardId, 0, 1,
+            new AliasFilter(null, Strings.EMPTY_ARRAY), 1.0f, -1, null);
+    }
+
     public void testTimeout() throws IOException {
         createIndex("index");
         final SearchService service = getInstanceFromNode(SearchService.class);
@@ -14,6 +14,8 @@ import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.fetch.FetchContext;
 import org.elasticsearch.search.fetch.FetchSubPhase.HitContext;
@@ -21,6 +23,7 @@ import org.elasticsearch.search.fetch.FetchSubPhaseProcessor;
 import org.elasticsearch.test.ESTestCase;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 
@@ -67,6 +70,44 @@ public class FetchSourcePhaseTests extends ESTestCase {
         assertEquals(Collections.singletonMap("field","value"), hitContext.hit().getSourceAsMap());
     }
 
+    public void testFilterWhileParsing() throws IOException {
+        XContentBuilder source = XContentFactory.jsonBuilder().startObject()
+            .field("field", "value")
+            .field("obj.field", "value1")
+            .startObject("obj").field("field", "value2").field("other", "value3").endObject()
+            .startArray("array")
+                .startObject().field("field", "value4").endObject()
+                .startObject().field("other", "value5").endObject()
+            .endArray()
+            .field("field_with_suffix", "value6")
+            .endObject();
+        Map<String, Object> sourceAsMap = XContentHelper.convertToMap(BytesReference.bytes(source), false, XContentType.JSON).v2();
+        String[][] includes = new String[][] {
+            new String[] { "field" },
+            new String[] { "obj.field" },
+            new String[] { "obj" },
+            new String[] { "array.field" },
+            new String[] { "field*" },
+            new String[] { "obj.*" },
+            new String[] { "obj.field", "array" },
+            new String[] { "missing" } };
+        for (String[] include : includes) {
+            FetchSourceContext fetchSourceContext = new FetchSourceContext(true, include, Strings.EMPTY_ARRAY);
+            assertTrue(FetchSourcePhase.canFilterWhileParsing(fetchSourceContext));
+            HitContext hitContext = hitExecuteMultiple(source, true, include, Strings.EMPTY_ARRAY);
+            assertEquals(Arrays.toString(include), fetchSourceContext.getFilter().apply(sourceAsMap), hitContext.hit().getSourceAsMap());
+        }
+    }
+
+    public void testCanFilterWhileParsing() {
+        assertFalse(FetchSourcePhase.canFilterWhileParsing(new FetchSourceContext(true, Strings.EMPTY_ARRAY, new String[] { "field" })));
+        assertFalse(FetchSourcePhase.canFilterWhileParsing(new FetchSourceContext(true, new String[] { "field" }, new String[] { "a" })));
+        assertFalse(FetchSourcePhase.canFilterWhileParsing(new FetchSourceContext(true, new String[] { "*.field" }, Strings.EMPTY_ARRAY)));
+        assertFalse(FetchSourcePhase.canFilterWhileParsing(new FetchSourceContext(true, new String[] { "a*b" }, Strings.EMPTY_ARRAY)));
+        assertFalse(FetchSourcePhase.canFilterWhileParsing(new FetchSourceContext(true, new String[] { "a..b" }, Strings.EMPTY_ARRAY)));
+        assertTrue(FetchSourcePhase.canFilterWhileParsing(new FetchSourceContext(true, new String[] { "a.b*" }, Strings.EMPTY_ARRAY)));
+    }
+
     public void testNestedSource() throws IOException {
         Map<String, Object> expectedNested = Collections.singletonMap("nested2", Collections.singletonMap("field", "value0"));
         XContentBuilder source = XContentFactory.jsonBuilder().startObject()
@@ -104,6 +104,9 @@ public class ShardSearchRequestTests extends AbstractSearchTestCase {
         if (randomBoolean()) {
             req.setBottomSortValues(SearchSortValuesAndFormatsTests.randomInstance());
         }
+        if (randomBoolean()) {
+            req.deadline(TimeValue.timeValueMillis(randomLongBetween(1, 10_000)));
+        }
         return req;
     }
 
@@ -171,6 +174,7 @@ public class ShardSearchRequestTests extends AbstractSearchTestCase {
         assertEquals(orig.allowPartialSearchResults(), copy.allowPartialSearchResults());
         assertEquals(orig.canReturnNullResponseIfMatchNoDocs(),
             orig.canReturnNullResponseIfMatchNoDocs());
+        assertEquals(orig.deadline(), copy.deadline());
     }
 
     public static CompressedXContent filter(QueryBuilder filterBuilder) throws IOException {
@@ -157,6 +157,8 @@ import org.elasticsearch.indices.mapper.MapperRegistry;
 import org.elasticsearch.indices.recovery.PeerRecoverySourceService;
 import org.elasticsearch.indices.recovery.PeerRecoveryTargetService;
 import org.elasticsearch.indices.recovery.RecoverySettings;
+import org.elasticsearch.indices.recovery.ShardSnapshotsService;
+import org.elasticsearch.indices.recovery.SnapshotFilesProvider;
 import org.elasticsearch.ingest.IngestService;
 import org.elasticsearch.monitor.StatusInfo;
 import org.elasticsearch.node.ResponseCollectorService;
@@ -1501,7 +1503,8 @@ public class SnapshotResiliencyTests extends ESTestCase {
                 nodeConnectionsService =
                     new NodeConnectionsService(clusterService.getSettings(), threadPool, transportService);
                 final MetadataMappingService metadataMappingService = new MetadataMappingService(clusterService, indicesService);
-                peerRecoverySourceService = new PeerRecoverySourceService(transportService, indicesService, recoverySettings);
+                peerRecoverySourceService = new PeerRecoverySourceService(transportService, indicesService, recoverySettings,
+                    new ShardSnapshotsService(clusterService, repositoriesService, threadPool));
 
                 final SystemIndices systemIndices = new SystemIndices(emptyMap());
 
@@ -1510,7 +1513,8 @@ public class SnapshotResiliencyTests extends ESTestCase {
                     indicesService,
                     clusterService,
                     threadPool,
-                    new PeerRecoveryTargetService(threadPool, transportService, recoverySettings, clusterService),
+                    new PeerRecoveryTargetService(threadPool, transportService, recoverySettings, clusterService,
+                        new SnapshotFilesProvider(repositoriesService)),
                     shardStateAction,
                     new NodeMappingRefreshAction(transportService, metadataMappingService),
                     repositoriesService,
@@ -1693,7 +1697,7 @@ public class SnapshotResiliencyTests extends ESTestCase {
                 final CoordinationState.PersistedState persistedState =
                     new InMemoryPersistedState(initialState.term(), stateForNode(initialState, node));
                 coordinator = new Coordinator(node.getName(), clusterService.getSettings(),
-                    clusterService.getClusterSettings(), transportService, namedWriteableRegistry,
+                    clusterService.getClusterSettings(), transportService, namedWriteableRegistry, bigArrays,
                     allocationService, masterService, () -> persistedState,
                     hostsResolver -> nodes.values().stream().filter(n -> n.node.isMasterNode())
                         .map(n -> n.node.getAddress()).collect(Collectors.toList()),
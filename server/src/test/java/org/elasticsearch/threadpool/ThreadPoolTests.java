@@ -63,6 +63,23 @@ public class ThreadPoolTests extends ESTestCase {
         assertEquals("failed to parse value [-1] for setting [thread_pool.estimated_time_interval], must be >= [0ms]", e.getMessage());
     }
 
+    public void testSearchLightThreadPoolIsOnlyCreatedWhenEnabled() {
+        TestThreadPool threadPool = new TestThreadPool("test");
+        try {
+            expectThrows(IllegalArgumentException.class, () -> threadPool.executor(ThreadPool.Names.SEARCH_LIGHT));
+        } finally {
+            terminate(threadPool);
+        }
+
+        TestThreadPool enabledThreadPool = new TestThreadPool("test",
+            Settings.builder().put(ThreadPool.SEARCH_LIGHT_ENABLED_SETTING.getKey(), true).build());
+        try {
+            assertNotNull(enabledThreadPool.executor(ThreadPool.Names.SEARCH_LIGHT));
+        } finally {
+            terminate(enabledThreadPool);
+        }
+    }
+
     int factorial(int n) {
         assertCurrentMethodIsNotCalledRecursively();
         if (n <= 1) {
@@ -8,7 +8,9 @@
 
 package org.elasticsearch.transport;
 
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
 import org.elasticsearch.common.compress.CompressorFactory;
 import org.elasticsearch.common.io.stream.BytesStream;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
@@ -76,6 +78,46 @@ public class CompressibleBytesOutputStreamTests extends ESTestCase {
         }
     }
 
+    public void testSharedBytesReferences() throws IOException {
+        final boolean compress = randomBoolean();
+        BytesStream bStream = new BytesStreamOutput();
+        CompressibleBytesOutputStream stream = new CompressibleBytesOutputStream(bStream, compress);
+
+        final int minLength = CompressibleBytesOutputStream.MIN_SHARED_BYTES_LENGTH;
+        final int count = between(1, 5);
+        final BytesReference[] expected = new BytesReference[count];
+        final byte[] prefix = randomBytes(randomInt(30));
+        stream.write(prefix);
+        for (int i = 0; i < count; i++) {
+            expected[i] = new BytesArray(randomBytes(randomBoolean() ? randomInt(minLength - 1) : between(minLength, 3 * minLength)));
+            stream.writeSharedBytesReference(expected[i]);
+            stream.writeVInt(i);
+        }
+
+        BytesReference bytesRef = stream.materializeBytes();
+        stream.close();
+
+        boolean shared = false;
+        for (BytesReference bytes : expected) {
+            shared |= bytes.length() >= minLength;
+        }
+        assertEquals(compress == false && shared, bytesRef instanceof CompositeBytesReference);
+
+        StreamInput streamInput = compress
+            ? new InputStreamStreamInput(CompressorFactory.COMPRESSOR.threadLocalInputStream(bytesRef.streamInput()))
+            : bytesRef.streamInput();
+        byte[] actualPrefix = new byte[prefix.length];
+        streamInput.readBytes(actualPrefix, 0, prefix.length);
+        assertArrayEquals(prefix, actualPrefix);
+        for (int i = 0; i < count; i++) {
+            assertEquals(expected[i], streamInput.readSharedBytesReference());
+            assertEquals(i, streamInput.readVInt());
+        }
+        assertEquals(-1, streamInput.read());
+
+        bStream.close();
+    }
+
     public void testCompressionWithCallingMaterializeFails() throws IOException {
         BytesStream bStream = new ZeroOutOnCloseStream();
         CompressibleBytesOutputStream stream = new CompressibleBytesOutputStream(bStream, true);
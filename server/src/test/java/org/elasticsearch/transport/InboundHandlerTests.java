@@ -22,6 +22,7 @@ import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.InputStreamStreamInput;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
@@ -163,6 +164,39 @@ public class InboundHandlerTests extends ESTestCase {
         }
     }
 
+    public void testSharedBytesOfRequestAreRetainedUntilReleased() throws IOException {
+        final BytesReference expected = new BytesArray(randomByteArrayOfLength(between(1, 1024)));
+        final int trailer = randomInt();
+        final BytesStreamOutput out = new BytesStreamOutput();
+        out.writeSharedBytesReference(expected);
+        out.writeInt(trailer);
+        final byte[] contentBytes = BytesReference.toBytes(out.bytes());
+
+        final AtomicBoolean contentReleased = new AtomicBoolean();
+        final AtomicBoolean breakerReleased = new AtomicBoolean();
+        final Header header = new Header(contentBytes.length, randomNonNegativeLong(), TransportStatus.setRequest((byte) 0), version);
+        final InboundMessage message = new InboundMessage(header,
+            new ReleasableBytesReference(new BytesArray(contentBytes), () -> assertTrue(contentReleased.compareAndSet(false, true))),
+            () -> assertTrue(breakerReleased.compareAndSet(false, true)));
+        final Releasable release = message.takeBreakerReleaseControl();
+
+        final StreamInput in = message.openOrGetStreamInput();
+        final BytesReference shared = in.readSharedBytesReference();
+        assertEquals(expected, shared);
+        assertSame(contentBytes, shared.toBytesRef().bytes);
+        assertEquals(trailer, in.readInt());
+        assertEquals(-1, in.read());
+
+        message.close();
+        assertFalse(contentReleased.get());
+        assertFalse(breakerReleased.get());
+        assertEquals(expected, shared);
+
+        release.close();
+        assertTrue(contentReleased.get());
+        assertTrue(breakerReleased.get());
+    }
+
     public void testSendsErrorResponseToHandshakeFromCompatibleVersion() throws Exception {
         // Nodes use their minimum compatibility version for the TCP handshake, so a node from v(major-1).x will report its version as
         // v(major-2).last in the TCP handshake, with which we are not really compatible. We put extra effort into making sure that if
@@ -19,12 +19,16 @@ import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.transport.TransportAddress;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.PageCacheRecycler;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.core.internal.io.Streams;
+import org.elasticsearch.tasks.TaskId;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -33,6 +37,7 @@ import org.junit.Before;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -174,6 +179,56 @@ public class OutboundHandlerTests extends ESTestCase {
         assertEquals("header_value", header.getHeaders().v1().get("header"));
     }
 
+    public void testSharedBytesOfRequestAreRetainedUntilSent() throws IOException {
+        final int minLength = CompressibleBytesOutputStream.MIN_SHARED_BYTES_LENGTH;
+        final BytesReference expected = new BytesArray(randomByteArrayOfLength(between(minLength, 2 * minLength)));
+        final BytesStreamOutput out = new BytesStreamOutput();
+        out.writeSharedBytesReference(expected);
+        final byte[] contentBytes = BytesReference.toBytes(out.bytes());
+
+        // the content of an inbound request that is forwarded to another node, its pages are reused once it is released
+        final AtomicBoolean contentReleased = new AtomicBoolean();
+        final Header inboundHeader =
+            new Header(contentBytes.length, randomNonNegativeLong(), TransportStatus.setRequest((byte) 0), Version.CURRENT);
+        final InboundMessage inboundMessage = new InboundMessage(inboundHeader,
+            new ReleasableBytesReference(new BytesArray(contentBytes), () -> {
+                assertTrue(contentReleased.compareAndSet(false, true));
+                Arrays.fill(contentBytes, (byte) 0);
+            }),
+            () -> {});
+        final Releasable inboundRelease = inboundMessage.takeBreakerReleaseControl();
+        final BytesReference shared = inboundMessage.openOrGetStreamInput().readSharedBytesReference();
+        inboundMessage.close();
+
+        final TransportRequest request = new TransportRequest() {
+            @Override
+            public void writeTo(StreamOutput stream) throws IOException {
+                super.writeTo(stream);
+                stream.writeSharedBytesReference(shared);
+            }
+        };
+        handler.sendRequest(node, channel, randomNonNegativeLong(), "action", request, options, Version.CURRENT, false, false);
+        final BytesReference reference = channel.getMessageCaptor().get();
+        final ActionListener<Void> sendListener = channel.getListenerCaptor().get();
+
+        // the response to the inbound request is sent before the outbound request was flushed
+        inboundRelease.close();
+        assertFalse(contentReleased.get());
+
+        pipeline.handleBytes(channel, new ReleasableBytesReference(reference, () -> {
+        }));
+        final StreamInput in = message.get().v2().streamInput();
+        assertEquals(TaskId.EMPTY_TASK_ID, TaskId.readFromStream(in));
+        assertEquals(expected, in.readBytesReference());
+
+        if (randomBoolean()) {
+            sendListener.onResponse(null);
+        } else {
+            sendListener.onFailure(new IOException("failed"));
+        }
+        assertTrue(contentReleased.get());
+    }
+
     public void testSendResponse() throws IOException {
         ThreadContext threadContext = threadPool.getThreadContext();
         Version version = randomFrom(Version.CURRENT, Version.CURRENT.minimumCompatibilityVersion());
@@ -124,6 +124,7 @@ public class MockBigArrays extends BigArrays {
     private final Random random;
     private final PageCacheRecycler recycler;
     private final CircuitBreakerService breakerService;
+    private final boolean checkBreaker;
 
     /**
      * Create {@linkplain BigArrays} with a configured limit.
@@ -141,6 +142,7 @@ public class MockBigArrays extends BigArrays {
         super(recycler, breakerService, CircuitBreaker.REQUEST, checkBreaker);
         this.recycler = recycler;
         this.breakerService = breakerService;
+        this.checkBreaker = checkBreaker;
         long seed;
         try {
             seed = SeedUtils.parseSeed(RandomizedContext.current().getRunnerSeedAsString());
@@ -156,6 +158,11 @@ public class MockBigArrays extends BigArrays {
         return new MockBigArrays(this.recycler, this.breakerService, true);
     }
 
+    @Override
+    public BigArrays withBreakerService(CircuitBreakerService breakerService) {
+        return new MockBigArrays(this.recycler, breakerService, checkBreaker);
+    }
+
     @Override
     public ByteArray newByteArray(long size, boolean clearOnResize) {
         final ByteArrayWrapper array = new ByteArrayWrapper(super.newByteArray(size, clearOnResize), clearOnResize);
@@ -28,6 +28,7 @@ import org.elasticsearch.common.blobstore.BlobContainer;
 import org.elasticsearch.common.blobstore.BlobMetadata;
 import org.elasticsearch.common.blobstore.BlobPath;
 import org.elasticsearch.common.blobstore.BlobStore;
+import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.LoggingDeprecationHandler;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
@@ -47,8 +48,10 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.NoSuchFileException;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -66,6 +69,7 @@ import static org.elasticsearch.test.ESTestCase.buildNewFakeTransportAddress;
 import static org.elasticsearch.test.ESTestCase.randomIntBetween;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.not;
@@ -105,12 +109,28 @@ public final class BlobStoreTestUtil {
                 } catch (NoSuchFileException e) {
                     throw new AssertionError("Could not find index.latest blob for repo [" + repository + "]");
                 }
-                assertIndexGenerations(blobContainer, latestGen);
-                final RepositoryData repositoryData;
-                try (InputStream blob = blobContainer.readBlob(BlobStoreRepository.INDEX_FILE_PREFIX + latestGen);
-                     XContentParser parser = XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY,
-                         LoggingDeprecationHandler.INSTANCE, blob)) {
-                    repositoryData = RepositoryData.snapshotsFromXContent(parser, latestGen, false);
+                // follow the chain of index-N blobs that only hold the changes to an earlier generation back to the full repository data
+                final Deque<Tuple<Long, RepositoryData.Delta>> deltas = new ArrayDeque<>();
+                long generation = latestGen;
+                RepositoryData repositoryData;
+                while (true) {
+                    final Tuple<RepositoryData, RepositoryData.Delta> indexBlob;
+                    try (InputStream blob = blobContainer.readBlob(BlobStoreRepository.INDEX_FILE_PREFIX + generation);
+                         XContentParser parser = XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY,
+                             LoggingDeprecationHandler.INSTANCE, blob)) {
+                        indexBlob = RepositoryData.indexBlobFromXContent(parser, generation, false);
+                    }
+                    if (indexBlob.v1() != null) {
+                        repositoryData = indexBlob.v1();
+                        break;
+                    }
+                    deltas.push(Tuple.tuple(generation, indexBlob.v2()));
+                    generation = indexBlob.v2().baseGeneration();
+                }
+                assertIndexGenerations(blobContainer, latestGen, generation);
+                while (deltas.isEmpty() == false) {
+                    final Tuple<Long, RepositoryData.Delta> delta = deltas.pop();
+                    repositoryData = repositoryData.withDelta(delta.v2(), delta.v1());
                 }
                 assertIndexUUIDs(repository, repositoryData);
                 assertSnapshotUUIDs(repository, repositoryData);
@@ -126,12 +146,13 @@ public final class BlobStoreTestUtil {
         }
     }
 
-    private static void assertIndexGenerations(BlobContainer repoRoot, long latestGen) throws IOException {
+    private static void assertIndexGenerations(BlobContainer repoRoot, long latestGen, long fullGen) throws IOException {
         final long[] indexGenerations = repoRoot.listBlobsByPrefix(BlobStoreRepository.INDEX_FILE_PREFIX).keySet().stream()
             .map(s -> s.replace(BlobStoreRepository.INDEX_FILE_PREFIX, ""))
             .mapToLong(Long::parseLong).sorted().toArray();
         assertEquals(latestGen, indexGenerations[indexGenerations.length - 1]);
-        assertTrue(indexGenerations.length <= 2);
+        // only the blobs that the latest generation is read from and the blob before them are kept around
+        assertThat(indexGenerations[0], greaterThanOrEqualTo(fullGen - 1));
     }
 
     private static void assertShardIndexGenerations(BlobContainer repoRoot, ShardGenerations shardGenerations) throws IOException {
@@ -87,8 +87,11 @@ import static org.elasticsearch.transport.TransportService.NOOP_TRANSPORT_INTERC
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasToString;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
@@ -648,6 +651,49 @@ public abstract class AbstractSimpleTransportTestCase extends ESTestCase {
         }
     }
 
+    public void testPrecompressedRequestIsNotCompressed() throws Exception {
+        try (MockTransportService serviceC = buildService("TS_C", CURRENT_VERSION, Settings.EMPTY)) {
+            serviceC.start();
+            serviceC.acceptIncomingRequests();
+
+            // a message that compresses very well, so that its size on the wire tells whether it was compressed
+            final char[] chars = new char[1 << 20];
+            Arrays.fill(chars, 'a');
+            final String message = new String(chars);
+            serviceA.registerRequestHandler("internal:sayHello", ThreadPool.Names.GENERIC, PrecompressedStringMessageRequest::new,
+                (request, channel, task) -> {
+                    assertThat(request.message, equalTo(message));
+                    channel.sendResponse(TransportResponse.Empty.INSTANCE);
+                });
+
+            Settings settingsWithCompress = Settings.builder().put(TransportSettings.TRANSPORT_COMPRESS.getKey(), true).build();
+            ConnectionProfile connectionProfile = ConnectionProfile.buildDefaultConnectionProfile(settingsWithCompress);
+            serviceC.connectToNode(serviceA.getLocalDiscoNode(), connectionProfile);
+
+            final long initialTxSize = serviceC.transport.getStats().getTxSize().getBytes();
+            sendPrecompressedRequest(serviceC, new PrecompressedStringMessageRequest(message, false));
+            assertBusy(() -> { // the transmitted bytes may be accounted for after the response is received
+                final long compressedSize = serviceC.transport.getStats().getTxSize().getBytes() - initialTxSize;
+                assertThat(compressedSize, greaterThan(0L));
+                assertThat(compressedSize, lessThan((long) message.length() / 10));
+            });
+
+            final long compressedTxSize = serviceC.transport.getStats().getTxSize().getBytes();
+            sendPrecompressedRequest(serviceC, new PrecompressedStringMessageRequest(message, true));
+            assertBusy(() -> {
+                final long uncompressedSize = serviceC.transport.getStats().getTxSize().getBytes() - compressedTxSize;
+                assertThat(uncompressedSize, greaterThanOrEqualTo((long) message.length()));
+            });
+        }
+    }
+
+    private void sendPrecompressedRequest(MockTransportService service, PrecompressedStringMessageRequest request) throws Exception {
+        final PlainActionFuture<TransportResponse.Empty> future = PlainActionFuture.newFuture();
+        service.sendRequest(nodeA, "internal:sayHello", request, TransportRequestOptions.EMPTY,
+            new ActionListenerResponseHandler<>(future, in -> TransportResponse.Empty.INSTANCE, ThreadPool.Names.GENERIC));
+        future.get(10, TimeUnit.SECONDS);
+    }
+
     public void testErrorMessage() {
         serviceA.registerRequestHandler("internal:sayHelloException", ThreadPool.Names.GENERIC, StringMessageRequest::new,
             (request, channel, task) -> {
@@ -1164,6 +1210,35 @@ public abstract class AbstractSimpleTransportTestCase extends ESTestCase {
         }
     }
 
+    static class PrecompressedStringMessageRequest extends TransportRequest implements PrecompressedTransportRequest {
+
+        private final String message;
+        private final boolean precompressed;
+
+        PrecompressedStringMessageRequest(String message, boolean precompressed) {
+            this.message = message;
+            this.precompressed = precompressed;
+        }
+
+        PrecompressedStringMessageRequest(StreamInput in) throws IOException {
+            super(in);
+            message = in.readString();
+            precompressed = in.readBoolean();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            super.writeTo(out);
+            out.writeString(message);
+            out.writeBoolean(precompressed);
+        }
+
+        @Override
+        public boolean isPrecompressed() {
+            return precompressed;
+        }
+    }
+
     static class StringMessageResponse extends TransportResponse {
 
         private final String message;
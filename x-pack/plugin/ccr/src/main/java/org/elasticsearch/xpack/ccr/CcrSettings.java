@@ -79,6 +79,21 @@ public final class CcrSettings {
         Setting.positiveTimeSetting("ccr.indices.recovery.internal_action_timeout", TimeValue.timeValueSeconds(60),
             Property.Dynamic, Property.NodeScope);
 
+    /**
+     * Dynamic node setting for letting shard follow tasks adapt the number of operations per read request to the throughput of the
+     * leader and the follower, up to the configured maximum read request operation count. Disabled by default so that existing followers
+     * keep issuing reads of the configured size until the adaptive sizing is enabled explicitly.
+     */
+    public static final Setting<Boolean> CCR_ADAPTIVE_READ_REQUEST_SIZE_SETTING =
+        Setting.boolSetting("ccr.indices.follow.adaptive_read_request_size", false, Property.Dynamic, Property.NodeScope);
+
+    /**
+     * Dynamic node setting for asking the leader to send the operations of each read response as a single compressed batch. Disabled by
+     * default since compression trades CPU on both clusters for bandwidth, which only pays off on slow links between them.
+     */
+    public static final Setting<Boolean> CCR_COMPRESS_OPERATIONS_SETTING =
+        Setting.boolSetting("ccr.indices.follow.compress_operations", false, Property.Dynamic, Property.NodeScope);
+
     /**
      * The settings defined by CCR.
      *
@@ -94,7 +109,9 @@ public final class CcrSettings {
                 CCR_AUTO_FOLLOW_WAIT_FOR_METADATA_TIMEOUT,
                 RECOVERY_CHUNK_SIZE,
                 INDICES_RECOVERY_MAX_CONCURRENT_FILE_CHUNKS_SETTING,
-                CCR_WAIT_FOR_METADATA_TIMEOUT);
+                CCR_WAIT_FOR_METADATA_TIMEOUT,
+                CCR_ADAPTIVE_READ_REQUEST_SIZE_SETTING,
+                CCR_COMPRESS_OPERATIONS_SETTING);
     }
 
     private final CombinedRateLimiter ccrRateLimiter;
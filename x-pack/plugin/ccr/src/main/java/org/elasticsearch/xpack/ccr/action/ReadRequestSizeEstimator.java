@@ -0,0 +1,130 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+package org.elasticsearch.xpack.ccr.action;
+
+/**
+ * Estimates the number of operations that a shard follow task should request per read from the leader shard.
+ * <p>
+ * When reads come back full the leader has a backlog of operations, and the read size grows so that each read request amortizes its round
+ * trip over more operations. When reads come back partially filled because they reached the leader's global checkpoint the follower has
+ * caught up with the leader, and the read size shrinks towards the number of operations the leader produces per read. Reads that were cut
+ * short by the maximum read request size in bytes leave the read size unchanged, since asking for more operations would not return more.
+ * In all cases the read size is capped by the number of operations that the follower is able to write while a read is in flight, since
+ * reading more than that only fills up the write buffer. The read size always stays between a small minimum and the configured maximum
+ * read request operation count.
+ * <p>
+ * Throughputs and latencies are tracked as exponentially weighted moving averages so that a single slow request does not move the
+ * estimate too much.
+ */
+final class ReadRequestSizeEstimator {
+
+    static final int MIN_READ_REQUEST_OPERATION_COUNT = 64;
+    private static final double ALPHA = 0.3;
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final int minOperationCount;
+    private final int maxOperationCount;
+    private final int maxOutstandingReads;
+    private final int maxOutstandingWrites;
+
+    private double readLatencyNanos = -1d;
+    private double readOperationsPerNano = -1d;
+    private double writeOperationsPerNano = -1d;
+    private int operationCount;
+
+    ReadRequestSizeEstimator(int maxOperationCount, int maxOutstandingReads, int maxOutstandingWrites) {
+        if (maxOperationCount <= 0) {
+            throw new IllegalArgumentException("max operation count must be > 0 but was [" + maxOperationCount + "]");
+        }
+        this.maxOperationCount = maxOperationCount;
+        this.minOperationCount = Math.min(MIN_READ_REQUEST_OPERATION_COUNT, maxOperationCount);
+        this.maxOutstandingReads = Math.max(1, maxOutstandingReads);
+        this.maxOutstandingWrites = Math.max(1, maxOutstandingWrites);
+        this.operationCount = maxOperationCount;
+    }
+
+    /**
+     * @return the number of operations that the next read request should ask for
+     */
+    synchronized int operationCount() {
+        return operationCount;
+    }
+
+    /**
+     * Records the outcome of a read request that returned operations.
+     *
+     * @param requestedOperations       the number of operations that were asked for
+     * @param receivedOperations        the number of operations that the leader returned
+     * @param reachedGlobalCheckpoint   whether the returned operations go up to the leader's global checkpoint
+     * @param tookInNanos               the time elapsed between sending the read request and receiving its response
+     */
+    synchronized void onReadResponse(int requestedOperations, int receivedOperations, boolean reachedGlobalCheckpoint, long tookInNanos) {
+        if (receivedOperations <= 0) {
+            // empty responses are polls that waited for the leader to index operations and tell nothing about the transfer
+            return;
+        }
+        final boolean full = receivedOperations >= requestedOperations;
+        if (full || reachedGlobalCheckpoint == false) {
+            // only reads that did not run out of operations measure the transfer rather than the time spent waiting on the leader
+            final long took = Math.max(1L, tookInNanos);
+            readLatencyNanos = average(readLatencyNanos, took);
+            readOperationsPerNano = average(readOperationsPerNano, (double) receivedOperations / took);
+        }
+        final long target;
+        if (full) {
+            target = 2L * operationCount;
+        } else if (reachedGlobalCheckpoint == false) {
+            // the read was limited by the maximum read request size in bytes, the leader still has a backlog
+            target = operationCount;
+        } else {
+            target = Math.max(operationCount / 2, 2L * receivedOperations);
+        }
+        update(target);
+    }
+
+    /**
+     * Records the outcome of a successful write request on the follower shard.
+     *
+     * @param operations    the number of operations that were written
+     * @param tookInNanos   the time elapsed between sending the write request and receiving its response
+     */
+    synchronized void onWriteResponse(int operations, long tookInNanos) {
+        if (operations <= 0) {
+            return;
+        }
+        writeOperationsPerNano = average(writeOperationsPerNano, (double) operations / Math.max(1L, tookInNanos));
+        update(operationCount);
+    }
+
+    /**
+     * @return the average number of operations per second that a single read request transfers, or {@code -1} if unknown
+     */
+    synchronized long readOperationsPerSecond() {
+        return readOperationsPerNano < 0d ? -1L : Math.round(readOperationsPerNano * NANOS_PER_SECOND);
+    }
+
+    /**
+     * @return the average number of operations per second that a single write request indexes, or {@code -1} if unknown
+     */
+    synchronized long writeOperationsPerSecond() {
+        return writeOperationsPerNano < 0d ? -1L : Math.round(writeOperationsPerNano * NANOS_PER_SECOND);
+    }
+
+    private void update(long target) {
+        long count = target;
+        if (writeOperationsPerNano >= 0d && readLatencyNanos >= 0d) {
+            // the operations that the follower writes while a read is in flight, shared by the concurrent reads with some headroom
+            final double writableDuringRead = writeOperationsPerNano * maxOutstandingWrites * readLatencyNanos;
+            count = Math.min(count, (long) Math.ceil(2d * writableDuringRead / maxOutstandingReads));
+        }
+        operationCount = (int) Math.max(minOperationCount, Math.min(count, maxOperationCount));
+    }
+
+    private static double average(double current, double sample) {
+        return current < 0d ? sample : ALPHA * sample + (1d - ALPHA) * current;
+    }
+}
@@ -21,7 +21,12 @@ import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.routing.ShardsIterator;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.compress.CompressorFactory;
 import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.InputStreamStreamInput;
+import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
@@ -74,6 +79,7 @@ public class ShardChangesAction extends ActionType<ShardChangesAction.Response>
         private final String expectedHistoryUUID;
         private TimeValue pollTimeout = TransportResumeFollowAction.DEFAULT_READ_POLL_TIMEOUT;
         private ByteSizeValue maxBatchSize = TransportResumeFollowAction.DEFAULT_MAX_READ_REQUEST_SIZE;
+        private boolean compressOperations;
 
         private long relativeStartNanos;
 
@@ -91,6 +97,11 @@ public class ShardChangesAction extends ActionType<ShardChangesAction.Response>
             expectedHistoryUUID = in.readString();
             pollTimeout = in.readTimeValue();
             maxBatchSize = new ByteSizeValue(in);
+            if (in.getVersion().onOrAfter(Version.V_7_11_3)) {
+                compressOperations = in.readBoolean();
+            } else {
+                compressOperations = false;
+            }
 
             // Starting the clock in order to know how much time is spent on fetching operations:
             relativeStartNanos = System.nanoTime();
@@ -124,6 +135,17 @@ public class ShardChangesAction extends ActionType<ShardChangesAction.Response>
             this.maxBatchSize = maxBatchSize;
         }
 
+        /**
+         * Whether the operations of the response should be sent as a single compressed batch.
+         */
+        public boolean isCompressOperations() {
+            return compressOperations;
+        }
+
+        public void setCompressOperations(boolean compressOperations) {
+            this.compressOperations = compressOperations;
+        }
+
         public String getExpectedHistoryUUID() {
             return expectedHistoryUUID;
         }
@@ -162,6 +184,9 @@ public class ShardChangesAction extends ActionType<ShardChangesAction.Response>
             out.writeString(expectedHistoryUUID);
             out.writeTimeValue(pollTimeout);
             maxBatchSize.writeTo(out);
+            if (out.getVersion().onOrAfter(Version.V_7_11_3)) {
+                out.writeBoolean(compressOperations);
+            }
         }
 
 
@@ -175,12 +200,13 @@ public class ShardChangesAction extends ActionType<ShardChangesAction.Response>
                     Objects.equals(shardId, request.shardId) &&
                     Objects.equals(expectedHistoryUUID, request.expectedHistoryUUID) &&
                     Objects.equals(pollTimeout, request.pollTimeout) &&
-                    maxBatchSize.equals(request.maxBatchSize);
+                    maxBatchSize.equals(request.maxBatchSize) &&
+                    compressOperations == request.compressOperations;
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(fromSeqNo, maxOperationCount, shardId, expectedHistoryUUID, pollTimeout, maxBatchSize);
+            return Objects.hash(fromSeqNo, maxOperationCount, shardId, expectedHistoryUUID, pollTimeout, maxBatchSize, compressOperations);
         }
 
         @Override
@@ -192,6 +218,7 @@ public class ShardChangesAction extends ActionType<ShardChangesAction.Response>
                     ", expectedHistoryUUID=" + expectedHistoryUUID +
                     ", pollTimeout=" + pollTimeout +
                     ", maxBatchSize=" + maxBatchSize.getStringRep() +
+                    ", compressOperations=" + compressOperations +
                     '}';
         }
 
@@ -247,6 +274,17 @@ public class ShardChangesAction extends ActionType<ShardChangesAction.Response>
             return tookInMillis;
         }
 
+        // only affects how the operations are serialized, so it is not part of equals and hashCode
+        private boolean compressOperations;
+
+        boolean isCompressOperations() {
+            return compressOperations;
+        }
+
+        void setCompressOperations(boolean compressOperations) {
+            this.compressOperations = compressOperations;
+        }
+
         Response() {
         }
 
@@ -262,7 +300,21 @@ public class ShardChangesAction extends ActionType<ShardChangesAction.Response>
             globalCheckpoint = in.readZLong();
             maxSeqNo = in.readZLong();
             maxSeqNoOfUpdatesOrDeletes = in.readZLong();
-            operations = in.readArray(Translog.Operation::readOperation, Translog.Operation[]::new);
+            if (in.getVersion().onOrAfter(Version.V_7_11_3)) {
+                compressOperations = in.readBoolean();
+            } else {
+                compressOperations = false;
+            }
+            if (compressOperations) {
+                final BytesReference compressed = in.readBytesReference();
+                try (StreamInput compressedIn = new InputStreamStreamInput(
+                    CompressorFactory.COMPRESSOR.threadLocalInputStream(compressed.streamInput()))) {
+                    compressedIn.setVersion(in.getVersion());
+                    operations = compressedIn.readArray(Translog.Operation::readOperation, Translog.Operation[]::new);
+                }
+            } else {
+                operations = in.readArray(Translog.Operation::readOperation, Translog.Operation[]::new);
+            }
             tookInMillis = in.readVLong();
         }
 
@@ -295,7 +347,25 @@ public class ShardChangesAction extends ActionType<ShardChangesAction.Response>
             out.writeZLong(globalCheckpoint);
             out.writeZLong(maxSeqNo);
             out.writeZLong(maxSeqNoOfUpdatesOrDeletes);
-            out.writeArray(Translog.Operation::writeOperation, operations);
+            if (out.getVersion().onOrAfter(Version.V_7_11_3)) {
+                // operations of the same shard share most of their field names and values, so the batch compresses much better as a
+                // whole than the individual transport messages would
+                final boolean compress = compressOperations && operations.length > 0;
+                out.writeBoolean(compress);
+                if (compress) {
+                    final BytesStreamOutput bytes = new BytesStreamOutput();
+                    try (StreamOutput compressedOut = new OutputStreamStreamOutput(
+                        CompressorFactory.COMPRESSOR.threadLocalOutputStream(bytes))) {
+                        compressedOut.setVersion(out.getVersion());
+                        compressedOut.writeArray(Translog.Operation::writeOperation, operations);
+                    }
+                    out.writeBytesReference(bytes.bytes());
+                } else {
+                    out.writeArray(Translog.Operation::writeOperation, operations);
+                }
+            } else {
+                out.writeArray(Translog.Operation::writeOperation, operations);
+            }
             out.writeVLong(tookInMillis);
         }
 
@@ -365,7 +435,7 @@ public class ShardChangesAction extends ActionType<ShardChangesAction.Response>
             final long mappingVersion = indexMetadata.getMappingVersion();
             final long settingsVersion = indexMetadata.getSettingsVersion();
             final long aliasesVersion = indexMetadata.getAliasesVersion();
-            return getResponse(
+            final Response response = getResponse(
                     mappingVersion,
                     settingsVersion,
                     aliasesVersion,
@@ -373,6 +443,8 @@ public class ShardChangesAction extends ActionType<ShardChangesAction.Response>
                     maxSeqNoOfUpdatesOrDeletes,
                     operations,
                     request.relativeStartNanos);
+            response.setCompressOperations(request.isCompressOperations());
+            return response;
         }
 
         @Override
@@ -98,6 +98,7 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
     private final Queue<Translog.Operation> buffer = new PriorityQueue<>(Comparator.comparing(Translog.Operation::seqNo));
     private long bufferSizeInBytes = 0;
     private final LinkedHashMap<Long, Tuple<AtomicInteger, ElasticsearchException>> fetchExceptions;
+    private final ReadRequestSizeEstimator readRequestSizeEstimator;
 
     private volatile ElasticsearchException fatalException;
 
@@ -113,6 +114,8 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
         this.params = params;
         this.scheduler = scheduler;
         this.relativeTimeProvider = relativeTimeProvider;
+        this.readRequestSizeEstimator = new ReadRequestSizeEstimator(params.getMaxReadRequestOperationCount(),
+            params.getMaxOutstandingReadRequests(), params.getMaxOutstandingWriteRequests());
         /*
          * We keep track of the most recent fetch exceptions, with the number of exceptions that we track equal to the maximum number of
          * concurrent fetches. For each failed fetch, we track the from sequence number associated with the request, and we clear the entry
@@ -204,7 +207,7 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
             numOutstandingReads++;
             sendShardChangesRequest(fromSeqNo, requestOpCount, maxRequiredSeqNo);
         }
-        final int maxReadRequestOperationCount = params.getMaxReadRequestOperationCount();
+        final int maxReadRequestOperationCount = readRequestOperationCount();
         while (hasReadBudget() && lastRequestedSeqNo < leaderGlobalCheckpoint) {
             final long from = lastRequestedSeqNo + 1;
             final long maxRequiredSeqNo = Math.min(leaderGlobalCheckpoint, from + maxReadRequestOperationCount - 1);
@@ -234,6 +237,21 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
         }
     }
 
+    /**
+     * Whether the number of operations to request per read should adapt to the throughput of the leader and the follower, see
+     * {@link ReadRequestSizeEstimator}. When disabled, reads always ask for the configured maximum read request operation count.
+     */
+    protected boolean isAdaptiveReadRequestSizeEnabled() {
+        return false;
+    }
+
+    private int readRequestOperationCount() {
+        if (isAdaptiveReadRequestSizeEnabled()) {
+            return readRequestSizeEstimator.operationCount();
+        }
+        return params.getMaxReadRequestOperationCount();
+    }
+
     private boolean hasReadBudget() {
         assert Thread.holdsLock(this);
         // TODO: To ensure that we never overuse the buffer, we need to
@@ -307,8 +325,14 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
                         fetchExceptions.remove(from);
                         if (response.getOperations().length > 0) {
                             // do not count polls against fetch stats
+                            final long tookInNanos = relativeTimeProvider.getAsLong() - startTime;
+                            final Translog.Operation[] operations = response.getOperations();
+                            final boolean reachedGlobalCheckpoint =
+                                operations[operations.length - 1].seqNo() >= response.getGlobalCheckpoint();
+                            readRequestSizeEstimator.onReadResponse(maxOperationCount, operations.length, reachedGlobalCheckpoint,
+                                tookInNanos);
                             totalReadRemoteExecTimeMillis += response.getTookInMillis();
-                            totalReadTimeMillis += TimeUnit.NANOSECONDS.toMillis(relativeTimeProvider.getAsLong() - startTime);
+                            totalReadTimeMillis += TimeUnit.NANOSECONDS.toMillis(tookInNanos);
                             successfulReadRequests++;
                             operationsRead += response.getOperations().length;
                             bytesRead +=
@@ -409,7 +433,9 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
         innerSendBulkShardOperationsRequest(followerHistoryUUID, operations, leaderMaxSeqNoOfUpdatesOrDeletes,
                 response -> {
                     synchronized (ShardFollowNodeTask.this) {
-                        totalWriteTimeMillis += TimeUnit.NANOSECONDS.toMillis(relativeTimeProvider.getAsLong() - startTime);
+                        final long tookInNanos = relativeTimeProvider.getAsLong() - startTime;
+                        readRequestSizeEstimator.onWriteResponse(operations.size(), tookInNanos);
+                        totalWriteTimeMillis += TimeUnit.NANOSECONDS.toMillis(tookInNanos);
                         successfulWriteRequests++;
                         operationWritten += operations.size();
                     }
@@ -661,7 +687,10 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
                                 .collect(
                                         Collectors.toMap(Map.Entry::getKey, e -> Tuple.tuple(e.getValue().v1().get(), e.getValue().v2())))),
                 timeSinceLastFetchMillis,
-                fatalException);
+                fatalException,
+                readRequestOperationCount(),
+                readRequestSizeEstimator.readOperationsPerSecond(),
+                readRequestSizeEstimator.writeOperationsPerSecond());
     }
 
 }
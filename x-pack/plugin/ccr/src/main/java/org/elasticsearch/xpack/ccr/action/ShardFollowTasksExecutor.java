@@ -98,6 +98,8 @@ public class ShardFollowTasksExecutor extends PersistentTasksExecutor<ShardFollo
     private final IndexScopedSettings indexScopedSettings;
     private final TimeValue retentionLeaseRenewInterval;
     private volatile TimeValue waitForMetadataTimeOut;
+    private volatile boolean adaptiveReadRequestSize;
+    private volatile boolean compressOperations;
 
     public ShardFollowTasksExecutor(Client client,
                                     ThreadPool threadPool,
@@ -112,6 +114,12 @@ public class ShardFollowTasksExecutor extends PersistentTasksExecutor<ShardFollo
         this.waitForMetadataTimeOut = CcrSettings.CCR_WAIT_FOR_METADATA_TIMEOUT.get(settingsModule.getSettings());
         clusterService.getClusterSettings().addSettingsUpdateConsumer(CcrSettings.CCR_WAIT_FOR_METADATA_TIMEOUT,
             newVal -> this.waitForMetadataTimeOut = newVal);
+        this.adaptiveReadRequestSize = CcrSettings.CCR_ADAPTIVE_READ_REQUEST_SIZE_SETTING.get(settingsModule.getSettings());
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(CcrSettings.CCR_ADAPTIVE_READ_REQUEST_SIZE_SETTING,
+            newVal -> this.adaptiveReadRequestSize = newVal);
+        this.compressOperations = CcrSettings.CCR_COMPRESS_OPERATIONS_SETTING.get(settingsModule.getSettings());
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(CcrSettings.CCR_COMPRESS_OPERATIONS_SETTING,
+            newVal -> this.compressOperations = newVal);
     }
 
     @Override
@@ -399,6 +407,11 @@ public class ShardFollowTasksExecutor extends PersistentTasksExecutor<ShardFollo
                 followerClient.execute(BulkShardOperationsAction.INSTANCE, request, ActionListener.wrap(handler::accept, errorHandler));
             }
 
+            @Override
+            protected boolean isAdaptiveReadRequestSizeEnabled() {
+                return adaptiveReadRequestSize;
+            }
+
             @Override
             protected void innerSendShardChangesRequest(long from, int maxOperationCount, Consumer<ShardChangesAction.Response> handler,
                                                         Consumer<Exception> errorHandler) {
@@ -408,6 +421,7 @@ public class ShardFollowTasksExecutor extends PersistentTasksExecutor<ShardFollo
                 request.setMaxOperationCount(maxOperationCount);
                 request.setMaxBatchSize(params.getMaxReadRequestSize());
                 request.setPollTimeout(params.getReadPollTimeout());
+                request.setCompressOperations(compressOperations);
                 try {
                     remoteClient(params).execute(ShardChangesAction.INSTANCE, request, ActionListener.wrap(handler::accept, errorHandler));
                 } catch (NoSuchRemoteClusterException e) {
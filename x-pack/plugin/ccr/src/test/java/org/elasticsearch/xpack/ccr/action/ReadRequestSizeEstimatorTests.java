@@ -0,0 +1,105 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+package org.elasticsearch.xpack.ccr.action;
+
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class ReadRequestSizeEstimatorTests extends ESTestCase {
+
+    public void testStartsWithConfiguredMaximum() {
+        final int max = randomIntBetween(1, 10_000);
+        final ReadRequestSizeEstimator estimator = new ReadRequestSizeEstimator(max, randomIntBetween(1, 12), randomIntBetween(1, 9));
+        assertThat(estimator.operationCount(), equalTo(max));
+        assertThat(estimator.readOperationsPerSecond(), equalTo(-1L));
+        assertThat(estimator.writeOperationsPerSecond(), equalTo(-1L));
+    }
+
+    public void testShrinksWhenCaughtUpAndGrowsOnBacklog() {
+        final ReadRequestSizeEstimator estimator = new ReadRequestSizeEstimator(5120, 12, 9);
+        // the follower is caught up and each read only returns a few operations
+        for (int i = 0; i < 10; i++) {
+            estimator.onReadResponse(estimator.operationCount(), 10, true, TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        assertThat(estimator.operationCount(), equalTo(ReadRequestSizeEstimator.MIN_READ_REQUEST_OPERATION_COUNT));
+
+        // empty responses are polls and do not change the estimate
+        estimator.onReadResponse(estimator.operationCount(), 0, true, TimeUnit.SECONDS.toNanos(60));
+        assertThat(estimator.operationCount(), equalTo(ReadRequestSizeEstimator.MIN_READ_REQUEST_OPERATION_COUNT));
+
+        // the leader builds up a backlog so reads come back full
+        int previous = estimator.operationCount();
+        while (estimator.operationCount() < 5120) {
+            estimator.onReadResponse(estimator.operationCount(), estimator.operationCount(), false, TimeUnit.MILLISECONDS.toNanos(5));
+            assertThat(estimator.operationCount(), greaterThanOrEqualTo(previous));
+            previous = estimator.operationCount();
+        }
+        assertThat(estimator.operationCount(), equalTo(5120));
+        assertThat(estimator.readOperationsPerSecond(), greaterThanOrEqualTo(0L));
+    }
+
+    public void testReadsLimitedByBytesDoNotShrink() {
+        final ReadRequestSizeEstimator estimator = new ReadRequestSizeEstimator(5120, 12, 9);
+        // the leader has a backlog but each read is cut short by the maximum read request size in bytes
+        for (int i = 0; i < 10; i++) {
+            estimator.onReadResponse(estimator.operationCount(), 100, false, TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        assertThat(estimator.operationCount(), equalTo(5120));
+        assertThat(estimator.readOperationsPerSecond(), equalTo(20_000L));
+
+        // whereas reads that reach the global checkpoint mean that the follower caught up
+        estimator.onReadResponse(estimator.operationCount(), 100, true, TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(estimator.operationCount(), equalTo(2560));
+    }
+
+    public void testCappedBySlowFollowerWrites() {
+        final int maxOutstandingReads = 4;
+        final int maxOutstandingWrites = 2;
+        final ReadRequestSizeEstimator estimator = new ReadRequestSizeEstimator(5120, maxOutstandingReads, maxOutstandingWrites);
+        // full reads take 10ms
+        for (int i = 0; i < 5; i++) {
+            estimator.onReadResponse(estimator.operationCount(), estimator.operationCount(), false, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        assertThat(estimator.operationCount(), equalTo(5120));
+        // but writing 1000 operations on the follower takes a second
+        for (int i = 0; i < 5; i++) {
+            estimator.onWriteResponse(1000, TimeUnit.SECONDS.toNanos(1));
+        }
+        assertThat(estimator.writeOperationsPerSecond(), equalTo(1000L));
+        // so the follower only writes 20 operations per read and reading more than the minimum would just fill the write buffer
+        assertThat(estimator.operationCount(), equalTo(ReadRequestSizeEstimator.MIN_READ_REQUEST_OPERATION_COUNT));
+
+        // once the follower writes faster the read size can grow again, within the configured maximum
+        for (int i = 0; i < 20; i++) {
+            estimator.onWriteResponse(1000, TimeUnit.MILLISECONDS.toNanos(1));
+            estimator.onReadResponse(estimator.operationCount(), estimator.operationCount(), false, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        assertThat(estimator.operationCount(), lessThanOrEqualTo(5120));
+        assertThat(ReadRequestSizeEstimator.MIN_READ_REQUEST_OPERATION_COUNT, lessThan(estimator.operationCount()));
+    }
+
+    public void testMinimumNeverExceedsMaximum() {
+        final int max = randomIntBetween(1, ReadRequestSizeEstimator.MIN_READ_REQUEST_OPERATION_COUNT);
+        final ReadRequestSizeEstimator estimator = new ReadRequestSizeEstimator(max, randomIntBetween(1, 12), randomIntBetween(1, 9));
+        estimator.onReadResponse(max, 1, true, TimeUnit.MILLISECONDS.toNanos(1));
+        estimator.onWriteResponse(1, TimeUnit.SECONDS.toNanos(1));
+        assertThat(estimator.operationCount(), lessThanOrEqualTo(max));
+        assertThat(estimator.operationCount(), greaterThanOrEqualTo(1));
+    }
+
+    public void testRejectsNonPositiveMaximum() {
+        final int max = randomIntBetween(Integer.MIN_VALUE, 0);
+        final IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> new ReadRequestSizeEstimator(max, 1, 1));
+        assertThat(e.getMessage(), equalTo("max operation count must be > 0 but was [" + max + "]"));
+    }
+}
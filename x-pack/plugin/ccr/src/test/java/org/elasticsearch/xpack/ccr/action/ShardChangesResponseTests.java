@@ -25,7 +25,7 @@ public class ShardChangesResponseTests extends AbstractWireSerializingTestCase<S
         for (int i = 0; i < numOps; i++) {
             operations[i] = new Translog.NoOp(i, 0, "test");
         }
-        return new ShardChangesAction.Response(
+        final ShardChangesAction.Response response = new ShardChangesAction.Response(
             mappingVersion,
             settingsVersion,
             aliasesVersion,
@@ -35,6 +35,8 @@ public class ShardChangesResponseTests extends AbstractWireSerializingTestCase<S
             operations,
             randomNonNegativeLong()
         );
+        response.setCompressOperations(randomBoolean());
+        return response;
     }
 
     @Override
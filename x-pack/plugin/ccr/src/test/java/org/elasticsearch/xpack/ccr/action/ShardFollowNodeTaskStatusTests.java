@@ -63,7 +63,10 @@ public class ShardFollowNodeTaskStatusTests extends AbstractSerializingTestCase<
                 randomNonNegativeLong(),
                 randomReadExceptions(),
                 randomNonNegativeLong(),
-                randomBoolean() ? new ElasticsearchException("fatal error") : null);
+                randomBoolean() ? new ElasticsearchException("fatal error") : null,
+                randomIntBetween(0, Integer.MAX_VALUE),
+                randomLongBetween(-1, Long.MAX_VALUE),
+                randomLongBetween(-1, Long.MAX_VALUE));
     }
 
     @Override
@@ -107,6 +110,10 @@ public class ShardFollowNodeTaskStatusTests extends AbstractSerializingTestCase<
             assertThat(entry.getValue().v2().getCause().getMessage(), containsString(expected.getCause().getMessage()));
         }
         assertThat(newInstance.timeSinceLastReadMillis(), equalTo(expectedInstance.timeSinceLastReadMillis()));
+        assertThat(newInstance.followerCheckpointLag(), equalTo(expectedInstance.followerCheckpointLag()));
+        assertThat(newInstance.readRequestOperationCount(), equalTo(expectedInstance.readRequestOperationCount()));
+        assertThat(newInstance.readOperationsPerSec(), equalTo(expectedInstance.readOperationsPerSec()));
+        assertThat(newInstance.writeOperationsPerSec(), equalTo(expectedInstance.writeOperationsPerSec()));
     }
 
     @Override
@@ -97,7 +97,8 @@ public class ShardFollowTasksExecutorAssignmentTests extends ESTestCase {
     ) {
         final ClusterService clusterService = mock(ClusterService.class);
         when(clusterService.getClusterSettings())
-            .thenReturn(new ClusterSettings(Settings.EMPTY, Collections.singleton(CcrSettings.CCR_WAIT_FOR_METADATA_TIMEOUT)));
+            .thenReturn(new ClusterSettings(Settings.EMPTY, Sets.newHashSet(CcrSettings.CCR_WAIT_FOR_METADATA_TIMEOUT,
+                CcrSettings.CCR_ADAPTIVE_READ_REQUEST_SIZE_SETTING, CcrSettings.CCR_COMPRESS_OPERATIONS_SETTING)));
         final SettingsModule settingsModule = mock(SettingsModule.class);
         when(settingsModule.getSettings()).thenReturn(Settings.EMPTY);
         final ShardFollowTasksExecutor executor =
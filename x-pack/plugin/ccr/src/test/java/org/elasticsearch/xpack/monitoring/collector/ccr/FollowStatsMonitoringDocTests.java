@@ -112,6 +112,9 @@ public class FollowStatsMonitoringDocTests extends BaseMonitoringDocTestCase<Fol
                         randomNonNegativeLong(),
                         Tuple.tuple(randomIntBetween(0, Integer.MAX_VALUE), new ElasticsearchException("shard is sad"))));
         final long timeSinceLastReadMillis = randomNonNegativeLong();
+        final int readRequestOperationCount = randomIntBetween(0, Integer.MAX_VALUE);
+        final long readOperationsPerSec = randomLongBetween(-1, Long.MAX_VALUE);
+        final long writeOperationsPerSec = randomLongBetween(-1, Long.MAX_VALUE);
         final ShardFollowNodeTaskStatus status = new ShardFollowNodeTaskStatus(
                 "leader_cluster",
                 "leader_index",
@@ -141,9 +144,13 @@ public class FollowStatsMonitoringDocTests extends BaseMonitoringDocTestCase<Fol
                 operationWritten,
                 fetchExceptions,
                 timeSinceLastReadMillis,
-                new ElasticsearchException("fatal error"));
+                new ElasticsearchException("fatal error"),
+                readRequestOperationCount,
+                readOperationsPerSec,
+                writeOperationsPerSec);
         final FollowStatsMonitoringDoc document = new FollowStatsMonitoringDoc("_cluster", timestamp, intervalMillis, node, status);
         final BytesReference xContent = XContentHelper.toXContent(document, XContentType.JSON, false);
+        final long followerCheckpointLag = Math.max(0L, leaderGlobalCheckpoint - followerGlobalCheckpoint);
         assertThat(
                 xContent.utf8ToString(),
                 equalTo(
@@ -187,6 +194,10 @@ public class FollowStatsMonitoringDocTests extends BaseMonitoringDocTestCase<Fol
                                         + "\"successful_write_requests\":" + successfulWriteRequests + ","
                                         + "\"failed_write_requests\":" + failedWriteRequests + ","
                                         + "\"operations_written\":" + operationWritten + ","
+                                        + "\"follower_checkpoint_lag\":" + followerCheckpointLag + ","
+                                        + "\"read_request_operation_count\":" + readRequestOperationCount + ","
+                                        + "\"read_operations_per_sec\":" + readOperationsPerSec + ","
+                                        + "\"write_operations_per_sec\":" + writeOperationsPerSec + ","
                                         + "\"read_exceptions\":["
                                                 + "{"
                                                         + "\"from_seq_no\":" + fetchExceptions.keySet().iterator().next() + ","
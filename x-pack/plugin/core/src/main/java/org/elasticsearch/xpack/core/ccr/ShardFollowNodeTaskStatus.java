@@ -65,6 +65,10 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
     private static final ParseField READ_EXCEPTIONS = new ParseField("read_exceptions");
     private static final ParseField TIME_SINCE_LAST_READ_MILLIS_FIELD = new ParseField("time_since_last_read_millis");
     private static final ParseField FATAL_EXCEPTION = new ParseField("fatal_exception");
+    private static final ParseField FOLLOWER_CHECKPOINT_LAG_FIELD = new ParseField("follower_checkpoint_lag");
+    private static final ParseField READ_REQUEST_OPERATION_COUNT_FIELD = new ParseField("read_request_operation_count");
+    private static final ParseField READ_OPERATIONS_PER_SEC_FIELD = new ParseField("read_operations_per_sec");
+    private static final ParseField WRITE_OPERATIONS_PER_SEC_FIELD = new ParseField("write_operations_per_sec");
 
     @SuppressWarnings("unchecked")
     static final ConstructingObjectParser<ShardFollowNodeTaskStatus, Void> STATUS_PARSER =
@@ -102,7 +106,10 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
                                             .stream()
                                             .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))),
                             (long) args[27],
-                            (ElasticsearchException) args[28]));
+                            (ElasticsearchException) args[28],
+                            args[29] == null ? 0 : (int) args[29],
+                            args[30] == null ? -1L : (long) args[30],
+                            args[31] == null ? -1L : (long) args[31]));
 
     public static final String READ_EXCEPTIONS_ENTRY_PARSER_NAME = "shard-follow-node-task-status-read-exceptions-entry";
 
@@ -143,6 +150,11 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
         STATUS_PARSER.declareObject(ConstructingObjectParser.optionalConstructorArg(),
                 (p, c) -> ElasticsearchException.fromXContent(p),
                 FATAL_EXCEPTION);
+        STATUS_PARSER.declareInt(ConstructingObjectParser.optionalConstructorArg(), READ_REQUEST_OPERATION_COUNT_FIELD);
+        STATUS_PARSER.declareLong(ConstructingObjectParser.optionalConstructorArg(), READ_OPERATIONS_PER_SEC_FIELD);
+        STATUS_PARSER.declareLong(ConstructingObjectParser.optionalConstructorArg(), WRITE_OPERATIONS_PER_SEC_FIELD);
+        // derived from the leader and follower global checkpoints
+        STATUS_PARSER.declareLong((status, lag) -> {}, FOLLOWER_CHECKPOINT_LAG_FIELD);
     }
 
     static final ParseField READ_EXCEPTIONS_ENTRY_FROM_SEQ_NO = new ParseField("from_seq_no");
@@ -332,6 +344,40 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
         return fatalException;
     }
 
+    private final int readRequestOperationCount;
+
+    /**
+     * @return the number of operations that the shard follow task currently asks for per read request, or {@code 0} if unknown
+     */
+    public int readRequestOperationCount() {
+        return readRequestOperationCount;
+    }
+
+    private final long readOperationsPerSec;
+
+    /**
+     * @return the recent average number of operations per second transferred by a single read request, or {@code -1} if unknown
+     */
+    public long readOperationsPerSec() {
+        return readOperationsPerSec;
+    }
+
+    private final long writeOperationsPerSec;
+
+    /**
+     * @return the recent average number of operations per second indexed by a single write request, or {@code -1} if unknown
+     */
+    public long writeOperationsPerSec() {
+        return writeOperationsPerSec;
+    }
+
+    /**
+     * @return the number of operations that the follower shard has yet to process to catch up with the global checkpoint of the leader
+     */
+    public long followerCheckpointLag() {
+        return Math.max(0L, leaderGlobalCheckpoint - followerGlobalCheckpoint);
+    }
+
     public ShardFollowNodeTaskStatus(
             final String remoteCluster,
             final String leaderIndex,
@@ -362,6 +408,47 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
             final NavigableMap<Long, Tuple<Integer, ElasticsearchException>> readExceptions,
             final long timeSinceLastReadMillis,
             final ElasticsearchException fatalException) {
+        this(remoteCluster, leaderIndex, followerIndex, shardId, leaderGlobalCheckpoint, leaderMaxSeqNo, followerGlobalCheckpoint,
+            followerMaxSeqNo, lastRequestedSeqNo, outstandingReadRequests, outstandingWriteRequests, writeBufferOperationCount,
+            writeBufferSizeInBytes, followerMappingVersion, followerSettingsVersion, followerAliasesVersion, totalReadTimeMillis,
+            totalReadRemoteExecTimeMillis, successfulReadRequests, failedReadRequests, operationsReads, bytesRead, totalWriteTimeMillis,
+            successfulWriteRequests, failedWriteRequests, operationWritten, readExceptions, timeSinceLastReadMillis, fatalException,
+            0, -1L, -1L);
+    }
+
+    public ShardFollowNodeTaskStatus(
+            final String remoteCluster,
+            final String leaderIndex,
+            final String followerIndex,
+            final int shardId,
+            final long leaderGlobalCheckpoint,
+            final long leaderMaxSeqNo,
+            final long followerGlobalCheckpoint,
+            final long followerMaxSeqNo,
+            final long lastRequestedSeqNo,
+            final int outstandingReadRequests,
+            final int outstandingWriteRequests,
+            final int writeBufferOperationCount,
+            final long writeBufferSizeInBytes,
+            final long followerMappingVersion,
+            final long followerSettingsVersion,
+            final long followerAliasesVersion,
+            final long totalReadTimeMillis,
+            final long totalReadRemoteExecTimeMillis,
+            final long successfulReadRequests,
+            final long failedReadRequests,
+            final long operationsReads,
+            final long bytesRead,
+            final long totalWriteTimeMillis,
+            final long successfulWriteRequests,
+            final long failedWriteRequests,
+            final long operationWritten,
+            final NavigableMap<Long, Tuple<Integer, ElasticsearchException>> readExceptions,
+            final long timeSinceLastReadMillis,
+            final ElasticsearchException fatalException,
+            final int readRequestOperationCount,
+            final long readOperationsPerSec,
+            final long writeOperationsPerSec) {
         this.remoteCluster = remoteCluster;
         this.leaderIndex = leaderIndex;
         this.followerIndex = followerIndex;
@@ -391,6 +478,9 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
         this.readExceptions = Objects.requireNonNull(readExceptions);
         this.timeSinceLastReadMillis = timeSinceLastReadMillis;
         this.fatalException = fatalException;
+        this.readRequestOperationCount = readRequestOperationCount;
+        this.readOperationsPerSec = readOperationsPerSec;
+        this.writeOperationsPerSec = writeOperationsPerSec;
     }
 
     public ShardFollowNodeTaskStatus(final StreamInput in) throws IOException {
@@ -428,6 +518,15 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
                 new TreeMap<>(in.readMap(StreamInput::readVLong, stream -> Tuple.tuple(stream.readVInt(), stream.readException())));
         this.timeSinceLastReadMillis = in.readZLong();
         this.fatalException = in.readException();
+        if (in.getVersion().onOrAfter(Version.V_7_11_3)) {
+            this.readRequestOperationCount = in.readVInt();
+            this.readOperationsPerSec = in.readZLong();
+            this.writeOperationsPerSec = in.readZLong();
+        } else {
+            this.readRequestOperationCount = 0;
+            this.readOperationsPerSec = -1L;
+            this.writeOperationsPerSec = -1L;
+        }
     }
 
     @Override
@@ -474,6 +573,11 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
                 });
         out.writeZLong(timeSinceLastReadMillis);
         out.writeException(fatalException);
+        if (out.getVersion().onOrAfter(Version.V_7_11_3)) {
+            out.writeVInt(readRequestOperationCount);
+            out.writeZLong(readOperationsPerSec);
+            out.writeZLong(writeOperationsPerSec);
+        }
     }
 
     @Override
@@ -528,6 +632,10 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
         builder.field(SUCCESSFUL_WRITE_REQUESTS_FIELD.getPreferredName(), successfulWriteRequests);
         builder.field(FAILED_WRITE_REQUEST_FIELD.getPreferredName(), failedWriteRequests);
         builder.field(OPERATIONS_WRITTEN.getPreferredName(), operationWritten);
+        builder.field(FOLLOWER_CHECKPOINT_LAG_FIELD.getPreferredName(), followerCheckpointLag());
+        builder.field(READ_REQUEST_OPERATION_COUNT_FIELD.getPreferredName(), readRequestOperationCount);
+        builder.field(READ_OPERATIONS_PER_SEC_FIELD.getPreferredName(), readOperationsPerSec);
+        builder.field(WRITE_OPERATIONS_PER_SEC_FIELD.getPreferredName(), writeOperationsPerSec);
         builder.startArray(READ_EXCEPTIONS.getPreferredName());
         {
             for (final Map.Entry<Long, Tuple<Integer, ElasticsearchException>> entry : readExceptions.entrySet()) {
@@ -605,7 +713,10 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
                 readExceptions.keySet().equals(that.readExceptions.keySet()) &&
                 getReadExceptionMessages(this).equals(getReadExceptionMessages(that)) &&
                 timeSinceLastReadMillis == that.timeSinceLastReadMillis &&
-                Objects.equals(fatalExceptionMessage, otherFatalExceptionMessage);
+                Objects.equals(fatalExceptionMessage, otherFatalExceptionMessage) &&
+                readRequestOperationCount == that.readRequestOperationCount &&
+                readOperationsPerSec == that.readOperationsPerSec &&
+                writeOperationsPerSec == that.writeOperationsPerSec;
     }
 
     @Override
@@ -644,7 +755,10 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
                 readExceptions.keySet(),
                 getReadExceptionMessages(this),
                 timeSinceLastReadMillis,
-                fatalExceptionMessage);
+                fatalExceptionMessage,
+                readRequestOperationCount,
+                readOperationsPerSec,
+                writeOperationsPerSec);
     }
 
     private static List<String> getReadExceptionMessages(final ShardFollowNodeTaskStatus status) {
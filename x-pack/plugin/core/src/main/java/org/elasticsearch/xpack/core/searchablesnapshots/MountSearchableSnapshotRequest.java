@@ -7,6 +7,7 @@
 
 package org.elasticsearch.xpack.core.searchablesnapshots;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.action.ActionRequestValidationException;
 import org.elasticsearch.action.support.master.MasterNodeRequest;
 import org.elasticsearch.cluster.metadata.IndexMetadata;
@@ -14,6 +15,7 @@ import org.elasticsearch.common.ParseField;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.xcontent.ConstructingObjectParser;
 import org.elasticsearch.common.xcontent.ObjectParser;
@@ -22,6 +24,7 @@ import org.elasticsearch.rest.RestRequest;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -42,7 +45,8 @@ public class MountSearchableSnapshotRequest extends MasterNodeRequest<MountSearc
             (String) a[0],
             (Settings) ((a[2] != null) ? a[2] : Settings.EMPTY),
             (String[]) ((a[3] != null) ? a[3] : Strings.EMPTY_ARRAY),
-            request.paramAsBoolean("wait_for_completion", false)));
+            request.paramAsBoolean("wait_for_completion", false),
+            Storage.fromString(request.param("storage", Storage.FULL_COPY.toString()))));
 
     private static final ParseField INDEX_FIELD = new ParseField("index");
     private static final ParseField RENAMED_INDEX_FIELD = new ParseField("renamed_index");
@@ -58,6 +62,8 @@ public class MountSearchableSnapshotRequest extends MasterNodeRequest<MountSearc
             IGNORE_INDEX_SETTINGS_FIELD, ObjectParser.ValueType.STRING_ARRAY);
     }
 
+    private static final Version SHARED_CACHE_VERSION = Version.V_7_11_3;
+
     private final String mountedIndexName;
     private final String repositoryName;
     private final String snapshotName;
@@ -65,12 +71,24 @@ public class MountSearchableSnapshotRequest extends MasterNodeRequest<MountSearc
     private final Settings indexSettings;
     private final String[] ignoredIndexSettings;
     private final boolean waitForCompletion;
+    private final Storage storage;
 
     /**
      * Constructs a new mount searchable snapshot request, restoring an index with the settings needed to make it a searchable snapshot.
      */
     public MountSearchableSnapshotRequest(String mountedIndexName, String repositoryName, String snapshotName, String snapshotIndexName,
                                           Settings indexSettings, String[] ignoredIndexSettings, boolean waitForCompletion) {
+        this(mountedIndexName, repositoryName, snapshotName, snapshotIndexName, indexSettings, ignoredIndexSettings, waitForCompletion,
+            Storage.FULL_COPY);
+    }
+
+    /**
+     * Constructs a new mount searchable snapshot request, restoring an index with the settings needed to make it a searchable snapshot
+     * that is stored locally according to the given {@link Storage} option.
+     */
+    public MountSearchableSnapshotRequest(String mountedIndexName, String repositoryName, String snapshotName, String snapshotIndexName,
+                                          Settings indexSettings, String[] ignoredIndexSettings, boolean waitForCompletion,
+                                          Storage storage) {
         this.mountedIndexName = Objects.requireNonNull(mountedIndexName);
         this.repositoryName = Objects.requireNonNull(repositoryName);
         this.snapshotName = Objects.requireNonNull(snapshotName);
@@ -78,6 +96,7 @@ public class MountSearchableSnapshotRequest extends MasterNodeRequest<MountSearc
         this.indexSettings = Objects.requireNonNull(indexSettings);
         this.ignoredIndexSettings = Objects.requireNonNull(ignoredIndexSettings);
         this.waitForCompletion = waitForCompletion;
+        this.storage = Objects.requireNonNull(storage);
     }
 
     public MountSearchableSnapshotRequest(StreamInput in) throws IOException {
@@ -89,6 +108,11 @@ public class MountSearchableSnapshotRequest extends MasterNodeRequest<MountSearc
         this.indexSettings = readSettingsFromStream(in);
         this.ignoredIndexSettings = in.readStringArray();
         this.waitForCompletion = in.readBoolean();
+        if (in.getVersion().onOrAfter(SHARED_CACHE_VERSION)) {
+            this.storage = Storage.readFromStream(in);
+        } else {
+            this.storage = Storage.FULL_COPY;
+        }
     }
 
     @Override
@@ -101,6 +125,11 @@ public class MountSearchableSnapshotRequest extends MasterNodeRequest<MountSearc
         writeSettingsToStream(indexSettings, out);
         out.writeStringArray(ignoredIndexSettings);
         out.writeBoolean(waitForCompletion);
+        if (out.getVersion().onOrAfter(SHARED_CACHE_VERSION)) {
+            storage.writeTo(out);
+        } else if (storage != Storage.FULL_COPY) {
+            throw new IllegalArgumentException("storage type [" + storage + "] is not supported on version [" + out.getVersion() + "]");
+        }
     }
 
     @Override
@@ -148,6 +177,13 @@ public class MountSearchableSnapshotRequest extends MasterNodeRequest<MountSearc
         return waitForCompletion;
     }
 
+    /**
+     * @return how the mounted index is stored on the nodes that hold its shards
+     */
+    public Storage storage() {
+        return storage;
+    }
+
     /**
      * @return settings that should be added to the index when it is mounted
      */
@@ -164,7 +200,8 @@ public class MountSearchableSnapshotRequest extends MasterNodeRequest<MountSearc
 
     @Override
     public String getDescription() {
-        return "mount snapshot [" + repositoryName + ":" + snapshotName + ":" + snapshotIndexName + "] as [" + mountedIndexName + "]";
+        return "mount snapshot [" + repositoryName + ":" + snapshotName + ":" + snapshotIndexName + "] as [" + mountedIndexName + "]"
+            + (storage == Storage.FULL_COPY ? "" : " with storage [" + storage + "]");
     }
 
     @Override
@@ -173,6 +210,7 @@ public class MountSearchableSnapshotRequest extends MasterNodeRequest<MountSearc
         if (o == null || getClass() != o.getClass()) return false;
         MountSearchableSnapshotRequest that = (MountSearchableSnapshotRequest) o;
         return waitForCompletion == that.waitForCompletion &&
+            storage == that.storage &&
             Objects.equals(mountedIndexName, that.mountedIndexName) &&
             Objects.equals(repositoryName, that.repositoryName) &&
             Objects.equals(snapshotName, that.snapshotName) &&
@@ -185,7 +223,7 @@ public class MountSearchableSnapshotRequest extends MasterNodeRequest<MountSearc
     @Override
     public int hashCode() {
         int result = Objects.hash(mountedIndexName, repositoryName, snapshotName, snapshotIndexName, indexSettings, waitForCompletion,
-            masterNodeTimeout);
+            storage, masterNodeTimeout);
         result = 31 * result + Arrays.hashCode(ignoredIndexSettings);
         return result;
     }
@@ -194,4 +232,41 @@ public class MountSearchableSnapshotRequest extends MasterNodeRequest<MountSearc
     public String toString() {
         return getDescription();
     }
+
+    /**
+     * How the data of a mounted index is stored on the nodes that hold its shards.
+     */
+    public enum Storage implements Writeable {
+        /**
+         * Each shard keeps a local copy of all of the files it reads in the node's snapshot cache.
+         */
+        FULL_COPY,
+        /**
+         * Shards only keep the parts of the files they recently read, in a fixed size cache that is shared by all the shards on the node.
+         */
+        SHARED_CACHE;
+
+        public static Storage fromString(String type) {
+            try {
+                return Storage.valueOf(type.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown storage type [" + type + "], expected one of "
+                    + Arrays.stream(values()).map(Storage::toString).collect(Collectors.toList()));
+            }
+        }
+
+        public static Storage readFromStream(StreamInput in) throws IOException {
+            return in.readEnum(Storage.class);
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeEnum(this);
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
 }
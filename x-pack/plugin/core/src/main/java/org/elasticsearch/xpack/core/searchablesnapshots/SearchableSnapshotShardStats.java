@@ -142,6 +142,11 @@ public class SearchableSnapshotShardStats implements Writeable, ToXContentObject
         private final TimedCounter optimizedBytesRead;
         private final Counter blobStoreBytesRequested;
         private final long currentIndexCacheFills;
+        private final long sharedCacheRegionHits;
+        private final long sharedCacheRegionMisses;
+        private final long sharedCacheRegionEvictions;
+        private final Counter readAheadBytes;
+        private final Counter prefetchedBytes;
 
         public CacheIndexInputStats(String fileName, long fileLength, long openCount, long closeCount,
                                     Counter forwardSmallSeeks, Counter backwardSmallSeeks,
@@ -149,7 +154,9 @@ public class SearchableSnapshotShardStats implements Writeable, ToXContentObject
                                     Counter contiguousReads, Counter nonContiguousReads,
                                     Counter cachedBytesRead, Counter indexCacheBytesRead,
                                     TimedCounter cachedBytesWritten, TimedCounter directBytesRead, TimedCounter optimizedBytesRead,
-                                    Counter blobStoreBytesRequested, long currentIndexCacheFills) {
+                                    Counter blobStoreBytesRequested, long currentIndexCacheFills,
+                                    long sharedCacheRegionHits, long sharedCacheRegionMisses, long sharedCacheRegionEvictions,
+                                    Counter readAheadBytes, Counter prefetchedBytes) {
             this.fileName = fileName;
             this.fileLength = fileLength;
             this.openCount = openCount;
@@ -167,6 +174,11 @@ public class SearchableSnapshotShardStats implements Writeable, ToXContentObject
             this.optimizedBytesRead = optimizedBytesRead;
             this.blobStoreBytesRequested = blobStoreBytesRequested;
             this.currentIndexCacheFills = currentIndexCacheFills;
+            this.sharedCacheRegionHits = sharedCacheRegionHits;
+            this.sharedCacheRegionMisses = sharedCacheRegionMisses;
+            this.sharedCacheRegionEvictions = sharedCacheRegionEvictions;
+            this.readAheadBytes = readAheadBytes;
+            this.prefetchedBytes = prefetchedBytes;
         }
 
         CacheIndexInputStats(final StreamInput in) throws IOException {
@@ -196,6 +208,19 @@ public class SearchableSnapshotShardStats implements Writeable, ToXContentObject
                 this.blobStoreBytesRequested = new Counter(0, 0, 0, 0);
                 this.currentIndexCacheFills = 0;
             }
+            if (in.getVersion().onOrAfter(Version.V_7_11_3)) {
+                this.sharedCacheRegionHits = in.readVLong();
+                this.sharedCacheRegionMisses = in.readVLong();
+                this.sharedCacheRegionEvictions = in.readVLong();
+                this.readAheadBytes = new Counter(in);
+                this.prefetchedBytes = new Counter(in);
+            } else {
+                this.sharedCacheRegionHits = 0;
+                this.sharedCacheRegionMisses = 0;
+                this.sharedCacheRegionEvictions = 0;
+                this.readAheadBytes = new Counter(0, 0, 0, 0);
+                this.prefetchedBytes = new Counter(0, 0, 0, 0);
+            }
         }
 
         @Override
@@ -222,6 +247,13 @@ public class SearchableSnapshotShardStats implements Writeable, ToXContentObject
                 blobStoreBytesRequested.writeTo(out);
                 out.writeVLong(currentIndexCacheFills);
             }
+            if (out.getVersion().onOrAfter(Version.V_7_11_3)) {
+                out.writeVLong(sharedCacheRegionHits);
+                out.writeVLong(sharedCacheRegionMisses);
+                out.writeVLong(sharedCacheRegionEvictions);
+                readAheadBytes.writeTo(out);
+                prefetchedBytes.writeTo(out);
+            }
         }
 
         public String getFileName() {
@@ -292,6 +324,26 @@ public class SearchableSnapshotShardStats implements Writeable, ToXContentObject
             return currentIndexCacheFills;
         }
 
+        public long getSharedCacheRegionHits() {
+            return sharedCacheRegionHits;
+        }
+
+        public long getSharedCacheRegionMisses() {
+            return sharedCacheRegionMisses;
+        }
+
+        public long getSharedCacheRegionEvictions() {
+            return sharedCacheRegionEvictions;
+        }
+
+        public Counter getReadAheadBytes() {
+            return readAheadBytes;
+        }
+
+        public Counter getPrefetchedBytes() {
+            return prefetchedBytes;
+        }
+
         @Override
         public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
             builder.startObject();
@@ -321,6 +373,15 @@ public class SearchableSnapshotShardStats implements Writeable, ToXContentObject
                 }
                 builder.field("blob_store_bytes_requested", getBlobStoreBytesRequested());
                 builder.field("current_index_cache_fills", getCurrentIndexCacheFills());
+                builder.field("read_ahead_bytes", getReadAheadBytes());
+                builder.field("prefetched_bytes", getPrefetchedBytes());
+                {
+                    builder.startObject("shared_cache");
+                    builder.field("region_hits", getSharedCacheRegionHits());
+                    builder.field("region_misses", getSharedCacheRegionMisses());
+                    builder.field("region_evictions", getSharedCacheRegionEvictions());
+                    builder.endObject();
+                }
             }
             return builder.endObject();
         }
@@ -350,7 +411,12 @@ public class SearchableSnapshotShardStats implements Writeable, ToXContentObject
                 && Objects.equals(directBytesRead, stats.directBytesRead)
                 && Objects.equals(optimizedBytesRead, stats.optimizedBytesRead)
                 && Objects.equals(blobStoreBytesRequested, stats.blobStoreBytesRequested)
-                && currentIndexCacheFills == stats.currentIndexCacheFills;
+                && currentIndexCacheFills == stats.currentIndexCacheFills
+                && sharedCacheRegionHits == stats.sharedCacheRegionHits
+                && sharedCacheRegionMisses == stats.sharedCacheRegionMisses
+                && sharedCacheRegionEvictions == stats.sharedCacheRegionEvictions
+                && Objects.equals(readAheadBytes, stats.readAheadBytes)
+                && Objects.equals(prefetchedBytes, stats.prefetchedBytes);
         }
 
         @Override
@@ -361,7 +427,9 @@ public class SearchableSnapshotShardStats implements Writeable, ToXContentObject
                 contiguousReads, nonContiguousReads,
                 cachedBytesRead, indexCacheBytesRead,
                 cachedBytesWritten, directBytesRead, optimizedBytesRead,
-                blobStoreBytesRequested, currentIndexCacheFills);
+                blobStoreBytesRequested, currentIndexCacheFills,
+                sharedCacheRegionHits, sharedCacheRegionMisses, sharedCacheRegionEvictions,
+                readAheadBytes, prefetchedBytes);
         }
     }
 
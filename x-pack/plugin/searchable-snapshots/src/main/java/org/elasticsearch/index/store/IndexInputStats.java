@@ -51,6 +51,15 @@ public class IndexInputStats {
     private final Counter blobStoreBytesRequested = new Counter();
     private final AtomicLong currentIndexCacheFills = new AtomicLong();
 
+    private final LongAdder sharedCacheRegionHits = new LongAdder();
+    private final LongAdder sharedCacheRegionMisses = new LongAdder();
+    private final LongAdder sharedCacheRegionEvictions = new LongAdder();
+
+    // bytes fetched beyond the default range because reads were sequential
+    private final Counter readAheadBytes = new Counter();
+    // bytes fetched ahead of any read, either when prewarming the cache or when prefetching files that are always needed
+    private final Counter prefetchedBytes = new Counter();
+
     public IndexInputStats(long fileLength, LongSupplier currentTimeNanos) {
         this(fileLength, SEEKING_THRESHOLD.getBytes(), currentTimeNanos);
     }
@@ -135,6 +144,26 @@ public class IndexInputStats {
         };
     }
 
+    public void incrementSharedCacheRegionHits() {
+        sharedCacheRegionHits.increment();
+    }
+
+    public void incrementSharedCacheRegionMisses() {
+        sharedCacheRegionMisses.increment();
+    }
+
+    public void incrementSharedCacheRegionEvictions() {
+        sharedCacheRegionEvictions.increment();
+    }
+
+    public void addReadAheadBytes(long bytes) {
+        readAheadBytes.add(bytes);
+    }
+
+    public void addPrefetchedBytes(long bytes) {
+        prefetchedBytes.add(bytes);
+    }
+
     public long getFileLength() {
         return fileLength;
     }
@@ -204,6 +233,26 @@ public class IndexInputStats {
         return currentIndexCacheFills.get();
     }
 
+    public long getSharedCacheRegionHits() {
+        return sharedCacheRegionHits.sum();
+    }
+
+    public long getSharedCacheRegionMisses() {
+        return sharedCacheRegionMisses.sum();
+    }
+
+    public long getSharedCacheRegionEvictions() {
+        return sharedCacheRegionEvictions.sum();
+    }
+
+    public Counter getReadAheadBytes() {
+        return readAheadBytes;
+    }
+
+    public Counter getPrefetchedBytes() {
+        return prefetchedBytes;
+    }
+
     public static class Counter {
 
         private final LongAdder count = new LongAdder();
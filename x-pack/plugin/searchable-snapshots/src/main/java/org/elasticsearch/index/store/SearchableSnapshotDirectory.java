@@ -36,6 +36,7 @@ import org.elasticsearch.common.lucene.store.ByteArrayIndexInput;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.LazyInitializable;
+import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.core.internal.io.IOUtils;
 import org.elasticsearch.index.IndexSettings;
@@ -45,6 +46,7 @@ import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot;
 import org.elasticsearch.index.store.cache.CacheFile;
 import org.elasticsearch.index.store.cache.CacheKey;
 import org.elasticsearch.index.store.cache.CachedBlobContainerIndexInput;
+import org.elasticsearch.index.store.cache.FrozenIndexInput;
 import org.elasticsearch.index.store.checksum.ChecksumBlobContainerIndexInput;
 import org.elasticsearch.index.store.direct.DirectBlobContainerIndexInput;
 import org.elasticsearch.indices.recovery.RecoveryState;
@@ -57,6 +59,7 @@ import org.elasticsearch.snapshots.SnapshotId;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshotsConstants;
 import org.elasticsearch.xpack.searchablesnapshots.cache.CacheService;
+import org.elasticsearch.xpack.searchablesnapshots.cache.FrozenCacheService;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -64,8 +67,10 @@ import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -83,9 +88,11 @@ import static org.apache.lucene.store.BufferedIndexInput.bufferSize;
 import static org.elasticsearch.index.IndexModule.INDEX_STORE_TYPE_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_CACHE_ENABLED_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_CACHE_EXCLUDED_FILE_TYPES_SETTING;
+import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_CACHE_PREFETCH_ENABLED_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_CACHE_PREWARM_ENABLED_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_INDEX_ID_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_INDEX_NAME_SETTING;
+import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_PARTIAL_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_REPOSITORY_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_SNAPSHOT_ID_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_SNAPSHOT_NAME_SETTING;
@@ -108,6 +115,20 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
 
     private static final Logger logger = LogManager.getLogger(SearchableSnapshotDirectory.class);
 
+    /**
+     * Extensions of the files that Lucene reads whenever a shard is opened, regardless of the searches that are executed on it: segment
+     * infos, compound file entries, field infos and the in-memory parts of the terms and points indices.
+     */
+    static final Set<String> ALWAYS_NEEDED_FILE_EXTENSIONS = org.elasticsearch.common.collect.Set.of(
+        "si",
+        "cfe",
+        "fnm",
+        "tip",
+        "tmd",
+        "kdi",
+        "kdm"
+    );
+
     private final Supplier<BlobContainer> blobContainerSupplier;
     private final Supplier<BlobStoreIndexShardSnapshot> snapshotSupplier;
     private final BlobStoreCacheService blobStoreCacheService;
@@ -120,8 +141,12 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
     private final Map<String, IndexInputStats> stats;
     private final ThreadPool threadPool;
     private final CacheService cacheService;
+    @Nullable
+    private final FrozenCacheService frozenCacheService;
     private final boolean useCache;
+    private final boolean partial;
     private final boolean prewarmCache;
+    private final boolean prefetchCache;
     private final Set<String> excludedFileTypes;
     private final long uncachedChunkSize; // if negative use BlobContainer#readBlobPreferredLength, see #getUncachedChunkSize()
     private final Path cacheDir;
@@ -148,6 +173,40 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
         Path cacheDir,
         ShardPath shardPath,
         ThreadPool threadPool
+    ) {
+        this(
+            blobContainer,
+            snapshot,
+            blobStoreCacheService,
+            repository,
+            snapshotId,
+            indexId,
+            shardId,
+            indexSettings,
+            currentTimeNanosSupplier,
+            cacheService,
+            cacheDir,
+            shardPath,
+            threadPool,
+            null
+        );
+    }
+
+    public SearchableSnapshotDirectory(
+        Supplier<BlobContainer> blobContainer,
+        Supplier<BlobStoreIndexShardSnapshot> snapshot,
+        BlobStoreCacheService blobStoreCacheService,
+        String repository,
+        SnapshotId snapshotId,
+        IndexId indexId,
+        ShardId shardId,
+        Settings indexSettings,
+        LongSupplier currentTimeNanosSupplier,
+        CacheService cacheService,
+        Path cacheDir,
+        ShardPath shardPath,
+        ThreadPool threadPool,
+        @Nullable FrozenCacheService frozenCacheService
     ) {
         super(new SingleInstanceLockFactory());
         this.snapshotSupplier = Objects.requireNonNull(snapshot);
@@ -163,8 +222,15 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
         this.cacheDir = Objects.requireNonNull(cacheDir);
         this.shardPath = Objects.requireNonNull(shardPath);
         this.closed = new AtomicBoolean(false);
+        this.frozenCacheService = frozenCacheService;
         this.useCache = SNAPSHOT_CACHE_ENABLED_SETTING.get(indexSettings);
-        this.prewarmCache = useCache ? SNAPSHOT_CACHE_PREWARM_ENABLED_SETTING.get(indexSettings) : false;
+        this.partial = SNAPSHOT_PARTIAL_SETTING.get(indexSettings);
+        // partially mounted shards only keep the data that is searched in the shared cache, there is nothing to prewarm
+        this.prewarmCache = useCache && partial == false ? SNAPSHOT_CACHE_PREWARM_ENABLED_SETTING.get(indexSettings) : false;
+        // the files that are always needed are only prefetched on their own if the whole cache is not prewarmed
+        this.prefetchCache = useCache && partial == false && prewarmCache == false
+            ? SNAPSHOT_CACHE_PREFETCH_ENABLED_SETTING.get(indexSettings)
+            : false;
         this.excludedFileTypes = new HashSet<>(SNAPSHOT_CACHE_EXCLUDED_FILE_TYPES_SETTING.get(indexSettings));
         this.uncachedChunkSize = SNAPSHOT_UNCACHED_CHUNK_SIZE_SETTING.get(indexSettings).getBytes();
         this.blobStoreCachePath = String.join("/", snapshotId.getUUID(), indexId.getId(), String.valueOf(shardId.id()));
@@ -336,7 +402,11 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
 
     public void clearCache() {
         for (BlobStoreIndexShardSnapshot.FileInfo file : files()) {
-            cacheService.removeFromCache(createCacheKey(file.physicalName()));
+            final CacheKey cacheKey = createCacheKey(file.physicalName());
+            cacheService.removeFromCache(cacheKey);
+            if (frozenCacheService != null) {
+                frozenCacheService.removeFromCache(cacheKey);
+            }
         }
     }
 
@@ -374,14 +444,17 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
         }
 
         final IndexInputStats inputStats = stats.computeIfAbsent(name, n -> createIndexInputStats(fileInfo.length()));
-        if (useCache && isExcludedFromCache(name) == false) {
+        if (partial && useCache && frozenCacheService != null && frozenCacheService.isEnabled()) {
+            return new FrozenIndexInput(this, frozenCacheService, fileInfo, context, inputStats);
+        } else if (partial == false && useCache && isExcludedFromCache(name) == false) {
             return new CachedBlobContainerIndexInput(
                 this,
                 fileInfo,
                 context,
                 inputStats,
                 cacheService.getRangeSize(),
-                cacheService.getRecoveryRangeSize()
+                cacheService.getRecoveryRangeSize(),
+                cacheService.getMaxReadAheadSize()
             );
         } else {
             return new DirectBlobContainerIndexInput(
@@ -437,8 +510,16 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
         cacheService.waitForCacheFilesEvictionIfNeeded(snapshotId.getUUID(), indexId.getName(), shardId);
     }
 
+    static boolean isAlwaysNeeded(String name) {
+        final String ext = IndexFileNames.getExtension(name);
+        return ext != null && ALWAYS_NEEDED_FILE_EXTENSIONS.contains(ext);
+    }
+
     private void prewarmCache(ActionListener<Void> listener) {
         if (prewarmCache == false) {
+            if (prefetchCache) {
+                prefetchAlwaysNeededFiles();
+            }
             recoveryState.setPreWarmComplete();
             listener.onResponse(null);
             return;
@@ -452,7 +533,11 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
             listener.onResponse(null);
         }, listener::onFailure), snapshot().totalFileCount());
 
-        for (BlobStoreIndexShardSnapshot.FileInfo file : snapshot().indexFiles()) {
+        // files that are always needed to open the shard are warmed first so that they are available as early as possible
+        final List<BlobStoreIndexShardSnapshot.FileInfo> files = new ArrayList<>(snapshot().indexFiles());
+        files.sort(Comparator.comparing(file -> isAlwaysNeeded(file.physicalName()) == false));
+
+        for (BlobStoreIndexShardSnapshot.FileInfo file : files) {
             if (file.metadata().hashEqualsContents() || isExcludedFromCache(file.physicalName())) {
                 if (file.metadata().hashEqualsContents()) {
                     recoveryState.getIndex().addFileDetail(file.physicalName(), file.length(), true);
@@ -514,6 +599,39 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
         }
     }
 
+    /**
+     * Fetches the files that are always needed to open the shard into the cache in the background when the cache is not prewarmed, so
+     * that they are likely to be available by the time the first searches are executed. Contrary to prewarming this is not tracked in the
+     * recovery state and the recovery does not wait for it to complete.
+     */
+    private void prefetchAlwaysNeededFiles() {
+        final Executor executor = prewarmExecutor();
+        for (BlobStoreIndexShardSnapshot.FileInfo file : snapshot().indexFiles()) {
+            final String fileName = file.physicalName();
+            if (file.metadata().hashEqualsContents() || isExcludedFromCache(fileName) || isAlwaysNeeded(fileName) == false) {
+                continue;
+            }
+            executor.execute(new AbstractRunnable() {
+                @Override
+                protected void doRun() throws Exception {
+                    ensureOpen();
+                    try (IndexInput input = openInput(fileName, CachedBlobContainerIndexInput.CACHE_WARMING_CONTEXT)) {
+                        assert input instanceof CachedBlobContainerIndexInput : "expected cached index input but got " + input.getClass();
+                        for (int part = 0; part < file.numberOfParts(); part++) {
+                            ((CachedBlobContainerIndexInput) input).prefetchPart(part);
+                        }
+                    }
+                    logger.trace("{} prefetched file [{}]", shardId, fileName);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    logger.debug(() -> new ParameterizedMessage("{} unable to prefetch file [{}]", shardId, fileName), e);
+                }
+            });
+        }
+    }
+
     private void prewarmNext(final Executor executor, final BlockingQueue<Tuple<ActionListener<Void>, CheckedRunnable<Exception>>> queue) {
         try {
             final Tuple<ActionListener<Void>, CheckedRunnable<Exception>> next = queue.poll(0L, TimeUnit.MILLISECONDS);
@@ -534,7 +652,8 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
         ShardPath shardPath,
         LongSupplier currentTimeNanosSupplier,
         ThreadPool threadPool,
-        BlobStoreCacheService blobStoreCacheService
+        BlobStoreCacheService blobStoreCacheService,
+        @Nullable FrozenCacheService frozenCacheService
     ) throws IOException {
 
         if (SNAPSHOT_REPOSITORY_SETTING.exists(indexSettings.getSettings()) == false
@@ -563,6 +682,18 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
             );
         }
 
+        if (SNAPSHOT_PARTIAL_SETTING.get(indexSettings.getSettings())
+            && (frozenCacheService == null || frozenCacheService.isEnabled() == false)) {
+            // partially mounted shards only hold their data in the shared cache, without it every read would go to the blob store
+            throw new IllegalArgumentException(
+                "partially mounted index ["
+                    + indexSettings.getIndex().getName()
+                    + "] cannot be allocated to a node with ["
+                    + FrozenCacheService.SHARED_CACHE_SIZE_SETTING.getKey()
+                    + "] set to 0"
+            );
+        }
+
         final String repositoryName = SNAPSHOT_REPOSITORY_SETTING.get(indexSettings.getSettings());
         final Repository repository = repositories.repository(repositoryName);
         if (repository instanceof BlobStoreRepository == false) {
@@ -606,7 +737,8 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
                 cache,
                 cacheDir,
                 shardPath,
-                threadPool
+                threadPool,
+                frozenCacheService
             )
         );
     }
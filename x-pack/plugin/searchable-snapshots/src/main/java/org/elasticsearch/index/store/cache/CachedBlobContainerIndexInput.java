@@ -26,7 +26,6 @@ import org.elasticsearch.common.io.Channels;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.FileInfo;
-import org.elasticsearch.index.snapshots.blobstore.SlicedInputStream;
 import org.elasticsearch.index.store.BaseSearchableSnapshotIndexInput;
 import org.elasticsearch.index.store.IndexInputStats;
 import org.elasticsearch.index.store.SearchableSnapshotDirectory;
@@ -64,7 +63,10 @@ public class CachedBlobContainerIndexInput extends BaseSearchableSnapshotIndexIn
     private final CacheFileReference cacheFileReference;
     private final int defaultRangeSize;
     private final int recoveryRangeSize;
+    private final int maxReadAheadSize;
 
+    // number of bytes fetched beyond the range of the last cache miss, grows on sequential misses and is reset on non-sequential ones
+    private long readAheadSize;
     // last read position is kept around in order to detect (non)contiguous reads for stats
     private long lastReadPosition;
     // last seek position is kept around in order to detect forward/backward seeks for stats
@@ -76,7 +78,8 @@ public class CachedBlobContainerIndexInput extends BaseSearchableSnapshotIndexIn
         IOContext context,
         IndexInputStats stats,
         int rangeSize,
-        int recoveryRangeSize
+        int recoveryRangeSize,
+        int maxReadAheadSize
     ) {
         this(
             "CachedBlobContainerIndexInput(" + fileInfo.physicalName() + ")",
@@ -88,7 +91,8 @@ public class CachedBlobContainerIndexInput extends BaseSearchableSnapshotIndexIn
             fileInfo.length(),
             new CacheFileReference(directory, fileInfo.physicalName(), fileInfo.length()),
             rangeSize,
-            recoveryRangeSize
+            recoveryRangeSize,
+            maxReadAheadSize
         );
         assert getBufferSize() <= BlobStoreCacheService.DEFAULT_CACHED_BLOB_SIZE; // must be able to cache at least one buffer's worth
         stats.incrementOpenCount();
@@ -104,7 +108,8 @@ public class CachedBlobContainerIndexInput extends BaseSearchableSnapshotIndexIn
         long length,
         CacheFileReference cacheFileReference,
         int rangeSize,
-        int recoveryRangeSize
+        int recoveryRangeSize,
+        int maxReadAheadSize
     ) {
         super(resourceDesc, directory.blobContainer(), fileInfo, context, stats, offset, length);
         this.directory = directory;
@@ -113,6 +118,7 @@ public class CachedBlobContainerIndexInput extends BaseSearchableSnapshotIndexIn
         this.lastSeekPosition = this.offset;
         this.defaultRangeSize = rangeSize;
         this.recoveryRangeSize = recoveryRangeSize;
+        this.maxReadAheadSize = maxReadAheadSize;
     }
 
     @Override
@@ -142,6 +148,23 @@ public class CachedBlobContainerIndexInput extends BaseSearchableSnapshotIndexIn
         return Tuple.tuple(start, end);
     }
 
+    /**
+     * Computes the number of bytes to fetch beyond the range of a cache miss at the given position. Sequential misses double the read-ahead
+     * (starting from the default range size) up to {@link #maxReadAheadSize}, so that scanning a file requires fewer and fewer round trips
+     * to the blob store, whereas a miss anywhere else (including the very first read of the input) resets it to zero since random access
+     * patterns do not benefit from reading ahead.
+     */
+    private long computeReadAhead(long position) {
+        if (position != lastReadPosition || position == this.offset || maxReadAheadSize <= 0) {
+            readAheadSize = 0L;
+        } else if (readAheadSize == 0L) {
+            readAheadSize = Math.min(getDefaultRangeSize(), maxReadAheadSize);
+        } else {
+            readAheadSize = Math.min(readAheadSize * 2L, maxReadAheadSize);
+        }
+        return readAheadSize;
+    }
+
     @Override
     protected void readInternal(ByteBuffer b) throws IOException {
         ensureContext(ctx -> ctx != CACHE_WARMING_CONTEXT);
@@ -276,8 +299,15 @@ public class CachedBlobContainerIndexInput extends BaseSearchableSnapshotIndexIn
             // miss in the cache index.
 
             final Tuple<Long, Long> startRangeToWrite = computeRange(position);
-            final Tuple<Long, Long> endRangeToWrite = computeRange(position + length - 1);
+            final Tuple<Long, Long> endRangeToRead = computeRange(position + length - 1);
+            final long readAhead = computeReadAhead(position);
+            final Tuple<Long, Long> endRangeToWrite = readAhead > 0L
+                ? computeRange(Math.min(position + length - 1 + readAhead, fileInfo.length() - 1))
+                : endRangeToRead;
             assert startRangeToWrite.v2() <= endRangeToWrite.v2() : startRangeToWrite + " vs " + endRangeToWrite;
+            if (endRangeToWrite.v2() > endRangeToRead.v2()) {
+                stats.addReadAheadBytes(endRangeToWrite.v2() - endRangeToRead.v2());
+            }
             final Tuple<Long, Long> rangeToWrite = Tuple.tuple(
                 Math.min(startRangeToWrite.v1(), indexCacheMiss == null ? Long.MAX_VALUE : indexCacheMiss.v1()),
                 Math.max(endRangeToWrite.v2(), indexCacheMiss == null ? Long.MIN_VALUE : indexCacheMiss.v2())
@@ -513,6 +543,7 @@ public class CachedBlobContainerIndexInput extends BaseSearchableSnapshotIndexIn
                 stats.addCachedBytesWritten(totalBytesWritten.get(), endTimeNanos - startTimeNanos);
             }
             assert totalBytesRead == rangeLength;
+            stats.addPrefetchedBytes(rangeLength);
             return Tuple.tuple(cacheFile.getInitialLength(), rangeLength);
         } catch (final Exception e) {
             throw new IOException("Failed to prefetch file part in cache", e);
@@ -617,86 +648,6 @@ public class CachedBlobContainerIndexInput extends BaseSearchableSnapshotIndexIn
         }
     }
 
-    /**
-     * Opens an {@link InputStream} for the given range of bytes which reads the data directly from the blob store. If the requested range
-     * spans multiple blobs then this stream will request them in turn.
-     *
-     * @param position The start of the range of bytes to read, relative to the start of the corresponding Lucene file.
-     * @param length The number of bytes to read
-     */
-    private InputStream openInputStreamFromBlobStore(final long position, final long length) throws IOException {
-        assert assertCurrentThreadMayAccessBlobStore();
-        if (fileInfo.numberOfParts() == 1L) {
-            assert position + length <= fileInfo.partBytes(0) : "cannot read ["
-                + position
-                + "-"
-                + (position + length)
-                + "] from ["
-                + fileInfo
-                + "]";
-            stats.addBlobStoreBytesRequested(length);
-            return blobContainer.readBlob(fileInfo.partName(0), position, length);
-        } else {
-            final int startPart = getPartNumberForPosition(position);
-            final int endPart = getPartNumberForPosition(position + length - 1);
-
-            for (int currentPart = startPart; currentPart <= endPart; currentPart++) {
-                final long startInPart = (currentPart == startPart) ? getRelativePositionInPart(position) : 0L;
-                final long endInPart = (currentPart == endPart)
-                    ? getRelativePositionInPart(position + length - 1) + 1
-                    : getLengthOfPart(currentPart);
-                stats.addBlobStoreBytesRequested(endInPart - startInPart);
-            }
-
-            return new SlicedInputStream(endPart - startPart + 1) {
-                @Override
-                protected InputStream openSlice(int slice) throws IOException {
-                    final int currentPart = startPart + slice;
-                    final long startInPart = (currentPart == startPart) ? getRelativePositionInPart(position) : 0L;
-                    final long endInPart = (currentPart == endPart)
-                        ? getRelativePositionInPart(position + length - 1) + 1
-                        : getLengthOfPart(currentPart);
-                    return blobContainer.readBlob(fileInfo.partName(currentPart), startInPart, endInPart - startInPart);
-                }
-            };
-        }
-    }
-
-    /**
-     * Compute the part number that contains the byte at the given position in the corresponding Lucene file.
-     */
-    private int getPartNumberForPosition(long position) {
-        ensureValidPosition(position);
-        final int part = Math.toIntExact(position / fileInfo.partSize().getBytes());
-        assert part <= fileInfo.numberOfParts() : "part number [" + part + "] exceeds number of parts: " + fileInfo.numberOfParts();
-        assert part >= 0 : "part number [" + part + "] is negative";
-        return part;
-    }
-
-    /**
-     * Compute the position of the given byte relative to the start of its part.
-     * @param position the position of the required byte (within the corresponding Lucene file)
-     */
-    private long getRelativePositionInPart(long position) {
-        ensureValidPosition(position);
-        final long pos = position % fileInfo.partSize().getBytes();
-        assert pos < fileInfo.partBytes(getPartNumberForPosition(pos)) : "position in part [" + pos + "] exceeds part's length";
-        assert pos >= 0L : "position in part [" + pos + "] is negative";
-        return pos;
-    }
-
-    private long getLengthOfPart(int part) {
-        return fileInfo.partBytes(part);
-    }
-
-    private void ensureValidPosition(long position) {
-        assert position >= 0L && position < fileInfo.length() : position + " vs " + fileInfo.length();
-        // noinspection ConstantConditions in case assertions are disabled
-        if (position < 0L || position >= fileInfo.length()) {
-            throw new IllegalArgumentException("Position [" + position + "] is invalid for a file of length [" + fileInfo.length() + "]");
-        }
-    }
-
     @Override
     protected void seekInternal(long pos) throws IOException {
         if (pos > length()) {
@@ -740,7 +691,8 @@ public class CachedBlobContainerIndexInput extends BaseSearchableSnapshotIndexIn
             length,
             cacheFileReference,
             defaultRangeSize,
-            recoveryRangeSize
+            recoveryRangeSize,
+            maxReadAheadSize
         );
         slice.isClone = true;
         return slice;
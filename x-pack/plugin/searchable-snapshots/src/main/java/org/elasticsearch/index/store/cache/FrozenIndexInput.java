@@ -0,0 +1,322 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.index.store.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.elasticsearch.common.SuppressForbidden;
+import org.elasticsearch.common.collect.Tuple;
+import org.elasticsearch.common.io.Channels;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.FileInfo;
+import org.elasticsearch.index.store.BaseSearchableSnapshotIndexInput;
+import org.elasticsearch.index.store.IndexInputStats;
+import org.elasticsearch.index.store.SearchableSnapshotDirectory;
+import org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshotsConstants;
+import org.elasticsearch.xpack.searchablesnapshots.cache.FrozenCacheService;
+import org.elasticsearch.xpack.searchablesnapshots.cache.FrozenCacheService.CacheFileRegion;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshotsUtils.toIntBytes;
+
+/**
+ * An {@link IndexInput} for partially mounted searchable snapshots which reads data through the node's {@link FrozenCacheService}. Each
+ * read is split by cache region: regions that are already cached are read from the shared cache file, missing regions are fetched from
+ * the blob store as a whole and written to the shared cache file first. If no cache region can be assigned then the data is read directly
+ * from the blob store.
+ */
+public class FrozenIndexInput extends BaseSearchableSnapshotIndexInput {
+
+    private static final Logger logger = LogManager.getLogger(FrozenIndexInput.class);
+    private static final int COPY_BUFFER_SIZE = ByteSizeUnit.KB.toIntBytes(8);
+
+    private final SearchableSnapshotDirectory directory;
+    private final FrozenCacheService frozenCacheService;
+    private final CacheKey cacheKey;
+
+    // last read position is kept around in order to detect (non)contiguous reads for stats
+    private long lastReadPosition;
+    // last seek position is kept around in order to detect forward/backward seeks for stats
+    private long lastSeekPosition;
+
+    public FrozenIndexInput(
+        SearchableSnapshotDirectory directory,
+        FrozenCacheService frozenCacheService,
+        FileInfo fileInfo,
+        IOContext context,
+        IndexInputStats stats
+    ) {
+        this(
+            "FrozenIndexInput(" + fileInfo.physicalName() + ")",
+            directory,
+            frozenCacheService,
+            fileInfo,
+            context,
+            stats,
+            0L,
+            fileInfo.length(),
+            directory.createCacheKey(fileInfo.physicalName())
+        );
+        stats.incrementOpenCount();
+    }
+
+    private FrozenIndexInput(
+        String resourceDesc,
+        SearchableSnapshotDirectory directory,
+        FrozenCacheService frozenCacheService,
+        FileInfo fileInfo,
+        IOContext context,
+        IndexInputStats stats,
+        long offset,
+        long length,
+        CacheKey cacheKey
+    ) {
+        super(resourceDesc, directory.blobContainer(), fileInfo, context, stats, offset, length);
+        this.directory = directory;
+        this.frozenCacheService = frozenCacheService;
+        this.cacheKey = cacheKey;
+        this.lastReadPosition = this.offset;
+        this.lastSeekPosition = this.offset;
+    }
+
+    @Override
+    public void innerClose() {
+        // nothing to release, cache regions are only held for the duration of a read
+    }
+
+    @Override
+    protected void readInternal(ByteBuffer b) throws IOException {
+        assert assertCurrentThreadIsNotCacheFetchAsync();
+        final long position = getFilePointer() + this.offset;
+        final int length = b.remaining();
+
+        logger.trace("readInternal: read [{}-{}] ([{}] bytes) from [{}]", position, position + length, length, this);
+
+        long currentPosition = position;
+        while (b.hasRemaining()) {
+            final int region = frozenCacheService.getRegion(currentPosition);
+            final long regionStart = frozenCacheService.getRegionStart(region);
+            final long relativePosition = currentPosition - regionStart;
+            final long regionLength = frozenCacheService.getRegionLength(fileInfo.length(), region);
+            final int len = toIntBytes(Math.min(b.remaining(), regionLength - relativePosition));
+
+            final ByteBuffer slice = b.duplicate();
+            slice.limit(slice.position() + len);
+            readRegion(region, regionStart, relativePosition, slice);
+            assert slice.hasRemaining() == false : slice;
+            b.position(slice.position());
+            currentPosition += len;
+        }
+
+        stats.incrementBytesRead(lastReadPosition, position, length);
+        lastReadPosition = position + length;
+        lastSeekPosition = lastReadPosition;
+    }
+
+    private void readRegion(int region, long regionStart, long relativePosition, ByteBuffer b) throws IOException {
+        final int length = b.remaining();
+        final CacheFileRegion cacheFileRegion = frozenCacheService.get(cacheKey, fileInfo.length(), region, stats);
+        if (cacheFileRegion == null) {
+            readDirectly(regionStart + relativePosition, b);
+            return;
+        }
+        try {
+            final int bytesRead = cacheFileRegion.populateAndRead(
+                // missing data is fetched for the whole region in anticipation of nearby reads
+                Tuple.tuple(0L, cacheFileRegion.length()),
+                Tuple.tuple(relativePosition, relativePosition + length),
+                (channel, channelPos, relativePos, len) -> readCacheFile(channel, channelPos, b),
+                (channel, channelPos, relativePos, len, progressUpdater) -> writeCacheFile(
+                    channel,
+                    channelPos,
+                    regionStart + relativePos,
+                    relativePos,
+                    len,
+                    progressUpdater
+                ),
+                directory.cacheFetchAsyncExecutor()
+            ).get();
+            assert bytesRead == length : bytesRead + " vs " + length;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while reading [" + cacheFileRegion + "] from shared cache", e);
+        } catch (ExecutionException e) {
+            // the region may have been evicted while we were reading it, read whatever is missing directly
+            logger.debug(
+                () -> new ParameterizedMessage("failed to read [{}] from shared cache, reading from the blob store", cacheFileRegion),
+                e
+            );
+            final int alreadyRead = length - b.remaining();
+            try {
+                readDirectly(regionStart + relativePosition + alreadyRead, b);
+            } catch (Exception inner) {
+                inner.addSuppressed(e);
+                throw new IOException("failed to read data from cache", inner);
+            }
+        } finally {
+            cacheFileRegion.decRef();
+        }
+    }
+
+    private int readCacheFile(FileChannel fc, long channelPos, ByteBuffer buffer) throws IOException {
+        final int length = buffer.remaining();
+        Channels.readFromFileChannelWithEofException(fc, channelPos, buffer);
+        stats.addCachedBytesRead(length);
+        return length;
+    }
+
+    private void writeCacheFile(
+        FileChannel fc,
+        long channelPos,
+        long filePosition,
+        long relativePos,
+        long length,
+        Consumer<Long> progressUpdater
+    ) throws IOException {
+        assert assertCurrentThreadMayWriteCacheFile();
+        logger.trace("writing range [{}-{}] of [{}] to shared cache file", filePosition, filePosition + length, fileInfo.physicalName());
+        final byte[] copyBuffer = new byte[toIntBytes(Math.min(COPY_BUFFER_SIZE, length))];
+        long bytesCopied = 0L;
+        final long startTimeNanos = stats.currentTimeNanos();
+        try (InputStream input = openInputStreamFromBlobStore(filePosition, length)) {
+            while (bytesCopied < length) {
+                final int len = toIntBytes(Math.min(copyBuffer.length, length - bytesCopied));
+                final int bytesRead = input.read(copyBuffer, 0, len);
+                if (bytesRead == -1) {
+                    throw eof(filePosition, length, length - bytesCopied);
+                }
+                final ByteBuffer byteBuffer = ByteBuffer.wrap(copyBuffer, 0, bytesRead);
+                while (byteBuffer.hasRemaining()) {
+                    positionalWrite(fc, channelPos + bytesCopied + byteBuffer.position(), byteBuffer);
+                }
+                bytesCopied += bytesRead;
+                progressUpdater.accept(relativePos + bytesCopied);
+            }
+            final long endTimeNanos = stats.currentTimeNanos();
+            stats.addCachedBytesWritten(bytesCopied, endTimeNanos - startTimeNanos);
+        }
+    }
+
+    private void readDirectly(long position, ByteBuffer b) throws IOException {
+        final int length = b.remaining();
+        final byte[] copyBuffer = new byte[Math.min(COPY_BUFFER_SIZE, length)];
+        logger.trace("direct reading of range [{}-{}] of [{}]", position, position + length, fileInfo.physicalName());
+
+        int bytesCopied = 0;
+        final long startTimeNanos = stats.currentTimeNanos();
+        try (InputStream input = openInputStreamFromBlobStore(position, length)) {
+            while (b.hasRemaining()) {
+                final int bytesRead = input.read(copyBuffer, 0, Math.min(copyBuffer.length, b.remaining()));
+                if (bytesRead == -1) {
+                    throw eof(position, length, b.remaining());
+                }
+                b.put(copyBuffer, 0, bytesRead);
+                bytesCopied += bytesRead;
+            }
+            final long endTimeNanos = stats.currentTimeNanos();
+            stats.addDirectBytesRead(bytesCopied, endTimeNanos - startTimeNanos);
+        }
+    }
+
+    private EOFException eof(long position, long length, long remaining) {
+        return new EOFException(
+            String.format(
+                Locale.ROOT,
+                "unexpected EOF reading [%d-%d] ([%d] bytes remaining) from %s",
+                position,
+                position + length,
+                remaining,
+                cacheKey
+            )
+        );
+    }
+
+    @SuppressForbidden(reason = "Use positional writes on purpose")
+    private static int positionalWrite(FileChannel fc, long start, ByteBuffer byteBuffer) throws IOException {
+        return fc.write(byteBuffer, start);
+    }
+
+    @Override
+    protected void seekInternal(long pos) throws IOException {
+        if (pos > length()) {
+            throw new EOFException("Reading past end of file [position=" + pos + ", length=" + length() + "] for " + toString());
+        } else if (pos < 0L) {
+            throw new IOException("Seeking to negative position [" + pos + "] for " + toString());
+        }
+        final long position = pos + this.offset;
+        stats.incrementSeeks(lastSeekPosition, position);
+        lastSeekPosition = position;
+    }
+
+    @Override
+    public FrozenIndexInput clone() {
+        return (FrozenIndexInput) super.clone();
+    }
+
+    @Override
+    public IndexInput slice(String sliceDescription, long offset, long length) {
+        if (offset < 0 || length < 0 || offset + length > length()) {
+            throw new IllegalArgumentException(
+                "slice() "
+                    + sliceDescription
+                    + " out of bounds: offset="
+                    + offset
+                    + ",length="
+                    + length
+                    + ",fileLength="
+                    + length()
+                    + ": "
+                    + this
+            );
+        }
+        final FrozenIndexInput slice = new FrozenIndexInput(
+            getFullSliceDescription(sliceDescription),
+            directory,
+            frozenCacheService,
+            fileInfo,
+            context,
+            stats,
+            this.offset + offset,
+            length,
+            cacheKey
+        );
+        slice.isClone = true;
+        return slice;
+    }
+
+    private static boolean isCacheFetchAsyncThread(final String threadName) {
+        return threadName.contains('[' + SearchableSnapshotsConstants.CACHE_FETCH_ASYNC_THREAD_POOL_NAME + ']');
+    }
+
+    private static boolean assertCurrentThreadMayWriteCacheFile() {
+        final String threadName = Thread.currentThread().getName();
+        assert isCacheFetchAsyncThread(threadName) : "expected the current thread ["
+            + threadName
+            + "] to belong to the cache fetch async thread pool";
+        return true;
+    }
+
+    private static boolean assertCurrentThreadIsNotCacheFetchAsync() {
+        final String threadName = Thread.currentThread().getName();
+        assert false == isCacheFetchAsyncThread(threadName) : "expected the current thread ["
+            + threadName
+            + "] not to belong to the cache fetch async thread pool";
+        return true;
+    }
+}
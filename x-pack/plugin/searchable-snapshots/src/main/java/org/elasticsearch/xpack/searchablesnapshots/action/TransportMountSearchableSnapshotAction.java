@@ -51,7 +51,7 @@ import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.DA
 
 /**
  * Action that mounts a snapshot as a searchable snapshot, by converting the mount request into a restore request with specific settings
- * using {@link TransportMountSearchableSnapshotAction#buildIndexSettings(String, SnapshotId, IndexId)}.
+ * using {@link TransportMountSearchableSnapshotAction#buildIndexSettings}.
  *
  * This action doesn't technically need to run on the master node, but it needs to get metadata from the repository and we only expect the
  * repository to be accessible from data and master-eligible nodes so we can't run it everywhere.  Given that we already have a way to run
@@ -106,8 +106,17 @@ public class TransportMountSearchableSnapshotAction extends TransportMasterNodeA
     /**
      * Return the index settings required to make a snapshot searchable
      */
-    private static Settings buildIndexSettings(String repoName, SnapshotId snapshotId, IndexId indexId) {
-        return Settings.builder()
+    private static Settings buildIndexSettings(
+        String repoName,
+        SnapshotId snapshotId,
+        IndexId indexId,
+        MountSearchableSnapshotRequest.Storage storage
+    ) {
+        final Settings.Builder settings = Settings.builder();
+        if (storage == MountSearchableSnapshotRequest.Storage.SHARED_CACHE) {
+            settings.put(SearchableSnapshots.SNAPSHOT_PARTIAL_SETTING.getKey(), true);
+        }
+        return settings
             .put(SearchableSnapshots.SNAPSHOT_REPOSITORY_SETTING.getKey(), repoName)
             .put(SearchableSnapshots.SNAPSHOT_SNAPSHOT_NAME_SETTING.getKey(), snapshotId.getName())
             .put(SearchableSnapshots.SNAPSHOT_SNAPSHOT_ID_SETTING.getKey(), snapshotId.getUUID())
@@ -177,7 +186,7 @@ public class TransportMountSearchableSnapshotAction extends TransportMasterNodeA
                                 .put(IndexMetadata.SETTING_AUTO_EXPAND_REPLICAS, false) // can be overridden
                                 .put(DataTierAllocationDecider.INDEX_ROUTING_PREFER, DATA_TIERS_PREFERENCE)
                                 .put(request.indexSettings())
-                                .put(buildIndexSettings(request.repositoryName(), snapshotId, indexId))
+                                .put(buildIndexSettings(request.repositoryName(), snapshotId, indexId, request.storage()))
                                 .build()
                         )
                         // Pass through ignored index settings
@@ -114,7 +114,12 @@ public class TransportSearchableSnapshotsStatsAction extends AbstractTransportSe
             toTimedCounter(inputStats.getDirectBytesRead()),
             toTimedCounter(inputStats.getOptimizedBytesRead()),
             toCounter(inputStats.getBlobStoreBytesRequested()),
-            inputStats.getCurrentIndexCacheFills()
+            inputStats.getCurrentIndexCacheFills(),
+            inputStats.getSharedCacheRegionHits(),
+            inputStats.getSharedCacheRegionMisses(),
+            inputStats.getSharedCacheRegionEvictions(),
+            toCounter(inputStats.getReadAheadBytes()),
+            toCounter(inputStats.getPrefetchedBytes())
         );
     }
 
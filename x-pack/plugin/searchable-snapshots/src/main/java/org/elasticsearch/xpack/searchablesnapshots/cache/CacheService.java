@@ -107,6 +107,20 @@ public class CacheService extends AbstractLifecycleComponent {
         Setting.Property.NodeScope
     );
 
+    /**
+     * When a searchable snapshot file is read sequentially then each subsequent miss extends the range fetched from the repository beyond
+     * the requested range, doubling the extra amount on every sequential miss up to this limit. A non-sequential read resets the extra
+     * amount to zero. Defaults to {@code 0} which disables read-ahead and only ever fetches the ranges determined by the range size
+     * settings, since fetching more than requested only pays off for workloads that really scan files sequentially.
+     */
+    public static final Setting<ByteSizeValue> SNAPSHOT_CACHE_MAX_READ_AHEAD_SIZE_SETTING = Setting.byteSizeSetting(
+        SETTINGS_PREFIX + "read_ahead.max_size",
+        ByteSizeValue.ZERO,                                     // default, disabled
+        ByteSizeValue.ZERO,                                     // min
+        MAX_SNAPSHOT_CACHE_RANGE_SIZE,                          // max
+        Setting.Property.NodeScope
+    );
+
     public static final TimeValue MIN_SNAPSHOT_CACHE_SYNC_INTERVAL = TimeValue.timeValueSeconds(1L);
     public static final Setting<TimeValue> SNAPSHOT_CACHE_SYNC_INTERVAL_SETTING = Setting.timeSetting(
         SETTINGS_PREFIX + "sync.interval",
@@ -146,6 +160,7 @@ public class CacheService extends AbstractLifecycleComponent {
     private final ByteSizeValue cacheSize;
     private final ByteSizeValue rangeSize;
     private final ByteSizeValue recoveryRangeSize;
+    private final ByteSizeValue maxReadAheadSize;
     private final Map<ShardEviction, Future<?>> pendingShardsEvictions;
     private final ReadWriteLock shardsEvictionsLock;
     private final Object shardsEvictionsMutex;
@@ -163,6 +178,7 @@ public class CacheService extends AbstractLifecycleComponent {
         this.cacheSize = SNAPSHOT_CACHE_SIZE_SETTING.get(settings);
         this.rangeSize = SNAPSHOT_CACHE_RANGE_SIZE_SETTING.get(settings);
         this.recoveryRangeSize = SNAPSHOT_CACHE_RECOVERY_RANGE_SIZE_SETTING.get(settings);
+        this.maxReadAheadSize = SNAPSHOT_CACHE_MAX_READ_AHEAD_SIZE_SETTING.get(settings);
         this.cache = CacheBuilder.<CacheKey, CacheFile>builder()
             .setMaximumWeight(cacheSize.getBytes())
             .weigher((key, entry) -> entry.getLength())
@@ -272,6 +288,13 @@ public class CacheService extends AbstractLifecycleComponent {
         return toIntBytes(recoveryRangeSize.getBytes());
     }
 
+    /**
+     * @return the maximum size (in bytes) to read ahead of sequential reads
+     */
+    public int getMaxReadAheadSize() {
+        return toIntBytes(maxReadAheadSize.getBytes());
+    }
+
     /**
      * Retrieves the {@link CacheFile} instance associated with the specified {@link CacheKey} in the cache. If the key is not already
      * associated with a {@link CacheFile}, this method creates a new instance using the given file length and cache directory.
@@ -0,0 +1,546 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+package org.elasticsearch.xpack.searchablesnapshots.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.SuppressForbidden;
+import org.elasticsearch.common.collect.Tuple;
+import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.AbstractAsyncTask;
+import org.elasticsearch.common.util.concurrent.AbstractRefCounted;
+import org.elasticsearch.common.util.concurrent.AbstractRunnable;
+import org.elasticsearch.core.internal.io.IOUtils;
+import org.elasticsearch.env.NodeEnvironment;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.store.IndexInputStats;
+import org.elasticsearch.index.store.cache.CacheKey;
+import org.elasticsearch.index.store.cache.SparseFileTracker;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * {@link FrozenCacheService} maintains a single cache file per node which is shared by all the partially mounted searchable snapshot
+ * shards of the node. The file is preallocated when the node starts and is split into fixed-size regions, each of which can hold the
+ * data of one region of a Lucene file. Regions are assigned to (file, region) pairs on demand and, when there is no free region left,
+ * the region of the least frequently used pair is evicted and reused.
+ *
+ * The frequency of a region increases when it is accessed (at most once every {@link #SHARED_CACHE_MIN_TIME_DELTA_SETTING}) and all
+ * frequencies decay periodically (every {@link #SHARED_CACHE_DECAY_INTERVAL_SETTING}) so that regions that used to be popular are
+ * eventually evicted too. Regions with the same frequency are evicted in least recently used order.
+ */
+public class FrozenCacheService implements Releasable {
+
+    private static final String SETTINGS_PREFIX = "xpack.searchable.snapshot.shared_cache.";
+
+    static final String CACHE_FILE_NAME = "shared_snapshot_cache";
+
+    public static final Setting<ByteSizeValue> SHARED_CACHE_SIZE_SETTING = Setting.byteSizeSetting(
+        SETTINGS_PREFIX + "size",
+        ByteSizeValue.ZERO,                                     // default, disabled
+        Setting.Property.NodeScope
+    );
+
+    public static final Setting<ByteSizeValue> SHARED_CACHE_REGION_SIZE_SETTING = Setting.byteSizeSetting(
+        SETTINGS_PREFIX + "region_size",
+        new ByteSizeValue(16, ByteSizeUnit.MB),                 // default
+        CacheService.MIN_SNAPSHOT_CACHE_RANGE_SIZE,             // min
+        CacheService.MAX_SNAPSHOT_CACHE_RANGE_SIZE,             // max
+        Setting.Property.NodeScope
+    );
+
+    public static final Setting<Integer> SHARED_CACHE_MAX_FREQ_SETTING = Setting.intSetting(
+        SETTINGS_PREFIX + "max_freq",
+        100,                                                    // default
+        1,                                                      // min
+        Setting.Property.NodeScope
+    );
+
+    public static final Setting<TimeValue> SHARED_CACHE_DECAY_INTERVAL_SETTING = Setting.timeSetting(
+        SETTINGS_PREFIX + "decay.interval",
+        TimeValue.timeValueSeconds(60L),                        // default
+        TimeValue.timeValueSeconds(1L),                         // min
+        Setting.Property.NodeScope
+    );
+
+    public static final Setting<TimeValue> SHARED_CACHE_MIN_TIME_DELTA_SETTING = Setting.timeSetting(
+        SETTINGS_PREFIX + "min_time_delta",
+        TimeValue.timeValueSeconds(60L),                        // default
+        TimeValue.ZERO,                                         // min
+        Setting.Property.NodeScope
+    );
+
+    private static final Logger logger = LogManager.getLogger(FrozenCacheService.class);
+
+    private final long regionSize;
+    private final int numRegions;
+    private final int maxFreq;
+    private final long minTimeDeltaMillis;
+    private final LongSupplier relativeTimeInMillisSupplier;
+    private final FileChannel channel;
+    private final ConcurrentLinkedQueue<Integer> freeRegions = new ConcurrentLinkedQueue<>();
+    private final CacheDecayTask decayTask;
+
+    // all the fields below are guarded by `this`
+    private final Map<RegionKey, CacheFileRegion> regions = new HashMap<>();
+    private final LinkedHashSet<CacheFileRegion>[] freqs;
+
+    public FrozenCacheService(NodeEnvironment environment, Settings settings, ThreadPool threadPool) {
+        this(environment.nodeDataPaths()[0], settings, threadPool);
+    }
+
+    @SuppressWarnings("unchecked")
+    FrozenCacheService(Path dataPath, Settings settings, ThreadPool threadPool) {
+        final long cacheSize = SHARED_CACHE_SIZE_SETTING.get(settings).getBytes();
+        this.regionSize = SHARED_CACHE_REGION_SIZE_SETTING.get(settings).getBytes();
+        this.numRegions = Math.toIntExact(cacheSize / regionSize);
+        this.maxFreq = SHARED_CACHE_MAX_FREQ_SETTING.get(settings);
+        this.minTimeDeltaMillis = SHARED_CACHE_MIN_TIME_DELTA_SETTING.get(settings).millis();
+        this.relativeTimeInMillisSupplier = threadPool::relativeTimeInMillis;
+        this.freqs = new LinkedHashSet[maxFreq];
+        for (int i = 0; i < maxFreq; i++) {
+            freqs[i] = new LinkedHashSet<>();
+        }
+        if (numRegions > 0) {
+            try {
+                // the content of the cache is not persisted across restarts, start from an empty file
+                this.channel = FileChannel.open(
+                    dataPath.resolve(CACHE_FILE_NAME),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING
+                );
+                preallocate(channel, numRegions * regionSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException("failed to create shared snapshot cache file in [" + dataPath + "]", e);
+            }
+            for (int i = 0; i < numRegions; i++) {
+                freeRegions.add(i);
+            }
+            this.decayTask = new CacheDecayTask(threadPool, SHARED_CACHE_DECAY_INTERVAL_SETTING.get(settings));
+            this.decayTask.rescheduleIfNecessary();
+        } else {
+            this.channel = null;
+            this.decayTask = null;
+        }
+        logger.debug("shared snapshot cache has [{}] regions of [{}] bytes", numRegions, regionSize);
+    }
+
+    @SuppressForbidden(reason = "extends the file by writing its last byte")
+    private static void preallocate(FileChannel channel, long length) throws IOException {
+        channel.write(ByteBuffer.allocate(1), length - 1L);
+    }
+
+    /**
+     * @return true if the shared cache has at least one region
+     */
+    public boolean isEnabled() {
+        return numRegions > 0;
+    }
+
+    public long getRegionSize() {
+        return regionSize;
+    }
+
+    public int getRegion(long position) {
+        return Math.toIntExact(position / regionSize);
+    }
+
+    public long getRegionStart(int region) {
+        return region * regionSize;
+    }
+
+    public long getRegionLength(long fileLength, int region) {
+        return Math.min(regionSize, fileLength - getRegionStart(region));
+    }
+
+    /**
+     * Returns the cached region of the given file, assigning a cache region to it if needed. The returned region has been incremented
+     * and must be released with {@link CacheFileRegion#decRef()} once the caller is done with it.
+     *
+     * @param cacheKey   the key of the file
+     * @param fileLength the length of the file
+     * @param region     the region of the file
+     * @param stats      the stats of the file, updated with region hits, misses and evictions
+     * @return the cache region, or {@code null} if no cache region could be assigned to it
+     */
+    @Nullable
+    public CacheFileRegion get(CacheKey cacheKey, long fileLength, int region, IndexInputStats stats) {
+        if (numRegions == 0) {
+            return null;
+        }
+        final RegionKey regionKey = new RegionKey(cacheKey, region);
+        final long now = relativeTimeInMillisSupplier.getAsLong();
+        synchronized (this) {
+            final CacheFileRegion existing = regions.get(regionKey);
+            if (existing != null && existing.tryIncRef()) {
+                stats.incrementSharedCacheRegionHits();
+                maybeIncreaseFreq(existing, now);
+                return existing;
+            }
+            stats.incrementSharedCacheRegionMisses();
+            Integer sharedRegion = freeRegions.poll();
+            if (sharedRegion == null && evictLeastFrequent()) {
+                // the evicted region is only freed once all of its readers are done with it
+                sharedRegion = freeRegions.poll();
+            }
+            if (sharedRegion == null) {
+                logger.trace("no free region for [{}], reading directly from the blob store", regionKey);
+                return null;
+            }
+            final CacheFileRegion cacheFileRegion = new CacheFileRegion(
+                regionKey,
+                sharedRegion,
+                getRegionLength(fileLength, region),
+                stats
+            );
+            cacheFileRegion.lastAccessedMillis = now;
+            regions.put(regionKey, cacheFileRegion);
+            freqs[0].add(cacheFileRegion);
+            cacheFileRegion.incRef();
+            return cacheFileRegion;
+        }
+    }
+
+    private void maybeIncreaseFreq(CacheFileRegion cacheFileRegion, long now) {
+        assert Thread.holdsLock(this);
+        if (now - cacheFileRegion.lastAccessedMillis >= minTimeDeltaMillis) {
+            freqs[cacheFileRegion.freq].remove(cacheFileRegion);
+            cacheFileRegion.freq = Math.min(cacheFileRegion.freq + 1, maxFreq - 1);
+            cacheFileRegion.lastAccessedMillis = now;
+            freqs[cacheFileRegion.freq].add(cacheFileRegion);
+        }
+    }
+
+    private boolean evictLeastFrequent() {
+        assert Thread.holdsLock(this);
+        for (LinkedHashSet<CacheFileRegion> freq : freqs) {
+            final Iterator<CacheFileRegion> iterator = freq.iterator();
+            while (iterator.hasNext()) {
+                final CacheFileRegion cacheFileRegion = iterator.next();
+                if (cacheFileRegion.refCount() > 1) {
+                    // the region is being read or written, evicting it would not free it until its readers are done anyway
+                    continue;
+                }
+                iterator.remove();
+                regions.remove(cacheFileRegion.regionKey);
+                cacheFileRegion.stats.incrementSharedCacheRegionEvictions();
+                cacheFileRegion.evict();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decrements the frequency of all the regions by one, moving them down one frequency bucket.
+     */
+    synchronized void computeDecay() {
+        for (int i = 1; i < maxFreq; i++) {
+            for (CacheFileRegion cacheFileRegion : freqs[i]) {
+                cacheFileRegion.freq = i - 1;
+            }
+            freqs[i - 1].addAll(freqs[i]);
+            freqs[i].clear();
+        }
+    }
+
+    /**
+     * Evicts the regions of the file associated with the specified cache key.
+     */
+    public void removeFromCache(CacheKey cacheKey) {
+        evictMatching(regionKey -> regionKey.cacheKey.equals(cacheKey));
+    }
+
+    /**
+     * Evicts the regions of all the files of the specified searchable snapshot shard.
+     */
+    public void markShardAsEvictedInCache(String snapshotUUID, String snapshotIndexName, ShardId shardId) {
+        evictMatching(
+            regionKey -> regionKey.cacheKey.getSnapshotUUID().equals(snapshotUUID)
+                && regionKey.cacheKey.getSnapshotIndexName().equals(snapshotIndexName)
+                && regionKey.cacheKey.getShardId().equals(shardId)
+        );
+    }
+
+    private synchronized void evictMatching(Predicate<RegionKey> predicate) {
+        final List<CacheFileRegion> toEvict = new ArrayList<>();
+        for (CacheFileRegion cacheFileRegion : regions.values()) {
+            if (predicate.test(cacheFileRegion.regionKey)) {
+                toEvict.add(cacheFileRegion);
+            }
+        }
+        for (CacheFileRegion cacheFileRegion : toEvict) {
+            regions.remove(cacheFileRegion.regionKey);
+            freqs[cacheFileRegion.freq].remove(cacheFileRegion);
+            cacheFileRegion.evict();
+        }
+    }
+
+    // used by tests
+    int freeRegionCount() {
+        return freeRegions.size();
+    }
+
+    // used by tests
+    synchronized int getFreq(CacheKey cacheKey, int region) {
+        final CacheFileRegion cacheFileRegion = regions.get(new RegionKey(cacheKey, region));
+        return cacheFileRegion != null ? cacheFileRegion.freq : -1;
+    }
+
+    @Override
+    public void close() {
+        if (decayTask != null) {
+            decayTask.close();
+        }
+        try {
+            IOUtils.close(channel);
+        } catch (IOException e) {
+            logger.warn("failed to close shared snapshot cache file", e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface RangeAvailableHandler {
+        /**
+         * @param channel      the shared cache file channel
+         * @param channelPos   the position in the shared cache file of the first byte to read
+         * @param relativePos  the position of the first byte to read, relative to the start of the region
+         * @param length       the number of bytes to read
+         */
+        int onRangeAvailable(FileChannel channel, long channelPos, long relativePos, long length) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface RangeMissingHandler {
+        /**
+         * @param channel         the shared cache file channel
+         * @param channelPos      the position in the shared cache file of the first byte to write
+         * @param relativePos     the position of the first byte to write, relative to the start of the region
+         * @param length          the number of bytes to write
+         * @param progressUpdater consumes the position up to which the range has been written, relative to the start of the region
+         */
+        void fillCacheRange(FileChannel channel, long channelPos, long relativePos, long length, Consumer<Long> progressUpdater)
+            throws IOException;
+    }
+
+    /**
+     * The region of the shared cache file that holds the data of a given region of a Lucene file.
+     */
+    public class CacheFileRegion extends AbstractRefCounted {
+
+        private final RegionKey regionKey;
+        private final int sharedRegion;
+        private final SparseFileTracker tracker;
+        private final IndexInputStats stats;
+        private volatile boolean evicted;
+
+        // guarded by FrozenCacheService.this
+        private int freq;
+        private long lastAccessedMillis;
+
+        CacheFileRegion(RegionKey regionKey, int sharedRegion, long length, IndexInputStats stats) {
+            super("CacheFileRegion");
+            this.regionKey = regionKey;
+            this.sharedRegion = sharedRegion;
+            this.tracker = new SparseFileTracker("file region " + regionKey, length);
+            this.stats = stats;
+        }
+
+        public long length() {
+            return tracker.getLength();
+        }
+
+        private long physicalStart() {
+            return sharedRegion * regionSize;
+        }
+
+        private void evict() {
+            evicted = true;
+            decRef();
+        }
+
+        @Override
+        protected void closeInternal() {
+            assert evicted : "only evicted regions can be released";
+            freeRegions.add(sharedRegion);
+            logger.trace("shared region [{}] of [{}] released", sharedRegion, regionKey);
+        }
+
+        private void ensureOpen() {
+            if (evicted) {
+                throw new AlreadyClosedException("Cache file region " + regionKey + " is evicted");
+            }
+        }
+
+        /**
+         * Populates any missing ranges within {@code rangeToWrite} using the {@link RangeMissingHandler} on the given {@link Executor},
+         * and notifies the {@link RangeAvailableHandler} when {@code rangeToRead} is available. Both ranges are relative to the start of
+         * the region. The caller must hold a reference to this region until the returned future completes.
+         *
+         * @return a future which returns the result of the {@link RangeAvailableHandler} once it has completed.
+         */
+        public Future<Integer> populateAndRead(
+            final Tuple<Long, Long> rangeToWrite,
+            final Tuple<Long, Long> rangeToRead,
+            final RangeAvailableHandler reader,
+            final RangeMissingHandler writer,
+            final Executor executor
+        ) {
+            assert refCount() > 0 : "the caller must hold a reference to the region";
+            final PlainActionFuture<Integer> future = PlainActionFuture.newFuture();
+            try {
+                ensureOpen();
+                final List<SparseFileTracker.Gap> gaps = tracker.waitForRange(
+                    rangeToWrite,
+                    rangeToRead,
+                    ActionListener.wrap(success -> {
+                        final long length = rangeToRead.v2() - rangeToRead.v1();
+                        final int read = reader.onRangeAvailable(channel, physicalStart() + rangeToRead.v1(), rangeToRead.v1(), length);
+                        assert read == length : "partial read [" + read + "] does not match the range to read " + rangeToRead;
+                        future.onResponse(read);
+                    }, future::onFailure)
+                );
+
+                for (SparseFileTracker.Gap gap : gaps) {
+                    // the region must not be released while the gap is being filled
+                    incRef();
+                    executor.execute(new AbstractRunnable() {
+
+                        @Override
+                        protected void doRun() throws Exception {
+                            ensureOpen();
+                            final long length = gap.end() - gap.start();
+                            writer.fillCacheRange(channel, physicalStart() + gap.start(), gap.start(), length, progress -> {
+                                // stop filling an evicted region, its readers fall back to reading the missing data directly
+                                ensureOpen();
+                                gap.onProgress(progress);
+                            });
+                            gap.onCompletion();
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            gap.onFailure(e);
+                        }
+
+                        @Override
+                        public void onAfter() {
+                            decRef();
+                        }
+                    });
+                }
+            } catch (Exception e) {
+                future.onFailure(e);
+            }
+            return future;
+        }
+
+        @Override
+        public String toString() {
+            return "CacheFileRegion{"
+                + "regionKey="
+                + regionKey
+                + ", sharedRegion="
+                + sharedRegion
+                + ", evicted="
+                + evicted
+                + ", tracker="
+                + tracker
+                + '}';
+        }
+    }
+
+    private static final class RegionKey {
+
+        private final CacheKey cacheKey;
+        private final int region;
+
+        RegionKey(CacheKey cacheKey, int region) {
+            this.cacheKey = Objects.requireNonNull(cacheKey);
+            this.region = region;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final RegionKey regionKey = (RegionKey) o;
+            return region == regionKey.region && cacheKey.equals(regionKey.cacheKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(cacheKey, region);
+        }
+
+        @Override
+        public String toString() {
+            return "[cacheKey=" + cacheKey + ", region=" + region + ']';
+        }
+    }
+
+    class CacheDecayTask extends AbstractAsyncTask {
+
+        CacheDecayTask(ThreadPool threadPool, TimeValue interval) {
+            super(logger, Objects.requireNonNull(threadPool), Objects.requireNonNull(interval), true);
+        }
+
+        @Override
+        protected boolean mustReschedule() {
+            return true;
+        }
+
+        @Override
+        public void runInternal() {
+            computeDecay();
+        }
+
+        @Override
+        protected String getThreadPool() {
+            return ThreadPool.Names.GENERIC;
+        }
+
+        @Override
+        public String toString() {
+            return "frozen_cache_decay_task";
+        }
+    }
+}
@@ -87,6 +87,7 @@ import org.elasticsearch.test.DummyShardLock;
 import org.elasticsearch.test.IndexSettingsModule;
 import org.elasticsearch.xpack.searchablesnapshots.AbstractSearchableSnapshotsTestCase;
 import org.elasticsearch.xpack.searchablesnapshots.cache.CacheService;
+import org.elasticsearch.xpack.searchablesnapshots.cache.FrozenCacheService;
 import org.hamcrest.Matcher;
 
 import java.io.Closeable;
@@ -116,19 +117,24 @@ import java.util.stream.Collectors;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyMap;
+import static org.elasticsearch.index.store.SearchableSnapshotDirectory.ALWAYS_NEEDED_FILE_EXTENSIONS;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_CACHE_ENABLED_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_CACHE_EXCLUDED_FILE_TYPES_SETTING;
+import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_CACHE_PREFETCH_ENABLED_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_CACHE_PREWARM_ENABLED_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_INDEX_ID_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_INDEX_NAME_SETTING;
+import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_PARTIAL_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_REPOSITORY_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_SNAPSHOT_ID_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_SNAPSHOT_NAME_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshotsUtils.toIntBytes;
 import static org.elasticsearch.xpack.searchablesnapshots.cache.CacheService.resolveSnapshotCache;
 import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
@@ -740,6 +746,161 @@ public class SearchableSnapshotDirectoryTests extends AbstractSearchableSnapshot
         }
     }
 
+    public void testPrefetchesAlwaysNeededFilesOnMount() throws Exception {
+        try (CacheService cacheService = defaultCacheService()) {
+            cacheService.start();
+
+            final String alwaysNeededFile = "_0." + randomValueOtherThan("si", () -> randomFrom(ALWAYS_NEEDED_FILE_EXTENSIONS));
+            final String otherFile = "_0." + randomFrom("fdt", "doc", "dvd");
+            final List<BlobStoreIndexShardSnapshot.FileInfo> files = new ArrayList<>();
+            final Map<String, byte[]> contents = new HashMap<>();
+
+            final Path shardSnapshotDir = createTempDir();
+            for (String fileName : org.elasticsearch.common.collect.List.of(alwaysNeededFile, otherFile)) {
+                final byte[] fileContent = randomUnicodeOfLength(randomIntBetween(1024, 100_000)).getBytes(StandardCharsets.UTF_8);
+                final String blobName = randomAlphaOfLength(15);
+                Files.write(shardSnapshotDir.resolve(blobName), fileContent, StandardOpenOption.CREATE_NEW);
+                files.add(
+                    new BlobStoreIndexShardSnapshot.FileInfo(
+                        blobName,
+                        new StoreFileMetadata(fileName, fileContent.length, "_check", Version.CURRENT.luceneVersion),
+                        new ByteSizeValue(fileContent.length)
+                    )
+                );
+                contents.put(fileName, fileContent);
+            }
+
+            final BlobStoreIndexShardSnapshot snapshot = new BlobStoreIndexShardSnapshot("_snapshot", 0L, files, 0L, 0L, 0, 0L);
+            final BlobContainer blobContainer = new FsBlobContainer(
+                new FsBlobStore(randomIntBetween(1, 8) * 1024, shardSnapshotDir, true),
+                BlobPath.cleanPath(),
+                shardSnapshotDir
+            );
+
+            final SnapshotId snapshotId = new SnapshotId("_name", "_uuid");
+            final IndexId indexId = new IndexId("_id", "_uuid");
+            final ShardId shardId = new ShardId(new Index("_name", "_id"), 0);
+
+            final Path shardDir = randomShardPath(shardId);
+            final ShardPath shardPath = new ShardPath(false, shardDir, shardDir, shardId);
+            final Path cacheDir = Files.createDirectories(resolveSnapshotCache(shardDir).resolve(snapshotId.getUUID()));
+            try (
+                SearchableSnapshotDirectory directory = new SearchableSnapshotDirectory(
+                    () -> blobContainer,
+                    () -> snapshot,
+                    new TestUtils.NoopBlobStoreCacheService(),
+                    "_repo",
+                    snapshotId,
+                    indexId,
+                    shardId,
+                    Settings.builder()
+                        .put(SNAPSHOT_CACHE_ENABLED_SETTING.getKey(), true)
+                        .put(SNAPSHOT_CACHE_PREWARM_ENABLED_SETTING.getKey(), false)
+                        .build(),
+                    () -> 0L,
+                    cacheService,
+                    cacheDir,
+                    shardPath,
+                    threadPool
+                )
+            ) {
+                final RecoveryState recoveryState = createRecoveryState(randomBoolean());
+                final PlainActionFuture<Void> f = PlainActionFuture.newFuture();
+                final boolean loaded = directory.loadSnapshot(recoveryState, f);
+                f.get();
+                assertThat("Failed to load snapshot", loaded, is(true));
+
+                // the recovery does not wait for the prefetching to complete
+                final long alwaysNeededFileLength = contents.get(alwaysNeededFile).length;
+                assertBusy(() -> {
+                    final IndexInputStats stats = directory.getStats(alwaysNeededFile);
+                    assertThat(stats, notNullValue());
+                    assertThat(stats.getPrefetchedBytes().total(), equalTo(alwaysNeededFileLength));
+                    assertThat(stats.getCachedBytesWritten().total(), equalTo(alwaysNeededFileLength));
+                });
+                assertThat(directory.getStats(otherFile), nullValue());
+
+                // the prefetched file is read from the cache without fetching anything from the repository
+                try (IndexInput input = directory.openInput(alwaysNeededFile, IOContext.DEFAULT)) {
+                    final byte[] result = new byte[toIntBytes(input.length())];
+                    input.readBytes(result, 0, result.length);
+                    assertArrayEquals(contents.get(alwaysNeededFile), result);
+                }
+                final IndexInputStats stats = directory.getStats(alwaysNeededFile);
+                assertThat(stats.getCachedBytesWritten().total(), equalTo(alwaysNeededFileLength));
+                assertThat(stats.getCachedBytesRead().total(), greaterThanOrEqualTo(alwaysNeededFileLength));
+                assertThat(recoveryState.getIndex().recoveredBytes(), equalTo(0L));
+            } finally {
+                assertThreadPoolNotBusy(threadPool);
+            }
+        }
+    }
+
+    public void testAlwaysNeededFilesAreNotPrefetchedWhenDisabled() throws Exception {
+        try (CacheService cacheService = defaultCacheService()) {
+            cacheService.start();
+
+            final String fileName = "_0." + randomValueOtherThan("si", () -> randomFrom(ALWAYS_NEEDED_FILE_EXTENSIONS));
+            final byte[] fileContent = randomUnicodeOfLength(randomIntBetween(1, 100_000)).getBytes(StandardCharsets.UTF_8);
+            final String blobName = randomAlphaOfLength(15);
+            final BlobStoreIndexShardSnapshot snapshot = new BlobStoreIndexShardSnapshot(
+                "_snapshot",
+                0L,
+                org.elasticsearch.common.collect.List.of(
+                    new BlobStoreIndexShardSnapshot.FileInfo(
+                        blobName,
+                        new StoreFileMetadata(fileName, fileContent.length, "_check", Version.CURRENT.luceneVersion),
+                        new ByteSizeValue(fileContent.length)
+                    )
+                ),
+                0L,
+                0L,
+                0,
+                0L
+            );
+            final BlobContainer blobContainer = TestUtils.singleBlobContainer(blobName, fileContent);
+
+            final SnapshotId snapshotId = new SnapshotId("_name", "_uuid");
+            final IndexId indexId = new IndexId("_id", "_uuid");
+            final ShardId shardId = new ShardId(new Index("_name", "_id"), 0);
+
+            final Path shardDir = randomShardPath(shardId);
+            final ShardPath shardPath = new ShardPath(false, shardDir, shardDir, shardId);
+            final Path cacheDir = Files.createDirectories(resolveSnapshotCache(shardDir).resolve(snapshotId.getUUID()));
+            try (
+                SearchableSnapshotDirectory directory = new SearchableSnapshotDirectory(
+                    () -> blobContainer,
+                    () -> snapshot,
+                    new TestUtils.NoopBlobStoreCacheService(),
+                    "_repo",
+                    snapshotId,
+                    indexId,
+                    shardId,
+                    Settings.builder()
+                        .put(SNAPSHOT_CACHE_ENABLED_SETTING.getKey(), true)
+                        .put(SNAPSHOT_CACHE_PREWARM_ENABLED_SETTING.getKey(), false)
+                        .put(SNAPSHOT_CACHE_PREFETCH_ENABLED_SETTING.getKey(), false)
+                        .build(),
+                    () -> 0L,
+                    cacheService,
+                    cacheDir,
+                    shardPath,
+                    threadPool
+                )
+            ) {
+                final PlainActionFuture<Void> f = PlainActionFuture.newFuture();
+                final boolean loaded = directory.loadSnapshot(createRecoveryState(randomBoolean()), f);
+                f.get();
+                assertThat("Failed to load snapshot", loaded, is(true));
+                assertThreadPoolNotBusy(threadPool);
+                assertThat(directory.getStats(fileName), nullValue());
+                assertListOfFiles(cacheDir, equalTo(0), equalTo(0L));
+            } finally {
+                assertThreadPoolNotBusy(threadPool);
+            }
+        }
+    }
+
     public void testRequiresAdditionalSettings() {
         final List<Setting<String>> requiredSettings = org.elasticsearch.common.collect.List.of(
             SNAPSHOT_REPOSITORY_SETTING,
@@ -762,11 +923,34 @@ public class SearchableSnapshotDirectoryTests extends AbstractSearchableSnapshot
             final IndexSettings indexSettings = new IndexSettings(IndexMetadata.builder("test").settings(settings).build(), Settings.EMPTY);
             expectThrows(
                 IllegalArgumentException.class,
-                () -> SearchableSnapshotDirectory.create(null, null, indexSettings, null, null, null, null)
+                () -> SearchableSnapshotDirectory.create(null, null, indexSettings, null, null, null, null, null)
             );
         }
     }
 
+    public void testPartialRequiresSharedCache() {
+        final Settings.Builder settings = Settings.builder()
+            .put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1)
+            .put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, 0)
+            .put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT)
+            .put(SNAPSHOT_PARTIAL_SETTING.getKey(), true);
+        for (Setting<String> setting : org.elasticsearch.common.collect.List.of(
+            SNAPSHOT_REPOSITORY_SETTING,
+            SNAPSHOT_INDEX_NAME_SETTING,
+            SNAPSHOT_INDEX_ID_SETTING,
+            SNAPSHOT_SNAPSHOT_NAME_SETTING,
+            SNAPSHOT_SNAPSHOT_ID_SETTING
+        )) {
+            settings.put(setting.getKey(), randomAlphaOfLength(10));
+        }
+        final IndexSettings indexSettings = new IndexSettings(IndexMetadata.builder("test").settings(settings).build(), Settings.EMPTY);
+        final IllegalArgumentException e = expectThrows(
+            IllegalArgumentException.class,
+            () -> SearchableSnapshotDirectory.create(null, null, indexSettings, null, null, null, null, null)
+        );
+        assertThat(e.getMessage(), containsString(FrozenCacheService.SHARED_CACHE_SIZE_SETTING.getKey()));
+    }
+
     public void testRecoveryStateIsKeptOpenAfterPreWarmFailures() throws Exception {
         FileSystem fileSystem = PathUtils.getDefaultFileSystem();
         FaultyReadsFileSystem disruptFileSystemProvider = new FaultyReadsFileSystem(fileSystem);
@@ -6,6 +6,7 @@
  */
 package org.elasticsearch.index.store.cache;
 
+import org.apache.lucene.store.IOContext;
 import org.apache.lucene.store.IndexInput;
 import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.Version;
@@ -13,10 +14,12 @@ import org.elasticsearch.action.support.PlainActionFuture;
 import org.elasticsearch.common.blobstore.BlobContainer;
 import org.elasticsearch.common.blobstore.support.FilterBlobContainer;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.shard.ShardPath;
 import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot;
+import org.elasticsearch.index.store.IndexInputStats;
 import org.elasticsearch.index.store.SearchableSnapshotDirectory;
 import org.elasticsearch.index.store.StoreFileMetadata;
 import org.elasticsearch.index.store.cache.TestUtils.NoopBlobStoreCacheService;
@@ -25,6 +28,7 @@ import org.elasticsearch.repositories.IndexId;
 import org.elasticsearch.snapshots.SnapshotId;
 import org.elasticsearch.xpack.searchablesnapshots.AbstractSearchableSnapshotsTestCase;
 import org.elasticsearch.xpack.searchablesnapshots.cache.CacheService;
+import org.elasticsearch.xpack.searchablesnapshots.cache.PersistentCache;
 
 import java.io.EOFException;
 import java.io.FilterInputStream;
@@ -33,6 +37,7 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
@@ -44,6 +49,7 @@ import static org.elasticsearch.index.store.cache.TestUtils.singleBlobContainer;
 import static org.elasticsearch.index.store.cache.TestUtils.singleSplitBlobContainer;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_CACHE_ENABLED_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_CACHE_PREWARM_ENABLED_SETTING;
+import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshotsUtils.toIntBytes;
 import static org.elasticsearch.xpack.searchablesnapshots.cache.CacheService.resolveSnapshotCache;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
@@ -231,6 +237,117 @@ public class CachedBlobContainerIndexInputTests extends AbstractSearchableSnapsh
         }
     }
 
+    public void testReadAheadGrowsOnSequentialReadsAndResetsOnRandomReads() throws Exception {
+        final long rangeSize = CacheService.MIN_SNAPSHOT_CACHE_RANGE_SIZE.getBytes();
+        final Settings cacheSettings = Settings.builder()
+            .put(CacheService.SNAPSHOT_CACHE_SIZE_SETTING.getKey(), new ByteSizeValue(1, ByteSizeUnit.GB))
+            .put(CacheService.SNAPSHOT_CACHE_RANGE_SIZE_SETTING.getKey(), new ByteSizeValue(rangeSize))
+            .put(CacheService.SNAPSHOT_CACHE_RECOVERY_RANGE_SIZE_SETTING.getKey(), new ByteSizeValue(rangeSize))
+            .put(CacheService.SNAPSHOT_CACHE_MAX_READ_AHEAD_SIZE_SETTING.getKey(), new ByteSizeValue(4L * rangeSize))
+            .build();
+
+        final PersistentCache persistentCache = new PersistentCache(nodeEnvironment);
+        try (CacheService cacheService = new CacheService(cacheSettings, clusterService, threadPool, persistentCache)) {
+            cacheService.start();
+
+            final SnapshotId snapshotId = new SnapshotId("_name", "_uuid");
+            final IndexId indexId = new IndexId("_name", "_uuid");
+            final ShardId shardId = new ShardId("_name", "_uuid", 0);
+
+            final String fileName = randomAlphaOfLength(10);
+            final byte[] input = randomByteArrayOfLength(toIntBytes(63L * rangeSize));
+
+            final String blobName = randomUnicodeOfLength(10);
+            final StoreFileMetadata metadata = new StoreFileMetadata(fileName, input.length, "_na", Version.CURRENT.luceneVersion);
+            final BlobStoreIndexShardSnapshot snapshot = new BlobStoreIndexShardSnapshot(
+                snapshotId.getName(),
+                0L,
+                singletonList(new BlobStoreIndexShardSnapshot.FileInfo(blobName, metadata, new ByteSizeValue(input.length))),
+                0L,
+                0L,
+                0,
+                0L
+            );
+
+            final BlobContainer blobContainer = singleBlobContainer(blobName, input);
+            final Path shardDir = randomShardPath(shardId);
+            final ShardPath shardPath = new ShardPath(false, shardDir, shardDir, shardId);
+            final Path cacheDir = Files.createDirectories(resolveSnapshotCache(shardDir).resolve(snapshotId.getUUID()));
+            try (
+                SearchableSnapshotDirectory directory = new SearchableSnapshotDirectory(
+                    () -> blobContainer,
+                    () -> snapshot,
+                    new NoopBlobStoreCacheService(),
+                    "_repo",
+                    snapshotId,
+                    indexId,
+                    shardId,
+                    Settings.builder()
+                        .put(SNAPSHOT_CACHE_ENABLED_SETTING.getKey(), true)
+                        .put(SNAPSHOT_CACHE_PREWARM_ENABLED_SETTING.getKey(), false)
+                        .build(),
+                    () -> 0L,
+                    cacheService,
+                    cacheDir,
+                    shardPath,
+                    threadPool
+                )
+            ) {
+                final PlainActionFuture<Void> future = PlainActionFuture.newFuture();
+                final boolean loaded = directory.loadSnapshot(createRecoveryState(true), future);
+                future.get();
+                assertThat("Failed to load snapshot", loaded, is(true));
+
+                try (IndexInput indexInput = directory.openInput(fileName, IOContext.DEFAULT)) {
+                    final IndexInputStats stats = directory.getStats(fileName);
+                    assertThat(stats, notNullValue());
+
+                    // the first miss is at the start of the file, the next sequential misses read one, two and four ranges ahead
+                    readSequentially(indexInput, input, 0L, 11L * rangeSize);
+                    assertThat(stats.getReadAheadBytes().count(), equalTo(3L));
+                    assertThat(stats.getReadAheadBytes().total(), equalTo(7L * rangeSize));
+
+                    // a miss after a seek does not read ahead
+                    readSequentially(indexInput, input, 40L * rangeSize, 41L * rangeSize);
+                    assertThat(stats.getReadAheadBytes().count(), equalTo(3L));
+                    assertThat(stats.getReadAheadBytes().total(), equalTo(7L * rangeSize));
+
+                    // reading sequentially again starts over from a single range
+                    readSequentially(indexInput, input, 41L * rangeSize, 43L * rangeSize);
+                    assertThat(stats.getReadAheadBytes().count(), equalTo(4L));
+                    assertThat(stats.getReadAheadBytes().total(), equalTo(8L * rangeSize));
+
+                    // reading backwards never reads ahead
+                    for (long range = 39L; range >= 20L; range--) {
+                        readSequentially(indexInput, input, range * rangeSize, range * rangeSize + 1024L);
+                    }
+                    assertThat(stats.getReadAheadBytes().count(), equalTo(4L));
+                    assertThat(stats.getReadAheadBytes().total(), equalTo(8L * rangeSize));
+
+                    // the read-ahead is capped to four ranges and stops at the end of the file
+                    readSequentially(indexInput, input, 43L * rangeSize, 63L * rangeSize);
+                    assertThat(stats.getReadAheadBytes().count(), equalTo(9L));
+                    assertThat(stats.getReadAheadBytes().total(), equalTo(22L * rangeSize));
+                }
+            }
+        } finally {
+            assertThreadPoolNotBusy(threadPool);
+        }
+    }
+
+    /**
+     * Reads the given range of the input in chunks of 1kb and checks that it matches the expected content.
+     */
+    private static void readSequentially(IndexInput indexInput, byte[] expected, long from, long to) throws IOException {
+        final byte[] buffer = new byte[1024];
+        indexInput.seek(from);
+        while (indexInput.getFilePointer() < to) {
+            final int position = toIntBytes(indexInput.getFilePointer());
+            indexInput.readBytes(buffer, 0, buffer.length);
+            assertArrayEquals(Arrays.copyOfRange(expected, position, position + buffer.length), buffer);
+        }
+    }
+
     private boolean containsEOFException(Throwable throwable, HashSet<Throwable> seenThrowables) {
         if (throwable == null || seenThrowables.add(throwable) == false) {
             return false;
@@ -0,0 +1,236 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+package org.elasticsearch.index.store.cache;
+
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.elasticsearch.Version;
+import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.common.blobstore.BlobContainer;
+import org.elasticsearch.common.blobstore.support.FilterBlobContainer;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.shard.ShardPath;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot;
+import org.elasticsearch.index.store.IndexInputStats;
+import org.elasticsearch.index.store.SearchableSnapshotDirectory;
+import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.index.store.cache.TestUtils.NoopBlobStoreCacheService;
+import org.elasticsearch.repositories.IndexId;
+import org.elasticsearch.snapshots.SnapshotId;
+import org.elasticsearch.xpack.searchablesnapshots.AbstractSearchableSnapshotsTestCase;
+import org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshotsConstants;
+import org.elasticsearch.xpack.searchablesnapshots.cache.CacheService;
+import org.elasticsearch.xpack.searchablesnapshots.cache.FrozenCacheService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Collections.singletonList;
+import static org.elasticsearch.index.store.cache.TestUtils.singleBlobContainer;
+import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_CACHE_ENABLED_SETTING;
+import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_PARTIAL_SETTING;
+import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshotsUtils.toIntBytes;
+import static org.elasticsearch.xpack.searchablesnapshots.cache.CacheService.resolveSnapshotCache;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+public class FrozenIndexInputTests extends AbstractSearchableSnapshotsTestCase {
+
+    private static final int REGION_SIZE = toIntBytes(CacheService.MIN_SNAPSHOT_CACHE_RANGE_SIZE.getBytes());
+
+    private final SnapshotId snapshotId = new SnapshotId("_name", "_uuid");
+    private final IndexId indexId = new IndexId("_name", "_uuid");
+    private final ShardId shardId = new ShardId("_name", "_uuid", 0);
+
+    private CacheService startCacheService() {
+        final CacheService cacheService = defaultCacheService();
+        cacheService.start();
+        return cacheService;
+    }
+
+    private FrozenCacheService createFrozenCacheService(int numRegions) {
+        final Settings settings = Settings.builder()
+            .put(FrozenCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), new ByteSizeValue((long) numRegions * REGION_SIZE))
+            .put(FrozenCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), new ByteSizeValue(REGION_SIZE))
+            .build();
+        return new FrozenCacheService(nodeEnvironment, settings, threadPool);
+    }
+
+    private SearchableSnapshotDirectory createDirectory(
+        String fileName,
+        byte[] input,
+        BlobContainer blobContainer,
+        CacheService cacheService,
+        FrozenCacheService frozenCacheService
+    ) throws IOException {
+        final StoreFileMetadata metadata = new StoreFileMetadata(fileName, input.length, "_na", Version.CURRENT.luceneVersion);
+        final BlobStoreIndexShardSnapshot snapshot = new BlobStoreIndexShardSnapshot(
+            snapshotId.getName(),
+            0L,
+            singletonList(new BlobStoreIndexShardSnapshot.FileInfo(fileName, metadata, new ByteSizeValue(input.length))),
+            0L,
+            0L,
+            0,
+            0L
+        );
+        final Path shardDir = randomShardPath(shardId);
+        final ShardPath shardPath = new ShardPath(false, shardDir, shardDir, shardId);
+        final Path cacheDir = Files.createDirectories(resolveSnapshotCache(shardDir).resolve(snapshotId.getUUID()));
+        final SearchableSnapshotDirectory directory = new SearchableSnapshotDirectory(
+            () -> blobContainer,
+            () -> snapshot,
+            new NoopBlobStoreCacheService(),
+            "_repo",
+            snapshotId,
+            indexId,
+            shardId,
+            Settings.builder().put(SNAPSHOT_CACHE_ENABLED_SETTING.getKey(), true).put(SNAPSHOT_PARTIAL_SETTING.getKey(), true).build(),
+            () -> 0L,
+            cacheService,
+            cacheDir,
+            shardPath,
+            threadPool,
+            frozenCacheService
+        );
+        final PlainActionFuture<Void> future = PlainActionFuture.newFuture();
+        assertThat("Failed to load snapshot", directory.loadSnapshot(createRecoveryState(true), future), is(true));
+        future.actionGet();
+        return directory;
+    }
+
+    public void testReadsAreServedFromSharedCache() throws Exception {
+        final String fileName = randomAlphaOfLength(10);
+        final byte[] input = randomByteArrayOfLength(randomIntBetween(1, 10 * REGION_SIZE));
+        final CountingBlobContainer blobContainer = new CountingBlobContainer(singleBlobContainer(fileName, input));
+
+        try (
+            CacheService cacheService = startCacheService();
+            FrozenCacheService frozenCacheService = createFrozenCacheService(16);
+            SearchableSnapshotDirectory directory = createDirectory(fileName, input, blobContainer, cacheService, frozenCacheService)
+        ) {
+            try (IndexInput indexInput = directory.openInput(fileName, newIOContext(random()))) {
+                assertThat(indexInput, instanceOf(FrozenIndexInput.class));
+                assertArrayEquals(input, randomReadAndSlice(indexInput, input.length));
+            }
+            // each region is fetched from the blob store as a whole, exactly once
+            final long numberOfRegions = TestUtils.numberOfRanges(input.length, REGION_SIZE);
+            assertThat(blobContainer.totalOpens.sum(), equalTo(numberOfRegions));
+            assertThat(blobContainer.totalBytes.sum(), equalTo((long) input.length));
+
+            try (IndexInput indexInput = directory.openInput(fileName, newIOContext(random()))) {
+                assertArrayEquals(input, randomReadAndSlice(indexInput, input.length));
+            }
+            // the second pass only reads from the shared cache
+            assertThat(blobContainer.totalOpens.sum(), equalTo(numberOfRegions));
+
+            final IndexInputStats stats = directory.getStats(fileName);
+            assertThat(stats.getSharedCacheRegionMisses(), equalTo(numberOfRegions));
+            assertThat(stats.getSharedCacheRegionHits(), greaterThan(0L));
+            assertThat(stats.getCachedBytesWritten().total(), equalTo((long) input.length));
+            assertThat(stats.getDirectBytesRead().count(), equalTo(0L));
+        } finally {
+            assertThreadPoolNotBusy(threadPool);
+        }
+    }
+
+    public void testReadAcrossRegionBoundary() throws Exception {
+        final String fileName = randomAlphaOfLength(10);
+        final byte[] input = randomByteArrayOfLength(randomIntBetween(2 * REGION_SIZE, 4 * REGION_SIZE));
+        final BlobContainer blobContainer = singleBlobContainer(fileName, input);
+
+        try (
+            CacheService cacheService = startCacheService();
+            FrozenCacheService frozenCacheService = createFrozenCacheService(16);
+            SearchableSnapshotDirectory directory = createDirectory(fileName, input, blobContainer, cacheService, frozenCacheService)
+        ) {
+            try (IndexInput indexInput = directory.openInput(fileName, IOContext.DEFAULT)) {
+                final int position = REGION_SIZE - randomIntBetween(1, 100);
+                final byte[] output = new byte[randomIntBetween(REGION_SIZE - position + 1, REGION_SIZE)];
+                indexInput.seek(position);
+                indexInput.readBytes(output, 0, output.length);
+                assertArrayEquals(Arrays.copyOfRange(input, position, position + output.length), output);
+            }
+
+            final IndexInputStats stats = directory.getStats(fileName);
+            assertThat(stats.getSharedCacheRegionMisses(), equalTo(2L));
+            assertThat(stats.getDirectBytesRead().count(), equalTo(0L));
+        } finally {
+            assertThreadPoolNotBusy(threadPool);
+        }
+    }
+
+    public void testFallsBackToBlobStoreIfRegionIsEvictedDuringRead() throws Exception {
+        final String fileName = randomAlphaOfLength(10);
+        final byte[] input = randomByteArrayOfLength(randomIntBetween(1, 4 * REGION_SIZE));
+        final AtomicBoolean evicted = new AtomicBoolean();
+
+        try (CacheService cacheService = startCacheService(); FrozenCacheService frozenCacheService = createFrozenCacheService(16)) {
+            final BlobContainer blobContainer = new FilterBlobContainer(singleBlobContainer(fileName, input)) {
+                @Override
+                public InputStream readBlob(String blobName, long position, long length) throws IOException {
+                    final String threadName = Thread.currentThread().getName();
+                    if (threadName.contains('[' + SearchableSnapshotsConstants.CACHE_FETCH_ASYNC_THREAD_POOL_NAME + ']')
+                        && evicted.compareAndSet(false, true)) {
+                        // evicts the region that is being filled, as if the shard was removed while it was being read
+                        frozenCacheService.removeFromCache(new CacheKey(snapshotId.getUUID(), indexId.getName(), shardId, fileName));
+                    }
+                    return super.readBlob(blobName, position, length);
+                }
+
+                @Override
+                protected BlobContainer wrapChild(BlobContainer child) {
+                    return child;
+                }
+            };
+
+            try (
+                SearchableSnapshotDirectory directory = createDirectory(fileName, input, blobContainer, cacheService, frozenCacheService);
+                IndexInput indexInput = directory.openInput(fileName, newIOContext(random()))
+            ) {
+                assertArrayEquals(input, randomReadAndSlice(indexInput, input.length));
+                assertTrue(evicted.get());
+                assertThat(directory.getStats(fileName).getDirectBytesRead().count(), greaterThan(0L));
+            }
+        } finally {
+            assertThreadPoolNotBusy(threadPool);
+        }
+    }
+
+    /**
+     * BlobContainer that counts the number of ranges it opens as well as the total number of bytes requested.
+     */
+    private static class CountingBlobContainer extends FilterBlobContainer {
+
+        private final LongAdder totalBytes = new LongAdder();
+        private final LongAdder totalOpens = new LongAdder();
+
+        CountingBlobContainer(BlobContainer in) {
+            super(in);
+        }
+
+        @Override
+        public InputStream readBlob(String blobName, long position, long length) throws IOException {
+            totalOpens.increment();
+            totalBytes.add(length);
+            return super.readBlob(blobName, position, length);
+        }
+
+        @Override
+        protected BlobContainer wrapChild(BlobContainer child) {
+            return new CountingBlobContainer(child);
+        }
+    }
+}
@@ -19,6 +19,7 @@ import org.elasticsearch.xpack.core.searchablesnapshots.MountSearchableSnapshotR
 import java.util.Arrays;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
 
 public class MountSearchableSnapshotRequestTests extends AbstractWireSerializingTestCase<MountSearchableSnapshotRequest> {
 
@@ -30,7 +31,8 @@ public class MountSearchableSnapshotRequestTests extends AbstractWireSerializing
             randomBoolean() ? instance.snapshotIndexName() : mutateString(instance.snapshotIndexName()),
             randomBoolean() ? instance.indexSettings() : mutateSettings(instance.indexSettings()),
             randomBoolean() ? instance.ignoreIndexSettings() : mutateStringArray(instance.ignoreIndexSettings()),
-            randomBoolean()
+            randomBoolean(),
+            randomFrom(MountSearchableSnapshotRequest.Storage.values())
         ).masterNodeTimeout(randomBoolean() ? instance.masterNodeTimeout() : mutateTimeValue(instance.masterNodeTimeout()));
     }
 
@@ -56,7 +58,7 @@ public class MountSearchableSnapshotRequestTests extends AbstractWireSerializing
 
     @Override
     protected MountSearchableSnapshotRequest mutateInstance(MountSearchableSnapshotRequest req) {
-        switch (randomInt(7)) {
+        switch (randomInt(8)) {
             case 0:
                 return new MountSearchableSnapshotRequest(
                     mutateString(req.mountedIndexName()),
@@ -65,7 +67,8 @@ public class MountSearchableSnapshotRequestTests extends AbstractWireSerializing
                     req.snapshotIndexName(),
                     req.indexSettings(),
                     req.ignoreIndexSettings(),
-                    req.waitForCompletion()
+                    req.waitForCompletion(),
+                    req.storage()
                 ).masterNodeTimeout(req.masterNodeTimeout());
             case 1:
                 return new MountSearchableSnapshotRequest(
@@ -75,7 +78,8 @@ public class MountSearchableSnapshotRequestTests extends AbstractWireSerializing
                     req.snapshotIndexName(),
                     req.indexSettings(),
                     req.ignoreIndexSettings(),
-                    req.waitForCompletion()
+                    req.waitForCompletion(),
+                    req.storage()
                 ).masterNodeTimeout(req.masterNodeTimeout());
             case 2:
                 return new MountSearchableSnapshotRequest(
@@ -85,7 +89,8 @@ public class MountSearchableSnapshotRequestTests extends AbstractWireSerializing
                     req.snapshotIndexName(),
                     req.indexSettings(),
                     req.ignoreIndexSettings(),
-                    req.waitForCompletion()
+                    req.waitForCompletion(),
+                    req.storage()
                 ).masterNodeTimeout(req.masterNodeTimeout());
             case 3:
                 return new MountSearchableSnapshotRequest(
@@ -95,7 +100,8 @@ public class MountSearchableSnapshotRequestTests extends AbstractWireSerializing
                     mutateString(req.snapshotIndexName()),
                     req.indexSettings(),
                     req.ignoreIndexSettings(),
-                    req.waitForCompletion()
+                    req.waitForCompletion(),
+                    req.storage()
                 ).masterNodeTimeout(req.masterNodeTimeout());
             case 4:
                 return new MountSearchableSnapshotRequest(
@@ -105,7 +111,8 @@ public class MountSearchableSnapshotRequestTests extends AbstractWireSerializing
                     req.snapshotIndexName(),
                     mutateSettings(req.indexSettings()),
                     req.ignoreIndexSettings(),
-                    req.waitForCompletion()
+                    req.waitForCompletion(),
+                    req.storage()
                 ).masterNodeTimeout(req.masterNodeTimeout());
             case 5:
                 return new MountSearchableSnapshotRequest(
@@ -115,7 +122,8 @@ public class MountSearchableSnapshotRequestTests extends AbstractWireSerializing
                     req.snapshotIndexName(),
                     req.indexSettings(),
                     mutateStringArray(req.ignoreIndexSettings()),
-                    req.waitForCompletion()
+                    req.waitForCompletion(),
+                    req.storage()
                 ).masterNodeTimeout(req.masterNodeTimeout());
             case 6:
                 return new MountSearchableSnapshotRequest(
@@ -125,7 +133,19 @@ public class MountSearchableSnapshotRequestTests extends AbstractWireSerializing
                     req.snapshotIndexName(),
                     req.indexSettings(),
                     req.ignoreIndexSettings(),
-                    req.waitForCompletion() == false
+                    req.waitForCompletion() == false,
+                    req.storage()
+                ).masterNodeTimeout(req.masterNodeTimeout());
+            case 7:
+                return new MountSearchableSnapshotRequest(
+                    req.mountedIndexName(),
+                    req.repositoryName(),
+                    req.snapshotName(),
+                    req.snapshotIndexName(),
+                    req.indexSettings(),
+                    req.ignoreIndexSettings(),
+                    req.waitForCompletion(),
+                    randomValueOtherThan(req.storage(), () -> randomFrom(MountSearchableSnapshotRequest.Storage.values()))
                 ).masterNodeTimeout(req.masterNodeTimeout());
 
             default:
@@ -136,7 +156,8 @@ public class MountSearchableSnapshotRequestTests extends AbstractWireSerializing
                     req.snapshotIndexName(),
                     req.indexSettings(),
                     req.ignoreIndexSettings(),
-                    req.waitForCompletion()
+                    req.waitForCompletion(),
+                    req.storage()
                 ).masterNodeTimeout(mutateTimeValue(req.masterNodeTimeout()));
         }
     }
@@ -186,4 +207,17 @@ public class MountSearchableSnapshotRequestTests extends AbstractWireSerializing
         ).validate();
         assertThat(validationException.getMessage(), containsString(IndexMetadata.SETTING_DATA_PATH));
     }
+
+    public void testStorageFromString() {
+        assertThat(MountSearchableSnapshotRequest.Storage.fromString("full_copy"), equalTo(MountSearchableSnapshotRequest.Storage.FULL_COPY));
+        assertThat(
+            MountSearchableSnapshotRequest.Storage.fromString("shared_cache"),
+            equalTo(MountSearchableSnapshotRequest.Storage.SHARED_CACHE)
+        );
+        final IllegalArgumentException e = expectThrows(
+            IllegalArgumentException.class,
+            () -> MountSearchableSnapshotRequest.Storage.fromString("unknown")
+        );
+        assertThat(e.getMessage(), containsString("unknown storage type [unknown]"));
+    }
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.searchablesnapshots.cache;
+
+import org.elasticsearch.cluster.coordination.DeterministicTaskQueue;
+import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.store.IndexInputStats;
+import org.elasticsearch.index.store.cache.CacheKey;
+import org.elasticsearch.node.Node;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xpack.searchablesnapshots.cache.FrozenCacheService.CacheFileRegion;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class FrozenCacheServiceTests extends ESTestCase {
+
+    private static final long FILE_LENGTH = 1L << 20;
+
+    private final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue(
+        Settings.builder().put(Node.NODE_NAME_SETTING.getKey(), "node").build(),
+        random()
+    );
+
+    private FrozenCacheService createService(String cacheSize, int maxFreq) {
+        return createService(createTempDir(), cacheSize, maxFreq);
+    }
+
+    private FrozenCacheService createService(Path dataPath, String cacheSize, int maxFreq) {
+        final Settings settings = Settings.builder()
+            .put(FrozenCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), cacheSize)
+            .put(FrozenCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), "4kb")
+            .put(FrozenCacheService.SHARED_CACHE_MAX_FREQ_SETTING.getKey(), maxFreq)
+            .put(FrozenCacheService.SHARED_CACHE_MIN_TIME_DELTA_SETTING.getKey(), "0s")
+            .build();
+        return new FrozenCacheService(dataPath, settings, taskQueue.getThreadPool());
+    }
+
+    private static CacheKey randomCacheKey() {
+        return new CacheKey(
+            UUIDs.randomBase64UUID(random()),
+            randomAlphaOfLength(5),
+            new ShardId(randomAlphaOfLength(5), UUIDs.randomBase64UUID(random()), randomIntBetween(0, 5)),
+            randomAlphaOfLength(5)
+        );
+    }
+
+    public void testDisabledByDefault() {
+        final FrozenCacheService service = new FrozenCacheService(createTempDir(), Settings.EMPTY, taskQueue.getThreadPool());
+        try {
+            assertFalse(service.isEnabled());
+            final IndexInputStats stats = new IndexInputStats(FILE_LENGTH, System::nanoTime);
+            assertThat(service.get(randomCacheKey(), FILE_LENGTH, 0, stats), nullValue());
+            assertThat(stats.getSharedCacheRegionMisses(), equalTo(0L));
+        } finally {
+            service.close();
+        }
+    }
+
+    public void testPreallocatesSharedCacheFile() throws Exception {
+        final Path dataPath = createTempDir();
+        final FrozenCacheService service = createService(dataPath, "16kb", 10);
+        try {
+            assertTrue(service.isEnabled());
+            assertThat(Files.size(dataPath.resolve(FrozenCacheService.CACHE_FILE_NAME)), equalTo(16384L));
+            assertThat(service.freeRegionCount(), equalTo(4));
+        } finally {
+            service.close();
+        }
+    }
+
+    public void testEvictsLeastFrequentlyUsedRegion() {
+        final FrozenCacheService service = createService("8kb", 10);
+        try {
+            final IndexInputStats stats = new IndexInputStats(FILE_LENGTH, System::nanoTime);
+            final CacheKey cacheKey1 = randomCacheKey();
+            final CacheKey cacheKey2 = randomCacheKey();
+            final CacheKey cacheKey3 = randomCacheKey();
+
+            final CacheFileRegion region1 = service.get(cacheKey1, FILE_LENGTH, 0, stats);
+            assertThat(region1, notNullValue());
+            region1.decRef();
+            final CacheFileRegion region2 = service.get(cacheKey2, FILE_LENGTH, 0, stats);
+            assertThat(region2, notNullValue());
+            region2.decRef();
+            assertThat(service.freeRegionCount(), equalTo(0));
+
+            // accessing the first region again increases its frequency
+            final CacheFileRegion region1Again = service.get(cacheKey1, FILE_LENGTH, 0, stats);
+            assertThat(region1Again, sameInstance(region1));
+            region1Again.decRef();
+            assertThat(service.getFreq(cacheKey1, 0), equalTo(1));
+            assertThat(service.getFreq(cacheKey2, 0), equalTo(0));
+
+            final CacheFileRegion region3 = service.get(cacheKey3, FILE_LENGTH, 0, stats);
+            assertThat(region3, notNullValue());
+            region3.decRef();
+            assertThat(service.getFreq(cacheKey1, 0), equalTo(1));
+            assertThat(service.getFreq(cacheKey2, 0), equalTo(-1));
+            assertThat(service.getFreq(cacheKey3, 0), equalTo(0));
+
+            assertThat(stats.getSharedCacheRegionHits(), equalTo(1L));
+            assertThat(stats.getSharedCacheRegionMisses(), equalTo(3L));
+            assertThat(stats.getSharedCacheRegionEvictions(), equalTo(1L));
+        } finally {
+            service.close();
+        }
+    }
+
+    public void testRegionsInUseAreNotEvicted() {
+        final FrozenCacheService service = createService("8kb", 10);
+        try {
+            final IndexInputStats stats = new IndexInputStats(FILE_LENGTH, System::nanoTime);
+            final CacheKey cacheKey = randomCacheKey();
+
+            final CacheFileRegion region0 = service.get(cacheKey, FILE_LENGTH, 0, stats);
+            assertThat(region0, notNullValue());
+            final CacheFileRegion region1 = service.get(cacheKey, FILE_LENGTH, 1, stats);
+            assertThat(region1, notNullValue());
+            region1.decRef();
+            // the region in use is skipped even though it is the least recently used one
+            service.get(cacheKey, FILE_LENGTH, 1, stats).decRef();
+            service.get(cacheKey, FILE_LENGTH, 1, stats).decRef();
+            assertThat(service.getFreq(cacheKey, 0), equalTo(0));
+            assertThat(service.getFreq(cacheKey, 1), equalTo(2));
+
+            final CacheFileRegion region2 = service.get(cacheKey, FILE_LENGTH, 2, stats);
+            assertThat(region2, notNullValue());
+            assertThat(service.getFreq(cacheKey, 0), equalTo(0));
+            assertThat(service.getFreq(cacheKey, 1), equalTo(-1));
+            assertThat(stats.getSharedCacheRegionEvictions(), equalTo(1L));
+
+            // all the regions are in use, so the caller has to read from the blob store
+            assertThat(service.get(cacheKey, FILE_LENGTH, 3, stats), nullValue());
+            assertThat(stats.getSharedCacheRegionEvictions(), equalTo(1L));
+
+            region0.decRef();
+            region2.decRef();
+            assertThat(service.freeRegionCount(), equalTo(0));
+
+            final CacheFileRegion region3 = service.get(cacheKey, FILE_LENGTH, 3, stats);
+            assertThat(region3, notNullValue());
+            region3.decRef();
+            assertThat(service.getFreq(cacheKey, 0), equalTo(-1));
+            assertThat(stats.getSharedCacheRegionEvictions(), equalTo(2L));
+        } finally {
+            service.close();
+        }
+    }
+
+    public void testDecay() {
+        final FrozenCacheService service = createService("8kb", 3);
+        try {
+            final IndexInputStats stats = new IndexInputStats(FILE_LENGTH, System::nanoTime);
+            final CacheKey cacheKey = randomCacheKey();
+            for (int i = 0; i < 5; i++) {
+                service.get(cacheKey, FILE_LENGTH, 0, stats).decRef();
+            }
+            // frequencies are capped
+            assertThat(service.getFreq(cacheKey, 0), equalTo(2));
+
+            service.computeDecay();
+            assertThat(service.getFreq(cacheKey, 0), equalTo(1));
+
+            // the decay task runs periodically
+            taskQueue.advanceTime();
+            taskQueue.runAllRunnableTasks();
+            assertThat(service.getFreq(cacheKey, 0), equalTo(0));
+        } finally {
+            service.close();
+        }
+    }
+
+    public void testRemoveFromCache() {
+        final FrozenCacheService service = createService("8kb", 10);
+        try {
+            final IndexInputStats stats = new IndexInputStats(FILE_LENGTH, System::nanoTime);
+            final CacheKey cacheKey = randomCacheKey();
+            service.get(cacheKey, FILE_LENGTH, 0, stats).decRef();
+            service.get(cacheKey, FILE_LENGTH, 1, stats).decRef();
+            assertThat(service.freeRegionCount(), equalTo(0));
+
+            if (randomBoolean()) {
+                service.removeFromCache(cacheKey);
+            } else {
+                service.markShardAsEvictedInCache(cacheKey.getSnapshotUUID(), cacheKey.getSnapshotIndexName(), cacheKey.getShardId());
+            }
+            assertThat(service.freeRegionCount(), equalTo(2));
+            assertThat(service.getFreq(cacheKey, 0), equalTo(-1));
+            // explicit removals are not counted as evictions
+            assertThat(stats.getSharedCacheRegionEvictions(), equalTo(0L));
+        } finally {
+            service.close();
+        }
+    }
+}
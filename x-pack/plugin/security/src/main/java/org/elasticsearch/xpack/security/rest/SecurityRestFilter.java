@@ -132,6 +132,11 @@ public class SecurityRestFilter implements RestHandler {
         return restHandler.allowsUnsafeBuffers();
     }
 
+    @Override
+    public boolean shouldPauseReading() {
+        return restHandler.shouldPauseReading();
+    }
+
     @Override
     public List<Route> routes() {
         return restHandler.routes();
@@ -68,6 +68,16 @@ public abstract class AbstractRepository {
     }
 
     private RepositoryData getRepositoryData(long indexFileGeneration) throws IOException {
+        final Tuple<RepositoryData, RepositoryData.Delta> indexBlob = readIndexBlob(indexFileGeneration);
+        if (indexBlob.v1() != null) {
+            return indexBlob.v1();
+        }
+        // the index-N blob only holds the changes to an earlier generation
+        final RepositoryData.Delta delta = indexBlob.v2();
+        return getRepositoryData(delta.baseGeneration()).withDelta(delta, indexFileGeneration);
+    }
+
+    private Tuple<RepositoryData, RepositoryData.Delta> readIndexBlob(long indexFileGeneration) throws IOException {
         final String snapshotsIndexBlobName = fullPath(BlobStoreRepository.INDEX_FILE_PREFIX + indexFileGeneration);
 
         try (InputStream blob = getBlobInputStream(snapshotsIndexBlobName)) {
@@ -76,7 +86,7 @@ public abstract class AbstractRepository {
             // EMPTY is safe here because RepositoryData#fromXContent calls namedObject
             try (XContentParser parser = XContentHelper.createParser(NamedXContentRegistry.EMPTY,
                     LoggingDeprecationHandler.INSTANCE, out.bytes(), XContentType.JSON)) {
-                return RepositoryData.snapshotsFromXContent(parser, indexFileGeneration, true);
+                return RepositoryData.indexBlobFromXContent(parser, indexFileGeneration, true);
             }
         } catch (IOException e) {
             terminal.println("Failed to read " + snapshotsIndexBlobName + " file");